@@ -0,0 +1,4 @@
+#!/bin/sh
+# อนุญาตให้ postgres-replica ต่อ replication เข้ามา (รันครั้งเดียวตอน init volume ใหม่)
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,119 @@
+package com.example.doctoralia.benchmark;
+
+import com.example.doctoralia.config.ConnectionPoolMetrics;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ไล่ขนาด pool กับ load คงที่ (32 thread ต่อ Postgres ในเครื่อง) เพื่อหา pool size ที่พอดี
+ *
+ * docker compose up -d postgres แล้ว
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ConnectionPool"
+ * เปลี่ยน DB ผ่าน env BENCH_DB_URL / BENCH_DB_USER / BENCH_DB_PASSWORD (env ส่งต่อไปยัง JVM ที่ fork)
+ *
+ * ดู ops/s คู่กับ acquire p99 / timeout ที่พิมพ์ตอนจบแต่ละรอบ — pool ที่ใหญ่เกินมักได้ ops/s
+ * เท่าเดิมแต่ Postgres ทำงานหนักขึ้น, pool ที่เล็กเกินจะเห็น acquire p99 พุ่ง
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(32)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+    private static final String QUERY =
+            "SELECT COUNT(*) FROM appointments WHERE doctor_id = ? AND status <> 'CANCELLED'";
+
+    @Param({"2", "5", "10", "20"})
+    private int poolSize;
+
+    // งานที่ไม่ใช้ DB ต่อ request (serialize, mapping ฯลฯ) ทำหลังคืน connection แล้ว
+    @Param({"20000"})
+    private long cpuTokensPerRequest;
+
+    private HikariDataSource dataSource;
+    private ConnectionPoolMetrics metrics;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        metrics = new ConnectionPoolMetrics();
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("bench-" + poolSize);
+        config.setJdbcUrl(env("BENCH_DB_URL", "jdbc:postgresql://localhost:5435/doctorbook"));
+        config.setUsername(env("BENCH_DB_USER", "admin"));
+        config.setPassword(env("BENCH_DB_PASSWORD", "password"));
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setConnectionTimeout(30000);
+        config.setMetricsTrackerFactory(metrics);
+        dataSource = new HikariDataSource(config);
+
+        // เปิด connection ให้ครบก่อนเริ่มวัด
+        try (Connection connection = dataSource.getConnection()) {
+            connection.isValid(1);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetMetrics() {
+        metrics.reset();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.out.printf("%n  pool=%d acquire p50=%dµs p99=%dµs timeouts=%d%n",
+                poolSize,
+                metrics.acquirePercentileMicros(50),
+                metrics.acquirePercentileMicros(99),
+                metrics.getTimeouts());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public void request(Blackhole blackhole) throws SQLException {
+        long doctorId = ThreadLocalRandom.current().nextLong(1, 200);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(QUERY)) {
+            statement.setLong(1, doctorId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                blackhole.consume(resultSet.getLong(1));
+            }
+        }
+        Blackhole.consumeCPU(cpuTokensPerRequest);
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isEmpty() ? value : defaultValue;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.doctoralia.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load ผ่าน HTTP จริงบน endpoint ค้นหาหมอและจองนัด เพื่อเทียบ platform threads กับ virtual threads
+ *
+ * รันแอปสองรอบแล้ววัดรอบละครั้ง (ต้องใช้ Java 21 ตอนรันแอปถ้าจะเปิด virtual threads):
+ *   VIRTUAL_THREADS=false ./mvnw spring-boot:run
+ *   VIRTUAL_THREADS=true  ./mvnw spring-boot:run      (เปิด concurrency limit ตามขนาด pool ไปด้วย)
+ * แล้ว mvn -Pjmh test-compile exec:exec -Djmh.args="EndpointLoad"
+ *
+ * search  = GET /api/doctors/search?name=... (read-only, public)
+ * booking = POST /api/appointments ด้วย patient ที่สมัครใหม่ทุก trial, slot ไม่ซ้ำใน ปี 2990+
+ *
+ * ดู ops/ms (x1000 = req/s) คู่กับ p99 ของ SampleTime และจำนวน 503 ที่พิมพ์ตอนจบแต่ละรอบ —
+ * 503 คือ ConcurrencyLimitFilter ปฏิเสธ ไม่ใช่ความผิดพลาดของ benchmark
+ * booking ทิ้งนัด PENDING ไว้ใน DB: ใช้กับ DB ใน docker เท่านั้น
+ * env: BENCH_BASE_URL (http://localhost:8080), BENCH_DB_URL / BENCH_DB_USER / BENCH_DB_PASSWORD
+ *
+ * ผลวัดล่าสุด (jar เดียวกันรันบน OpenJDK 21.0.1, PostgreSQL 16 local, pool 5, หมอ active 51 คน,
+ * -wi 1 -w 5 -i 3 -r 10, 64 threads; แอป DB และตัวยิง load อยู่บนเครื่อง 1 CPU เดียวกัน):
+ *
+ *   endpoint  threads            mean ms   p99 ms   p99.9 ms   503
+ *   search    platform             233.2    735.2      943.3     0
+ *   search    virtual + limit 5    156.8    242.0      282.9     0
+ *   booking   platform             601.5   1652.1     2736.9     0
+ *   booking   virtual + limit 5    383.7    542.1      580.9     0
+ *
+ * ops/ms ของ Throughput แกว่งเกินกว่าจะเทียบได้ (warmup 5s สั้นไป) ใช้ค่าจาก SampleTime
+ * รอบ virtual เปิด ConcurrencyLimitFilter ไปด้วย ผลต่างของ tail จึงมาจากทั้งสองอย่างรวมกัน:
+ * request รอ permit ในแอปแทนที่จะไปกองแย่ง CPU/connection พร้อมกันทั้ง 64 ตัว
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 15)
+@Threads(64)
+@Fork(1)
+public class EndpointLoadBenchmark {
+
+    private static final String PASSWORD = "bench-password";
+    private static final LocalDateTime SLOT_BASE = LocalDateTime.of(2990, 1, 1, 0, 0);
+
+    @Param({"search", "booking"})
+    private String endpoint;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder busy = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    private HttpClient client;
+    private String baseUrl;
+    private String token;
+    private List<Long> doctorIds;
+    private List<String> searchTerms;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        baseUrl = env("BENCH_BASE_URL", "http://localhost:8080");
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        doctorIds = new ArrayList<>();
+        searchTerms = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(
+                env("BENCH_DB_URL", "jdbc:postgresql://localhost:5435/doctorbook"),
+                env("BENCH_DB_USER", "admin"),
+                env("BENCH_DB_PASSWORD", "password"));
+             Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT d.id, u.first_name FROM doctors d JOIN users u ON u.id = d.user_id " +
+                    "WHERE d.is_active ORDER BY d.id LIMIT 50")) {
+                while (resultSet.next()) {
+                    doctorIds.add(resultSet.getLong(1));
+                    String firstName = resultSet.getString(2);
+                    searchTerms.add(firstName.substring(0, Math.min(3, firstName.length())));
+                }
+            }
+            // ต่อจาก slot ของรอบก่อน ไม่งั้นชน unique (doctor_id, appointment_datetime)
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT MAX(appointment_datetime) FROM appointments WHERE appointment_datetime >= '2990-01-01'")) {
+                resultSet.next();
+                Timestamp last = resultSet.getTimestamp(1);
+                if (last != null) {
+                    nextSlot.set(Duration.between(SLOT_BASE, last.toLocalDateTime()).toMinutes() / 30 + 1);
+                }
+            }
+        }
+        if (doctorIds.isEmpty()) {
+            throw new IllegalStateException("Benchmark needs at least one active doctor in the database");
+        }
+
+        if ("booking".equals(endpoint)) {
+            String email = "bench-" + System.currentTimeMillis() + "@example.com";
+            post("/api/auth/register", "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD +
+                    "\",\"firstName\":\"Bench\",\"lastName\":\"Load\"}", null);
+            HttpResponse<String> login = post("/api/auth/login",
+                    "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}", null);
+            JsonNode body = objectMapper.readTree(login.body());
+            if (login.statusCode() != 200 || !body.hasNonNull("token")) {
+                throw new IllegalStateException("Login failed: " + login.statusCode() + " " + login.body());
+            }
+            token = body.get("token").asText();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.out.printf("%n  %s: 2xx=%d 503=%d other=%d%n", endpoint, ok.sumThenReset(),
+                busy.sumThenReset(), failed.sumThenReset());
+    }
+
+    @Benchmark
+    public int request() throws IOException, InterruptedException {
+        HttpResponse<String> response = switch (endpoint) {
+            case "search" -> search();
+            case "booking" -> book();
+            default -> throw new IllegalArgumentException("Unknown endpoint: " + endpoint);
+        };
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            ok.increment();
+        } else if (status == 503) {
+            busy.increment();
+        } else {
+            failed.increment();
+        }
+        return status;
+    }
+
+    private HttpResponse<String> search() throws IOException, InterruptedException {
+        String term = searchTerms.get(ThreadLocalRandom.current().nextInt(searchTerms.size()));
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/api/doctors/search?name=" + URLEncoder.encode(term, StandardCharsets.UTF_8)))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> book() throws IOException, InterruptedException {
+        long slot = nextSlot.getAndIncrement();
+        long doctorId = doctorIds.get((int) (slot % doctorIds.size()));
+        LocalDateTime at = SLOT_BASE.plusMinutes(30 * slot);
+        return post("/api/appointments", "{\"doctorId\":" + doctorId + ",\"appointmentDateTime\":\"" + at +
+                "\",\"durationMinutes\":30,\"notes\":\"load test\"}", token);
+    }
+
+    private HttpResponse<String> post(String path, String json, String bearer) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (bearer != null) {
+            request.header("Authorization", "Bearer " + bearer);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isEmpty() ? value : defaultValue;
+    }
+}
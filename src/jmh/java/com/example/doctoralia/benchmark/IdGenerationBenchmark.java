@@ -0,0 +1,268 @@
+package com.example.doctoralia.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * เทียบ throughput การ INSERT แบบที่ Hibernate ทำ ก่อน/หลังย้ายจาก IDENTITY ไป pooled sequence (V18)
+ *
+ * identity      = INSERT ทีละแถวแล้วรอ id กลับมา (Hibernate ทำ batch ไม่ได้)
+ * pooled-batch  = nextval ครั้งเดียวต่อ 50 แถว แล้ว addBatch/executeBatch ทีละ 50
+ * reWriteBatchedInserts = true ให้ pgjdbc รวม batch เป็น INSERT หลายแถวใน statement เดียว
+ *
+ * workload: seeding (users), schedule-import (availabilities), booking (appointments + patient_booking_info)
+ * ทุกรอบ rollback จึงไม่ทิ้งข้อมูลไว้ (sequence ยังเดินต่อ) — ต้องมีหมออย่างน้อย 1 คนใน DB (seed ของ V10)
+ *
+ * docker compose up -d postgres แล้ว
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="IdGeneration"
+ * DB เปลี่ยนผ่าน env BENCH_DB_URL / BENCH_DB_USER / BENCH_DB_PASSWORD; ผลเป็นแถวต่อวินาที
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    private static final int ROWS = 500;
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"seeding", "schedule-import", "booking"})
+    private String workload;
+
+    @Param({"identity", "pooled-batch"})
+    private String mode;
+
+    @Param({"false", "true"})
+    private boolean reWriteBatchedInserts;
+
+    private Connection connection;
+    private long doctorId;
+    private long patientId;
+    private long run;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", env("BENCH_DB_USER", "admin"));
+        properties.setProperty("password", env("BENCH_DB_PASSWORD", "password"));
+        properties.setProperty("reWriteBatchedInserts", String.valueOf(reWriteBatchedInserts));
+        connection = DriverManager.getConnection(
+                env("BENCH_DB_URL", "jdbc:postgresql://localhost:5435/doctorbook"), properties);
+        connection.setAutoCommit(false);
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT d.id, d.user_id FROM doctors d ORDER BY d.id LIMIT 1")) {
+            if (!resultSet.next()) {
+                throw new IllegalStateException("Benchmark needs at least one doctor in the database");
+            }
+            doctorId = resultSet.getLong(1);
+            patientId = resultSet.getLong(2);
+        }
+        // ช่วง id ของ pooled-batch จะซ้อนกันถ้า sequence ยังเพิ่มทีละ 1 (ก่อน V18)
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT increment_by FROM pg_sequences WHERE sequencename = 'users_id_seq'")) {
+            if (!resultSet.next() || resultSet.getLong(1) != BATCH_SIZE) {
+                throw new IllegalStateException("Run the app once so Flyway applies V18 (INCREMENT BY 50)");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.rollback();
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insert() throws SQLException {
+        run++;
+        try {
+            switch (workload) {
+                case "seeding" -> insertUsers();
+                case "schedule-import" -> insertAvailabilities();
+                case "booking" -> insertBookings();
+                default -> throw new IllegalArgumentException("Unknown workload: " + workload);
+            }
+        } finally {
+            connection.rollback();
+        }
+    }
+
+    private void insertUsers() throws SQLException {
+        String sql = "INSERT INTO users (%semail, password, first_name, last_name, role) VALUES (%s?, ?, ?, ?, 'PATIENT')";
+        try (Inserter users = new Inserter("users", sql)) {
+            for (int i = 0; i < ROWS; i++) {
+                PreparedStatement statement = users.next();
+                int p = users.firstParameter();
+                statement.setString(p, "bench-" + run + "-" + i + "@example.com");
+                statement.setString(p + 1, "$2a$10$abcdefghijklmnopqrstuuN5mQ0ZxYz0nqU7dQ0pJH4q7Jq9a5e1e");
+                statement.setString(p + 2, "Bench");
+                statement.setString(p + 3, "Patient " + i);
+                users.add();
+            }
+        }
+    }
+
+    private void insertAvailabilities() throws SQLException {
+        // is_active = false: EXCLUDE constraint ตรวจเวลาซ้อนเฉพาะแถว active
+        String sql = "INSERT INTO availabilities (%sdoctor_id, day_of_week, start_time, end_time, is_active) " +
+                "VALUES (%s?, ?, ?, ?, false)";
+        try (Inserter availabilities = new Inserter("availabilities", sql)) {
+            for (int i = 0; i < ROWS; i++) {
+                PreparedStatement statement = availabilities.next();
+                int p = availabilities.firstParameter();
+                LocalTime start = LocalTime.of(8, 0).plusMinutes((i % 16) * 30L);
+                statement.setLong(p, doctorId);
+                statement.setInt(p + 1, i % 7 + 1);
+                statement.setTime(p + 2, Time.valueOf(start));
+                statement.setTime(p + 3, Time.valueOf(start.plusMinutes(30)));
+                availabilities.add();
+            }
+        }
+    }
+
+    private void insertBookings() throws SQLException {
+        String appointmentSql = "INSERT INTO appointments (%sdoctor_id, patient_id, appointment_datetime, duration_minutes, status) " +
+                "VALUES (%s?, ?, ?, 30, 'PENDING')";
+        String infoSql = "INSERT INTO patient_booking_info (%sappointment_id, patient_first_name, patient_last_name, " +
+                "patient_date_of_birth, symptoms, booking_type) VALUES (%s?, ?, ?, ?, ?, 'ONLINE')";
+        // ไม่ชนกับ unique (doctor_id, appointment_datetime) ของนัดจริง
+        LocalDateTime base = LocalDateTime.of(2999, 1, 1, 0, 0).plusDays(run % 10000);
+
+        // 1 booking = 2 แถว นับ ROWS แถวรวม
+        try (Inserter appointments = new Inserter("appointments", appointmentSql);
+             Inserter infos = new Inserter("patient_booking_info", infoSql)) {
+            for (int i = 0; i < ROWS / 2; i++) {
+                PreparedStatement appointment = appointments.next();
+                int p = appointments.firstParameter();
+                appointment.setLong(p, doctorId);
+                appointment.setLong(p + 1, patientId);
+                appointment.setTimestamp(p + 2, Timestamp.valueOf(base.plusMinutes(i)));
+                long appointmentId = appointments.add();
+
+                PreparedStatement info = infos.next();
+                int q = infos.firstParameter();
+                info.setLong(q, appointmentId);
+                info.setString(q + 1, "Bench");
+                info.setString(q + 2, "Patient " + i);
+                info.setDate(q + 3, Date.valueOf(LocalDate.of(1990, 1, 1)));
+                info.setString(q + 4, "Routine check-up");
+                infos.add();
+            }
+            // flush ของ Hibernate เรียง INSERT ตามตาราง (order_inserts): appointments ก่อน
+            appointments.close();
+        }
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isEmpty() ? value : defaultValue;
+    }
+
+    /**
+     * INSERT หนึ่งตาราง ตามแบบที่ Hibernate ทำในแต่ละ mode
+     * identity: executeUpdate + RETURNING id ทันที, pooled-batch: id จากช่วงของ nextval แล้ว batch
+     */
+    private class Inserter implements AutoCloseable {
+        private final boolean pooled = "pooled-batch".equals(mode);
+        private final String sequence;
+        private final PreparedStatement statement;
+        private long nextId;
+        private long hiId;
+        private int pending;
+        private boolean closed;
+
+        Inserter(String table, String sql) throws SQLException {
+            this.sequence = table + "_id_seq";
+            if (pooled) {
+                statement = connection.prepareStatement(String.format(sql, "id, ", "?, "));
+            } else {
+                statement = connection.prepareStatement(String.format(sql, "", ""), new String[]{"id"});
+            }
+        }
+
+        PreparedStatement next() throws SQLException {
+            if (pooled) {
+                statement.setLong(1, allocateId());
+            }
+            return statement;
+        }
+
+        int firstParameter() {
+            return pooled ? 2 : 1;
+        }
+
+        long add() throws SQLException {
+            if (pooled) {
+                long id = nextId - 1;
+                statement.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+                return id;
+            }
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                keys.next();
+                return keys.getLong(1);
+            }
+        }
+
+        // pooled optimizer: nextval = ปลายบนของช่วง 50 id
+        private long allocateId() throws SQLException {
+            if (nextId == 0 || nextId > hiId) {
+                try (Statement query = connection.createStatement();
+                     ResultSet resultSet = query.executeQuery("SELECT nextval('" + sequence + "')")) {
+                    resultSet.next();
+                    hiId = resultSet.getLong(1);
+                    nextId = hiId - BATCH_SIZE + 1;
+                }
+            }
+            return nextId++;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (pooled && pending > 0) {
+                statement.executeBatch();
+            }
+            statement.close();
+        }
+    }
+}
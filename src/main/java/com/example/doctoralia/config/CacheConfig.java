@@ -0,0 +1,28 @@
+package com.example.doctoralia.config;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache ในหน่วยความจำของผลลัพธ์ที่อ่านบ่อยแต่เปลี่ยนน้อย
+ * ล้างโดย SpecialtyCountCacheEvictor หลัง commit เมื่อหมอ/แผนกเปลี่ยน
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // แผนกพร้อมจำนวนหมอ active (SpecialtyService.getSpecialtiesWithDoctorCount)
+    public static final String SPECIALTY_DOCTOR_COUNTS = "specialtyDoctorCounts";
+
+    // จำนวนหมอ/แผนกที่มีหมอ (DoctorService.getDoctorStats)
+    public static final String DOCTOR_STATS = "doctorStats";
+
+    @Bean
+    public CacheManager cacheManager() {
+        // ระบุชื่อ cache ไว้ล่วงหน้า - ชื่อที่ไม่รู้จักจะไม่ถูกสร้างขึ้นเอง
+        return new ConcurrentMapCacheManager(SPECIALTY_DOCTOR_COUNTS, DOCTOR_STATS);
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.doctoralia.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * จำกัดจำนวน request ที่ทำงานพร้อมกันด้วย Semaphore ขนาดเท่า connection pool ที่ใช้ได้อยู่
+ *
+ * เมื่อเปิด virtual threads (spring.threads.virtual.enabled) Tomcat ไม่มี thread pool 200 ตัวคอยกั้นแล้ว
+ * ทุก request ได้ thread ของตัวเองแล้วไปรอ connection ใน Hikari จน connection-timeout (30s) —
+ * ที่นี่ให้รอ permit สั้นๆ แทน แล้วตอบ 503 ถ้ายังเต็ม แทนที่จะกองคิวไว้ที่ pool
+ * /api/health กับ /api/ready ไม่นับ (ไม่ใช้ DB และ health check ต้องตอบได้เสมอ)
+ *
+ * เพดาน (ถ้าไม่ได้ตั้ง max-in-flight) = pool ของ primary + pool ของ replica ที่อยู่ใน rotation ตอนนี้
+ * read-only transaction ไปที่ replica จึงนับ connection ฝั่งนั้นด้วย; replica หลุด rotation เมื่อไหร่
+ * เพดานหดกลับเหลือ primary เพราะ read ทั้งหมดย้อนมาที่ primary — request ที่กำลังทำงานอยู่ไม่ถูกตัด
+ * แค่ permit ที่คืนมาจะไม่ถูกแจกต่อจนกว่าจะลงมาต่ำกว่าเพดานใหม่
+ * write ใช้ได้แค่ primary: ช่วงที่ write ล้วนเกินขนาด pool ของ primary ส่วนเกินจะไปรอใน Hikari แทน
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    @Value("${app.concurrency.enabled:false}")
+    private boolean enabled;
+
+    // 0 = maximum-pool-size ของ primary + replica ที่ healthy (ปรับตามสถานะ replica)
+    @Value("${app.concurrency.max-in-flight:0}")
+    private int maxInFlight;
+
+    @Value("${app.concurrency.acquire-timeout-ms:5000}")
+    private long acquireTimeoutMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    private final ResizableSemaphore permits = new ResizableSemaphore();
+    private volatile int limit;
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            logger.warn("spring.threads.virtual.enabled=true is ignored on Java {} (needs 21+), requests run on platform threads",
+                    Runtime.version().feature());
+        }
+        resize(currentCapacity());
+        if (enabled) {
+            logger.info("Concurrency limit: {} requests in flight, wait up to {}ms (virtual threads: {})",
+                    limit, acquireTimeoutMs, virtualThreads);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return path.equals("/api/health") || path.equals("/api/ready");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        int capacity = currentCapacity();
+        if (capacity != limit) {
+            resize(capacity);
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitNanos.add(System.nanoTime() - start);
+
+        if (!acquired) {
+            rejected.increment();
+            logger.warn("{} {} rejected: {} requests already in flight", request.getMethod(), request.getRequestURI(), limit);
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Error: Server is busy, please retry\"}");
+            return;
+        }
+
+        admitted.increment();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // StreamingResponseBody (export) เขียนต่อบน task executor หลังจากนี้ — ไม่นับรวม
+            permits.release();
+        }
+    }
+
+    // replica เริ่มต้นแบบยังไม่ healthy จนรอบตรวจแรกผ่าน เพดานตอน start จึงเท่า primary
+    private int currentCapacity() {
+        if (maxInFlight > 0) {
+            return maxInFlight;
+        }
+        return primaryDataSource.getMaximumPoolSize() + replicaRoutingDataSource.healthyReplicaCapacity();
+    }
+
+    private synchronized void resize(int capacity) {
+        int previous = limit;
+        if (capacity == previous) {
+            return;
+        }
+        if (capacity > previous) {
+            permits.release(capacity - previous);
+        } else {
+            permits.shrink(previous - capacity);
+        }
+        limit = capacity;
+        if (enabled && previous > 0) {
+            logger.info("Concurrency limit changed from {} to {} requests in flight", previous, capacity);
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        long admittedCount = admitted.sum();
+        long rejectedCount = rejected.sum();
+        long total = admittedCount + rejectedCount;
+        result.put("enabled", enabled);
+        result.put("virtualThreads", virtualThreads && Runtime.version().feature() >= 21);
+        int currentLimit = limit;
+        result.put("limit", currentLimit);
+        result.put("inFlight", Math.max(0, currentLimit - permits.availablePermits()));
+        result.put("waiting", permits.getQueueLength());
+        result.put("admitted", admittedCount);
+        result.put("rejected", rejectedCount);
+        result.put("avgWaitMicros", total == 0 ? 0 : waitNanos.sum() / total / 1000);
+        return result;
+    }
+
+    public void reset() {
+        admitted.reset();
+        rejected.reset();
+        waitNanos.reset();
+    }
+
+    // Semaphore ลด permit ได้โดยไม่ต้องรอ (reducePermits เป็น protected)
+    private static class ResizableSemaphore extends Semaphore {
+
+        private static final long serialVersionUID = 1L;
+
+        ResizableSemaphore() {
+            super(0, true);
+        }
+
+        void shrink(int reduction) {
+            reducePermits(reduction);
+        }
+    }
+}
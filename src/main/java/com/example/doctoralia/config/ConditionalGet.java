@@ -0,0 +1,29 @@
+package com.example.doctoralia.config;
+
+import com.example.doctoralia.service.ResourceVersions;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * GET endpoint ที่ตอบ 304 ได้เมื่อ If-None-Match ตรงกับเวอร์ชันของข้อมูลที่ใช้
+ * (ConditionalGetInterceptor ตรวจก่อนเข้า controller จึงไม่มีการ query หรือ serialize)
+ *
+ * ระบุทุกกลุ่มข้อมูลที่ response ขึ้นอยู่กับ - ลืมกลุ่มไหนไป client จะได้ข้อมูลเก่าของกลุ่มนั้น
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalGet {
+
+    ResourceVersions.Family[] value();
+
+    // Cache-Control max-age; 0 = ต้องถามใหม่ทุกครั้ง (no-cache)
+    long maxAgeSeconds() default 0;
+
+    // request param ที่ถ้าเป็น true response มีข้อมูลที่ไม่ใช่ public (เช่น includeInactive) - ตอบ Cache-Control: private
+    String[] privateParams() default {};
+}
@@ -0,0 +1,97 @@
+package com.example.doctoralia.config;
+
+import com.example.doctoralia.service.ResourceVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ตอบ If-None-Match ของ method ที่มี @ConditionalGet ด้วย 304 ก่อนเข้า controller
+ * ไม่ตรงก็ใส่ ETag + Cache-Control แล้วทำงานตามปกติ
+ *
+ * ETag อ่านก่อน controller - ถ้ามีการเขียนระหว่างนั้น response อาจใหม่กว่า ETag
+ * ซึ่งแค่ทำให้รอบถัดไปได้ 200 (ไม่มีทางได้ 304 กับข้อมูลเก่า)
+ *
+ * ETag ขึ้นกับข้อมูลเท่านั้น ไม่ขึ้นกับผู้เรียก จึงใส่ Vary: Authorization เสมอ และตอบ private
+ * เมื่อ request มี Authorization หรือ privateParams เป็น true - shared cache จะไม่เอา response
+ * ของ admin/ผู้ login ไปตอบคนอื่น
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return true;
+        }
+        ConditionalGet conditionalGet = handlerMethod.getMethodAnnotation(ConditionalGet.class);
+        if (conditionalGet == null) {
+            return true;
+        }
+
+        String etag = resourceVersions.etag(conditionalGet.value());
+        CacheControl cacheControl = conditionalGet.maxAgeSeconds() > 0
+                ? CacheControl.maxAge(conditionalGet.maxAgeSeconds(), TimeUnit.SECONDS).mustRevalidate()
+                : CacheControl.noCache();
+        if (isPrivate(request, conditionalGet)) {
+            cacheControl = cacheControl.cachePrivate();
+        }
+
+        // ใส่ก่อนตอบ 304 ด้วย - cache ใช้ header ของ 304 อัปเดต response ที่เก็บไว้
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isPrivate(HttpServletRequest request, ConditionalGet conditionalGet) {
+        if (request.getHeader(HttpHeaders.AUTHORIZATION) != null) {
+            return true;
+        }
+        for (String param : conditionalGet.privateParams()) {
+            if (Boolean.parseBoolean(request.getParameter(param))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // If-None-Match ใช้ weak comparison: ไม่สน W/ และรับได้หลายค่าคั่นด้วย comma
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.doctoralia.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * เก็บสถิติของ Hikari pool (active / idle / pending + เวลารอ connection) โดยไม่ต้องพึ่ง Micrometer
+ *
+ * Hikari เรียก tracker ทุกครั้งที่ยืม/คืน connection จึงใช้แค่ LongAdder กับ histogram แบบ bucket
+ * ยกกำลังสอง (µs) — percentile ที่ได้เป็นค่าประมาณ (ขอบบนของ bucket)
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+    private static final int BUCKETS = 32;
+
+    private volatile String poolName;
+    private volatile PoolStats poolStats;
+
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireTotalNanos = new LongAdder();
+    private final LongAccumulator acquireMaxNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray acquireHistogram = new AtomicLongArray(BUCKETS);
+    private final LongAdder usageCount = new LongAdder();
+    private final LongAdder usageTotalMillis = new LongAdder();
+    private final LongAccumulator usageMaxMillis = new LongAccumulator(Math::max, 0);
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                connectionsCreated.increment();
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquireCount.increment();
+                acquireTotalNanos.add(elapsedAcquiredNanos);
+                acquireMaxNanos.accumulate(elapsedAcquiredNanos);
+                acquireHistogram.incrementAndGet(bucketOf(elapsedAcquiredNanos / 1000));
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usageCount.increment();
+                usageTotalMillis.add(elapsedBorrowedMillis);
+                usageMaxMillis.accumulate(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    /**
+     * ล้างตัวนับสะสม (ใช้ตอนเริ่มรอบ load test ใหม่) — สถานะ pool ปัจจุบันไม่ถูกล้าง
+     */
+    public void reset() {
+        acquireCount.reset();
+        acquireTotalNanos.reset();
+        acquireMaxNanos.reset();
+        for (int i = 0; i < BUCKETS; i++) {
+            acquireHistogram.set(i, 0);
+        }
+        usageCount.reset();
+        usageTotalMillis.reset();
+        usageMaxMillis.reset();
+        connectionsCreated.reset();
+        timeouts.reset();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * ค่าประมาณของเวลารอ connection ที่ percentile p (0-100) หน่วย µs
+     */
+    public long acquirePercentileMicros(double p) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = acquireHistogram.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * p / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBoundMicros(i);
+            }
+        }
+        return upperBoundMicros(BUCKETS - 1);
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("name", poolName);
+        PoolStats stats = poolStats;
+        if (stats != null) {
+            pool.put("active", stats.getActiveConnections());
+            pool.put("idle", stats.getIdleConnections());
+            pool.put("total", stats.getTotalConnections());
+            pool.put("pending", stats.getPendingThreads());
+            pool.put("max", stats.getMaxConnections());
+            pool.put("min", stats.getMinConnections());
+        } else {
+            // pool ของ Hikari เริ่มตอนขอ connection ครั้งแรก
+            pool.put("started", false);
+        }
+
+        long acquires = acquireCount.sum();
+        Map<String, Object> acquire = new LinkedHashMap<>();
+        acquire.put("count", acquires);
+        acquire.put("avgMicros", acquires == 0 ? 0 : acquireTotalNanos.sum() / acquires / 1000);
+        acquire.put("p50Micros", acquirePercentileMicros(50));
+        acquire.put("p95Micros", acquirePercentileMicros(95));
+        acquire.put("p99Micros", acquirePercentileMicros(99));
+        acquire.put("maxMicros", acquireMaxNanos.get() / 1000);
+        acquire.put("timeouts", timeouts.sum());
+
+        long usages = usageCount.sum();
+        Map<String, Object> usage = new LinkedHashMap<>();
+        usage.put("count", usages);
+        usage.put("avgMillis", usages == 0 ? 0 : usageTotalMillis.sum() / usages);
+        usage.put("maxMillis", usageMaxMillis.get());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pool", pool);
+        result.put("acquire", acquire);
+        result.put("usage", usage);
+        result.put("connectionsCreated", connectionsCreated.sum());
+        return result;
+    }
+
+    private static int bucketOf(long micros) {
+        if (micros <= 0) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static long upperBoundMicros(int bucket) {
+        return bucket == 0 ? 0 : 1L << bucket;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.doctoralia.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * จับเวลา flush และ dirty check ของ Hibernate ให้ TransactionStats
+ * Hibernate สร้าง instance ใหม่ต่อ session ผ่าน spring.jpa.properties.hibernate.session.events.auto
+ */
+public class DirtyCheckTimingListener implements SessionEventListener {
+
+    // SessionEventListener เป็น Serializable (ไปกับ session) แต่ค่าเวลาไม่จำเป็นต้องข้ามเครื่อง
+    private static final long serialVersionUID = 1L;
+
+    private transient long flushStarted;
+    private transient long dirtyCheckStarted;
+
+    @Override
+    public void flushStart() {
+        flushStarted = System.nanoTime();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        TransactionStats.flushCompleted(System.nanoTime() - flushStarted, numberOfEntities);
+    }
+
+    @Override
+    public void dirtyCalculationStart() {
+        dirtyCheckStarted = System.nanoTime();
+    }
+
+    @Override
+    public void dirtyCalculationEnd(boolean dirty) {
+        TransactionStats.dirtyCheckCompleted(System.nanoTime() - dirtyCheckStarted);
+    }
+}
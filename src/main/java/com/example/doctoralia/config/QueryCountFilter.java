@@ -0,0 +1,61 @@
+package com.example.doctoralia.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Log จำนวน SQL ต่อ request และเตือนเมื่อเกิน threshold (จับ N+1 ที่กลับมา)
+ * พร้อมส่งยอด SQL / เวลา transaction / dirty check ของ request ให้ TransactionStats สะสมต่อ endpoint
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    @Value("${app.query-count.warn-threshold:10}")
+    private int warnThreshold;
+
+    @Autowired
+    private TransactionStats transactionStats;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryCountInspector.start();
+        TransactionStats.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int queries = QueryCountInspector.stop();
+            transactionStats.record(endpointOf(request), TransactionStats.stop(), queries);
+            if (queries > warnThreshold) {
+                logger.warn("{} {} executed {} SQL statements (threshold {})",
+                        request.getMethod(), request.getRequestURI(), queries, warnThreshold);
+            } else {
+                logger.debug("{} {} executed {} SQL statements",
+                        request.getMethod(), request.getRequestURI(), queries);
+            }
+        }
+    }
+
+    // ใช้ pattern ของ mapping (/api/doctors/{id}) ไม่ใช่ URI จริง ไม่งั้นได้ 1 แถวต่อ id
+    private String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "(unmapped)");
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.doctoralia.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * นับจำนวน SQL ที่ Hibernate ส่งไปใน thread ปัจจุบัน (ใช้คู่กับ QueryCountFilter)
+ * ลงทะเบียนผ่าน spring.jpa.properties.hibernate.session_factory.statement_inspector
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    // StatementInspector เป็น Serializable (ไปกับ SessionFactory) แต่ตัวนับอยู่ใน ThreadLocal แบบ static
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count != null ? count[0] : 0;
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.doctoralia.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * DataSource สำหรับงาน read-only: เลือก replica ที่ยังไม่ล้าหลังเกิน max lag แบบ round-robin
+ * ถ้าไม่มี replica ที่ใช้ได้ (หรือขอ connection ไม่สำเร็จ) จะใช้ primary แทน
+ *
+ * ใช้เป็น target ของ LazyConnectionDataSourceProxy ใน DatabaseConfig: proxy ยืม connection ตอนมี SQL แรก
+ * ตอนนั้น TransactionSynchronizationManager รู้แล้วว่า transaction เป็น readOnly หรือไม่ จึงเลือกที่นี่ —
+ * ไม่ใช้ setReadOnlyDataSource ของ proxy เพราะ proxy รอ Connection.setReadOnly(true) ซึ่ง
+ * JpaTransactionManager ไม่เรียกเมื่อ handling mode เป็น RELEASE_AFTER_TRANSACTION
+ * ด้วยเหตุเดียวกัน connection ของ transaction readOnly จึงถูก setReadOnly(true) ที่นี่ (pgjdbc ส่ง
+ * BEGIN READ ONLY) รวมถึงตอนที่ย้อนไปใช้ primary; Hikari คืนค่าเดิมให้ตอนคืน connection เข้า pool
+ *
+ * งานที่ต้องเห็นข้อมูลที่เพิ่ง commit บน primary (rebuild snapshot/index หลัง commit) ให้ครอบด้วย
+ * readOnPrimary(...) — repository ของ Spring Data เปิด transaction readOnly เองจึงจะไป replica ถ้าไม่ครอบ
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    private static final String PRIMARY_LSN_QUERY = "SELECT pg_current_wal_lsn()::text";
+
+    // pg_stat_wal_receiver ไม่มีแถวเมื่อไม่มี receiver; status เป็น null ถ้า user ไม่มีสิทธิ์ pg_read_all_stats
+    private static final String REPLICA_QUERY =
+            "SELECT pg_is_in_recovery(), " +
+            "EXISTS (SELECT 1 FROM pg_stat_wal_receiver), " +
+            "(SELECT status FROM pg_stat_wal_receiver), " +
+            "pg_last_wal_replay_lsn()::text";
+
+    // ตำแหน่ง WAL ของ primary ที่เห็นในแต่ละรอบ (เก่าสุดอยู่หน้า)
+    private static final int MAX_PRIMARY_SAMPLES = 1000;
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Deque<LsnSample> primarySamples = new ArrayDeque<>();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools, double maxLagSeconds) {
+        this.primary = primary;
+        this.maxLagSeconds = maxLagSeconds;
+        this.replicas = new ArrayList<>();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (HikariDataSource pool : replicaPools) {
+            replicas.add(new Replica(pool));
+            targets.put(pool.getPoolName(), pool);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * อ่านทุกอย่างใน work จาก primary แม้ transaction จะเป็น readOnly
+     */
+    public static <T> T readOnPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            } else {
+                PRIMARY_ONLY.set(previous);
+            }
+        }
+    }
+
+    // จำนวน connection รวมของ replica ที่อยู่ใน rotation ตอนนี้ (ConcurrencyLimitFilter ใช้ปรับเพดาน)
+    public int healthyReplicaCapacity() {
+        int capacity = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                capacity += replica.pool.getMaximumPoolSize();
+            }
+        }
+        return capacity;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PRIMARY_ONLY.get() != null) {
+            return PRIMARY;
+        }
+        Replica replica = nextHealthyReplica();
+        return replica != null ? replica.pool.getPoolName() : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary.getConnection();
+        }
+        Connection connection = readOnlyConnection();
+        connection.setReadOnly(true);
+        return connection;
+    }
+
+    private Connection readOnlyConnection() throws SQLException {
+        if (PRIMARY_ONLY.get() != null) {
+            return primary.getConnection();
+        }
+        Replica replica = nextHealthyReplica();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.pool.getConnection();
+        } catch (SQLException e) {
+            // replica ล่มระหว่างรอบตรวจ: ปิดไว้จนกว่ารอบถัดไปจะเห็นว่ากลับมาแล้ว
+            markDown(replica, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * ตรวจ lag ของทุก replica ตามรอบ ก่อนรอบแรกสำเร็จ replica ถือว่ายังใช้ไม่ได้
+     *
+     * lag วัดเทียบกับ primary: อ่าน pg_current_wal_lsn() ของ primary ทุกรอบแล้วจำไว้พร้อมเวลา
+     * replica ที่ replay ถึง LSN ล่าสุดแล้ว lag = 0 ไม่งั้น lag = เวลาตั้งแต่รอบแรกที่ primary ไปไกลกว่า
+     * replay LSN ของ replica (ละเอียดระดับ check-interval) — ไม่ใช้ receive LSN ของ replica เอง เพราะ
+     * replica ที่ WAL receiver หยุดไปก็มี receive = replay ทั้งที่ล้าหลัง primary อยู่
+     * ไม่มี WAL receiver หรือ receiver ไม่ได้ streaming = ใช้ไม่ได้ทันที
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval-ms:5000}")
+    public void checkReplicas() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long primaryLsn;
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(PRIMARY_LSN_QUERY)) {
+            resultSet.next();
+            primaryLsn = parseLsn(resultSet.getString(1));
+        } catch (SQLException e) {
+            // ไม่รู้ตำแหน่งของ primary ก็วัด lag ไม่ได้: ไม่ส่ง read ไป replica รอบนี้
+            for (Replica replica : replicas) {
+                markDown(replica, "primary WAL position unavailable: " + e.getMessage());
+            }
+            return;
+        }
+        if (primarySamples.isEmpty() || primarySamples.peekLast().lsn != primaryLsn) {
+            primarySamples.addLast(new LsnSample(primaryLsn, now));
+            if (primarySamples.size() > MAX_PRIMARY_SAMPLES) {
+                primarySamples.removeFirst();
+            }
+        }
+
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(REPLICA_QUERY)) {
+                resultSet.next();
+                boolean inRecovery = resultSet.getBoolean(1);
+                boolean hasReceiver = resultSet.getBoolean(2);
+                String receiverStatus = resultSet.getString(3);
+                String replayLsn = resultSet.getString(4);
+                replica.receiverStatus = receiverStatus;
+                replica.lastCheckedAt = LocalDateTime.now();
+
+                if (!inRecovery || replayLsn == null) {
+                    markDown(replica, "not a standby (pg_is_in_recovery() = false)");
+                    continue;
+                }
+                long replay = parseLsn(replayLsn);
+                double lag = lagSeconds(replay, now);
+                replica.lagSeconds = lag;
+                replica.lagBytes = Math.max(0, primaryLsn - replay);
+
+                if (!hasReceiver) {
+                    markDown(replica, "no WAL receiver (not streaming from the primary)");
+                } else if (receiverStatus != null && !receiverStatus.equals("streaming")) {
+                    markDown(replica, "WAL receiver is " + receiverStatus);
+                } else if (lag > maxLagSeconds) {
+                    markDown(replica, String.format("lag %.1fs (%d bytes behind primary) exceeds %.1fs",
+                            lag, replica.lagBytes, maxLagSeconds));
+                } else {
+                    if (!replica.healthy) {
+                        logger.info("Replica {} is serving reads (lag {}s)", replica.pool.getPoolName(), lag);
+                    }
+                    replica.healthy = true;
+                    replica.lastError = null;
+                }
+            } catch (SQLException e) {
+                replica.lastCheckedAt = LocalDateTime.now();
+                markDown(replica, e.getMessage());
+            }
+        }
+    }
+
+    public List<Map<String, Object>> getReplicaStatus() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("name", replica.pool.getPoolName());
+            status.put("url", replica.pool.getJdbcUrl());
+            status.put("healthy", replica.healthy);
+            status.put("lagSeconds", replica.lagSeconds);
+            status.put("lagBytes", replica.lagBytes);
+            status.put("walReceiverStatus", replica.receiverStatus);
+            status.put("maxLagSeconds", maxLagSeconds);
+            status.put("lastCheckedAt", replica.lastCheckedAt);
+            status.put("lastError", replica.lastError);
+            result.add(status);
+        }
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+    }
+
+    private Replica nextHealthyReplica() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // เวลาตั้งแต่รอบแรกที่ primary อยู่เลย replay LSN นี้ไปแล้ว (0 ถ้า replay ทันรอบล่าสุด)
+    private double lagSeconds(long replayLsn, long now) {
+        for (LsnSample sample : primarySamples) {
+            if (sample.lsn > replayLsn) {
+                return (now - sample.nanoTime) / 1_000_000_000.0;
+            }
+        }
+        return 0;
+    }
+
+    // LSN แบบ text "16/B374D848" -> ตำแหน่ง byte
+    static long parseLsn(String lsn) {
+        int slash = lsn.indexOf('/');
+        return (Long.parseLong(lsn.substring(0, slash), 16) << 32) | Long.parseLong(lsn.substring(slash + 1), 16);
+    }
+
+    private void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            logger.warn("Replica {} taken out of rotation, reads fall back to primary: {}",
+                    replica.pool.getPoolName(), reason);
+        }
+        replica.healthy = false;
+        replica.lastError = reason;
+    }
+
+    private static class Replica {
+        private final HikariDataSource pool;
+        private volatile boolean healthy;
+        private volatile Double lagSeconds;
+        private volatile Long lagBytes;
+        private volatile String receiverStatus;
+        private volatile LocalDateTime lastCheckedAt;
+        private volatile String lastError;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+
+    private record LsnSample(long lsn, long nanoTime) {
+    }
+}
@@ -33,10 +33,11 @@ public class SecurityConfig {
                         // Public endpoints (authentication not required)
                         .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
                         .requestMatchers("/api/specialties", "/api/specialties/**").permitAll()
-                        .requestMatchers("/api/doctors", "/api/doctors/search", "/api/doctors/specialty/**", "/api/doctors/stats", "/api/doctors/active", "/api/doctors/by-specialty", "/api/doctors/smart-select").permitAll()
+                        .requestMatchers("/api/doctors", "/api/doctors/search", "/api/doctors/autocomplete", "/api/doctors/specialty/**", "/api/doctors/stats", "/api/doctors/active", "/api/doctors/by-specialty", "/api/doctors/smart-select").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/doctors/{id:[0-9]+}").permitAll()
-                        .requestMatchers(HttpMethod.GET, "/api/availability/doctor/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/availability/doctor/**", "/api/availability/on-duty").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/appointments/doctor/*/booked-slots").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/reviews/doctor/**").permitAll()
                         .requestMatchers("/api/public/**").permitAll()
 
                         // Protected endpoints (authentication required)
@@ -0,0 +1,145 @@
+package com.example.doctoralia.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * เวลา transaction และเวลา dirty check/flush ของ Hibernate สะสมต่อ endpoint
+ *
+ * ตัวนับของ request ปัจจุบันอยู่ใน ThreadLocal (เหมือน QueryCountInspector) —
+ * TransactionTimingListener และ DirtyCheckTimingListener เติมค่า, QueryCountFilter ปิดยอดตอนจบ request
+ */
+@Component
+public class TransactionStats {
+
+    private static final ThreadLocal<RequestTally> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    public static void start() {
+        CURRENT.set(new RequestTally());
+    }
+
+    public static RequestTally stop() {
+        RequestTally tally = CURRENT.get();
+        CURRENT.remove();
+        return tally;
+    }
+
+    static void transactionCompleted(long nanos, boolean readOnly) {
+        RequestTally tally = CURRENT.get();
+        if (tally != null) {
+            tally.transactions++;
+            if (readOnly) {
+                tally.readOnlyTransactions++;
+            }
+            tally.transactionNanos += nanos;
+        }
+    }
+
+    static void dirtyCheckCompleted(long nanos) {
+        RequestTally tally = CURRENT.get();
+        if (tally != null) {
+            tally.dirtyCheckNanos += nanos;
+        }
+    }
+
+    static void flushCompleted(long nanos, int entities) {
+        RequestTally tally = CURRENT.get();
+        if (tally != null) {
+            tally.flushes++;
+            tally.flushNanos += nanos;
+            tally.entitiesFlushed += entities;
+        }
+    }
+
+    public void record(String endpoint, RequestTally tally, int queries) {
+        if (tally == null) {
+            return;
+        }
+        endpoints.computeIfAbsent(endpoint, key -> new EndpointStats()).add(tally, queries);
+    }
+
+    /**
+     * สรุปต่อ endpoint เรียงตามเวลา transaction รวมมากไปน้อย
+     */
+    public List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        endpoints.forEach((endpoint, stats) -> result.add(stats.toMap(endpoint)));
+        result.sort(Comparator.comparingDouble(
+                (Map<String, Object> row) -> (Double) row.get("transactionMillisTotal")).reversed());
+        return result;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    public static class RequestTally {
+        private int transactions;
+        private int readOnlyTransactions;
+        private long transactionNanos;
+        private long dirtyCheckNanos;
+        private int flushes;
+        private long flushNanos;
+        private long entitiesFlushed;
+    }
+
+    private static class EndpointStats {
+        private long requests;
+        private long transactions;
+        private long readOnlyTransactions;
+        private long transactionNanos;
+        private long maxTransactionNanos;
+        private long dirtyCheckNanos;
+        private long flushes;
+        private long flushNanos;
+        private long entitiesFlushed;
+        private long queries;
+
+        synchronized void add(RequestTally tally, int requestQueries) {
+            requests++;
+            transactions += tally.transactions;
+            readOnlyTransactions += tally.readOnlyTransactions;
+            transactionNanos += tally.transactionNanos;
+            maxTransactionNanos = Math.max(maxTransactionNanos, tally.transactionNanos);
+            dirtyCheckNanos += tally.dirtyCheckNanos;
+            flushes += tally.flushes;
+            flushNanos += tally.flushNanos;
+            entitiesFlushed += tally.entitiesFlushed;
+            queries += requestQueries;
+        }
+
+        synchronized Map<String, Object> toMap(String endpoint) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint);
+            row.put("requests", requests);
+            row.put("transactions", transactions);
+            row.put("readOnlyTransactions", readOnlyTransactions);
+            row.put("transactionMillisTotal", millis(transactionNanos));
+            row.put("transactionMillisAvg", millis(perRequest(transactionNanos)));
+            row.put("transactionMillisMax", millis(maxTransactionNanos));
+            row.put("dirtyCheckMillisTotal", millis(dirtyCheckNanos));
+            row.put("dirtyCheckMillisAvg", millis(perRequest(dirtyCheckNanos)));
+            row.put("flushes", flushes);
+            row.put("flushMillisTotal", millis(flushNanos));
+            row.put("entitiesFlushedAvg", perRequest(entitiesFlushed));
+            row.put("sqlStatementsAvg", perRequest(queries));
+            return row;
+        }
+
+        private long perRequest(long total) {
+            return requests == 0 ? 0 : total / requests;
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 1000.0) / 1000.0;
+        }
+    }
+}
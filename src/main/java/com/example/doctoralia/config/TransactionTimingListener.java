@@ -0,0 +1,52 @@
+package com.example.doctoralia.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * จับเวลาแต่ละ transaction (begin -> commit/rollback) ให้ TransactionStats
+ * Spring Boot ผูก TransactionExecutionListener ทุกตัวเข้ากับ JpaTransactionManager ให้เอง
+ */
+@Component
+public class TransactionTimingListener implements TransactionExecutionListener {
+
+    // ซ้อนกันได้ (REQUIRES_NEW) จึงเก็บเป็น stack
+    private static final ThreadLocal<Deque<Long>> STARTED = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeBegin(TransactionExecution transaction) {
+        STARTED.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null) {
+            STARTED.get().poll();
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        completed(transaction);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        completed(transaction);
+    }
+
+    private void completed(TransactionExecution transaction) {
+        // commit/rollback ของ transaction ที่เข้าร่วม transaction ภายนอกไม่นับ
+        if (!transaction.isNewTransaction()) {
+            return;
+        }
+        Long started = STARTED.get().poll();
+        if (started != null) {
+            TransactionStats.transactionCompleted(System.nanoTime() - started, transaction.isReadOnly());
+        }
+    }
+}
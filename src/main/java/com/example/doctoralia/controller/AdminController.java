@@ -1,16 +1,22 @@
 package com.example.doctoralia.controller;
 
+import com.example.doctoralia.config.ConcurrencyLimitFilter;
+import com.example.doctoralia.config.ConnectionPoolMetrics;
+import com.example.doctoralia.config.ReplicaRoutingDataSource;
+import com.example.doctoralia.config.TransactionStats;
 import com.example.doctoralia.dto.*;
 import com.example.doctoralia.model.Doctor;
 import com.example.doctoralia.model.Specialty;
-import com.example.doctoralia.model.User;
 import com.example.doctoralia.service.DoctorService;
+import com.example.doctoralia.service.EntityCacheService;
 import com.example.doctoralia.service.SpecialtyService;
 import com.example.doctoralia.service.UserService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -26,6 +32,8 @@ import java.util.Map;
 public class AdminController {
     private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
 
+    private static final int MAX_USER_PAGE_SIZE = 200;
+
     @Autowired
     private DoctorService doctorService;
 
@@ -35,6 +43,21 @@ public class AdminController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private ConnectionPoolMetrics connectionPoolMetrics;
+
+    @Autowired
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private TransactionStats transactionStats;
+
     //สร้างหมอใหม่ ADMIN
     @PostMapping("/doctors")
     public ResponseEntity<?> addDoctor(@Valid @RequestBody CreateDoctorRequest request) {
@@ -214,29 +237,87 @@ public class AdminController {
         }
     }
 
+    //ดูสถิติ second-level cache (hit ratio ต่อ region)
+    @GetMapping("/cache/stats")
+    public ResponseEntity<?> getCacheStats() {
+        try {
+            return ResponseEntity.ok(entityCacheService.getStatistics());
+        } catch (Exception e) {
+            logger.error("Error getting cache statistics: ", e);
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    //ล้าง second-level cache ทั้งหมด (หลังแก้ข้อมูลใน DB โดยตรง)
+    @DeleteMapping("/cache")
+    public ResponseEntity<?> evictCache() {
+        try {
+            entityCacheService.evictAll();
+            return ResponseEntity.ok(new MessageResponse("Second-level cache evicted"));
+        } catch (Exception e) {
+            logger.error("Error evicting cache: ", e);
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    //ดูสถานะ connection pool (active/idle/pending + เวลารอ connection) และ lag ของ read replica
+    @GetMapping("/db/pool")
+    public ResponseEntity<?> getConnectionPool(@RequestParam(defaultValue = "false") boolean reset) {
+        try {
+            Map<String, Object> snapshot = connectionPoolMetrics.snapshot();
+            snapshot.put("replicas", replicaRoutingDataSource.getReplicaStatus());
+            snapshot.put("concurrency", concurrencyLimitFilter.snapshot());
+            if (reset) {
+                connectionPoolMetrics.reset();
+                concurrencyLimitFilter.reset();
+            }
+            return ResponseEntity.ok(snapshot);
+        } catch (Exception e) {
+            logger.error("Error getting connection pool metrics: ", e);
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    //ดูเวลา transaction / dirty check สะสมต่อ endpoint (ตั้งแต่ start หรือ reset ล่าสุด)
+    @GetMapping("/db/transactions")
+    public ResponseEntity<?> getTransactionStats(@RequestParam(defaultValue = "false") boolean reset) {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("endpoints", transactionStats.snapshot());
+            if (reset) {
+                transactionStats.reset();
+            }
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error getting transaction statistics: ", e);
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
     /**
-     * Get all users (Admin only) - for admin to see available doctor users
+     * Get users (Admin only) - for admin to see available doctor users
+     * แบ่งหน้า + ค้นหา email/ชื่อ (q) + กรอง role, keyset=true หรือ afterId: เรียงตาม id แบบ keyset
      */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String role,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false, defaultValue = "false") boolean keyset,
+            @RequestParam(required = false) Long afterId) {
         try {
-            List<User> users = userService.getAllUsers();
-
-            List<Map<String, Object>> response = users.stream()
-                    .map(user -> {
-                        Map<String, Object> userMap = new HashMap<>();
-                        userMap.put("id", user.getId());
-                        userMap.put("email", user.getEmail());
-                        userMap.put("firstName", user.getFirstName());
-                        userMap.put("lastName", user.getLastName());
-                        userMap.put("role", user.getRole());
-                        userMap.put("createdAt", user.getCreatedAt());
-                        return userMap;
-                    })
-                    .toList();
-
-            return ResponseEntity.ok(Map.of("users", response));
+            int pageSize = Math.min(Math.max(size, 1), MAX_USER_PAGE_SIZE);
+
+            if (keyset || afterId != null) {
+                return ResponseEntity.ok(toUserKeysetResponse(userService.searchUsersAfter(q, role, afterId, pageSize)));
+            }
+            return ResponseEntity.ok(toUserPageResponse(userService.searchUsers(q, role, page, pageSize)));
 
         } catch (Exception e) {
             logger.error("Error getting all users: ", e);
@@ -244,4 +325,26 @@ public class AdminController {
                     .body(new MessageResponse("Error: " + e.getMessage()));
         }
     }
+
+    private Map<String, Object> toUserPageResponse(Page<UserSummary> users) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("users", users.getContent());
+        response.put("currentPage", users.getNumber());
+        response.put("totalItems", users.getTotalElements());
+        response.put("totalPages", users.getTotalPages());
+        response.put("hasNext", users.hasNext());
+        response.put("hasPrevious", users.hasPrevious());
+        return response;
+    }
+
+    private Map<String, Object> toUserKeysetResponse(Slice<UserSummary> users) {
+        Map<String, Object> response = new HashMap<>();
+        List<UserSummary> content = users.getContent();
+        response.put("users", content);
+        response.put("hasNext", users.hasNext());
+        if (users.hasNext() && !content.isEmpty()) {
+            response.put("nextAfterId", content.get(content.size() - 1).getId());
+        }
+        return response;
+    }
 }
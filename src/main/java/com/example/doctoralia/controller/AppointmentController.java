@@ -1,9 +1,13 @@
 package com.example.doctoralia.controller;
 
 import com.example.doctoralia.config.JwtUtils;
+import com.example.doctoralia.dto.AppointmentResponse;
+import com.example.doctoralia.dto.AppointmentSlotView;
+import com.example.doctoralia.dto.AppointmentView;
 import com.example.doctoralia.dto.CreateAppointmentRequest;
 import com.example.doctoralia.dto.CreateAppointmentWithPatientInfoRequest;
 import com.example.doctoralia.dto.MessageResponse;
+import com.example.doctoralia.dto.PatientBookingInfoResponse;
 import com.example.doctoralia.model.Appointment;
 import com.example.doctoralia.model.Doctor;
 import com.example.doctoralia.service.AppointmentService;
@@ -120,7 +124,7 @@ public class AppointmentController {
             }
 
             Long patientId = jwtUtils.getUserIdFromJwtToken(jwt);
-            List<Appointment> appointments = appointmentService.getAppointmentsByPatient(patientId);
+            List<AppointmentView> appointments = appointmentService.getAppointmentViewsByPatient(patientId);
 
             Map<String, Object> response = new HashMap<>();
             response.put("appointments", appointments.stream()
@@ -151,14 +155,14 @@ public class AppointmentController {
             Long doctorUserId = jwtUtils.getUserIdFromJwtToken(jwt);
 
             // Find doctor by user ID first
-            Optional<Doctor> doctorOpt = doctorService.findByUserId(doctorUserId);
-            if (doctorOpt.isEmpty()) {
+            Optional<Long> doctorIdOpt = doctorService.findIdByUserId(doctorUserId);
+            if (doctorIdOpt.isEmpty()) {
                 return ResponseEntity.badRequest()
                         .body(new MessageResponse("Doctor profile not found"));
             }
 
-            Long doctorId = doctorOpt.get().getId();
-            List<Appointment> appointments = appointmentService.getAppointmentsByDoctor(doctorId);
+            Long doctorId = doctorIdOpt.get();
+            List<AppointmentView> appointments = appointmentService.getAppointmentViewsByDoctor(doctorId);
 
             Map<String, Object> response = new HashMap<>();
             response.put("appointments", appointments.stream()
@@ -246,21 +250,15 @@ public class AppointmentController {
             Long doctorUserId = jwtUtils.getUserIdFromJwtToken(jwt);
 
             // Find doctor by user ID
-            Optional<Doctor> doctorOpt = doctorService.findByUserId(doctorUserId);
-            if (doctorOpt.isEmpty()) {
+            Optional<Long> doctorIdOpt = doctorService.findIdByUserId(doctorUserId);
+            if (doctorIdOpt.isEmpty()) {
                 logger.error("❌ [getPatientBookingInfo] Doctor profile not found for user ID: {}", doctorUserId);
                 return ResponseEntity.badRequest()
                         .body(new MessageResponse("Doctor profile not found"));
             }
 
-            // Get the appointment to verify it belongs to this doctor
-            Appointment appointment = appointmentService.getAppointmentsByDoctor(doctorOpt.get().getId())
-                    .stream()
-                    .filter(apt -> apt.getId().equals(id))
-                    .findFirst()
-                    .orElse(null);
-
-            if (appointment == null) {
+            // Verify the appointment belongs to this doctor
+            if (!appointmentService.isAppointmentOfDoctor(id, doctorIdOpt.get())) {
                 logger.error("❌ [getPatientBookingInfo] Appointment not found or doesn't belong to this doctor");
                 return ResponseEntity.badRequest()
                         .body(new MessageResponse("Appointment not found or unauthorized"));
@@ -277,22 +275,7 @@ public class AppointmentController {
 
             com.example.doctoralia.model.PatientBookingInfo patientInfo = patientInfoOpt.get();
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("id", patientInfo.getId());
-            response.put("queueNumber", patientInfo.getQueueNumber());
-            response.put("patientPrefix", patientInfo.getPatientPrefix());
-            response.put("patientFirstName", patientInfo.getPatientFirstName());
-            response.put("patientLastName", patientInfo.getPatientLastName());
-            response.put("patientFullName", patientInfo.getPatientFullName());
-            response.put("patientGender", patientInfo.getPatientGender());
-            response.put("patientDateOfBirth", patientInfo.getPatientDateOfBirth());
-            response.put("patientNationality", patientInfo.getPatientNationality());
-            response.put("patientCitizenId", patientInfo.getPatientCitizenId());
-            response.put("patientPhone", patientInfo.getPatientPhone());
-            response.put("patientEmail", patientInfo.getPatientEmail());
-            response.put("symptoms", patientInfo.getSymptoms());
-            response.put("bookingType", patientInfo.getBookingType());
-            response.put("createdAt", patientInfo.getCreatedAt());
+            PatientBookingInfoResponse response = PatientBookingInfoResponse.from(patientInfo);
 
             logger.info("✅ [getPatientBookingInfo] Patient info retrieved successfully");
             return ResponseEntity.ok(response);
@@ -341,7 +324,7 @@ public class AppointmentController {
         try {
             logger.info("Getting booked slots for doctor: {} on date: {}", doctorId, date);
 
-            List<Appointment> appointments = appointmentService.getAppointmentsByDoctorAndDate(doctorId, date);
+            List<AppointmentSlotView> appointments = appointmentService.getAppointmentsByDoctorAndDate(doctorId, date);
 
             // Group appointments by time slot and status
             List<Map<String, Object>> bookedSlots = appointments.stream()
@@ -376,36 +359,11 @@ public class AppointmentController {
         return null;
     }
 
-    private Map<String, Object> convertToAppointmentResponse(Appointment appointment) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("id", appointment.getId());
-
-        // Doctor info
-        Map<String, Object> doctor = new HashMap<>();
-        doctor.put("id", appointment.getDoctor().getId());
-        doctor.put("doctorName", appointment.getDoctor().getDoctorName());
-        Map<String, Object> specialty = new HashMap<>();
-        specialty.put("id", appointment.getDoctor().getSpecialty().getId());
-        specialty.put("name", appointment.getDoctor().getSpecialty().getName());
-        doctor.put("specialty", specialty);
-        response.put("doctor", doctor);
-
-        // Patient info
-        Map<String, Object> patient = new HashMap<>();
-        patient.put("id", appointment.getPatient().getId());
-        patient.put("email", appointment.getPatient().getEmail());
-        patient.put("firstName", appointment.getPatient().getFirstName());
-        patient.put("lastName", appointment.getPatient().getLastName());
-        response.put("patient", patient);
-
-        response.put("appointmentDatetime", appointment.getAppointmentDatetime());
-        response.put("durationMinutes", appointment.getDurationMinutes());
-        response.put("status", appointment.getStatus());
-        response.put("notes", appointment.getNotes());
-        response.put("doctorNotes", appointment.getDoctorNotes());
-        response.put("createdAt", appointment.getCreatedAt());
-        response.put("updatedAt", appointment.getUpdatedAt());
-
-        return response;
+    private AppointmentResponse convertToAppointmentResponse(AppointmentView appointment) {
+        return AppointmentResponse.from(appointment);
+    }
+
+    private AppointmentResponse convertToAppointmentResponse(Appointment appointment) {
+        return AppointmentResponse.from(appointment);
     }
 }
\ No newline at end of file
@@ -1,8 +1,13 @@
 package com.example.doctoralia.controller;
 
+import com.example.doctoralia.config.ConditionalGet;
 import com.example.doctoralia.config.JwtUtils;
 import com.example.doctoralia.dto.AddAvailabilityRequest;
+import com.example.doctoralia.dto.AvailabilityCalendarDay;
+import com.example.doctoralia.dto.AvailabilityResponse;
 import com.example.doctoralia.dto.MessageResponse;
+import com.example.doctoralia.dto.UpdateWeeklyScheduleRequest;
+import com.example.doctoralia.dto.WeeklyScheduleUpdateResult;
 import com.example.doctoralia.model.Appointment;
 import com.example.doctoralia.model.Availability;
 import com.example.doctoralia.model.Doctor;
@@ -10,20 +15,28 @@ import com.example.doctoralia.model.UserRole;
 import com.example.doctoralia.repository.AppointmentRepository;
 import com.example.doctoralia.service.AvailabilityService;
 import com.example.doctoralia.service.DoctorService;
+import com.example.doctoralia.service.ResourceVersions.Family;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
 
 @RestController
 @RequestMapping("/api/availability")
@@ -108,8 +121,8 @@ public class AvailabilityController {
             Doctor doctor = doctorOpt.get();
             List<Availability> availabilities = availabilityService.getDoctorAvailabilities(doctor.getId());
 
-            List<Map<String,Object>> response = availabilities.stream()
-                    .map(this::convertToAvailabilityResponse)
+            List<AvailabilityResponse> response = availabilities.stream()
+                    .map(AvailabilityResponse::from)
                     .toList();
             return ResponseEntity.ok(response);
         } catch (Exception e){
@@ -119,8 +132,45 @@ public class AvailabilityController {
         }
     }
 
+    /**
+     * แทนที่ตารางเวลาทั้งสัปดาห์ของหมอตัวเอง (หมอเท่านั้น)
+     */
+    @PutMapping("/my/week")
+    @PreAuthorize("hasRole('DOCTOR')")
+    public ResponseEntity<?> replaceMyWeeklySchedule(@Valid @RequestBody UpdateWeeklyScheduleRequest request,
+                                                     HttpServletRequest httpRequest) {
+        try {
+            Long userId = getUserIdFromToken(httpRequest);
+
+            Optional<Doctor> doctorOpt = doctorService.findByUserId(userId);
+            if (doctorOpt.isEmpty()) {
+                return ResponseEntity.badRequest()
+                        .body(new MessageResponse("Doctor profile not found."));
+            }
+
+            WeeklyScheduleUpdateResult result = availabilityService.replaceWeeklySchedule(
+                    doctorOpt.get().getId(), request.getSlots());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Weekly schedule updated successfully!");
+            response.put("added", result.getAdded());
+            response.put("removed", result.getRemoved());
+            response.put("unchanged", result.getUnchanged());
+            response.put("availabilities", result.getSchedule().stream()
+                    .map(AvailabilityResponse::from)
+                    .toList());
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error replacing weekly schedule!", e);
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
     //ตารางเวลาของหมอคนใดคนหนึ่ง
     @GetMapping("/doctor/{doctorId}")
+    @ConditionalGet(Family.AVAILABILITY)
     public ResponseEntity<?> getDoctorAvailabilities(@PathVariable Long doctorId,
                                                      @RequestParam(required = false) Integer dayOfWeek) {
 
@@ -133,8 +183,8 @@ public class AvailabilityController {
                 availabilities = availabilityService.getDoctorAvailabilities(doctorId);
             }
 
-            List<Map<String,Object>> response = availabilities.stream()
-                    .map(this::convertToPublicAvailabilityResponse)
+            List<AvailabilityResponse.Public> response = availabilities.stream()
+                    .map(AvailabilityResponse.Public::from)
                     .toList();
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -144,6 +194,73 @@ public class AvailabilityController {
         }
     }
 
+    /**
+     * ปฏิทินเวลาว่างของหมอหลายวันในครั้งเดียว - Public API
+     * GET /api/availability/doctor/{doctorId}/calendar?from=yyyy-MM-dd&to=yyyy-MM-dd&slotMinutes=30
+     */
+    @GetMapping("/doctor/{doctorId}/calendar")
+    public ResponseEntity<?> getDoctorCalendar(@PathVariable Long doctorId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                               @RequestParam(defaultValue = "30") int slotMinutes) {
+        try {
+            List<AvailabilityCalendarDay> days = availabilityService.getDoctorCalendar(doctorId, from, to, slotMinutes);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("doctorId", doctorId);
+            response.put("from", from);
+            response.put("to", to);
+            response.put("slotMinutes", slotMinutes);
+            response.put("days", days);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error getting doctor calendar!", e);
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * หมอที่เข้าเวรตอนนี้ (หรือวัน/เวลาที่กำหนด) จัดกลุ่มตาม specialty - Public API
+     * GET /api/availability/on-duty?specialtyId=...&dayOfWeek=1-7&time=HH:mm
+     */
+    @GetMapping("/on-duty")
+    public ResponseEntity<?> getOnDutyDoctors(@RequestParam(required = false) Long specialtyId,
+                                              @RequestParam(required = false) Integer dayOfWeek,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(pattern = "HH:mm") LocalTime time) {
+        try {
+            LocalDateTime now = LocalDateTime.now(ZoneId.systemDefault());
+            int day = dayOfWeek != null ? dayOfWeek : now.getDayOfWeek().getValue();
+            LocalTime at = time != null ? time : now.toLocalTime();
+
+            SortedMap<Long, List<Long>> onDuty = availabilityService.getOnDutyDoctors(day, at, specialtyId);
+
+            List<Map<String, Object>> specialties = new ArrayList<>();
+            int totalDoctors = 0;
+            for (Map.Entry<Long, List<Long>> entry : onDuty.entrySet()) {
+                Map<String, Object> specialty = new HashMap<>();
+                specialty.put("specialtyId", entry.getKey());
+                specialty.put("doctorIds", entry.getValue());
+                specialties.add(specialty);
+                totalDoctors += entry.getValue().size();
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("dayOfWeek", day);
+            response.put("time", at.withSecond(0).withNano(0).toString());
+            response.put("specialties", specialties);
+            response.put("totalDoctors", totalDoctors);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error getting on-duty doctors!", e);
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
     //แก้ไขตารางเวลาหมอ (หมอเท่านั้น)
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('DOCTOR')")
@@ -222,6 +339,7 @@ public class AvailabilityController {
         return null;
     }
 
+    // รูปแบบแบน + message สำหรับตอบกลับตอนเพิ่มช่วงเวลา (list ใช้ AvailabilityResponse)
     private Map<String, Object> convertToAvailabilityResponse(Availability availability) {
         Map<String, Object> response = new HashMap<>();
         response.put("id", availability.getId());
@@ -234,14 +352,4 @@ public class AvailabilityController {
         response.put("createdAt", availability.getCreatedAt());
         return response;
     }
-
-    private Map<String, Object> convertToPublicAvailabilityResponse(Availability availability) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("dayOfWeek", availability.getDayOfWeek());
-        response.put("dayName", availability.getDayName());
-        response.put("startTime", availability.getStartTime().toString());
-        response.put("endTime", availability.getEndTime().toString());
-        response.put("timeRange", availability.getTimeRange());
-        return response;
-    }
 }
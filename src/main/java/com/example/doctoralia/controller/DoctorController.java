@@ -2,20 +2,17 @@ package com.example.doctoralia.controller;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -28,16 +25,26 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.doctoralia.config.ConditionalGet;
 import com.example.doctoralia.config.JwtUtils;
+import com.example.doctoralia.dto.AutocompleteSuggestion;
+import com.example.doctoralia.dto.DoctorDetailResponse;
+import com.example.doctoralia.dto.DoctorRating;
+import com.example.doctoralia.dto.DoctorResponse;
+import com.example.doctoralia.dto.DoctorSelectionResult;
 import com.example.doctoralia.dto.DoctorStats;
-import com.example.doctoralia.model.Appointment;
-import com.example.doctoralia.model.AppointmentStatus;
-import com.example.doctoralia.model.Availability;
+import com.example.doctoralia.dto.DoctorSummary;
+import com.example.doctoralia.dto.SpecialtyResponse;
 import com.example.doctoralia.model.Doctor;
+import com.example.doctoralia.model.DoctorRatingSummary;
 import com.example.doctoralia.model.Specialty;
-import com.example.doctoralia.service.AppointmentService;
-import com.example.doctoralia.service.AvailabilityService;
+import com.example.doctoralia.service.AutocompleteIndex;
+import com.example.doctoralia.service.DoctorDirectory;
+import com.example.doctoralia.service.DoctorFacetService;
+import com.example.doctoralia.service.DoctorSelectionService;
 import com.example.doctoralia.service.DoctorService;
+import com.example.doctoralia.service.ResourceVersions.Family;
+import com.example.doctoralia.service.ReviewService;
 import com.example.doctoralia.service.SpecialtyService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -49,6 +56,8 @@ public class DoctorController {
 
     private static Logger logger = LoggerFactory.getLogger(DoctorController.class);
 
+    private static final int MAX_AUTOCOMPLETE_LIMIT = 20;
+
     @Autowired
     private DoctorService doctorService;
 
@@ -56,10 +65,19 @@ public class DoctorController {
     private SpecialtyService specialtyService;
 
     @Autowired
-    private AppointmentService appointmentService;
+    private DoctorSelectionService doctorSelectionService;
+
+    @Autowired
+    private DoctorDirectory doctorDirectory;
+
+    @Autowired
+    private DoctorFacetService doctorFacetService;
+
+    @Autowired
+    private ReviewService reviewService;
 
     @Autowired
-    private AvailabilityService availabilityService;
+    private AutocompleteIndex autocompleteIndex;
 
     @Autowired
     private JwtUtils jwtUtils;
@@ -68,13 +86,17 @@ public class DoctorController {
      * Get all active doctors (for general listing)
      */
     @GetMapping("/active")
+    @ConditionalGet({Family.DOCTORS, Family.SPECIALTIES, Family.REVIEWS})
     public ResponseEntity<?> getAllActiveDoctors() {
         try {
-            List<Doctor> doctors = doctorService.findByIsActiveTrue();
-
-            List<Map<String, Object>> doctorList = doctors.stream()
-                .map(this::convertToSimpleDoctorResponse)
-                .toList();
+            List<DoctorSummary> doctorList;
+            if (doctorDirectory.isReady()) {
+                doctorList = doctorDirectory.getActiveDoctors();
+            } else {
+                doctorList = doctorService.findByIsActiveTrue().stream()
+                    .map(this::convertToSimpleDoctorResponse)
+                    .toList();
+            }
 
             Map<String, Object> response = new HashMap<>();
             response.put("doctors", doctorList);
@@ -91,13 +113,17 @@ public class DoctorController {
      * Get doctors by specialty name (for specialty-based selection)
      */
     @GetMapping("/by-specialty")
+    @ConditionalGet({Family.DOCTORS, Family.SPECIALTIES, Family.REVIEWS})
     public ResponseEntity<?> getDoctorsBySpecialty(@RequestParam String specialty) {
         try {
-            List<Doctor> doctors = doctorService.findBySpecialtyName(specialty);
-
-            List<Map<String, Object>> doctorList = doctors.stream()
-                .map(this::convertToSimpleDoctorResponse)
-                .toList();
+            List<DoctorSummary> doctorList;
+            if (doctorDirectory.isReady()) {
+                doctorList = doctorDirectory.getDoctorsBySpecialtyName(specialty);
+            } else {
+                doctorList = doctorService.findBySpecialtyName(specialty).stream()
+                    .map(this::convertToSimpleDoctorResponse)
+                    .toList();
+            }
 
             Map<String, Object> response = new HashMap<>();
             response.put("doctors", doctorList);
@@ -114,8 +140,11 @@ public class DoctorController {
 
     /**
      * Improved search endpoint with better error handling
+     * slice=true: ไม่ count (มีแค่ hasNext), keyset=true หรือ afterId: เรียงตามชื่อจริงแบบ keyset
+     * facets=true: แนบจำนวนต่อแผนก/ช่วงค่าตรวจมาใน response เดียวกัน
      */
     @GetMapping
+    @ConditionalGet(value = {Family.DOCTORS, Family.SPECIALTIES, Family.REVIEWS}, privateParams = "includeInactive")
     public ResponseEntity<?> searchDoctors(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
@@ -124,44 +153,53 @@ public class DoctorController {
             @RequestParam(required = false) Long specialty,
             @RequestParam(required = false) BigDecimal minFee,
             @RequestParam(required = false) BigDecimal maxFee,
-            @RequestParam(required = false, defaultValue = "false") boolean includeInactive) {
+            @RequestParam(required = false, defaultValue = "false") boolean includeInactive,
+            @RequestParam(required = false, defaultValue = "false") boolean slice,
+            @RequestParam(required = false, defaultValue = "false") boolean keyset,
+            @RequestParam(required = false) String afterName,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false, defaultValue = "false") boolean facets) {
 
         try {
             logger.info("Searching doctors with params: page={}, size={}, name={}, specialty={}, minFee={}, maxFee={}",
                     page, size, name, specialty, minFee, maxFee);
 
+            // Public listing ที่ไม่มีการค้นหาชื่อ ตอบจาก directory snapshot
+            if (!includeInactive && name == null && !keyset && afterId == null && doctorDirectory.isReady()) {
+                Page<DoctorResponse> snapshotPage = (specialty != null || minFee != null || maxFee != null)
+                        ? doctorDirectory.findDoctors(specialty, minFee, maxFee, page, size)
+                        : doctorDirectory.getDoctors(sort, page, size);
+                if (snapshotPage != null) {
+                    return ResponseEntity.ok(withFacets(toPageResponse(snapshotPage), facets,
+                            name, specialty, minFee, maxFee, includeInactive));
+                }
+            }
+
+            // Keyset: เรียงตามชื่อจริง หน้าถัดไปส่ง afterName/afterId ของแถวสุดท้ายกลับมา
+            if (keyset || afterId != null) {
+                Slice<Doctor> doctors = doctorService.searchDoctorsAfter(name, specialty, minFee, maxFee,
+                        includeInactive, afterName, afterId, size);
+                return ResponseEntity.ok(withFacets(toKeysetResponse(doctors), facets,
+                        name, specialty, minFee, maxFee, includeInactive));
+            }
+
+            // Slice: ไม่มี totalItems/totalPages แค่ hasNext (infinite scroll)
+            if (slice) {
+                Slice<Doctor> doctors = doctorService.searchDoctorsSlice(name, specialty, minFee, maxFee,
+                        includeInactive, page, size);
+                Map<Long, DoctorRatingSummary> ratings = loadRatings(doctors);
+                return ResponseEntity.ok(withFacets(toSliceResponse(doctors.map(d -> convertToDoctorResponse(d, ratings))), facets,
+                        name, specialty, minFee, maxFee, includeInactive));
+            }
+
             Page<Doctor> doctors;
 
             // If we have search/filter parameters, use advanced search
             if (name != null || specialty != null || minFee != null || maxFee != null) {
-                try {
-                    if (includeInactive) {
-                        doctors = doctorService.searchDoctorsIncludingInactive(name, specialty, minFee, maxFee, page, size);
-                    } else {
-                        doctors = doctorService.searchDoctors(name, specialty, minFee, maxFee, page, size);
-                    }
-                } catch (Exception e) {
-                    logger.warn("Advanced search failed, falling back to simpler methods: {}", e.getMessage());
-
-                    // Fallback: Try individual filters
-                    if (specialty != null && name == null) {
-                        // Specialty only
-                        doctors = doctorService.findBySpecialty(specialty, page, size);
-                    } else if (name != null && specialty == null) {
-                        // Name only - convert List to Page
-                        List<Doctor> doctorList = doctorService.findByName(name);
-                        int start = page * size;
-                        int end = Math.min(start + size, doctorList.size());
-                        List<Doctor> pageContent = doctorList.subList(start, end);
-                        doctors = new PageImpl<>(pageContent, PageRequest.of(page, size), doctorList.size());
-                    } else {
-                        // Get all doctors
-                        if (includeInactive) {
-                            doctors = doctorService.getAllDoctorsIncludingInactive(page, size, sort);
-                        } else {
-                            doctors = doctorService.getAllDoctors(page, size, sort);
-                        }
-                    }
+                if (includeInactive) {
+                    doctors = doctorService.searchDoctorsIncludingInactive(name, specialty, minFee, maxFee, page, size);
+                } else {
+                    doctors = doctorService.searchDoctors(name, specialty, minFee, maxFee, page, size);
                 }
             } else {
                 // No filters, get all doctors
@@ -173,15 +211,9 @@ public class DoctorController {
             }
 
             // Convert to response format
-            Map<String, Object> response = new HashMap<>();
-            response.put("doctors", doctors.getContent().stream().map(this::convertToDoctorResponse).toList());
-            response.put("currentPage", doctors.getNumber());
-            response.put("totalItems", doctors.getTotalElements());
-            response.put("totalPages", doctors.getTotalPages());
-            response.put("hasNext", doctors.hasNext());
-            response.put("hasPrevious", doctors.hasPrevious());
-
-            return ResponseEntity.ok(response);
+            Map<Long, DoctorRatingSummary> ratings = loadRatings(doctors);
+            return ResponseEntity.ok(withFacets(toPageResponse(doctors.map(d -> convertToDoctorResponse(d, ratings))), facets,
+                    name, specialty, minFee, maxFee, includeInactive));
 
         } catch (Exception e) {
             logger.error("Error searching doctors: ", e);
@@ -203,6 +235,7 @@ public class DoctorController {
 
     //ดูโปรไฟล์หมอ (Public api) ใครก็ดูได้
     @GetMapping("/{id}")
+    @ConditionalGet({Family.DOCTORS, Family.SPECIALTIES, Family.REVIEWS})
     public ResponseEntity<?> getDoctorById(@PathVariable Long id) {
         try {
             Optional<Doctor> doctorOpt = doctorService.findById(id);
@@ -231,12 +264,32 @@ public class DoctorController {
 
     //ดึงหมอตาม specialty (Public API) - เฉพาะ active doctors
     @GetMapping("/specialty/{specialtyId}")
+    @ConditionalGet({Family.DOCTORS, Family.SPECIALTIES, Family.REVIEWS})
     public ResponseEntity<?> getDoctorsBySpecialty(
             @PathVariable Long specialtyId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
         try {
+            if (doctorDirectory.isReady()) {
+                SpecialtyResponse specialty = doctorDirectory.getSpecialty(specialtyId);
+                if (specialty == null) {
+                    return ResponseEntity.badRequest()
+                            .body(Map.of("error", "Specialty not found"));
+                }
+
+                Page<DoctorResponse> doctors = doctorDirectory.getDoctorsBySpecialty(specialtyId, page, size);
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("specialty", specialty);
+                response.put("doctors", doctors.getContent());
+                response.put("currentPage", doctors.getNumber());
+                response.put("totalItems", doctors.getTotalElements());
+                response.put("totalPages", doctors.getTotalPages());
+
+                return ResponseEntity.ok(response);
+            }
+
             // ตรวจสอบ specialty มีอยู่
             Optional<Specialty> specialtyOpt = specialtyService.findById(specialtyId);
             if (specialtyOpt.isEmpty()) {
@@ -248,8 +301,9 @@ public class DoctorController {
             Page<Doctor> doctors = doctorService.findBySpecialty(specialtyId, page, size);
 
             Map<String, Object> response = new HashMap<>();
-            response.put("specialty", convertToSpecialtyResponse(specialtyOpt.get()));
-            response.put("doctors", doctors.getContent().stream().map(this::convertToDoctorResponse).toList());
+            Map<Long, DoctorRatingSummary> ratings = loadRatings(doctors);
+            response.put("specialty", SpecialtyResponse.from(specialtyOpt.get()));
+            response.put("doctors", doctors.getContent().stream().map(d -> convertToDoctorResponse(d, ratings)).toList());
             response.put("currentPage", doctors.getNumber());
             response.put("totalItems", doctors.getTotalElements());
             response.put("totalPages", doctors.getTotalPages());
@@ -265,13 +319,14 @@ public class DoctorController {
 
     //ค้นหาตามชื่อ (public API) - เฉพาะ active doctors
     @GetMapping("/search")
+    @ConditionalGet({Family.DOCTORS, Family.SPECIALTIES, Family.REVIEWS})
     public ResponseEntity<?> searchDoctorsByName(@RequestParam String name) {
         try {
             // Only show active doctors for public search
             List<Doctor> doctors = doctorService.findByName(name);
 
-            List<Map<String, Object>> response = doctors.stream()
-                    .map(this::convertToDoctorResponse)
+            List<DoctorResponse> response = doctors.stream()
+                    .map(doctor -> DoctorResponse.from(doctor, null))
                     .toList();
 
             return ResponseEntity.ok(Map.of("doctors", response));
@@ -283,8 +338,29 @@ public class DoctorController {
         }
     }
 
+    /**
+     * Autocomplete ชื่อหมอและแผนก (Public API) - ตอบจาก prefix index ในหน่วยความจำ
+     * GET /api/doctors/autocomplete?q=...&limit=10
+     */
+    @GetMapping("/autocomplete")
+    @ConditionalGet({Family.DOCTORS, Family.SPECIALTIES})
+    public ResponseEntity<?> autocomplete(@RequestParam String q,
+                                          @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<AutocompleteSuggestion> suggestions =
+                    autocompleteIndex.suggest(q, Math.max(1, Math.min(limit, MAX_AUTOCOMPLETE_LIMIT)));
+            return ResponseEntity.ok(Map.of("suggestions", suggestions));
+
+        } catch (Exception e) {
+            logger.error("Error getting autocomplete suggestions: ", e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Error getting suggestions: " + e.getMessage()));
+        }
+    }
+
     //ดึงสถิติหมอ (Public API)
     @GetMapping("/stats")
+    @ConditionalGet({Family.DOCTORS, Family.SPECIALTIES})
     public ResponseEntity<?> getDoctorStats() {
         try {
             DoctorStats stats = doctorService.getDoctorStats();
@@ -387,227 +463,131 @@ public class DoctorController {
         return null;
     }
 
-    private Map<String, Object> convertToDoctorDetailResponse(Doctor doctor) {
-        Map<String, Object> response = convertToDoctorResponse(doctor);
-        response.put("bio", doctor.getBio()); // เอา bio เต็ม
-        response.put("licenseNumber", doctor.getLicenseNumber());
-        response.put("phone", doctor.getUser().getPhone());
-        response.put("createdAt", doctor.getCreatedAt());
+    private DoctorDetailResponse convertToDoctorDetailResponse(Doctor doctor) {
+        return DoctorDetailResponse.from(doctor,
+                DoctorRating.of(reviewService.getRatingSummary(doctor.getId()).orElse(null), true));
+    }
 
-        return response;
+    // คะแนนรีวิวของหมอทั้งหน้าที่มาจาก database (query เดียวต่อหน้า)
+    private Map<Long, DoctorRatingSummary> loadRatings(Iterable<Doctor> doctors) {
+        List<Long> ids = new ArrayList<>();
+        for (Doctor doctor : doctors) {
+            ids.add(doctor.getId());
+        }
+        return reviewService.getRatingSummaries(ids);
     }
 
-    private Map<String, Object> convertToSpecialtyResponse(Specialty specialty) {
+    // Helper method for converting Doctor to response
+    private DoctorResponse convertToDoctorResponse(Doctor doctor, Map<Long, DoctorRatingSummary> ratings) {
+        return DoctorResponse.from(doctor, DoctorRating.of(ratings.get(doctor.getId()), true));
+    }
+
+    private Map<String, Object> toPageResponse(Page<?> doctors) {
         Map<String, Object> response = new HashMap<>();
-        response.put("id", specialty.getId());
-        response.put("name", specialty.getName());
-        response.put("description", specialty.getDescription());
+        response.put("doctors", doctors.getContent());
+        response.put("currentPage", doctors.getNumber());
+        response.put("totalItems", doctors.getTotalElements());
+        response.put("totalPages", doctors.getTotalPages());
+        response.put("hasNext", doctors.hasNext());
+        response.put("hasPrevious", doctors.hasPrevious());
+        return response;
+    }
 
+    private Map<String, Object> withFacets(Map<String, Object> response, boolean facets, String name,
+                                           Long specialty, BigDecimal minFee, BigDecimal maxFee,
+                                           boolean includeInactive) {
+        if (facets) {
+            response.put("facets", doctorFacetService.getFacets(name, specialty, minFee, maxFee, includeInactive));
+        }
         return response;
     }
 
-    // Helper method for converting Doctor to response
-    private Map<String, Object> convertToDoctorResponse(Doctor doctor) {
+    private Map<String, Object> toSliceResponse(Slice<?> doctors) {
         Map<String, Object> response = new HashMap<>();
-        response.put("id", doctor.getId());
-        response.put("doctorName", doctor.getDoctorName());
-        response.put("email", doctor.getUser().getEmail());
-
-        // Specialty info
-        Map<String, Object> specialty = new HashMap<>();
-        specialty.put("id", doctor.getSpecialty().getId());
-        specialty.put("name", doctor.getSpecialty().getName());
-        response.put("specialty", specialty);
-
-        response.put("licenseNumber", doctor.getLicenseNumber());
-        response.put("experienceYears", doctor.getExperienceYears());
-        response.put("consultationFee", doctor.getConsultationFee());
-        response.put("roomNumber", doctor.getRoomNumber());
-        response.put("isActive", doctor.getIsActive());
-        response.put("bio", doctor.getBio() != null ?
-                (doctor.getBio().length() > 100 ?
-                        doctor.getBio().substring(0, 100) + "..." :
-                        doctor.getBio()) : null);
+        response.put("doctors", doctors.getContent());
+        response.put("currentPage", doctors.getNumber());
+        response.put("hasNext", doctors.hasNext());
+        response.put("hasPrevious", doctors.hasPrevious());
+        return response;
+    }
 
+    private Map<String, Object> toKeysetResponse(Slice<Doctor> doctors) {
+        Map<String, Object> response = new HashMap<>();
+        List<Doctor> content = doctors.getContent();
+        Map<Long, DoctorRatingSummary> ratings = loadRatings(content);
+        response.put("doctors", content.stream().map(d -> convertToDoctorResponse(d, ratings)).toList());
+        response.put("hasNext", doctors.hasNext());
+        if (doctors.hasNext() && !content.isEmpty()) {
+            Doctor last = content.get(content.size() - 1);
+            String firstName = last.getUser().getFirstName();
+            response.put("nextAfterName", firstName != null ? firstName : "");
+            // cursor เป็น user id (ตัวเรียงลำดับรองของ keyset) ไม่ใช่ doctor id
+            response.put("nextAfterId", last.getUser().getId());
+        }
         return response;
     }
 
     /**
-     * Smart doctor selection API - เลือกแพทย์ที่มีเวลาว่างมากที่สุดในวันที่เลือก
-     * GET /api/doctors/smart-select?specialty=...&date=YYYY-MM-DD
+     * Smart doctor selection API - เลือกแพทย์ที่มีเวลาว่างในวันที่เลือก (ค่าเริ่มต้น weighted-round-robin ตามเวลาว่าง)
+     * GET /api/doctors/smart-select?specialty=...&date=YYYY-MM-DD&strategy=least-loaded|weighted-round-robin|fee-aware
      */
     @GetMapping("/smart-select")
     public ResponseEntity<?> smartSelectDoctor(
             @RequestParam String specialty,
-            @RequestParam(required = false) String date) {
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) String strategy) {
 
         try {
             logger.info("🎯 Smart select doctor for specialty: {} on date: {}", specialty, date);
 
-            // Get doctors by specialty
-            List<Doctor> doctors = doctorService.findBySpecialtyName(specialty);
+            LocalDate localDate = (date != null && !date.isEmpty()) ? LocalDate.parse(date) : null;
+            DoctorSelectionResult result = doctorSelectionService.selectDoctor(specialty, localDate, strategy);
 
-            if (doctors.isEmpty()) {
-                logger.warn("⚠️ No doctors found for specialty: {}", specialty);
-                Map<String, Object> response = new HashMap<>();
-                response.put("message", "No doctors found for this specialty");
-                response.put("doctor", null);
-                return ResponseEntity.ok(response);
-            }
-
-            // Filter active doctors only
-            doctors = doctors.stream()
-                    .filter(Doctor::getIsActive)
-                    .toList();
-
-            if (doctors.isEmpty()) {
-                logger.warn("⚠️ No active doctors found for specialty: {}", specialty);
-                Map<String, Object> response = new HashMap<>();
-                response.put("message", "No active doctors available for this specialty");
-                response.put("doctor", null);
-                return ResponseEntity.ok(response);
-            }
-
-            logger.info("✅ Found {} active doctors", doctors.size());
-
-            // ✅ NEW ALGORITHM: เลือกแพทย์ที่มีเวลาว่างมากที่สุด
-            if (date != null && !date.isEmpty()) {
-                logger.info("🔍 Calculating available time for each doctor on date: {}", date);
-
-                // Parse date to get day of week
-                LocalDate localDate = LocalDate.parse(date);
-                int dayOfWeek = localDate.getDayOfWeek().getValue(); // 1=Monday, 7=Sunday
-
-                // Filter doctors by availability on the selected date
-                List<Doctor> doctorsWithAvailability = doctors.stream()
-                        .filter(doctor -> {
-                            boolean hasAvailability = availabilityService.hasDoctorAvailabilityOnDate(
-                                    doctor.getId(),
-                                    date
-                            );
-                            if (!hasAvailability) {
-                                logger.info("  ⊘ Doctor {} has NO availability on {}",
-                                        doctor.getDoctorName(), date);
-                            }
-                            return hasAvailability;
-                        })
-                        .toList();
-
-                if (doctorsWithAvailability.isEmpty()) {
+            Map<String, Object> response = new HashMap<>();
+            switch (result.getOutcome()) {
+                case NO_DOCTORS:
+                    logger.warn("⚠️ No doctors found for specialty: {}", specialty);
+                    response.put("message", "No doctors found for this specialty");
+                    response.put("doctor", null);
+                    break;
+                case NO_ACTIVE_DOCTORS:
+                    logger.warn("⚠️ No active doctors found for specialty: {}", specialty);
+                    response.put("message", "No active doctors available for this specialty");
+                    response.put("doctor", null);
+                    break;
+                case NO_AVAILABILITY_ON_DATE:
                     logger.warn("⚠️ No doctors available on {} for specialty: {}", date, specialty);
-                    Map<String, Object> response = new HashMap<>();
                     response.put("message", "No doctors have available time slots on this date. Please select another date.");
                     response.put("doctor", null);
-                    response.put("totalDoctorsInSpecialty", doctors.size());
+                    response.put("totalDoctorsInSpecialty", result.getTotalDoctorsInSpecialty());
                     response.put("doctorsAvailableOnDate", 0);
-                    return ResponseEntity.ok(response);
-                }
-
-                doctors = doctorsWithAvailability;
-                logger.info("✅ {} doctors have availability on {}", doctors.size(), date);
-
-                // ✅ Calculate actual available time for each doctor
-                Map<Doctor, Integer> doctorAvailableMinutes = new HashMap<>();
-
-                for (Doctor doctor : doctors) {
-                    try {
-                        // Get availability slots for this doctor on this day
-                        List<Availability> availabilities = availabilityService
-                                .getDoctorAvailabilitiesByDay(doctor.getId(), dayOfWeek);
-
-                        // Calculate total scheduled minutes from availability
-                        int totalScheduledMinutes = 0;
-                        for (Availability availability : availabilities) {
-                            LocalTime start = availability.getStartTime();
-                            LocalTime end = availability.getEndTime();
-                            totalScheduledMinutes += (int) java.time.Duration.between(start, end).toMinutes();
-                        }
-
-                        // Get booked appointments for this doctor on this date
-                        List<Appointment> appointments = appointmentService.getAppointmentsByDoctorAndDate(
-                                doctor.getId(),
-                                date
-                        );
-
-                        // Calculate booked minutes (only PENDING and CONFIRMED)
-                        int bookedMinutes = appointments.stream()
-                                .filter(apt -> apt.getStatus() == AppointmentStatus.PENDING ||
-                                        apt.getStatus() == AppointmentStatus.CONFIRMED)
-                                .mapToInt(apt -> apt.getDurationMinutes() != null ? apt.getDurationMinutes() : 30)
-                                .sum();
-
-                        // Calculate actual available minutes
-                        int availableMinutes = totalScheduledMinutes - bookedMinutes;
-
-                        doctorAvailableMinutes.put(doctor, Math.max(0, availableMinutes));
-
-                        logger.info("  📊 {} (ID: {}): Scheduled={}min, Booked={}min, Available={}min",
-                                doctor.getDoctorName(), doctor.getId(),
-                                totalScheduledMinutes, bookedMinutes, availableMinutes);
-
-                    } catch (Exception e) {
-                        logger.warn("  ⚠️ Error calculating time for doctor {}: {}",
-                                doctor.getDoctorName(), e.getMessage());
-                        doctorAvailableMinutes.put(doctor, 0);
-                    }
-                }
-
-                // ✅ Find doctor(s) with maximum available time
-                int maxAvailableMinutes = doctorAvailableMinutes.values().stream()
-                        .max(Integer::compare)
-                        .orElse(0);
-
-                if (maxAvailableMinutes <= 0) {
+                    break;
+                case FULLY_BOOKED:
                     logger.warn("⚠️ No available time slots found for any doctor on {}", date);
-                    Map<String, Object> response = new HashMap<>();
                     response.put("message", "All doctors are fully booked on this date. Please select another date.");
                     response.put("doctor", null);
-                    return ResponseEntity.ok(response);
-                }
-
-                // Get all doctors with maximum available time
-                List<Doctor> doctorsWithMaxTime = doctorAvailableMinutes.entrySet().stream()
-                        .filter(entry -> entry.getValue() == maxAvailableMinutes)
-                        .map(Map.Entry::getKey)
-                        .toList();
-
-                logger.info("🎯 {} doctor(s) have maximum available time: {} minutes",
-                        doctorsWithMaxTime.size(), maxAvailableMinutes);
-
-                // If multiple doctors have same max time, choose randomly
-                Random random = new Random();
-                Doctor selectedDoctor = doctorsWithMaxTime.get(random.nextInt(doctorsWithMaxTime.size()));
-
-                logger.info("✅ Selected doctor: {} (ID: {}) with {} minutes available on {}",
-                        selectedDoctor.getDoctorName(), selectedDoctor.getId(),
-                        maxAvailableMinutes, date);
-
-                Map<String, Object> response = new HashMap<>();
-                response.put("message", "Doctor selected successfully based on maximum available time");
-                response.put("doctor", convertToSimpleDoctorResponse(selectedDoctor));
-                response.put("totalDoctorsInSpecialty", doctors.size());
-                response.put("availableMinutes", maxAvailableMinutes);
-                response.put("availableHours", String.format("%.1f", maxAvailableMinutes / 60.0));
-
-                return ResponseEntity.ok(response);
-
-            } else {
-                // No date provided - random selection (fallback)
-                logger.info("🎲 No date provided, selecting randomly");
-                Random random = new Random();
-                Doctor selectedDoctor = doctors.get(random.nextInt(doctors.size()));
-
-                logger.info("🎯 Selected doctor: {} (ID: {})",
-                        selectedDoctor.getDoctorName(), selectedDoctor.getId());
-
-                Map<String, Object> response = new HashMap<>();
-                response.put("message", "Doctor selected successfully");
-                response.put("doctor", convertToSimpleDoctorResponse(selectedDoctor));
-                response.put("totalDoctorsInSpecialty", doctors.size());
-
-                return ResponseEntity.ok(response);
+                    break;
+                default:
+                    Doctor selectedDoctor = result.getDoctor();
+                    logger.info("✅ Selected doctor: {} (ID: {})", selectedDoctor.getDoctorName(), selectedDoctor.getId());
+                    response.put("doctor", convertToSimpleDoctorResponse(selectedDoctor));
+                    response.put("totalDoctorsInSpecialty", result.getTotalDoctorsInSpecialty());
+                    if (localDate != null) {
+                        response.put("message", "Doctor selected successfully based on maximum available time");
+                        response.put("availableMinutes", result.getAvailableMinutes());
+                        response.put("availableHours", String.format("%.1f", result.getAvailableMinutes() / 60.0));
+                        response.put("strategy", strategy != null ? strategy : doctorSelectionService.getDefaultStrategy());
+                    } else {
+                        response.put("message", "Doctor selected successfully");
+                    }
             }
 
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("⚠️ Invalid smart-select request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             logger.error("❌ Error in smart doctor selection:", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -615,28 +595,7 @@ public class DoctorController {
         }
     }
     // Helper method for simple doctor response (for lists)
-    private Map<String, Object> convertToSimpleDoctorResponse(Doctor doctor) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("id", doctor.getId());
-        response.put("doctorName", doctor.getDoctorName());
-        response.put("email", doctor.getUser().getEmail());
-
-        // Specialty info
-        Map<String, Object> specialty = new HashMap<>();
-        specialty.put("id", doctor.getSpecialty().getId());
-        specialty.put("name", doctor.getSpecialty().getName());
-        response.put("specialty", specialty);
-
-        response.put("consultationFee", doctor.getConsultationFee());
-        response.put("experienceYears", doctor.getExperienceYears());
-        response.put("roomNumber", doctor.getRoomNumber());
-
-        // Short bio for lists
-        response.put("bio", doctor.getBio() != null ?
-                (doctor.getBio().length() > 50 ?
-                        doctor.getBio().substring(0, 50) + "..." :
-                        doctor.getBio()) : null);
-
-        return response;
+    private DoctorSummary convertToSimpleDoctorResponse(Doctor doctor) {
+        return DoctorSummary.from(doctor, null);
     }
 }
\ No newline at end of file
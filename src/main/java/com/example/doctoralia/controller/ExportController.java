@@ -0,0 +1,79 @@
+package com.example.doctoralia.controller;
+
+import com.example.doctoralia.dto.MessageResponse;
+import com.example.doctoralia.service.ExportService;
+import com.example.doctoralia.service.ExportService.Format;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Export ข้อมูลของ admin แบบ streaming (format=ndjson|csv)
+ * GET /api/admin/exports/appointments?from=...&to=...&doctorId=...&status=...&format=csv
+ */
+@RestController
+@RequestMapping("/api/admin/exports")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@PreAuthorize("hasRole('ADMIN')")
+public class ExportController {
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmm");
+
+    @Autowired
+    private ExportService exportService;
+
+    @GetMapping("/appointments")
+    public ResponseEntity<?> exportAppointments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        try {
+            Format exportFormat = Format.from(format);
+            return attachment("appointments", exportFormat,
+                    exportService.exportAppointments(from, to, doctorId, status, exportFormat));
+        } catch (Exception e) {
+            logger.error("Error exporting appointments: ", e);
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/bookings")
+    public ResponseEntity<?> exportBookings(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        try {
+            Format exportFormat = Format.from(format);
+            return attachment("bookings", exportFormat,
+                    exportService.exportBookings(from, to, doctorId, status, exportFormat));
+        } catch (Exception e) {
+            logger.error("Error exporting bookings: ", e);
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> attachment(String name, Format format, StreamingResponseBody body) {
+        String filename = name + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + "." + format.getExtension();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+    }
+}
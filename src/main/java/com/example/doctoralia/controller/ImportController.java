@@ -0,0 +1,57 @@
+package com.example.doctoralia.controller;
+
+import com.example.doctoralia.dto.DoctorImportResult;
+import com.example.doctoralia.dto.MessageResponse;
+import com.example.doctoralia.service.DoctorImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+
+/**
+ * Bulk import ของ admin (ดูรูปแบบไฟล์ใน DoctorImportService)
+ */
+@RestController
+@RequestMapping("/api/admin/imports")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@PreAuthorize("hasRole('ADMIN')")
+public class ImportController {
+    private static final Logger logger = LoggerFactory.getLogger(ImportController.class);
+
+    @Autowired
+    private DoctorImportService doctorImportService;
+
+    /**
+     * POST /api/admin/imports/doctors (multipart: doctors, schedules?)
+     * dryRun=true ตรวจอย่างเดียว, skipInvalid=true import แถวที่ผ่านแม้มีแถวอื่นผิด
+     */
+    @PostMapping(value = "/doctors", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importDoctors(
+            @RequestPart("doctors") MultipartFile doctors,
+            @RequestPart(value = "schedules", required = false) MultipartFile schedules,
+            @RequestParam(required = false, defaultValue = "false") boolean dryRun,
+            @RequestParam(required = false, defaultValue = "false") boolean skipInvalid) {
+        try (InputStream doctorsCsv = doctors.getInputStream();
+             InputStream schedulesCsv = schedules != null && !schedules.isEmpty() ? schedules.getInputStream() : null) {
+
+            DoctorImportResult result = doctorImportService.importDoctors(doctorsCsv, schedulesCsv, dryRun, skipInvalid);
+
+            // มี error และไม่ได้ import อะไรเลย (ไม่ใช่ dry run) ตอบ 400 พร้อมรายการ error
+            if (!result.isDryRun() && !result.isCommitted() && result.getErrorCount() > 0) {
+                return ResponseEntity.badRequest().body(result);
+            }
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            logger.error("Error importing doctors: ", e);
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+}
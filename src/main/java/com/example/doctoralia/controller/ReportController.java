@@ -0,0 +1,95 @@
+package com.example.doctoralia.controller;
+
+import com.example.doctoralia.dto.MessageResponse;
+import com.example.doctoralia.service.ReportService;
+import com.example.doctoralia.service.ReportViewRefresher;
+import com.example.doctoralia.service.ReportViewRefresher.ReportView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * รายงานของ admin จาก materialized view (ดู ReportViewRefresher)
+ */
+@RestController
+@RequestMapping("/api/admin/reports")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@PreAuthorize("hasRole('ADMIN')")
+public class ReportController {
+    private static final Logger logger = LoggerFactory.getLogger(ReportController.class);
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ReportViewRefresher reportViewRefresher;
+
+    @GetMapping("/appointments")
+    public ResponseEntity<?> getAppointmentReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(reportService.getAppointmentReport(from, to, doctorId, status, page, size));
+        } catch (Exception e) {
+            logger.error("Error getting appointment report: ", e);
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/reviews")
+    public ResponseEntity<?> getReviewReport(
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(reportService.getReviewReport(doctorId, page, size));
+        } catch (Exception e) {
+            logger.error("Error getting review report: ", e);
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/doctor-review-stats")
+    public ResponseEntity<?> getDoctorReviewStatsReport(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(reportService.getDoctorReviewStatsReport(page, size));
+        } catch (Exception e) {
+            logger.error("Error getting doctor review stats report: ", e);
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    // สถานะ/เวลาที่ใช้ refresh ของแต่ละ view
+    @GetMapping("/refresh-status")
+    public ResponseEntity<?> getRefreshStatus() {
+        return ResponseEntity.ok(Map.of("views", reportViewRefresher.getStatuses()));
+    }
+
+    // สั่ง refresh ทันที (ทุก view)
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshNow() {
+        Map<String, Object> response = new HashMap<>();
+        for (ReportView view : ReportView.values()) {
+            response.put(view.getViewName(), reportViewRefresher.refresh(view));
+        }
+        response.put("views", reportViewRefresher.getStatuses());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.doctoralia.controller;
+
+import com.example.doctoralia.config.ConditionalGet;
+import com.example.doctoralia.config.JwtUtils;
+import com.example.doctoralia.dto.CreateReviewRequest;
+import com.example.doctoralia.dto.DoctorRating;
+import com.example.doctoralia.dto.DoctorRatingSummaryResponse;
+import com.example.doctoralia.dto.MessageResponse;
+import com.example.doctoralia.dto.UpdateReviewRequest;
+import com.example.doctoralia.model.DoctorRatingSummary;
+import com.example.doctoralia.model.Review;
+import com.example.doctoralia.model.User;
+import com.example.doctoralia.service.ResourceVersions.Family;
+import com.example.doctoralia.service.ReviewService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reviews")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ReviewController {
+    private static final Logger logger = LoggerFactory.getLogger(ReviewController.class);
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    /**
+     * เขียนรีวิวหมอ (Patient only)
+     */
+    @PostMapping
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<?> createReview(@Valid @RequestBody CreateReviewRequest request,
+                                          HttpServletRequest httpRequest) {
+        try {
+            String jwt = parseJwt(httpRequest);
+            if (jwt == null || !jwtUtils.validateJwtToken(jwt)) {
+                return ResponseEntity.badRequest()
+                        .body(new MessageResponse("Invalid token"));
+            }
+
+            Long patientId = jwtUtils.getUserIdFromJwtToken(jwt);
+            Review review = reviewService.createReview(patientId, request);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Review created successfully!");
+            response.put("review", convertToReviewResponse(review));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error creating review: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error creating review"));
+        }
+    }
+
+    /**
+     * แก้ไขรีวิวของตัวเอง
+     */
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<?> updateReview(@PathVariable Long id,
+                                          @Valid @RequestBody UpdateReviewRequest request,
+                                          HttpServletRequest httpRequest) {
+        try {
+            String jwt = parseJwt(httpRequest);
+            if (jwt == null || !jwtUtils.validateJwtToken(jwt)) {
+                return ResponseEntity.badRequest()
+                        .body(new MessageResponse("Invalid token"));
+            }
+
+            Long patientId = jwtUtils.getUserIdFromJwtToken(jwt);
+            Review review = reviewService.updateReview(id, patientId, request);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Review updated successfully!");
+            response.put("review", convertToReviewResponse(review));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error updating review: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error updating review"));
+        }
+    }
+
+    /**
+     * ลบรีวิว (เจ้าของรีวิว หรือ admin)
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteReview(@PathVariable Long id, HttpServletRequest httpRequest) {
+        try {
+            String jwt = parseJwt(httpRequest);
+            if (jwt == null || !jwtUtils.validateJwtToken(jwt)) {
+                return ResponseEntity.badRequest()
+                        .body(new MessageResponse("Invalid token"));
+            }
+
+            Long userId = jwtUtils.getUserIdFromJwtToken(jwt);
+            boolean isAdmin = "ADMIN".equals(jwtUtils.getRoleFromJwtToken(jwt));
+            reviewService.deleteReview(id, userId, isAdmin);
+
+            return ResponseEntity.ok(new MessageResponse("Review deleted successfully!"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error deleting review: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error deleting review"));
+        }
+    }
+
+    /**
+     * รีวิวของหมอ (Public) พร้อมสรุปคะแนน
+     */
+    @GetMapping("/doctor/{doctorId}")
+    @ConditionalGet(Family.REVIEWS)
+    public ResponseEntity<?> getDoctorReviews(@PathVariable Long doctorId,
+                                              @RequestParam(defaultValue = "0") int page,
+                                              @RequestParam(defaultValue = "10") int size) {
+        try {
+            Page<Review> reviews = reviewService.getDoctorReviews(doctorId, page, Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("reviews", reviews.getContent().stream().map(this::convertToReviewResponse).toList());
+            response.put("currentPage", reviews.getNumber());
+            response.put("totalItems", reviews.getTotalElements());
+            response.put("totalPages", reviews.getTotalPages());
+            response.put("hasNext", reviews.hasNext());
+            response.put("hasPrevious", reviews.hasPrevious());
+            response.put("summary", DoctorRating.of(reviewService.getRatingSummary(doctorId).orElse(null), true));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error fetching reviews for doctor {}: ", doctorId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error fetching reviews"));
+        }
+    }
+
+    /**
+     * สรุปคะแนนของหมอ (Public) - อ่านจากตารางสรุป 1 แถว
+     */
+    @GetMapping("/doctor/{doctorId}/summary")
+    @ConditionalGet(Family.REVIEWS)
+    public ResponseEntity<?> getDoctorRatingSummary(@PathVariable Long doctorId) {
+        try {
+            DoctorRatingSummary summary = reviewService.getRatingSummary(doctorId).orElse(null);
+            return ResponseEntity.ok(new DoctorRatingSummaryResponse(doctorId, DoctorRating.of(summary, true)));
+        } catch (Exception e) {
+            logger.error("Error fetching rating summary for doctor {}: ", doctorId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error fetching rating summary"));
+        }
+    }
+
+    /**
+     * รีวิวที่ตัวเองเขียน
+     */
+    @GetMapping("/my")
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<?> getMyReviews(HttpServletRequest httpRequest) {
+        try {
+            String jwt = parseJwt(httpRequest);
+            if (jwt == null || !jwtUtils.validateJwtToken(jwt)) {
+                return ResponseEntity.badRequest()
+                        .body(new MessageResponse("Invalid token"));
+            }
+
+            Long patientId = jwtUtils.getUserIdFromJwtToken(jwt);
+            List<Review> reviews = reviewService.getPatientReviews(patientId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("reviews", reviews.stream().map(review -> {
+                Map<String, Object> item = convertToReviewResponse(review);
+                item.put("doctorId", review.getDoctor().getId());
+                item.put("doctorName", review.getDoctor().getDoctorName());
+                return item;
+            }).toList());
+            response.put("totalCount", reviews.size());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error fetching my reviews: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error fetching reviews"));
+        }
+    }
+
+    private String parseJwt(HttpServletRequest request) {
+        String headerAuth = request.getHeader("Authorization");
+        if (headerAuth != null && headerAuth.startsWith("Bearer ")) {
+            return headerAuth.substring(7);
+        }
+        return null;
+    }
+
+    private Map<String, Object> convertToReviewResponse(Review review) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", review.getId());
+        response.put("rating", review.getRating());
+        response.put("comment", review.getComment());
+        response.put("isAnonymous", review.getIsAnonymous());
+        response.put("appointmentId", review.getAppointment() != null ? review.getAppointment().getId() : null);
+        response.put("createdAt", review.getCreatedAt());
+        response.put("updatedAt", review.getUpdatedAt());
+
+        // ชื่อคนไข้แบบย่อ (ชื่อ + อักษรแรกของนามสกุล) เหมือน view review_details
+        User patient = review.getPatient();
+        if (Boolean.TRUE.equals(review.getIsAnonymous()) || patient == null) {
+            response.put("patientName", "Anonymous");
+        } else {
+            String lastName = patient.getLastName();
+            response.put("patientName", (patient.getFirstName() != null ? patient.getFirstName() : "") +
+                    (lastName != null && !lastName.isEmpty() ? " " + lastName.charAt(0) + "." : ""));
+        }
+        return response;
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.doctoralia.controller;
 
+import com.example.doctoralia.config.ConditionalGet;
 import com.example.doctoralia.dto.SpecialtyWithDoctorCount;
 import com.example.doctoralia.model.Specialty;
 import com.example.doctoralia.repository.SpecialtyRepository;
+import com.example.doctoralia.service.ResourceVersions.Family;
 import com.example.doctoralia.service.SpecialtyService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,6 +25,7 @@ public class SpecialtyController {
 
     //ดึงแผนกทั้งหมด
     @GetMapping
+    @ConditionalGet(Family.SPECIALTIES)
     public ResponseEntity<?> getAllSpecialties() {
         try {
             List<Specialty> specialties = specialtyService.getAllSpecialties();
@@ -40,6 +43,7 @@ public class SpecialtyController {
 
     //ดึงแผนกพร้อมจำนวนหมอ (public API)
     @GetMapping("/with-count")
+    @ConditionalGet({Family.SPECIALTIES, Family.DOCTORS})
     public ResponseEntity<?> getSpecialtiesWithDoctorCount() {
         try {
             List<SpecialtyWithDoctorCount> specialties =
@@ -64,6 +68,7 @@ public class SpecialtyController {
 
     //ดูแผนกตาม ID
     @GetMapping("/{id}")
+    @ConditionalGet(Family.SPECIALTIES)
     public ResponseEntity<?> getSpecialtyById(@PathVariable Long id) {
         try {
             Optional<Specialty> specialtyOpt = specialtyService.findById(id);
@@ -90,6 +95,7 @@ public class SpecialtyController {
 
     //ค้นหาตามชื่อ (Public API)
     @GetMapping("/search")
+    @ConditionalGet(Family.SPECIALTIES)
     public ResponseEntity<?> searchSpecialties(@RequestParam String name) {
         try {
             List<Specialty> specialties = specialtyService.searchByName(name);
@@ -3,6 +3,7 @@ package com.example.doctoralia.controller;
 import com.example.doctoralia.config.JwtUtils;
 import com.example.doctoralia.dto.MessageResponse;
 import com.example.doctoralia.dto.UpdateProfileRequest;
+import com.example.doctoralia.dto.UserSummary;
 import com.example.doctoralia.model.User;
 import com.example.doctoralia.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,6 +11,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -26,6 +29,8 @@ public class UserController {
 
     private static Logger logger = LoggerFactory.getLogger(UserController.class);
 
+    private static final int MAX_USER_PAGE_SIZE = 200;
+
     @Autowired
     private UserService userService;
 
@@ -126,11 +131,18 @@ public class UserController {
     }
 
     /**
-     * Get all users for admin (Admin only)
+     * Get users for admin (Admin only) - แบ่งหน้า/keyset, ค้นหา email/ชื่อ (q), กรอง role
      */
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> getAllUsersForAdmin(HttpServletRequest request) {
+    public ResponseEntity<?> getAllUsersForAdmin(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String role,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false, defaultValue = "false") boolean keyset,
+            @RequestParam(required = false) Long afterId,
+            HttpServletRequest request) {
         try {
             String jwt = parseJwt(request);
             if (jwt == null || !jwtUtils.validateJwtToken(jwt)) {
@@ -138,28 +150,34 @@ public class UserController {
                         .body(new MessageResponse("Invalid token"));
             }
 
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
-            if (!"ADMIN".equals(role)) {
+            String tokenRole = jwtUtils.getRoleFromJwtToken(jwt);
+            if (!"ADMIN".equals(tokenRole)) {
                 return ResponseEntity.badRequest()
                         .body(new MessageResponse("Access denied. Admin role required."));
             }
 
-            List<User> users = userService.getAllUsers();
-
-            List<Map<String, Object>> response = users.stream()
-                    .map(user -> {
-                        Map<String, Object> userMap = new HashMap<>();
-                        userMap.put("id", user.getId());
-                        userMap.put("email", user.getEmail());
-                        userMap.put("firstName", user.getFirstName());
-                        userMap.put("lastName", user.getLastName());
-                        userMap.put("role", user.getRole());
-                        userMap.put("createdAt", user.getCreatedAt());
-                        return userMap;
-                    })
-                    .toList();
-
-            return ResponseEntity.ok(Map.of("users", response));
+            int pageSize = Math.min(Math.max(size, 1), MAX_USER_PAGE_SIZE);
+
+            Map<String, Object> response = new HashMap<>();
+            if (keyset || afterId != null) {
+                Slice<UserSummary> users = userService.searchUsersAfter(q, role, afterId, pageSize);
+                List<UserSummary> content = users.getContent();
+                response.put("users", content);
+                response.put("hasNext", users.hasNext());
+                if (users.hasNext() && !content.isEmpty()) {
+                    response.put("nextAfterId", content.get(content.size() - 1).getId());
+                }
+            } else {
+                Page<UserSummary> users = userService.searchUsers(q, role, page, pageSize);
+                response.put("users", users.getContent());
+                response.put("currentPage", users.getNumber());
+                response.put("totalItems", users.getTotalElements());
+                response.put("totalPages", users.getTotalPages());
+                response.put("hasNext", users.hasNext());
+                response.put("hasPrevious", users.hasPrevious());
+            }
+
+            return ResponseEntity.ok(response);
 
         } catch (Exception e) {
             logger.error("Error getting all users: ", e);
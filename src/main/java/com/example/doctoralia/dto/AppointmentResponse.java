@@ -0,0 +1,56 @@
+package com.example.doctoralia.dto;
+
+import com.example.doctoralia.model.Appointment;
+import com.example.doctoralia.model.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+public record AppointmentResponse(Long id,
+                                  DoctorInfo doctor,
+                                  PatientInfo patient,
+                                  LocalDateTime appointmentDatetime,
+                                  Integer durationMinutes,
+                                  AppointmentStatus status,
+                                  String notes,
+                                  String doctorNotes,
+                                  LocalDateTime createdAt,
+                                  LocalDateTime updatedAt) {
+
+    public record DoctorInfo(Long id, String doctorName, SpecialtyRef specialty) {
+    }
+
+    public record PatientInfo(Long id, String email, String firstName, String lastName) {
+    }
+
+    public static AppointmentResponse from(Appointment appointment) {
+        return new AppointmentResponse(
+                appointment.getId(),
+                new DoctorInfo(appointment.getDoctor().getId(), appointment.getDoctor().getDoctorName(),
+                        SpecialtyRef.from(appointment.getDoctor().getSpecialty())),
+                new PatientInfo(appointment.getPatient().getId(), appointment.getPatient().getEmail(),
+                        appointment.getPatient().getFirstName(), appointment.getPatient().getLastName()),
+                appointment.getAppointmentDatetime(),
+                appointment.getDurationMinutes(),
+                appointment.getStatus(),
+                appointment.getNotes(),
+                appointment.getDoctorNotes(),
+                appointment.getCreatedAt(),
+                appointment.getUpdatedAt());
+    }
+
+    public static AppointmentResponse from(AppointmentView appointment) {
+        return new AppointmentResponse(
+                appointment.getId(),
+                new DoctorInfo(appointment.getDoctorId(), appointment.getDoctorName(),
+                        new SpecialtyRef(appointment.getSpecialtyId(), appointment.getSpecialtyName())),
+                new PatientInfo(appointment.getPatientId(), appointment.getPatientEmail(),
+                        appointment.getPatientFirstName(), appointment.getPatientLastName()),
+                appointment.getAppointmentDatetime(),
+                appointment.getDurationMinutes(),
+                appointment.getStatus(),
+                appointment.getNotes(),
+                appointment.getDoctorNotes(),
+                appointment.getCreatedAt(),
+                appointment.getUpdatedAt());
+    }
+}
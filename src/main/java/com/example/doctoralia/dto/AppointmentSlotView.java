@@ -0,0 +1,15 @@
+package com.example.doctoralia.dto;
+
+import com.example.doctoralia.model.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection ของช่วงเวลานัด (สำหรับ booked-slots)
+ */
+public interface AppointmentSlotView {
+    Long getId();
+    LocalDateTime getAppointmentDatetime();
+    Integer getDurationMinutes();
+    AppointmentStatus getStatus();
+}
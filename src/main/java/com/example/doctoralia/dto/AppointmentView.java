@@ -0,0 +1,76 @@
+package com.example.doctoralia.dto;
+
+import com.example.doctoralia.model.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * ข้อมูลนัดเฉพาะคอลัมน์ที่แสดงในรายการนัด (ไม่โหลด entity Doctor/User ทั้งก้อน)
+ */
+public class AppointmentView {
+    private final Long id;
+    private final Long doctorId;
+    private final String doctorFirstName;
+    private final String doctorLastName;
+    private final Long specialtyId;
+    private final String specialtyName;
+    private final Long patientId;
+    private final String patientEmail;
+    private final String patientFirstName;
+    private final String patientLastName;
+    private final LocalDateTime appointmentDatetime;
+    private final Integer durationMinutes;
+    private final AppointmentStatus status;
+    private final String notes;
+    private final String doctorNotes;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public AppointmentView(Long id, Long doctorId, String doctorFirstName, String doctorLastName,
+                           Long specialtyId, String specialtyName,
+                           Long patientId, String patientEmail, String patientFirstName, String patientLastName,
+                           LocalDateTime appointmentDatetime, Integer durationMinutes, AppointmentStatus status,
+                           String notes, String doctorNotes, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.doctorId = doctorId;
+        this.doctorFirstName = doctorFirstName;
+        this.doctorLastName = doctorLastName;
+        this.specialtyId = specialtyId;
+        this.specialtyName = specialtyName;
+        this.patientId = patientId;
+        this.patientEmail = patientEmail;
+        this.patientFirstName = patientFirstName;
+        this.patientLastName = patientLastName;
+        this.appointmentDatetime = appointmentDatetime;
+        this.durationMinutes = durationMinutes;
+        this.status = status;
+        this.notes = notes;
+        this.doctorNotes = doctorNotes;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getDoctorId() { return doctorId; }
+    public Long getSpecialtyId() { return specialtyId; }
+    public String getSpecialtyName() { return specialtyName; }
+    public Long getPatientId() { return patientId; }
+    public String getPatientEmail() { return patientEmail; }
+    public String getPatientFirstName() { return patientFirstName; }
+    public String getPatientLastName() { return patientLastName; }
+    public LocalDateTime getAppointmentDatetime() { return appointmentDatetime; }
+    public Integer getDurationMinutes() { return durationMinutes; }
+    public AppointmentStatus getStatus() { return status; }
+    public String getNotes() { return notes; }
+    public String getDoctorNotes() { return doctorNotes; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    // เหมือน User.getFullName()
+    public String getDoctorName() {
+        String first = doctorFirstName != null ? doctorFirstName : "";
+        String last = doctorLastName != null ? doctorLastName : "";
+        return (first + " " + last).trim();
+    }
+}
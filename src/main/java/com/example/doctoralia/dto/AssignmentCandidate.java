@@ -0,0 +1,30 @@
+package com.example.doctoralia.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * หมอหนึ่งคนที่อยู่ในตัวเลือกการจัดสรร พร้อม load ของวันที่เลือก
+ */
+public class AssignmentCandidate {
+    private final Long doctorId;
+    private final BigDecimal consultationFee;
+    private final int scheduledMinutes;
+    private final int bookedMinutes;
+
+    public AssignmentCandidate(Long doctorId, BigDecimal consultationFee, int scheduledMinutes, int bookedMinutes) {
+        this.doctorId = doctorId;
+        this.consultationFee = consultationFee;
+        this.scheduledMinutes = scheduledMinutes;
+        this.bookedMinutes = bookedMinutes;
+    }
+
+    // Getters
+    public Long getDoctorId() { return doctorId; }
+    public BigDecimal getConsultationFee() { return consultationFee; }
+    public int getScheduledMinutes() { return scheduledMinutes; }
+    public int getBookedMinutes() { return bookedMinutes; }
+
+    public int getAvailableMinutes() {
+        return Math.max(0, scheduledMinutes - bookedMinutes);
+    }
+}
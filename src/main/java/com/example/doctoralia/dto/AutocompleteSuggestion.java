@@ -0,0 +1,24 @@
+package com.example.doctoralia.dto;
+
+public class AutocompleteSuggestion {
+
+    public enum Type {
+        DOCTOR,
+        SPECIALTY
+    }
+
+    private final Type type;
+    private final Long id;
+    private final String name;
+
+    public AutocompleteSuggestion(Type type, Long id, String name) {
+        this.type = type;
+        this.id = id;
+        this.name = name;
+    }
+
+    // Getters
+    public Type getType() { return type; }
+    public Long getId() { return id; }
+    public String getName() { return name; }
+}
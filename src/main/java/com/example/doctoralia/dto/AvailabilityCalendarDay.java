@@ -0,0 +1,32 @@
+package com.example.doctoralia.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class AvailabilityCalendarDay {
+    private LocalDate date;
+    private int dayOfWeek;
+    private int scheduledMinutes;
+    private int bookedMinutes;
+    private int freeMinutes;
+    private List<String> freeSlots;
+
+    public AvailabilityCalendarDay(LocalDate date, int dayOfWeek, int scheduledMinutes,
+                                   int bookedMinutes, int freeMinutes, List<String> freeSlots) {
+        this.date = date;
+        this.dayOfWeek = dayOfWeek;
+        this.scheduledMinutes = scheduledMinutes;
+        this.bookedMinutes = bookedMinutes;
+        this.freeMinutes = freeMinutes;
+        this.freeSlots = freeSlots;
+    }
+
+    // Getters
+    public LocalDate getDate() { return date; }
+    public int getDayOfWeek() { return dayOfWeek; }
+    public int getScheduledMinutes() { return scheduledMinutes; }
+    public int getBookedMinutes() { return bookedMinutes; }
+    public int getFreeMinutes() { return freeMinutes; }
+    public List<String> getFreeSlots() { return freeSlots; }
+    public boolean isHasAvailability() { return scheduledMinutes > 0; }
+}
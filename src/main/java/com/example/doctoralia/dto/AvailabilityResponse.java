@@ -0,0 +1,47 @@
+package com.example.doctoralia.dto;
+
+import com.example.doctoralia.model.Availability;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * ช่วงเวลาทำงานของหมอ (สำหรับหมอเจ้าของตาราง)
+ */
+public record AvailabilityResponse(Long id,
+                                   Integer dayOfWeek,
+                                   String dayName,
+                                   LocalTime startTime,
+                                   LocalTime endTime,
+                                   String timeRange,
+                                   @JsonProperty("isActive") Boolean isActive,
+                                   LocalDateTime createdAt) {
+
+    public static AvailabilityResponse from(Availability availability) {
+        return new AvailabilityResponse(
+                availability.getId(),
+                availability.getDayOfWeek(),
+                availability.getDayName(),
+                availability.getStartTime(),
+                availability.getEndTime(),
+                availability.getTimeRange(),
+                availability.getIsActive(),
+                availability.getCreatedAt());
+    }
+
+    /**
+     * แบบ public (ไม่มี id/สถานะ, เวลาเป็น string)
+     */
+    public record Public(Integer dayOfWeek, String dayName, String startTime, String endTime, String timeRange) {
+
+        public static Public from(Availability availability) {
+            return new Public(
+                    availability.getDayOfWeek(),
+                    availability.getDayName(),
+                    availability.getStartTime().toString(),
+                    availability.getEndTime().toString(),
+                    availability.getTimeRange());
+        }
+    }
+}
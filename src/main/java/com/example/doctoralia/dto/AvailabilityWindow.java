@@ -0,0 +1,14 @@
+package com.example.doctoralia.dto;
+
+import java.time.LocalTime;
+
+/**
+ * Projection ของช่วงเวลาทำงาน (ไม่ต้องโหลด Doctor/User/Specialty ทั้ง entity)
+ */
+public interface AvailabilityWindow {
+    Long getDoctorId();
+    Long getSpecialtyId();
+    Integer getDayOfWeek();
+    LocalTime getStartTime();
+    LocalTime getEndTime();
+}
@@ -0,0 +1,11 @@
+package com.example.doctoralia.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection ของเวลาที่ถูกจองแล้ว (ใช้คำนวณเวลาว่าง ไม่ต้องโหลด Doctor/User)
+ */
+public interface BookedInterval {
+    LocalDateTime getAppointmentDatetime();
+    Integer getDurationMinutes();
+}
@@ -0,0 +1,12 @@
+package com.example.doctoralia.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Projection ของนาทีที่ถูกจองของหมอต่อวัน (ใช้ reconcile load counter)
+ */
+public interface DoctorDateLoad {
+    Long getDoctorId();
+    LocalDate getDay();
+    Long getBookedMinutes();
+}
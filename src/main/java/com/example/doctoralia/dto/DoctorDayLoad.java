@@ -0,0 +1,14 @@
+package com.example.doctoralia.dto;
+
+/**
+ * Projection ของเวลาทำงาน/เวลาที่ถูกจองของหมอในวันหนึ่ง (นาที)
+ */
+public interface DoctorDayLoad {
+    Long getDoctorId();
+    Integer getScheduledMinutes();
+    Integer getBookedMinutes();
+
+    default int getAvailableMinutes() {
+        return Math.max(0, getScheduledMinutes() - getBookedMinutes());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.doctoralia.dto;
+
+import com.example.doctoralia.model.Doctor;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * โปรไฟล์หมอเต็ม (bio เต็ม + เบอร์โทร)
+ */
+public record DoctorDetailResponse(Long id,
+                                   String doctorName,
+                                   String email,
+                                   SpecialtyRef specialty,
+                                   String licenseNumber,
+                                   Integer experienceYears,
+                                   BigDecimal consultationFee,
+                                   String roomNumber,
+                                   @JsonProperty("isActive") Boolean isActive,
+                                   String bio,
+                                   String phone,
+                                   LocalDateTime createdAt,
+                                   @JsonUnwrapped DoctorRating rating) {
+
+    public static DoctorDetailResponse from(Doctor doctor, DoctorRating rating) {
+        return new DoctorDetailResponse(
+                doctor.getId(),
+                doctor.getDoctorName(),
+                doctor.getUser().getEmail(),
+                SpecialtyRef.from(doctor.getSpecialty()),
+                doctor.getLicenseNumber(),
+                doctor.getExperienceYears(),
+                doctor.getConsultationFee(),
+                doctor.getRoomNumber(),
+                doctor.getIsActive(),
+                doctor.getBio(),
+                doctor.getUser().getPhone(),
+                doctor.getCreatedAt(),
+                rating);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.doctoralia.dto;
+
+/**
+ * Projection ของ facet query: facet = "specialty" (bucket = specialty id)
+ * หรือ "fee" (bucket = ลำดับช่วงค่าตรวจจาก width_bucket)
+ */
+public interface DoctorFacetRow {
+    String getFacet();
+    Long getBucket();
+    Long getDoctorCount();
+}
@@ -0,0 +1,11 @@
+package com.example.doctoralia.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection ของ doctor id + ค่าตรวจ (สำหรับการจัดสรรหมอ)
+ */
+public interface DoctorFeeView {
+    Long getId();
+    BigDecimal getConsultationFee();
+}
@@ -0,0 +1,75 @@
+package com.example.doctoralia.dto;
+
+import java.util.List;
+
+/**
+ * ผลการ bulk import หมอ/ตารางเวลา: จำนวนแถว, error รายแถว และเวลาที่ใช้แต่ละขั้น
+ */
+public class DoctorImportResult {
+
+    public static class RowError {
+        private String file;
+        private long line;
+        private String column;
+        private String message;
+
+        public RowError(String file, long line, String column, String message) {
+            this.file = file;
+            this.line = line;
+            this.column = column;
+            this.message = message;
+        }
+
+        public String getFile() { return file; }
+        public long getLine() { return line; }
+        public String getColumn() { return column; }
+        public String getMessage() { return message; }
+    }
+
+    private boolean dryRun;
+    private boolean committed;
+    private int doctorRows;
+    private int scheduleRows;
+    private int importedDoctors;
+    private int importedAvailabilities;
+    private int errorCount;
+    private List<RowError> errors;
+    private long parseMs;
+    private long hashMs;
+    private long loadMs;
+    private long totalMs;
+    private long rowsPerSecond;
+
+    public DoctorImportResult(boolean dryRun, boolean committed, int doctorRows, int scheduleRows,
+                              int importedDoctors, int importedAvailabilities, int errorCount, List<RowError> errors,
+                              long parseMs, long hashMs, long loadMs, long totalMs) {
+        this.dryRun = dryRun;
+        this.committed = committed;
+        this.doctorRows = doctorRows;
+        this.scheduleRows = scheduleRows;
+        this.importedDoctors = importedDoctors;
+        this.importedAvailabilities = importedAvailabilities;
+        this.errorCount = errorCount;
+        this.errors = errors;
+        this.parseMs = parseMs;
+        this.hashMs = hashMs;
+        this.loadMs = loadMs;
+        this.totalMs = totalMs;
+        this.rowsPerSecond = totalMs > 0 ? (doctorRows + scheduleRows) * 1000L / totalMs : doctorRows + scheduleRows;
+    }
+
+    // Getters
+    public boolean isDryRun() { return dryRun; }
+    public boolean isCommitted() { return committed; }
+    public int getDoctorRows() { return doctorRows; }
+    public int getScheduleRows() { return scheduleRows; }
+    public int getImportedDoctors() { return importedDoctors; }
+    public int getImportedAvailabilities() { return importedAvailabilities; }
+    public int getErrorCount() { return errorCount; }
+    public List<RowError> getErrors() { return errors; }
+    public long getParseMs() { return parseMs; }
+    public long getHashMs() { return hashMs; }
+    public long getLoadMs() { return loadMs; }
+    public long getTotalMs() { return totalMs; }
+    public long getRowsPerSecond() { return rowsPerSecond; }
+}
@@ -0,0 +1,41 @@
+package com.example.doctoralia.dto;
+
+import com.example.doctoralia.model.DoctorRatingSummary;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+
+/**
+ * คะแนนรีวิวของหมอ (ฝังแบบ @JsonUnwrapped ใน response ของหมอ)
+ * ratingDistribution = null จะไม่ถูกเขียนออกไป
+ */
+public record DoctorRating(BigDecimal averageRating,
+                           long reviewCount,
+                           @JsonInclude(JsonInclude.Include.NON_NULL) Distribution ratingDistribution) {
+
+    public record Distribution(@JsonProperty("1") long oneStar,
+                               @JsonProperty("2") long twoStar,
+                               @JsonProperty("3") long threeStar,
+                               @JsonProperty("4") long fourStar,
+                               @JsonProperty("5") long fiveStar) {
+    }
+
+    private static final DoctorRating NONE = new DoctorRating(BigDecimal.ZERO, 0, null);
+    private static final DoctorRating NONE_WITH_DISTRIBUTION =
+            new DoctorRating(BigDecimal.ZERO, 0, new Distribution(0, 0, 0, 0, 0));
+
+    /**
+     * summary = null คือยังไม่มีรีวิว
+     */
+    public static DoctorRating of(DoctorRatingSummary summary, boolean withDistribution) {
+        if (summary == null) {
+            return withDistribution ? NONE_WITH_DISTRIBUTION : NONE;
+        }
+        Distribution distribution = withDistribution
+                ? new Distribution(summary.getOneStarCount(), summary.getTwoStarCount(), summary.getThreeStarCount(),
+                        summary.getFourStarCount(), summary.getFiveStarCount())
+                : null;
+        return new DoctorRating(summary.getAverageRating(), summary.getReviewCount(), distribution);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.doctoralia.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+public record DoctorRatingSummaryResponse(Long doctorId, @JsonUnwrapped DoctorRating rating) {
+}
@@ -0,0 +1,50 @@
+package com.example.doctoralia.dto;
+
+import com.example.doctoralia.model.Doctor;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.math.BigDecimal;
+
+/**
+ * หมอสำหรับหน้าค้นหา/รายการ (bio ตัดที่ 100 ตัวอักษร)
+ */
+public record DoctorResponse(Long id,
+                             String doctorName,
+                             String email,
+                             SpecialtyRef specialty,
+                             String licenseNumber,
+                             Integer experienceYears,
+                             BigDecimal consultationFee,
+                             String roomNumber,
+                             @JsonProperty("isActive") Boolean isActive,
+                             String bio,
+                             @JsonUnwrapped DoctorRating rating) {
+
+    public static DoctorResponse from(Doctor doctor, DoctorRating rating) {
+        return new DoctorResponse(
+                doctor.getId(),
+                doctor.getDoctorName(),
+                doctor.getUser().getEmail(),
+                SpecialtyRef.from(doctor.getSpecialty()),
+                doctor.getLicenseNumber(),
+                doctor.getExperienceYears(),
+                doctor.getConsultationFee(),
+                doctor.getRoomNumber(),
+                doctor.getIsActive(),
+                shorten(doctor.getBio(), 100),
+                rating);
+    }
+
+    public DoctorResponse withRating(DoctorRating newRating) {
+        return new DoctorResponse(id, doctorName, email, specialty, licenseNumber, experienceYears,
+                consultationFee, roomNumber, isActive, bio, newRating);
+    }
+
+    static String shorten(String text, int length) {
+        if (text == null) {
+            return null;
+        }
+        return text.length() > length ? text.substring(0, length) + "..." : text;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.doctoralia.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * จำนวนผลค้นหาแยกตามแผนกและช่วงค่าตรวจ
+ * - specialties นับตามเงื่อนไขชื่อ + ค่าตรวจ (ไม่รวมเงื่อนไขแผนก)
+ * - feeBuckets นับตามเงื่อนไขชื่อ + แผนก (ไม่รวมเงื่อนไขค่าตรวจ) หมอที่ไม่มีค่าตรวจไม่ถูกนับ
+ */
+public class DoctorSearchFacets {
+
+    private List<SpecialtyCount> specialties;
+    private List<FeeBucketCount> feeBuckets;
+
+    public DoctorSearchFacets(List<SpecialtyCount> specialties, List<FeeBucketCount> feeBuckets) {
+        this.specialties = specialties;
+        this.feeBuckets = feeBuckets;
+    }
+
+    // Getters
+    public List<SpecialtyCount> getSpecialties() { return specialties; }
+    public List<FeeBucketCount> getFeeBuckets() { return feeBuckets; }
+
+    public static class SpecialtyCount {
+        private Long specialtyId;
+        private String specialtyName;
+        private long count;
+
+        public SpecialtyCount(Long specialtyId, String specialtyName, long count) {
+            this.specialtyId = specialtyId;
+            this.specialtyName = specialtyName;
+            this.count = count;
+        }
+
+        public Long getSpecialtyId() { return specialtyId; }
+        public String getSpecialtyName() { return specialtyName; }
+        public long getCount() { return count; }
+    }
+
+    /**
+     * ช่วงค่าตรวจ [minFee, maxFee) - maxFee = null คือไม่มีขอบบน
+     */
+    public static class FeeBucketCount {
+        private BigDecimal minFee;
+        private BigDecimal maxFee;
+        private long count;
+
+        public FeeBucketCount(BigDecimal minFee, BigDecimal maxFee, long count) {
+            this.minFee = minFee;
+            this.maxFee = maxFee;
+            this.count = count;
+        }
+
+        public BigDecimal getMinFee() { return minFee; }
+        public BigDecimal getMaxFee() { return maxFee; }
+        public long getCount() { return count; }
+    }
+}
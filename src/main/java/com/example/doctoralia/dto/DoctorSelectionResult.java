@@ -0,0 +1,32 @@
+package com.example.doctoralia.dto;
+
+import com.example.doctoralia.model.Doctor;
+
+public class DoctorSelectionResult {
+
+    public enum Outcome {
+        NO_DOCTORS,
+        NO_ACTIVE_DOCTORS,
+        NO_AVAILABILITY_ON_DATE,
+        FULLY_BOOKED,
+        SELECTED
+    }
+
+    private Outcome outcome;
+    private Doctor doctor;
+    private int totalDoctorsInSpecialty;
+    private int availableMinutes;
+
+    public DoctorSelectionResult(Outcome outcome, Doctor doctor, int totalDoctorsInSpecialty, int availableMinutes) {
+        this.outcome = outcome;
+        this.doctor = doctor;
+        this.totalDoctorsInSpecialty = totalDoctorsInSpecialty;
+        this.availableMinutes = availableMinutes;
+    }
+
+    // Getters
+    public Outcome getOutcome() { return outcome; }
+    public Doctor getDoctor() { return doctor; }
+    public int getTotalDoctorsInSpecialty() { return totalDoctorsInSpecialty; }
+    public int getAvailableMinutes() { return availableMinutes; }
+}
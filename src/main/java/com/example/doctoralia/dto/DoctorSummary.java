@@ -0,0 +1,38 @@
+package com.example.doctoralia.dto;
+
+import com.example.doctoralia.model.Doctor;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.math.BigDecimal;
+
+/**
+ * หมอแบบย่อสำหรับ list (bio ตัดที่ 50 ตัวอักษร)
+ */
+public record DoctorSummary(Long id,
+                            String doctorName,
+                            String email,
+                            SpecialtyRef specialty,
+                            BigDecimal consultationFee,
+                            Integer experienceYears,
+                            String roomNumber,
+                            String bio,
+                            @JsonUnwrapped DoctorRating rating) {
+
+    public static DoctorSummary from(Doctor doctor, DoctorRating rating) {
+        return new DoctorSummary(
+                doctor.getId(),
+                doctor.getDoctorName(),
+                doctor.getUser().getEmail(),
+                SpecialtyRef.from(doctor.getSpecialty()),
+                doctor.getConsultationFee(),
+                doctor.getExperienceYears(),
+                doctor.getRoomNumber(),
+                DoctorResponse.shorten(doctor.getBio(), 50),
+                rating);
+    }
+
+    public DoctorSummary withRating(DoctorRating newRating) {
+        return new DoctorSummary(id, doctorName, email, specialty, consultationFee, experienceYears,
+                roomNumber, bio, newRating);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.doctoralia.dto;
+
+import com.example.doctoralia.model.PatientBookingInfo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * ข้อมูลผู้ป่วยของการนัด (สำหรับหมอเจ้าของนัด)
+ */
+public record PatientBookingInfoResponse(Long id,
+                                         String queueNumber,
+                                         String patientPrefix,
+                                         String patientFirstName,
+                                         String patientLastName,
+                                         String patientFullName,
+                                         String patientGender,
+                                         LocalDate patientDateOfBirth,
+                                         String patientNationality,
+                                         String patientCitizenId,
+                                         String patientPhone,
+                                         String patientEmail,
+                                         String symptoms,
+                                         String bookingType,
+                                         LocalDateTime createdAt) {
+
+    public static PatientBookingInfoResponse from(PatientBookingInfo info) {
+        return new PatientBookingInfoResponse(
+                info.getId(),
+                info.getQueueNumber(),
+                info.getPatientPrefix(),
+                info.getPatientFirstName(),
+                info.getPatientLastName(),
+                info.getPatientFullName(),
+                info.getPatientGender(),
+                info.getPatientDateOfBirth(),
+                info.getPatientNationality(),
+                info.getPatientCitizenId(),
+                info.getPatientPhone(),
+                info.getPatientEmail(),
+                info.getSymptoms(),
+                info.getBookingType(),
+                info.getCreatedAt());
+    }
+
+    /**
+     * แบบย่อที่ตอบกลับตอนสร้างนัด
+     */
+    public record Summary(Long id, String queueNumber, String patientFullName, String bookingType, String symptoms) {
+
+        public static Summary from(PatientBookingInfo info) {
+            return new Summary(info.getId(), info.getQueueNumber(), info.getPatientFullName(),
+                    info.getBookingType(), info.getSymptoms());
+        }
+    }
+}
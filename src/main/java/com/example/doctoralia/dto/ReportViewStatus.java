@@ -0,0 +1,47 @@
+package com.example.doctoralia.dto;
+
+import java.time.Instant;
+
+/**
+ * สถานะการ refresh ของ materialized view สำหรับรายงาน
+ */
+public class ReportViewStatus {
+
+    private String view;
+    private Instant lastRefreshedAt;
+    private Long ageSeconds;
+    private boolean stale;
+    private long refreshCount;
+    private long failureCount;
+    private long lastDurationMs;
+    private long maxDurationMs;
+    private long averageDurationMs;
+    private String lastError;
+
+    public ReportViewStatus(String view, Instant lastRefreshedAt, Long ageSeconds, boolean stale,
+                            long refreshCount, long failureCount, long lastDurationMs, long maxDurationMs,
+                            long averageDurationMs, String lastError) {
+        this.view = view;
+        this.lastRefreshedAt = lastRefreshedAt;
+        this.ageSeconds = ageSeconds;
+        this.stale = stale;
+        this.refreshCount = refreshCount;
+        this.failureCount = failureCount;
+        this.lastDurationMs = lastDurationMs;
+        this.maxDurationMs = maxDurationMs;
+        this.averageDurationMs = averageDurationMs;
+        this.lastError = lastError;
+    }
+
+    // Getters
+    public String getView() { return view; }
+    public Instant getLastRefreshedAt() { return lastRefreshedAt; }
+    public Long getAgeSeconds() { return ageSeconds; }
+    public boolean isStale() { return stale; }
+    public long getRefreshCount() { return refreshCount; }
+    public long getFailureCount() { return failureCount; }
+    public long getLastDurationMs() { return lastDurationMs; }
+    public long getMaxDurationMs() { return maxDurationMs; }
+    public long getAverageDurationMs() { return averageDurationMs; }
+    public String getLastError() { return lastError; }
+}
@@ -0,0 +1,13 @@
+package com.example.doctoralia.dto;
+
+import com.example.doctoralia.model.Specialty;
+
+/**
+ * แผนกแบบย่อที่ฝังอยู่ใน response ของหมอ/นัดหมาย
+ */
+public record SpecialtyRef(Long id, String name) {
+
+    public static SpecialtyRef from(Specialty specialty) {
+        return new SpecialtyRef(specialty.getId(), specialty.getName());
+    }
+}
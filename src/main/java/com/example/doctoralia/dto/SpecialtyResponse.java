@@ -0,0 +1,10 @@
+package com.example.doctoralia.dto;
+
+import com.example.doctoralia.model.Specialty;
+
+public record SpecialtyResponse(Long id, String name, String description) {
+
+    public static SpecialtyResponse from(Specialty specialty) {
+        return new SpecialtyResponse(specialty.getId(), specialty.getName(), specialty.getDescription());
+    }
+}
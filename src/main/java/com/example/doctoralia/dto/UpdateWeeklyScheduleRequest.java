@@ -0,0 +1,18 @@
+package com.example.doctoralia.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UpdateWeeklyScheduleRequest {
+    // ตารางเวลาทั้งสัปดาห์ (ส่งมาทั้งชุด แทนที่ของเดิม)
+    @NotNull(message = "Slots are required")
+    @Valid
+    private List<AddAvailabilityRequest> slots = new ArrayList<>();
+
+    // Getters and Setters
+    public List<AddAvailabilityRequest> getSlots() { return slots; }
+    public void setSlots(List<AddAvailabilityRequest> slots) { this.slots = slots; }
+}
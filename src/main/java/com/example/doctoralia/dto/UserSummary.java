@@ -0,0 +1,17 @@
+package com.example.doctoralia.dto;
+
+import com.example.doctoralia.model.UserRole;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection ของ user สำหรับรายชื่อของ admin (ไม่ select password)
+ */
+public interface UserSummary {
+    Long getId();
+    String getEmail();
+    String getFirstName();
+    String getLastName();
+    UserRole getRole();
+    LocalDateTime getCreatedAt();
+}
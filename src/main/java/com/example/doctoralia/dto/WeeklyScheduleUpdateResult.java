@@ -0,0 +1,25 @@
+package com.example.doctoralia.dto;
+
+import com.example.doctoralia.model.Availability;
+
+import java.util.List;
+
+public class WeeklyScheduleUpdateResult {
+    private List<Availability> schedule;
+    private int added;
+    private int removed;
+    private int unchanged;
+
+    public WeeklyScheduleUpdateResult(List<Availability> schedule, int added, int removed, int unchanged) {
+        this.schedule = schedule;
+        this.added = added;
+        this.removed = removed;
+        this.unchanged = unchanged;
+    }
+
+    // Getters
+    public List<Availability> getSchedule() { return schedule; }
+    public int getAdded() { return added; }
+    public int getRemoved() { return removed; }
+    public int getUnchanged() { return unchanged; }
+}
@@ -0,0 +1,58 @@
+package com.example.doctoralia.event;
+
+import com.example.doctoralia.model.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * ประกาศเมื่อมีการจองหรือสถานะนัดเปลี่ยน (จอง/ยืนยัน/ยกเลิก/ปิดนัด)
+ * previousStatus เป็น null เมื่อเป็นนัดที่เพิ่งสร้าง
+ */
+public class AppointmentChangedEvent {
+
+    private final Long appointmentId;
+    private final Long doctorId;
+    private final LocalDateTime appointmentDatetime;
+    private final int durationMinutes;
+    private final AppointmentStatus previousStatus;
+    private final AppointmentStatus newStatus;
+
+    public AppointmentChangedEvent(Long appointmentId, Long doctorId, LocalDateTime appointmentDatetime,
+                                   Integer durationMinutes, AppointmentStatus previousStatus,
+                                   AppointmentStatus newStatus) {
+        this.appointmentId = appointmentId;
+        this.doctorId = doctorId;
+        this.appointmentDatetime = appointmentDatetime;
+        this.durationMinutes = durationMinutes != null ? durationMinutes : 30;
+        this.previousStatus = previousStatus;
+        this.newStatus = newStatus;
+    }
+
+    public Long getAppointmentId() { return appointmentId; }
+    public Long getDoctorId() { return doctorId; }
+    public LocalDateTime getAppointmentDatetime() { return appointmentDatetime; }
+    public int getDurationMinutes() { return durationMinutes; }
+    public AppointmentStatus getPreviousStatus() { return previousStatus; }
+    public AppointmentStatus getNewStatus() { return newStatus; }
+
+    /**
+     * นาทีที่ถูกจอง (PENDING/CONFIRMED) ที่เปลี่ยนไปจากเหตุการณ์นี้: +duration, -duration หรือ 0
+     */
+    public int getBookedMinutesDelta() {
+        return (holdsTime(newStatus) ? durationMinutes : 0) - (holdsTime(previousStatus) ? durationMinutes : 0);
+    }
+
+    public static boolean holdsTime(AppointmentStatus status) {
+        return status == AppointmentStatus.PENDING || status == AppointmentStatus.CONFIRMED;
+    }
+
+    @Override
+    public String toString() {
+        return "AppointmentChangedEvent{" +
+                "appointmentId=" + appointmentId +
+                ", doctorId=" + doctorId +
+                ", previousStatus=" + previousStatus +
+                ", newStatus=" + newStatus +
+                '}';
+    }
+}
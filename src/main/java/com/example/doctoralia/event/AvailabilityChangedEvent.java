@@ -0,0 +1,22 @@
+package com.example.doctoralia.event;
+
+/**
+ * ประกาศเมื่อตารางเวลาของหมอเปลี่ยน (เพิ่ม/แก้ไข/ลบ/แทนที่ทั้งสัปดาห์)
+ */
+public class AvailabilityChangedEvent {
+
+    private final Long doctorId;
+
+    public AvailabilityChangedEvent(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public Long getDoctorId() { return doctorId; }
+
+    @Override
+    public String toString() {
+        return "AvailabilityChangedEvent{" +
+                "doctorId=" + doctorId +
+                '}';
+    }
+}
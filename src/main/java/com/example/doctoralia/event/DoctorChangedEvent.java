@@ -0,0 +1,34 @@
+package com.example.doctoralia.event;
+
+/**
+ * ประกาศเมื่อข้อมูลหมอเปลี่ยน (สร้าง/แก้ไข/เปิดปิด/ลบ)
+ * listener ที่เป็น in-memory index จะ refresh หลัง transaction commit
+ */
+public class DoctorChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    private final Long doctorId;
+    private final ChangeType changeType;
+
+    public DoctorChangedEvent(Long doctorId, ChangeType changeType) {
+        this.doctorId = doctorId;
+        this.changeType = changeType;
+    }
+
+    public Long getDoctorId() { return doctorId; }
+    public ChangeType getChangeType() { return changeType; }
+
+    @Override
+    public String toString() {
+        return "DoctorChangedEvent{" +
+                "doctorId=" + doctorId +
+                ", changeType=" + changeType +
+                '}';
+    }
+}
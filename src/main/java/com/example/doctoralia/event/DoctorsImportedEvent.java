@@ -0,0 +1,25 @@
+package com.example.doctoralia.event;
+
+import java.util.List;
+
+/**
+ * ประกาศครั้งเดียวหลัง bulk import หมอ (พร้อมตารางเวลา) แทน DoctorChangedEvent ทีละคน
+ * listener ที่ต้อง rebuild ทั้งชุดจะ rebuild ครั้งเดียวต่อการ import
+ */
+public class DoctorsImportedEvent {
+
+    private final List<Long> doctorIds;
+
+    public DoctorsImportedEvent(List<Long> doctorIds) {
+        this.doctorIds = doctorIds;
+    }
+
+    public List<Long> getDoctorIds() { return doctorIds; }
+
+    @Override
+    public String toString() {
+        return "DoctorsImportedEvent{" +
+                "doctors=" + doctorIds.size() +
+                '}';
+    }
+}
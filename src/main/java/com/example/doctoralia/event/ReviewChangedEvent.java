@@ -0,0 +1,22 @@
+package com.example.doctoralia.event;
+
+/**
+ * ประกาศเมื่อมีการเพิ่ม/แก้/ลบรีวิว (ตัวเลขสรุปของหมอเปลี่ยน)
+ */
+public class ReviewChangedEvent {
+
+    private final Long doctorId;
+
+    public ReviewChangedEvent(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public Long getDoctorId() { return doctorId; }
+
+    @Override
+    public String toString() {
+        return "ReviewChangedEvent{" +
+                "doctorId=" + doctorId +
+                '}';
+    }
+}
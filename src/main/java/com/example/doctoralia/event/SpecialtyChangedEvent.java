@@ -0,0 +1,32 @@
+package com.example.doctoralia.event;
+
+/**
+ * ประกาศเมื่อแผนกถูกสร้าง/แก้ไข/ลบ
+ */
+public class SpecialtyChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Long specialtyId;
+    private final ChangeType changeType;
+
+    public SpecialtyChangedEvent(Long specialtyId, ChangeType changeType) {
+        this.specialtyId = specialtyId;
+        this.changeType = changeType;
+    }
+
+    public Long getSpecialtyId() { return specialtyId; }
+    public ChangeType getChangeType() { return changeType; }
+
+    @Override
+    public String toString() {
+        return "SpecialtyChangedEvent{" +
+                "specialtyId=" + specialtyId +
+                ", changeType=" + changeType +
+                '}';
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.doctoralia.event;
+
+/**
+ * ประกาศเมื่อข้อมูลโปรไฟล์ของ user เปลี่ยน (ชื่อ/เบอร์โทร)
+ */
+public class UserChangedEvent {
+
+    private final Long userId;
+
+    public UserChangedEvent(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() { return userId; }
+
+    @Override
+    public String toString() {
+        return "UserChangedEvent{" +
+                "userId=" + userId +
+                '}';
+    }
+}
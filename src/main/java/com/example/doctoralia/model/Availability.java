@@ -13,11 +13,12 @@ import java.time.LocalTime;
 @Table(name = "availabilities")
 public class Availability {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "availabilities_id_seq")
+    @SequenceGenerator(name = "availabilities_id_seq", sequenceName = "availabilities_id_seq", allocationSize = 50)
     private Long id;
 
     //Many-to-One relationship with Doctor
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id",nullable = false)
     private Doctor doctor;
 
@@ -0,0 +1,65 @@
+package com.example.doctoralia.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+
+/**
+ * สรุปคะแนนรีวิวของหมอ (1 แถวต่อหมอ)
+ * อ่านอย่างเดียวใน JPA - เขียนผ่าน DoctorRatingSummaryRepository.applyDelta เท่านั้น
+ */
+@Entity
+@Immutable
+@Table(name = "doctor_rating_summary")
+public class DoctorRatingSummary {
+    @Id
+    @Column(name = "doctor_id")
+    private Long doctorId;
+
+    @Column(name = "review_count", nullable = false)
+    private Long reviewCount = 0L;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum = 0L;
+
+    @Column(name = "one_star_count", nullable = false)
+    private Long oneStarCount = 0L;
+
+    @Column(name = "two_star_count", nullable = false)
+    private Long twoStarCount = 0L;
+
+    @Column(name = "three_star_count", nullable = false)
+    private Long threeStarCount = 0L;
+
+    @Column(name = "four_star_count", nullable = false)
+    private Long fourStarCount = 0L;
+
+    @Column(name = "five_star_count", nullable = false)
+    private Long fiveStarCount = 0L;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    public DoctorRatingSummary() {}
+
+    public Long getDoctorId() { return doctorId; }
+    public Long getReviewCount() { return reviewCount; }
+    public Long getRatingSum() { return ratingSum; }
+    public Long getOneStarCount() { return oneStarCount; }
+    public Long getTwoStarCount() { return twoStarCount; }
+    public Long getThreeStarCount() { return threeStarCount; }
+    public Long getFourStarCount() { return fourStarCount; }
+    public Long getFiveStarCount() { return fiveStarCount; }
+    public OffsetDateTime getUpdatedAt() { return updatedAt; }
+
+    // คะแนนเฉลี่ย 2 ตำแหน่ง (0 ถ้ายังไม่มีรีวิว)
+    public BigDecimal getAverageRating() {
+        if (reviewCount == null || reviewCount == 0) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(ratingSum).divide(BigDecimal.valueOf(reviewCount), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 @Table(name = "patient_booking_info")
 public class PatientBookingInfo {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_booking_info_id_seq")
+    @SequenceGenerator(name = "patient_booking_info_id_seq", sequenceName = "patient_booking_info_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,6 +1,8 @@
 package com.example.doctoralia.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -10,9 +12,12 @@ import java.util.List;
 
 @Entity
 @Table(name = "specialties")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "specialties")
 public class Specialty {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "specialties_id_seq")
+    @SequenceGenerator(name = "specialties_id_seq", sequenceName = "specialties_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true,nullable = false)
@@ -1,7 +1,12 @@
 package com.example.doctoralia.repository;
 
+import com.example.doctoralia.dto.AppointmentSlotView;
+import com.example.doctoralia.dto.AppointmentView;
+import com.example.doctoralia.dto.BookedInterval;
+import com.example.doctoralia.dto.DoctorDateLoad;
 import com.example.doctoralia.model.Appointment;
 import com.example.doctoralia.model.AppointmentStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,11 +19,49 @@ import java.util.List;
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
     // Find appointments by patient
+    @EntityGraph(attributePaths = {"doctor", "doctor.user", "doctor.specialty", "patient"})
     List<Appointment> findByPatientIdOrderByAppointmentDatetimeDesc(Long patientId);
 
     // Find appointments by doctor
+    @EntityGraph(attributePaths = {"doctor", "doctor.user", "doctor.specialty", "patient"})
     List<Appointment> findByDoctorIdOrderByAppointmentDatetimeAsc(Long doctorId);
 
+    // Appointment list of a patient - only the rendered columns
+    @Query("SELECT new com.example.doctoralia.dto.AppointmentView(" +
+            "a.id, d.id, du.firstName, du.lastName, s.id, s.name, " +
+            "p.id, p.email, p.firstName, p.lastName, " +
+            "a.appointmentDatetime, a.durationMinutes, a.status, a.notes, a.doctorNotes, a.createdAt, a.updatedAt) " +
+            "FROM Appointment a JOIN a.doctor d JOIN d.user du JOIN d.specialty s JOIN a.patient p " +
+            "WHERE p.id = :patientId " +
+            "ORDER BY a.appointmentDatetime DESC")
+    List<AppointmentView> findViewsByPatientId(@Param("patientId") Long patientId);
+
+    // Appointment list of a doctor - only the rendered columns
+    @Query("SELECT new com.example.doctoralia.dto.AppointmentView(" +
+            "a.id, d.id, du.firstName, du.lastName, s.id, s.name, " +
+            "p.id, p.email, p.firstName, p.lastName, " +
+            "a.appointmentDatetime, a.durationMinutes, a.status, a.notes, a.doctorNotes, a.createdAt, a.updatedAt) " +
+            "FROM Appointment a JOIN a.doctor d JOIN d.user du JOIN d.specialty s JOIN a.patient p " +
+            "WHERE d.id = :doctorId " +
+            "ORDER BY a.appointmentDatetime ASC")
+    List<AppointmentView> findViewsByDoctorId(@Param("doctorId") Long doctorId);
+
+    // Non-cancelled slots of a doctor within [from, to)
+    @Query("SELECT a.id AS id, a.appointmentDatetime AS appointmentDatetime, " +
+            "a.durationMinutes AS durationMinutes, a.status AS status " +
+            "FROM Appointment a WHERE a.doctor.id = :doctorId " +
+            "AND a.appointmentDatetime >= :from " +
+            "AND a.appointmentDatetime < :to " +
+            "AND a.status <> com.example.doctoralia.model.AppointmentStatus.CANCELLED " +
+            "ORDER BY a.appointmentDatetime ASC")
+    List<AppointmentSlotView> findSlotsByDoctorIdAndRange(
+            @Param("doctorId") Long doctorId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    // Ownership check without loading the appointment
+    boolean existsByIdAndDoctorId(Long id, Long doctorId);
+
     // Find appointments by status
     List<Appointment> findByStatus(AppointmentStatus status);
 
@@ -55,6 +98,30 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end);
 
+    // Booked (PENDING/CONFIRMED) time of a doctor within a date range, for free-slot calculation
+    @Query("SELECT a.appointmentDatetime AS appointmentDatetime, a.durationMinutes AS durationMinutes " +
+            "FROM Appointment a WHERE a.doctor.id = :doctorId " +
+            "AND a.appointmentDatetime >= :from " +
+            "AND a.appointmentDatetime < :to " +
+            "AND a.status IN ('PENDING', 'CONFIRMED') " +
+            "ORDER BY a.appointmentDatetime ASC")
+    List<BookedInterval> findBookedIntervals(
+            @Param("doctorId") Long doctorId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    // Booked (PENDING/CONFIRMED) minutes per doctor per day, for reconciling in-memory load counters
+    @Query("SELECT a.doctor.id AS doctorId, " +
+            "EXTRACT(DATE FROM a.appointmentDatetime) AS day, " +
+            "SUM(COALESCE(a.durationMinutes, 30)) AS bookedMinutes " +
+            "FROM Appointment a WHERE a.appointmentDatetime >= :from " +
+            "AND a.appointmentDatetime < :to " +
+            "AND a.status IN ('PENDING', 'CONFIRMED') " +
+            "GROUP BY a.doctor.id, EXTRACT(DATE FROM a.appointmentDatetime)")
+    List<DoctorDateLoad> sumBookedMinutesByDoctorAndDay(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
     // Count appointments by status
     long countByStatus(AppointmentStatus status);
 
@@ -1,5 +1,6 @@
 package com.example.doctoralia.repository;
 
+import com.example.doctoralia.dto.AvailabilityWindow;
 import com.example.doctoralia.model.Availability;
 import com.example.doctoralia.model.Doctor;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -89,4 +90,21 @@ public interface AvailabilityRepository extends JpaRepository<Availability, Long
     List<Doctor> findDoctorsBySpecialtyAvailableAtTime(@Param("specialtyId") Long specialtyId,
                                                         @Param("dayOfWeek") Integer dayOfWeek,
                                                         @Param("time") LocalTime time);
+
+    //ช่วงเวลาทำงานทั้งหมดของหมอที่ active (สำหรับสร้าง on-duty index)
+    @Query("SELECT a.doctor.id AS doctorId, a.doctor.specialty.id AS specialtyId, " +
+            "a.dayOfWeek AS dayOfWeek, a.startTime AS startTime, a.endTime AS endTime " +
+            "FROM Availability a WHERE " +
+            "a.isActive = true AND " +
+            "a.doctor.isActive = true")
+    List<AvailabilityWindow> findActiveWindows();
+
+    //ช่วงเวลาทำงานของหมอคนเดียว (สำหรับ refresh index ทีละคน)
+    @Query("SELECT a.doctor.id AS doctorId, a.doctor.specialty.id AS specialtyId, " +
+            "a.dayOfWeek AS dayOfWeek, a.startTime AS startTime, a.endTime AS endTime " +
+            "FROM Availability a WHERE " +
+            "a.doctor.id = :doctorId AND " +
+            "a.isActive = true AND " +
+            "a.doctor.isActive = true")
+    List<AvailabilityWindow> findActiveWindowsByDoctorId(@Param("doctorId") Long doctorId);
 }
@@ -0,0 +1,53 @@
+package com.example.doctoralia.repository;
+
+import com.example.doctoralia.model.DoctorRatingSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DoctorRatingSummaryRepository extends JpaRepository<DoctorRatingSummary, Long> {
+
+    List<DoctorRatingSummary> findByDoctorIdIn(Collection<Long> doctorIds);
+
+    /**
+     * ปรับตัวเลขสรุปของหมอแบบ atomic (upsert + บวก delta ใน statement เดียว)
+     * addRating = คะแนนที่เพิ่มเข้ามา, removeRating = คะแนนที่เอาออก (0 = ไม่มี)
+     * เพิ่มรีวิว (r, 0), ลบรีวิว (0, r), แก้คะแนน (ใหม่, เก่า)
+     * ระบุ query space ไว้ ไม่งั้น Hibernate จะล้าง second-level cache ทุก region ทุกครั้งที่มีรีวิว
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "doctor_rating_summary"))
+    @Query(value = "INSERT INTO doctor_rating_summary AS s (doctor_id, review_count, rating_sum, " +
+            "one_star_count, two_star_count, three_star_count, four_star_count, five_star_count, updated_at) " +
+            "VALUES (:doctorId, " +
+            "SIGN(:addRating) - SIGN(:removeRating), " +
+            ":addRating - :removeRating, " +
+            "(CASE WHEN :addRating = 1 THEN 1 ELSE 0 END) - (CASE WHEN :removeRating = 1 THEN 1 ELSE 0 END), " +
+            "(CASE WHEN :addRating = 2 THEN 1 ELSE 0 END) - (CASE WHEN :removeRating = 2 THEN 1 ELSE 0 END), " +
+            "(CASE WHEN :addRating = 3 THEN 1 ELSE 0 END) - (CASE WHEN :removeRating = 3 THEN 1 ELSE 0 END), " +
+            "(CASE WHEN :addRating = 4 THEN 1 ELSE 0 END) - (CASE WHEN :removeRating = 4 THEN 1 ELSE 0 END), " +
+            "(CASE WHEN :addRating = 5 THEN 1 ELSE 0 END) - (CASE WHEN :removeRating = 5 THEN 1 ELSE 0 END), " +
+            "CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (doctor_id) DO UPDATE SET " +
+            "review_count = s.review_count + EXCLUDED.review_count, " +
+            "rating_sum = s.rating_sum + EXCLUDED.rating_sum, " +
+            "one_star_count = s.one_star_count + EXCLUDED.one_star_count, " +
+            "two_star_count = s.two_star_count + EXCLUDED.two_star_count, " +
+            "three_star_count = s.three_star_count + EXCLUDED.three_star_count, " +
+            "four_star_count = s.four_star_count + EXCLUDED.four_star_count, " +
+            "five_star_count = s.five_star_count + EXCLUDED.five_star_count, " +
+            "updated_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    int applyDelta(@Param("doctorId") Long doctorId,
+                   @Param("addRating") int addRating,
+                   @Param("removeRating") int removeRating);
+}
@@ -1,24 +1,46 @@
 package com.example.doctoralia.repository;
 
+import com.example.doctoralia.dto.DoctorDayLoad;
+import com.example.doctoralia.dto.DoctorFacetRow;
+import com.example.doctoralia.dto.DoctorFeeView;
 import com.example.doctoralia.model.Doctor;
 import com.example.doctoralia.model.Specialty;
 import com.example.doctoralia.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+    // user และ specialty เป็น LAZY - โหลดมาพร้อมกันใน query เดียวสำหรับ method ที่ใช้แสดงผล
+    @Override
+    @EntityGraph(attributePaths = {"user", "specialty"})
+    Optional<Doctor> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"user", "specialty"})
+    Page<Doctor> findAll(Pageable pageable);
+
+    //หา doctor id จาก User ID (ไม่โหลด entity)
+    @Query("SELECT d.id FROM Doctor d WHERE d.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
     //หาหมอจาก User
+    @EntityGraph(attributePaths = {"user", "specialty"})
     Optional<Doctor> findByUser(User user);
 
     //หาหมอจาก User ID
+    @EntityGraph(attributePaths = {"user", "specialty"})
     Optional<Doctor> findByUserId(Long userId);
 
     //หาหมอจาก license number
@@ -27,55 +49,73 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     //ดูว่ามี license นี้หรือยัง
     boolean existsByLicenseNumber(String licenseNumber);
 
+    // license ที่มีอยู่แล้วในชุดที่ให้มา (ตรวจ bulk import ทีละก้อน)
+    @Query("SELECT d.licenseNumber FROM Doctor d WHERE d.licenseNumber IN :licenseNumbers")
+    List<String> findExistingLicenseNumbers(@Param("licenseNumbers") Collection<String> licenseNumbers);
+
     //หาหมอที่ active
+    @EntityGraph(attributePaths = {"user", "specialty"})
     List<Doctor> findAllByIsActiveTrue();
 
     //หาหมอตาม Specialty (เฉพาะ active)
+    @EntityGraph(attributePaths = {"user", "specialty"})
     List<Doctor> findBySpecialtyAndIsActiveTrue(Specialty specialty);
 
     /**
      * หาหมอตาม specialty ID (เฉพาะ active)
      */
+    @EntityGraph(attributePaths = {"user", "specialty"})
     List<Doctor> findBySpecialtyIdAndIsActiveTrue(Long specialtyId);
 
     /**
      * หาหมอตาม specialty ID (รวม inactive) - สำหรับ admin
      */
+    @EntityGraph(attributePaths = {"user", "specialty"})
     Page<Doctor> findBySpecialtyId(Long specialtyId, Pageable pageable);
 
     /**
      * ค้นหาหมอตามชื่อ (search ใน firstName และ lastName ของ User) - เฉพาะ active
-     * Fixed version with proper null handling
+     * ใช้ users.full_name_search (GIN trigram index) เรียงตามความใกล้เคียงของชื่อ
      */
-    @Query("SELECT d FROM Doctor d JOIN d.user u WHERE " +
-            "d.isActive = true AND " +
-            "(LOWER(COALESCE(u.firstName, '')) LIKE LOWER(CONCAT('%', :name, '%')) OR " +
-            "LOWER(COALESCE(u.lastName, '')) LIKE LOWER(CONCAT('%', :name, '%')) OR " +
-            "LOWER(CONCAT(COALESCE(u.firstName, ''), ' ', COALESCE(u.lastName, ''))) LIKE LOWER(CONCAT('%', :name, '%')))")
+    @Query(value = "SELECT d.* FROM doctors d " +
+            "JOIN users u ON d.user_id = u.id WHERE " +
+            "d.is_active = true AND " +
+            "u.full_name_search LIKE '%' || LOWER(:name) || '%' " +
+            "ORDER BY similarity(u.full_name_search, LOWER(:name)) DESC, u.first_name, d.id",
+            nativeQuery = true)
     List<Doctor> findByDoctorNameContaining(@Param("name") String name);
 
     /**
      * ค้นหาหมอตามชื่อ (รวม inactive) - สำหรับ admin
      */
-    @Query("SELECT d FROM Doctor d JOIN d.user u WHERE " +
-            "(LOWER(CONCAT(u.firstName, ' ', u.lastName)) LIKE LOWER(CONCAT('%', :name, '%')) OR " +
-            "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :name, '%')) OR " +
-            "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :name, '%')))")
+    @Query(value = "SELECT d.* FROM doctors d " +
+            "JOIN users u ON d.user_id = u.id WHERE " +
+            "u.full_name_search LIKE '%' || LOWER(:name) || '%' " +
+            "ORDER BY similarity(u.full_name_search, LOWER(:name)) DESC, u.first_name, d.id",
+            nativeQuery = true)
     List<Doctor> findByDoctorNameContainingIncludingInactive(@Param("name") String name);
 
     /**
-     * Fixed query - ค้นหาหมอขั้นสูง (ชื่อ + แผนก + ค่าตรวจ) - เฉพาะ active
-     * Fixed the CONCAT and LOWER functions for PostgreSQL
+     * ค้นหาหมอขั้นสูง (ชื่อ + แผนก + ค่าตรวจ) - เฉพาะ active
+     * ชื่อใช้ trigram index และเรียงตาม similarity ถ้าไม่ระบุชื่อเรียงตามชื่อจริง
+     * ต้องส่ง Pageable แบบไม่มี Sort (native query)
+     * count query นับจาก doctors อย่างเดียว - join users เฉพาะตอนมีชื่อ (EXISTS)
      */
     @Query(value = "SELECT d.* FROM doctors d " +
-            "JOIN users u ON d.user_id = u.id " +
-            "JOIN specialties s ON d.specialty_id = s.id WHERE " +
+            "JOIN users u ON d.user_id = u.id WHERE " +
             "d.is_active = true AND " +
-            "(:name IS NULL OR LOWER(COALESCE(u.first_name, '') || ' ' || COALESCE(u.last_name, '')) LIKE LOWER('%' || :name || '%')) AND " +
-            "(:specialtyId IS NULL OR s.id = :specialtyId) AND " +
-            "(:minFee IS NULL OR d.consultation_fee >= :minFee) AND " +
-            "(:maxFee IS NULL OR d.consultation_fee <= :maxFee) " +
-            "ORDER BY u.first_name",
+            "(CAST(:name AS TEXT) IS NULL OR u.full_name_search LIKE '%' || LOWER(CAST(:name AS TEXT)) || '%') AND " +
+            "(CAST(:specialtyId AS BIGINT) IS NULL OR d.specialty_id = CAST(:specialtyId AS BIGINT)) AND " +
+            "(CAST(:minFee AS NUMERIC) IS NULL OR d.consultation_fee >= CAST(:minFee AS NUMERIC)) AND " +
+            "(CAST(:maxFee AS NUMERIC) IS NULL OR d.consultation_fee <= CAST(:maxFee AS NUMERIC)) " +
+            "ORDER BY similarity(u.full_name_search, LOWER(COALESCE(CAST(:name AS TEXT), ''))) DESC, u.first_name, d.id",
+            countQuery = "SELECT COUNT(*) FROM doctors d WHERE " +
+            "d.is_active = true AND " +
+            "(CAST(:name AS TEXT) IS NULL OR EXISTS (SELECT 1 FROM users u WHERE u.id = d.user_id AND " +
+            "u.full_name_search LIKE '%' || LOWER(CAST(:name AS TEXT)) || '%')) AND " +
+            "(CAST(:specialtyId AS BIGINT) IS NULL OR d.specialty_id = CAST(:specialtyId AS BIGINT)) AND " +
+            "(CAST(:minFee AS NUMERIC) IS NULL OR d.consultation_fee >= CAST(:minFee AS NUMERIC)) AND " +
+            "(CAST(:maxFee AS NUMERIC) IS NULL OR d.consultation_fee <= CAST(:maxFee AS NUMERIC))",
             nativeQuery = true)
     Page<Doctor> findDoctorsWithFilters(@Param("name") String name,
                                         @Param("specialtyId") Long specialtyId,
@@ -86,32 +126,120 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     /**
      * Alternative simpler query if the above still has issues
      */
+    @EntityGraph(attributePaths = {"user", "specialty"})
     @Query("SELECT d FROM Doctor d WHERE d.isActive = true AND " +
             "(:specialtyId IS NULL OR d.specialty.id = :specialtyId)")
     Page<Doctor> findDoctorsWithSpecialtyFilter(@Param("specialtyId") Long specialtyId, Pageable pageable);
 
     /**
      * ค้นหาหมอขั้นสูง (รวม inactive) - สำหรับ admin
+     * ต้องส่ง Pageable แบบไม่มี Sort (native query)
      */
-    @Query("SELECT d FROM Doctor d JOIN d.user u JOIN d.specialty s WHERE " +
-            "(:name IS NULL OR LOWER(CONCAT(u.firstName, ' ', u.lastName)) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-            "(:specialtyId IS NULL OR s.id = :specialtyId) AND " +
-            "(:minFee IS NULL OR d.consultationFee >= :minFee) AND " +
-            "(:maxFee IS NULL OR d.consultationFee <= :maxFee)")
+    @Query(value = "SELECT d.* FROM doctors d " +
+            "JOIN users u ON d.user_id = u.id WHERE " +
+            "(CAST(:name AS TEXT) IS NULL OR u.full_name_search LIKE '%' || LOWER(CAST(:name AS TEXT)) || '%') AND " +
+            "(CAST(:specialtyId AS BIGINT) IS NULL OR d.specialty_id = CAST(:specialtyId AS BIGINT)) AND " +
+            "(CAST(:minFee AS NUMERIC) IS NULL OR d.consultation_fee >= CAST(:minFee AS NUMERIC)) AND " +
+            "(CAST(:maxFee AS NUMERIC) IS NULL OR d.consultation_fee <= CAST(:maxFee AS NUMERIC)) " +
+            "ORDER BY similarity(u.full_name_search, LOWER(COALESCE(CAST(:name AS TEXT), ''))) DESC, u.first_name, d.id",
+            countQuery = "SELECT COUNT(*) FROM doctors d WHERE " +
+            "(CAST(:name AS TEXT) IS NULL OR EXISTS (SELECT 1 FROM users u WHERE u.id = d.user_id AND " +
+            "u.full_name_search LIKE '%' || LOWER(CAST(:name AS TEXT)) || '%')) AND " +
+            "(CAST(:specialtyId AS BIGINT) IS NULL OR d.specialty_id = CAST(:specialtyId AS BIGINT)) AND " +
+            "(CAST(:minFee AS NUMERIC) IS NULL OR d.consultation_fee >= CAST(:minFee AS NUMERIC)) AND " +
+            "(CAST(:maxFee AS NUMERIC) IS NULL OR d.consultation_fee <= CAST(:maxFee AS NUMERIC))",
+            nativeQuery = true)
     Page<Doctor> findDoctorsWithFiltersIncludingInactive(@Param("name") String name,
                                                          @Param("specialtyId") Long specialtyId,
                                                          @Param("minFee") BigDecimal minFee,
                                                          @Param("maxFee") BigDecimal maxFee,
                                                          Pageable pageable);
 
+    /**
+     * ค้นหาหมอแบบ Slice (infinite scroll) - ไม่มี count query, ดึง size + 1 แถวเพื่อรู้ hasNext
+     */
+    @Query(value = "SELECT d.* FROM doctors d " +
+            "JOIN users u ON d.user_id = u.id WHERE " +
+            "(CAST(:includeInactive AS BOOLEAN) OR d.is_active = true) AND " +
+            "(CAST(:name AS TEXT) IS NULL OR u.full_name_search LIKE '%' || LOWER(CAST(:name AS TEXT)) || '%') AND " +
+            "(CAST(:specialtyId AS BIGINT) IS NULL OR d.specialty_id = CAST(:specialtyId AS BIGINT)) AND " +
+            "(CAST(:minFee AS NUMERIC) IS NULL OR d.consultation_fee >= CAST(:minFee AS NUMERIC)) AND " +
+            "(CAST(:maxFee AS NUMERIC) IS NULL OR d.consultation_fee <= CAST(:maxFee AS NUMERIC)) " +
+            "ORDER BY similarity(u.full_name_search, LOWER(COALESCE(CAST(:name AS TEXT), ''))) DESC, u.first_name, d.id",
+            nativeQuery = true)
+    Slice<Doctor> findDoctorSliceWithFilters(@Param("name") String name,
+                                             @Param("specialtyId") Long specialtyId,
+                                             @Param("minFee") BigDecimal minFee,
+                                             @Param("maxFee") BigDecimal maxFee,
+                                             @Param("includeInactive") boolean includeInactive,
+                                             Pageable pageable);
+
+    /**
+     * ค้นหาหมอแบบ keyset เรียงตาม (ชื่อจริง, user id) - หน้าถัดไปเริ่มหลัง (afterName, afterId)
+     * ไม่ใช้ OFFSET หน้าลึกๆ จึงเร็วเท่าหน้าแรก: ORDER BY และเงื่อนไข seek ตรงกับ
+     * idx_users_first_name_key (COALESCE(first_name, ''), id) ทุกคอลัมน์ (user_id ของหมอ unique)
+     * afterId = user id ของแถวสุดท้าย, null คือหน้าแรก
+     */
+    @Query(value = "SELECT d.* FROM doctors d " +
+            "JOIN users u ON d.user_id = u.id WHERE " +
+            "(CAST(:includeInactive AS BOOLEAN) OR d.is_active = true) AND " +
+            "(CAST(:name AS TEXT) IS NULL OR u.full_name_search LIKE '%' || LOWER(CAST(:name AS TEXT)) || '%') AND " +
+            "(CAST(:specialtyId AS BIGINT) IS NULL OR d.specialty_id = CAST(:specialtyId AS BIGINT)) AND " +
+            "(CAST(:minFee AS NUMERIC) IS NULL OR d.consultation_fee >= CAST(:minFee AS NUMERIC)) AND " +
+            "(CAST(:maxFee AS NUMERIC) IS NULL OR d.consultation_fee <= CAST(:maxFee AS NUMERIC)) AND " +
+            "(CAST(:afterId AS BIGINT) IS NULL OR " +
+            " (COALESCE(u.first_name, ''), u.id) > (CAST(:afterName AS TEXT), CAST(:afterId AS BIGINT))) " +
+            "ORDER BY COALESCE(u.first_name, ''), u.id " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<Doctor> findDoctorsAfter(@Param("name") String name,
+                                  @Param("specialtyId") Long specialtyId,
+                                  @Param("minFee") BigDecimal minFee,
+                                  @Param("maxFee") BigDecimal maxFee,
+                                  @Param("includeInactive") boolean includeInactive,
+                                  @Param("afterName") String afterName,
+                                  @Param("afterId") Long afterId,
+                                  @Param("limit") int limit);
+
+    /**
+     * Facet ของการค้นหาใน statement เดียว: จำนวนหมอต่อแผนก (ตามเงื่อนไขค่าตรวจ)
+     * และต่อช่วงค่าตรวจ (ตามเงื่อนไขแผนก) จากชุดที่ผ่านเงื่อนไขชื่อ
+     * feeEdges เป็น array literal ของขอบช่วงค่าตรวจ เช่น {0,500,1000}
+     */
+    @Query(value = "WITH matched AS (" +
+            " SELECT d.specialty_id, d.consultation_fee FROM doctors d " +
+            " JOIN users u ON d.user_id = u.id WHERE " +
+            " (CAST(:includeInactive AS BOOLEAN) OR d.is_active = true) AND " +
+            " (CAST(:name AS TEXT) IS NULL OR u.full_name_search LIKE '%' || LOWER(CAST(:name AS TEXT)) || '%')" +
+            ") " +
+            "SELECT 'specialty' AS facet, m.specialty_id AS bucket, COUNT(*) AS doctorCount FROM matched m WHERE " +
+            "(CAST(:minFee AS NUMERIC) IS NULL OR m.consultation_fee >= CAST(:minFee AS NUMERIC)) AND " +
+            "(CAST(:maxFee AS NUMERIC) IS NULL OR m.consultation_fee <= CAST(:maxFee AS NUMERIC)) " +
+            "GROUP BY m.specialty_id " +
+            "UNION ALL " +
+            "SELECT 'fee' AS facet, CAST(width_bucket(m.consultation_fee, CAST(:feeEdges AS NUMERIC[])) AS BIGINT) AS bucket, " +
+            "COUNT(*) AS doctorCount FROM matched m WHERE " +
+            "m.consultation_fee IS NOT NULL AND " +
+            "(CAST(:specialtyId AS BIGINT) IS NULL OR m.specialty_id = CAST(:specialtyId AS BIGINT)) " +
+            "GROUP BY 2",
+            nativeQuery = true)
+    List<DoctorFacetRow> countSearchFacets(@Param("name") String name,
+                                           @Param("specialtyId") Long specialtyId,
+                                           @Param("minFee") BigDecimal minFee,
+                                           @Param("maxFee") BigDecimal maxFee,
+                                           @Param("includeInactive") boolean includeInactive,
+                                           @Param("feeEdges") String feeEdges);
+
     /**
      * หาหมอตาม specialty พร้อม pagination (เฉพาะ active)
      */
+    @EntityGraph(attributePaths = {"user", "specialty"})
     Page<Doctor> findBySpecialtyIdAndIsActiveTrue(Long specialtyId, Pageable pageable);
 
     /**
      * หาหมอทั้งหมดที่ active พร้อม pagination
      */
+    @EntityGraph(attributePaths = {"user", "specialty"})
     Page<Doctor> findByIsActiveTrue(Pageable pageable);
 
     /**
@@ -127,18 +255,84 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     /**
      * หาหมอที่มีค่าตรวจในช่วงที่กำหนด
      */
+    @EntityGraph(attributePaths = {"user", "specialty"})
     List<Doctor> findByConsultationFeeBetweenAndIsActiveTrue(BigDecimal minFee, BigDecimal maxFee);
 
     /**
      * หาหมอทั้งหมดที่ active เรียงตามชื่อ
      */
+    @EntityGraph(attributePaths = {"user", "specialty"})
     @Query("SELECT d FROM Doctor d JOIN d.user u WHERE d.isActive = true ORDER BY u.firstName ASC")
     List<Doctor> findByIsActiveTrueOrderByDoctorNameAsc();
 
+    /**
+     * หมอที่ active ทั้งหมดพร้อม user และ specialty ใน query เดียว (สำหรับ DoctorDirectory)
+     * เรียงตามชื่อด้วย collation ของ database แบบเดียวกับ query ค้นหา (DoctorDirectory ใช้ลำดับนี้ตรงๆ)
+     */
+    @Query("SELECT d FROM Doctor d JOIN FETCH d.user u JOIN FETCH d.specialty WHERE d.isActive = true " +
+            "ORDER BY u.firstName, d.id")
+    List<Doctor> findAllActiveWithUserAndSpecialty();
+
     /**
      * หาหมอตามชื่อ specialty และ active = true
      */
+    @EntityGraph(attributePaths = {"user", "specialty"})
     @Query("SELECT d FROM Doctor d JOIN d.specialty s WHERE " +
             "d.isActive = true AND LOWER(s.name) = LOWER(:specialtyName)")
     List<Doctor> findBySpecialtyNameAndIsActiveTrue(@Param("specialtyName") String specialtyName);
-}
\ No newline at end of file
+
+    /**
+     * จำนวนหมอทั้งหมดตามชื่อ specialty (รวม inactive) - แยก "ไม่มีหมอ" กับ "มีแต่ไม่ active" ใน smart-select
+     */
+    @Query("SELECT COUNT(d) FROM Doctor d WHERE LOWER(d.specialty.name) = LOWER(:specialtyName)")
+    long countBySpecialtyName(@Param("specialtyName") String specialtyName);
+
+    /**
+     * Doctor ids ตามชื่อ specialty (เฉพาะ active)
+     */
+    @Query("SELECT d.id FROM Doctor d WHERE " +
+            "d.isActive = true AND LOWER(d.specialty.name) = LOWER(:specialtyName) " +
+            "ORDER BY d.id")
+    List<Long> findActiveIdsBySpecialtyName(@Param("specialtyName") String specialtyName);
+
+    /**
+     * Doctor id + ค่าตรวจ ตามชื่อ specialty (เฉพาะ active) - ตัวเลือกสำหรับการจัดสรรหมอ
+     */
+    @Query("SELECT d.id AS id, d.consultationFee AS consultationFee FROM Doctor d WHERE " +
+            "d.isActive = true AND LOWER(d.specialty.name) = LOWER(:specialtyName) " +
+            "ORDER BY d.id")
+    List<DoctorFeeView> findAssignmentCandidatesBySpecialtyName(@Param("specialtyName") String specialtyName);
+
+    /**
+     * เวลาทำงานและเวลาที่ถูกจอง (PENDING/CONFIRMED) ของหมอทุกคนใน specialty ในวันที่กำหนด
+     * คำนวณใน query เดียว ไม่ว่า specialty จะมีหมอกี่คน
+     */
+    @Query(value = "WITH candidates AS (" +
+            "  SELECT d.id FROM doctors d " +
+            "  JOIN specialties s ON d.specialty_id = s.id " +
+            "  WHERE d.is_active = true AND LOWER(s.name) = LOWER(:specialtyName)" +
+            "), scheduled AS (" +
+            "  SELECT a.doctor_id, SUM(EXTRACT(EPOCH FROM (a.end_time - a.start_time)) / 60) AS minutes " +
+            "  FROM availabilities a JOIN candidates c ON a.doctor_id = c.id " +
+            "  WHERE a.day_of_week = :dayOfWeek AND a.is_active = true " +
+            "  GROUP BY a.doctor_id" +
+            "), booked AS (" +
+            "  SELECT ap.doctor_id, SUM(COALESCE(ap.duration_minutes, 30)) AS minutes " +
+            "  FROM appointments ap JOIN candidates c ON ap.doctor_id = c.id " +
+            "  WHERE ap.appointment_datetime >= :dayStart AND ap.appointment_datetime < :dayEnd " +
+            "  AND ap.status IN ('PENDING', 'CONFIRMED') " +
+            "  GROUP BY ap.doctor_id" +
+            ") " +
+            "SELECT c.id AS doctorId, " +
+            "CAST(COALESCE(sc.minutes, 0) AS INTEGER) AS scheduledMinutes, " +
+            "CAST(COALESCE(b.minutes, 0) AS INTEGER) AS bookedMinutes " +
+            "FROM candidates c " +
+            "LEFT JOIN scheduled sc ON sc.doctor_id = c.id " +
+            "LEFT JOIN booked b ON b.doctor_id = c.id " +
+            "ORDER BY c.id",
+            nativeQuery = true)
+    List<DoctorDayLoad> findDayLoadsBySpecialtyName(@Param("specialtyName") String specialtyName,
+                                                    @Param("dayOfWeek") Integer dayOfWeek,
+                                                    @Param("dayStart") LocalDateTime dayStart,
+                                                    @Param("dayEnd") LocalDateTime dayEnd);
+}
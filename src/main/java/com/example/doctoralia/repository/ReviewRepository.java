@@ -0,0 +1,38 @@
+package com.example.doctoralia.repository;
+
+import com.example.doctoralia.model.Review;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReviewRepository extends JpaRepository<Review, Long> {
+
+    // รีวิวของหมอ ใหม่สุดก่อน (idx_reviews_doctor_created_at)
+    @EntityGraph(attributePaths = {"patient"})
+    Page<Review> findByDoctorIdOrderByCreatedAtDesc(Long doctorId, Pageable pageable);
+
+    // รีวิวที่คนไข้เขียน
+    @EntityGraph(attributePaths = {"doctor", "doctor.user", "doctor.specialty"})
+    List<Review> findByPatientIdOrderByCreatedAtDesc(Long patientId);
+
+    // ล็อกแถวก่อนแก้/ลบ - คะแนนเดิมต้องไม่เปลี่ยนระหว่างคำนวณ delta
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Review r WHERE r.id = :id")
+    Optional<Review> findByIdForUpdate(@Param("id") Long id);
+
+    // รีวิวซ้ำของการนัดเดียวกัน
+    boolean existsByAppointmentId(Long appointmentId);
+
+    // รีวิวซ้ำแบบไม่ผูกกับการนัด (UNIQUE ของตารางไม่ครอบคลุมเพราะ appointment_id เป็น NULL)
+    boolean existsByDoctorIdAndPatientIdAndAppointmentIsNull(Long doctorId, Long patientId);
+}
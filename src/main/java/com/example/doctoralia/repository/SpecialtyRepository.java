@@ -1,8 +1,12 @@
 package com.example.doctoralia.repository;
 
+import com.example.doctoralia.dto.SpecialtyWithDoctorCount;
 import com.example.doctoralia.model.Specialty;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,12 +23,23 @@ public interface SpecialtyRepository extends JpaRepository<Specialty, Long> {
     @Query("SELECT s FROM Specialty s WHERE LOWER(s.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<Specialty> findByNameContaining(String name);
 
-    //ดึงแผนกทั้งหมดเรียงตามชื่อ
+    //ดึงแผนกทั้งหมดเรียงตามชื่อ (query cache - ล้างเองเมื่อมีการเขียนตาราง specialties ผ่าน JPA)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Specialty> findAllByOrderByNameAsc();
 
     //ดึงแผนกที่มีหมออยู่
     @Query("SELECT DISTINCT s FROM Specialty s WHERE s.id IN (SELECT d.specialty.id FROM Doctor d WHERE d.isActive = true)")
     List<Specialty> findSpecialtiesWithActiveDoctors();
 
+    //นับแผนกที่มีหมอ active (ไม่โหลด entity)
+    @Query("SELECT COUNT(DISTINCT d.specialty.id) FROM Doctor d WHERE d.isActive = true")
+    long countSpecialtiesWithActiveDoctors();
+
+    //แผนกทั้งหมดพร้อมจำนวนหมอ active ใน query เดียว (แผนกที่ไม่มีหมอได้ 0)
+    @Query("SELECT new com.example.doctoralia.dto.SpecialtyWithDoctorCount(s, COUNT(d.id)) " +
+            "FROM Specialty s LEFT JOIN Doctor d ON d.specialty = s AND d.isActive = true " +
+            "GROUP BY s ORDER BY s.name")
+    List<SpecialtyWithDoctorCount> findAllWithActiveDoctorCount();
+
 
 }
@@ -1,13 +1,58 @@
 package com.example.doctoralia.repository;
 
+import com.example.doctoralia.dto.UserSummary;
 import com.example.doctoralia.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    // email ที่สมัครไว้แล้วในชุดที่ให้มา (ตรวจ bulk import ทีละก้อน) ส่งมาและคืนเป็นตัวพิมพ์เล็ก (index V20)
+    @Query("SELECT LOWER(u.email) FROM User u WHERE LOWER(u.email) IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * รายชื่อ user แบบแบ่งหน้า เรียงตาม id (q: ค้นหาใน email และชื่อ, role: optional)
+     * ใช้ trigram index ของ LOWER(email) (V17) และ full_name_search (V13)
+     */
+    @Query(value = "SELECT u.id AS id, u.email AS email, u.first_name AS firstName, u.last_name AS lastName, " +
+            "u.role AS role, CAST(u.created_at AS TIMESTAMP) AS createdAt FROM users u WHERE " +
+            "(CAST(:q AS TEXT) IS NULL OR LOWER(u.email) LIKE '%' || LOWER(CAST(:q AS TEXT)) || '%' " +
+            " OR u.full_name_search LIKE '%' || LOWER(CAST(:q AS TEXT)) || '%') AND " +
+            "(CAST(:role AS TEXT) IS NULL OR u.role = CAST(:role AS TEXT)) " +
+            "ORDER BY u.id",
+            countQuery = "SELECT COUNT(*) FROM users u WHERE " +
+            "(CAST(:q AS TEXT) IS NULL OR LOWER(u.email) LIKE '%' || LOWER(CAST(:q AS TEXT)) || '%' " +
+            " OR u.full_name_search LIKE '%' || LOWER(CAST(:q AS TEXT)) || '%') AND " +
+            "(CAST(:role AS TEXT) IS NULL OR u.role = CAST(:role AS TEXT))",
+            nativeQuery = true)
+    Page<UserSummary> searchUsers(@Param("q") String q, @Param("role") String role, Pageable pageable);
+
+    /**
+     * รายชื่อ user แบบ keyset - เริ่มหลัง afterId (ไม่ count, ไม่ OFFSET)
+     */
+    @Query(value = "SELECT u.id AS id, u.email AS email, u.first_name AS firstName, u.last_name AS lastName, " +
+            "u.role AS role, CAST(u.created_at AS TIMESTAMP) AS createdAt FROM users u WHERE " +
+            "(CAST(:q AS TEXT) IS NULL OR LOWER(u.email) LIKE '%' || LOWER(CAST(:q AS TEXT)) || '%' " +
+            " OR u.full_name_search LIKE '%' || LOWER(CAST(:q AS TEXT)) || '%') AND " +
+            "(CAST(:role AS TEXT) IS NULL OR u.role = CAST(:role AS TEXT)) AND " +
+            "(CAST(:afterId AS BIGINT) IS NULL OR u.id > CAST(:afterId AS BIGINT)) " +
+            "ORDER BY u.id " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<UserSummary> findUsersAfter(@Param("q") String q,
+                                     @Param("role") String role,
+                                     @Param("afterId") Long afterId,
+                                     @Param("limit") int limit);
 }
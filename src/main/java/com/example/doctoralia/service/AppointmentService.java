@@ -1,5 +1,9 @@
 package com.example.doctoralia.service;
 
+import com.example.doctoralia.dto.AppointmentResponse;
+import com.example.doctoralia.dto.AppointmentSlotView;
+import com.example.doctoralia.dto.AppointmentView;
+import com.example.doctoralia.event.AppointmentChangedEvent;
 import com.example.doctoralia.model.Appointment;
 import com.example.doctoralia.model.AppointmentStatus;
 import com.example.doctoralia.model.Doctor;
@@ -8,13 +12,15 @@ import com.example.doctoralia.repository.AppointmentRepository;
 import com.example.doctoralia.repository.DoctorRepository;
 import com.example.doctoralia.repository.UserRepository;
 import com.example.doctoralia.dto.CreateAppointmentWithPatientInfoRequest;
+import com.example.doctoralia.dto.PatientBookingInfoResponse;
 import com.example.doctoralia.model.PatientBookingInfo;
 import com.example.doctoralia.repository.PatientBookingInfoRepository;
-import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -42,6 +48,9 @@ public class AppointmentService {
     @Autowired
     private PatientBookingInfoRepository patientBookingInfoRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Appointment createAppointment(Long doctorId, Long patientId,
                                          LocalDateTime appointmentDateTime,
                                          Integer durationMinutes, String notes) {
@@ -91,18 +100,39 @@ public class AppointmentService {
         Appointment savedAppointment = appointmentRepository.save(appointment);
         logger.info("Appointment created: {} for patient {} with doctor {}",
                 savedAppointment.getId(), patientId, doctorId);
+        publishChange(savedAppointment, null);
 
         return savedAppointment;
     }
 
+    @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsByPatient(Long patientId) {
         return appointmentRepository.findByPatientIdOrderByAppointmentDatetimeDesc(patientId);
     }
 
+    @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsByDoctor(Long doctorId) {
         return appointmentRepository.findByDoctorIdOrderByAppointmentDatetimeAsc(doctorId);
     }
 
+    // รายการนัดของคนไข้สำหรับแสดงผล (เฉพาะคอลัมน์ที่ใช้)
+    @Transactional(readOnly = true)
+    public List<AppointmentView> getAppointmentViewsByPatient(Long patientId) {
+        return appointmentRepository.findViewsByPatientId(patientId);
+    }
+
+    // รายการนัดของหมอสำหรับแสดงผล (เฉพาะคอลัมน์ที่ใช้)
+    @Transactional(readOnly = true)
+    public List<AppointmentView> getAppointmentViewsByDoctor(Long doctorId) {
+        return appointmentRepository.findViewsByDoctorId(doctorId);
+    }
+
+    // นัดนี้เป็นของหมอคนนี้หรือไม่
+    @Transactional(readOnly = true)
+    public boolean isAppointmentOfDoctor(Long appointmentId, Long doctorId) {
+        return appointmentRepository.existsByIdAndDoctorId(appointmentId, doctorId);
+    }
+
     public Appointment cancelAppointment(Long appointmentId, Long userId) {
         Optional<Appointment> appointmentOpt = appointmentRepository.findById(appointmentId);
         if (appointmentOpt.isEmpty()) {
@@ -123,8 +153,10 @@ public class AppointmentService {
             throw new IllegalArgumentException("Cannot cancel appointment with status: " + appointment.getStatus());
         }
 
+        AppointmentStatus previousStatus = appointment.getStatus();
         appointment.setStatus(AppointmentStatus.CANCELLED);
         Appointment updated = appointmentRepository.save(appointment);
+        publishChange(updated, previousStatus);
 
         logger.info("Appointment {} cancelled by user {}", appointmentId, userId);
         return updated;
@@ -137,9 +169,12 @@ public class AppointmentService {
         }
 
         Appointment appointment = appointmentOpt.get();
+        AppointmentStatus previousStatus = appointment.getStatus();
         appointment.setStatus(status);
 
-        return appointmentRepository.save(appointment);
+        Appointment updated = appointmentRepository.save(appointment);
+        publishChange(updated, previousStatus);
+        return updated;
     }
 
     /**
@@ -165,6 +200,7 @@ public class AppointmentService {
 
         appointment.setStatus(AppointmentStatus.CONFIRMED);
         Appointment updated = appointmentRepository.save(appointment);
+        publishChange(updated, AppointmentStatus.PENDING);
 
         logger.info("Appointment {} confirmed by doctor {}", appointmentId, doctorId);
         return updated;
@@ -214,17 +250,8 @@ public class AppointmentService {
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Appointment created successfully!");
 
-        Map<String, Object> appointmentData = convertToAppointmentResponse(appointment);
-        response.put("appointment", appointmentData);
-
-        Map<String, Object> patientInfo = new HashMap<>();
-        patientInfo.put("id", savedPatientInfo.getId());
-        patientInfo.put("queueNumber", savedPatientInfo.getQueueNumber());
-        patientInfo.put("patientFullName", savedPatientInfo.getPatientFullName());
-        patientInfo.put("bookingType", savedPatientInfo.getBookingType());
-        patientInfo.put("symptoms", savedPatientInfo.getSymptoms());
-
-        response.put("patientInfo", patientInfo);
+        response.put("appointment", AppointmentResponse.from(appointment));
+        response.put("patientInfo", PatientBookingInfoResponse.Summary.from(savedPatientInfo));
 
         logger.info("Appointment created with patient info: appointmentId={}, patientInfoId={}, queueNumber={}",
                    appointment.getId(), savedPatientInfo.getId(), queueNumber);
@@ -232,6 +259,16 @@ public class AppointmentService {
         return response;
     }
 
+    private void publishChange(Appointment appointment, AppointmentStatus previousStatus) {
+        eventPublisher.publishEvent(new AppointmentChangedEvent(
+                appointment.getId(),
+                appointment.getDoctor().getId(),
+                appointment.getAppointmentDatetime(),
+                appointment.getDurationMinutes(),
+                previousStatus,
+                appointment.getStatus()));
+    }
+
     /**
      * Generate unique queue number
      */
@@ -251,74 +288,27 @@ public class AppointmentService {
     /**
      * Get patient booking info for an appointment
      */
+    @Transactional(readOnly = true)
     public Optional<PatientBookingInfo> getPatientBookingInfo(Long appointmentId) {
         return patientBookingInfoRepository.findByAppointmentId(appointmentId);
     }
 
     /**
-     * Get appointments by doctor and specific date
+     * Get appointments by doctor and specific date (ไม่รวมที่ยกเลิก)
+     * query เฉพาะช่วงวันนั้น และเลือกเฉพาะคอลัมน์ของช่วงเวลานัด
      */
-    public List<Appointment> getAppointmentsByDoctorAndDate(Long doctorId, String dateString) {
+    @Transactional(readOnly = true)
+    public List<AppointmentSlotView> getAppointmentsByDoctorAndDate(Long doctorId, String dateString) {
+        LocalDate date;
         try {
             // Parse date string (YYYY-MM-DD)
-            LocalDate date = LocalDate.parse(dateString, DateTimeFormatter.ISO_LOCAL_DATE);
-
-            // Get start and end of day
-            LocalDateTime startOfDay = date.atStartOfDay();
-            LocalDateTime endOfDay = date.atTime(23, 59, 59);
-
-            // Query appointments for this doctor on this date
-            List<Appointment> appointments = appointmentRepository.findByDoctorIdOrderByAppointmentDatetimeAsc(doctorId);
-
-            // Filter by date range
-            return appointments.stream()
-                    .filter(apt -> {
-                        LocalDateTime aptTime = apt.getAppointmentDatetime();
-                        return !aptTime.isBefore(startOfDay) && !aptTime.isAfter(endOfDay);
-                    })
-                    // Only include non-cancelled appointments
-                    .filter(apt -> apt.getStatus() != AppointmentStatus.CANCELLED)
-                    .toList();
-
+            date = LocalDate.parse(dateString, DateTimeFormatter.ISO_LOCAL_DATE);
         } catch (Exception e) {
             logger.error("Error getting appointments by doctor and date: ", e);
             throw new IllegalArgumentException("Invalid date format. Please use YYYY-MM-DD");
         }
-    }
-
-    /**
-     * Convert appointment to response format (reusing existing method logic)
-     */
-    private Map<String, Object> convertToAppointmentResponse(Appointment appointment) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("id", appointment.getId());
-
-        // Doctor info
-        Map<String, Object> doctor = new HashMap<>();
-        doctor.put("id", appointment.getDoctor().getId());
-        doctor.put("doctorName", appointment.getDoctor().getDoctorName());
-        Map<String, Object> specialty = new HashMap<>();
-        specialty.put("id", appointment.getDoctor().getSpecialty().getId());
-        specialty.put("name", appointment.getDoctor().getSpecialty().getName());
-        doctor.put("specialty", specialty);
-        response.put("doctor", doctor);
-
-        // Patient info
-        Map<String, Object> patient = new HashMap<>();
-        patient.put("id", appointment.getPatient().getId());
-        patient.put("email", appointment.getPatient().getEmail());
-        patient.put("firstName", appointment.getPatient().getFirstName());
-        patient.put("lastName", appointment.getPatient().getLastName());
-        response.put("patient", patient);
-
-        response.put("appointmentDatetime", appointment.getAppointmentDatetime());
-        response.put("durationMinutes", appointment.getDurationMinutes());
-        response.put("status", appointment.getStatus());
-        response.put("notes", appointment.getNotes());
-        response.put("doctorNotes", appointment.getDoctorNotes());
-        response.put("createdAt", appointment.getCreatedAt());
-        response.put("updatedAt", appointment.getUpdatedAt());
 
-        return response;
+        return appointmentRepository.findSlotsByDoctorIdAndRange(
+                doctorId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
     }
 }
\ No newline at end of file
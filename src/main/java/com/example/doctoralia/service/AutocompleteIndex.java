@@ -0,0 +1,229 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.config.ReplicaRoutingDataSource;
+import com.example.doctoralia.dto.AutocompleteSuggestion;
+import com.example.doctoralia.dto.AutocompleteSuggestion.Type;
+import com.example.doctoralia.event.DoctorChangedEvent;
+import com.example.doctoralia.event.DoctorsImportedEvent;
+import com.example.doctoralia.event.SpecialtyChangedEvent;
+import com.example.doctoralia.event.UserChangedEvent;
+import com.example.doctoralia.model.Doctor;
+import com.example.doctoralia.model.Specialty;
+import com.example.doctoralia.repository.DoctorRepository;
+import com.example.doctoralia.repository.SpecialtyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Prefix index สำหรับ autocomplete ชื่อหมอ (ชื่อ/นามสกุล/ชื่อเต็ม) และชื่อแผนก
+ *
+ * key = token ตัวเล็ก + '\0' + ประเภท + id เรียงใน skip list การค้นหา prefix จึงเป็น
+ * การเดิน subMap จากตำแหน่งแรกที่ตรง (O(log n + k)) อัปเดตทีละรายการเมื่อหมอ/แผนก/user เปลี่ยน
+ * rebuild สร้าง Index ชุดใหม่แยกไว้แล้วสลับ reference ครั้งเดียว - autocomplete ไม่ว่างระหว่าง rebuild
+ */
+@Component
+public class AutocompleteIndex {
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteIndex.class);
+
+    private static final char SEPARATOR = '\0';
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private SpecialtyRepository specialtyRepository;
+
+    private volatile Index index = new Index();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Order(ResourceVersions.REFRESH_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorChanged(DoctorChangedEvent event) {
+        Optional<Doctor> doctor = ReplicaRoutingDataSource.readOnPrimary(
+                () -> doctorRepository.findById(event.getDoctorId()));
+        if (doctor.isPresent()) {
+            indexDoctor(doctor.get());
+        } else {
+            remove(Type.DOCTOR, event.getDoctorId());
+        }
+    }
+
+    @Order(ResourceVersions.REFRESH_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorsImported(DoctorsImportedEvent event) {
+        ReplicaRoutingDataSource.readOnPrimary(() -> doctorRepository.findAllById(event.getDoctorIds()))
+                .forEach(this::indexDoctor);
+    }
+
+    @Order(ResourceVersions.REFRESH_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        ReplicaRoutingDataSource.readOnPrimary(() -> doctorRepository.findByUserId(event.getUserId()))
+                .ifPresent(this::indexDoctor);
+    }
+
+    @Order(ResourceVersions.REFRESH_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpecialtyChanged(SpecialtyChangedEvent event) {
+        Optional<Specialty> specialty = ReplicaRoutingDataSource.readOnPrimary(
+                () -> specialtyRepository.findById(event.getSpecialtyId()));
+        if (specialty.isPresent()) {
+            indexSpecialty(specialty.get());
+        } else {
+            remove(Type.SPECIALTY, event.getSpecialtyId());
+        }
+    }
+
+    /**
+     * โหลดใหม่ทั้งหมดจาก database
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Index fresh = new Index();
+
+        // listener ทั้งหมดทำงานหลัง commit: อ่านจาก primary (replica อาจยังตามไม่ทัน)
+        List<Doctor> doctors = ReplicaRoutingDataSource.readOnPrimary(doctorRepository::findAllActiveWithUserAndSpecialty);
+        for (Doctor doctor : doctors) {
+            indexDoctor(fresh, doctor);
+        }
+        List<Specialty> specialties = ReplicaRoutingDataSource.readOnPrimary(specialtyRepository::findAll);
+        for (Specialty specialty : specialties) {
+            indexSpecialty(fresh, specialty);
+        }
+        index = fresh;
+
+        logger.info("Autocomplete index rebuilt: {} doctors, {} specialties, {} keys in {} ms",
+                doctors.size(), specialties.size(), fresh.entries.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * คำแนะนำสูงสุด limit รายการที่มีคำขึ้นต้นด้วย prefix (ไม่สนตัวพิมพ์ใหญ่เล็ก)
+     */
+    public List<AutocompleteSuggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        NavigableMap<String, AutocompleteSuggestion> matches =
+                index.entries.subMap(normalized, true, normalized + Character.MAX_VALUE, false);
+
+        // หมอคนเดียวกันอาจตรงหลาย token (ชื่อ + นามสกุล) - เก็บครั้งเดียว
+        Map<String, AutocompleteSuggestion> unique = new LinkedHashMap<>();
+        for (Map.Entry<String, AutocompleteSuggestion> entry : matches.entrySet()) {
+            AutocompleteSuggestion suggestion = entry.getValue();
+            unique.putIfAbsent(itemKey(suggestion.getType(), suggestion.getId()), suggestion);
+            if (unique.size() >= limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(unique.values());
+    }
+
+    // อัปเดตทีละรายการลง index ปัจจุบัน (อ่าน reference ใน lock เดียวกับ rebuild จึงไม่ตกไปอยู่ในชุดที่ถูกทิ้ง)
+    private synchronized void indexDoctor(Doctor doctor) {
+        indexDoctor(index, doctor);
+    }
+
+    private synchronized void indexSpecialty(Specialty specialty) {
+        indexSpecialty(index, specialty);
+    }
+
+    private synchronized void remove(Type type, Long id) {
+        index.remove(itemKey(type, id));
+    }
+
+    private static void indexDoctor(Index target, Doctor doctor) {
+        if (!Boolean.TRUE.equals(doctor.getIsActive()) || doctor.getUser() == null) {
+            target.remove(itemKey(Type.DOCTOR, doctor.getId()));
+            return;
+        }
+        List<String> tokens = new ArrayList<>();
+        tokens.addAll(words(doctor.getUser().getFirstName()));
+        tokens.addAll(words(doctor.getUser().getLastName()));
+        tokens.add(normalize(doctor.getDoctorName()));
+        target.put(new AutocompleteSuggestion(Type.DOCTOR, doctor.getId(), doctor.getDoctorName()), tokens);
+    }
+
+    private static void indexSpecialty(Index target, Specialty specialty) {
+        List<String> tokens = new ArrayList<>(words(specialty.getName()));
+        tokens.add(normalize(specialty.getName()));
+        target.put(new AutocompleteSuggestion(Type.SPECIALTY, specialty.getId(), specialty.getName()), tokens);
+    }
+
+    private static String itemKey(Type type, Long id) {
+        return type.name() + id;
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : normalize(text).split(" ")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * key -> คำแนะนำ และ key ที่เคย index ไว้ของแต่ละรายการ (สำหรับลบตอนอัปเดต)
+     */
+    private static final class Index {
+        private final ConcurrentSkipListMap<String, AutocompleteSuggestion> entries = new ConcurrentSkipListMap<>();
+        private final Map<String, List<String>> keysByItem = new ConcurrentHashMap<>();
+
+        // ใส่ key ใหม่ก่อนแล้วค่อยลบ key เก่าที่ไม่ใช้แล้ว รายการจึงไม่หายระหว่างอัปเดต
+        private void put(AutocompleteSuggestion suggestion, List<String> tokens) {
+            List<String> keys = new ArrayList<>();
+            for (String token : tokens) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                String key = token + SEPARATOR + suggestion.getType() + suggestion.getId();
+                if (!keys.contains(key)) {
+                    keys.add(key);
+                    entries.put(key, suggestion);
+                }
+            }
+            List<String> previous = keysByItem.put(itemKey(suggestion.getType(), suggestion.getId()), keys);
+            if (previous != null) {
+                for (String key : previous) {
+                    if (!keys.contains(key)) {
+                        entries.remove(key);
+                    }
+                }
+            }
+        }
+
+        private void remove(String itemKey) {
+            List<String> keys = keysByItem.remove(itemKey);
+            if (keys != null) {
+                keys.forEach(entries::remove);
+            }
+        }
+    }
+}
@@ -1,16 +1,33 @@
 package com.example.doctoralia.service;
 
+import com.example.doctoralia.dto.AddAvailabilityRequest;
+import com.example.doctoralia.dto.AvailabilityCalendarDay;
+import com.example.doctoralia.dto.BookedInterval;
+import com.example.doctoralia.dto.WeeklyScheduleUpdateResult;
+import com.example.doctoralia.event.AvailabilityChangedEvent;
 import com.example.doctoralia.model.Availability;
 import com.example.doctoralia.model.Doctor;
+import com.example.doctoralia.repository.AppointmentRepository;
 import com.example.doctoralia.repository.AvailabilityRepository;
 import com.example.doctoralia.repository.DoctorRepository;
-import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,6 +37,9 @@ public class AvailabilityService {
 
     private static final Logger logger = LoggerFactory.getLogger(AvailabilityService.class);
 
+    private static final int MAX_CALENDAR_DAYS = 62;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
     @Autowired
     private AvailabilityRepository availabilityRepository;
 
@@ -29,6 +49,15 @@ public class AvailabilityService {
     @Autowired
     private DoctorService doctorService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OnDutyDoctorIndex onDutyDoctorIndex;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
     //เพิ่ม availability สำหรับหมอ
     public Availability addAvailability(Long doctorId, Integer dayOfWeek, LocalTime startTime, LocalTime endTime) {
 
@@ -58,6 +87,7 @@ public class AvailabilityService {
         Availability availability = new Availability(doctor,dayOfWeek,startTime,endTime);
 
         Availability saved = availabilityRepository.save(availability);
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(doctorId));
         logger.info("Availability added for doctor {}: {} {}", doctor.getDoctorName(),
                 saved.getDayName(), saved.getTimeRange());
         return saved;
@@ -103,6 +133,7 @@ public class AvailabilityService {
         availability.setEndTime(endTime);
 
         Availability updated = availabilityRepository.save(availability);
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(doctorId));
         logger.info("Availability updated for doctor {}: {} {}", doctor.getDoctorName(),
                 updated.getDayName(), updated.getTimeRange());
 
@@ -146,14 +177,95 @@ public class AvailabilityService {
         // ทด ตรวจสอบว่ามี appointment ในชาวงเวลานี้หรือไม่
 
         availabilityRepository.delete(availability);
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(doctorId));
         logger.info("Availability deleted for doctor {}: {} {}", doctor.getDoctorName(),
                 availability.getDayName(), availability.getTimeRange());
 
     }
 
+    /**
+     * แทนที่ตารางเวลาทั้งสัปดาห์ของหมอในครั้งเดียว
+     * ตรวจเวลาซ้อนกันใน memory แล้ว apply เฉพาะส่วนที่เปลี่ยน (ลบก่อน แล้วค่อยเพิ่ม)
+     * เพื่อไม่ให้ชน EXCLUDE constraint ระหว่างการจัดตารางใหม่
+     */
+    public WeeklyScheduleUpdateResult replaceWeeklySchedule(Long doctorId, List<AddAvailabilityRequest> slots) {
+        for (AddAvailabilityRequest slot : slots) {
+            validateAvailabilityInput(slot.getDayOfWeek(), slot.getStartTime(), slot.getEndTime());
+        }
+        validateWeeklySchedule(slots);
+
+        List<Availability> current = availabilityRepository
+                .findByDoctorIdAndIsActiveTrueOrderByDayOfWeekAscStartTimeAsc(doctorId);
+
+        // จับคู่ของเดิมกับของใหม่ด้วย (วัน, เวลาเริ่ม, เวลาสิ้นสุด)
+        Map<String, Availability> currentByKey = new HashMap<>();
+        for (Availability availability : current) {
+            currentByKey.put(scheduleKey(availability.getDayOfWeek(),
+                    availability.getStartTime(), availability.getEndTime()), availability);
+        }
+
+        List<AddAvailabilityRequest> toAdd = new ArrayList<>();
+        for (AddAvailabilityRequest slot : slots) {
+            String key = scheduleKey(slot.getDayOfWeek(), slot.getStartTime(), slot.getEndTime());
+            if (currentByKey.remove(key) == null) {
+                toAdd.add(slot);
+            }
+        }
+        Collection<Availability> toRemove = currentByKey.values();
+        int unchanged = current.size() - toRemove.size();
+
+        if (!toRemove.isEmpty()) {
+            availabilityRepository.deleteAllByIdInBatch(
+                    toRemove.stream().map(Availability::getId).toList());
+        }
+
+        if (!toAdd.isEmpty()) {
+            Doctor doctor = doctorRepository.getReferenceById(doctorId);
+            availabilityRepository.saveAll(toAdd.stream()
+                    .map(slot -> new Availability(doctor, slot.getDayOfWeek(), slot.getStartTime(), slot.getEndTime()))
+                    .toList());
+        }
+
+        if (!toAdd.isEmpty() || !toRemove.isEmpty()) {
+            eventPublisher.publishEvent(new AvailabilityChangedEvent(doctorId));
+        }
+        logger.info("Weekly schedule replaced for doctor {}: added={}, removed={}, unchanged={}",
+                doctorId, toAdd.size(), toRemove.size(), unchanged);
+
+        List<Availability> schedule = availabilityRepository
+                .findByDoctorIdAndIsActiveTrueOrderByDayOfWeekAscStartTimeAsc(doctorId);
+        return new WeeklyScheduleUpdateResult(schedule, toAdd.size(), toRemove.size(), unchanged);
+    }
+
+    /**
+     * ตรวจเวลาซ้อนกันของทั้งสัปดาห์ด้วย sort-and-sweep (ไม่ต้อง query database)
+     */
+    public void validateWeeklySchedule(List<AddAvailabilityRequest> slots) {
+        List<AddAvailabilityRequest> sorted = new ArrayList<>(slots);
+        sorted.sort(Comparator.comparing(AddAvailabilityRequest::getDayOfWeek)
+                .thenComparing(AddAvailabilityRequest::getStartTime));
+
+        AddAvailabilityRequest previous = null;
+        for (AddAvailabilityRequest slot : sorted) {
+            if (previous != null
+                    && previous.getDayOfWeek().equals(slot.getDayOfWeek())
+                    && slot.getStartTime().isBefore(previous.getEndTime())) {
+                throw new IllegalArgumentException("Time slot " + slot.getStartTime() + " - " + slot.getEndTime() +
+                        " overlaps with " + previous.getStartTime() + " - " + previous.getEndTime() +
+                        " on day " + slot.getDayOfWeek());
+            }
+            previous = slot;
+        }
+    }
+
+    private String scheduleKey(Integer dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        return dayOfWeek + "|" + startTime + "|" + endTime;
+    }
+
     /**
      * ดึง availability ของหมอทั้งหมด
      */
+    @Transactional(readOnly = true)
     public List<Availability> getDoctorAvailabilities(Long doctorId) {
         return availabilityRepository.findByDoctorIdAndIsActiveTrueOrderByDayOfWeekAscStartTimeAsc(doctorId);
     }
@@ -161,6 +273,7 @@ public class AvailabilityService {
     /**
      * ดึง availability ของหมอในวันที่กำหนด
      */
+    @Transactional(readOnly = true)
     public List<Availability> getDoctorAvailabilitiesByDay(Long doctorId, Integer dayOfWeek) {
         return availabilityRepository
                 .findByDoctorIdAndDayOfWeekAndIsActiveTrueOrderByStartTimeAsc(doctorId, dayOfWeek);
@@ -169,6 +282,7 @@ public class AvailabilityService {
     /**
      * ตรวจสอบว่าหมอมี availability ในเวลาที่กำหนด
      */
+    @Transactional(readOnly = true)
     public boolean isDoctorAvailable(Long doctorId, Integer dayOfWeek, LocalTime time) {
         Optional<Availability> availability = availabilityRepository.findDoctorAvailabilityAtTime(
                 doctorId, dayOfWeek, time
@@ -176,9 +290,19 @@ public class AvailabilityService {
         return availability.isPresent();
     }
 
+    /**
+     * หมอที่เข้าเวร ณ วันและเวลาที่กำหนด จัดกลุ่มตาม specialty (อ่านจาก in-memory index)
+     * SUPPORTS: ไม่เปิด transaction ของตัวเอง (class เป็น @Transactional) เพราะไม่แตะ database
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public SortedMap<Long, List<Long>> getOnDutyDoctors(Integer dayOfWeek, LocalTime time, Long specialtyId) {
+        return onDutyDoctorIndex.findOnDuty(dayOfWeek, time, specialtyId);
+    }
+
     /**
      * หา availability ตาม ID
      */
+    @Transactional(readOnly = true)
     public Optional<Availability> findById(Long id) {
         return availabilityRepository.findById(id);
     }
@@ -189,6 +313,7 @@ public class AvailabilityService {
      * @param date วันที่ในรูปแบบ String "YYYY-MM-DD"
      * @return true ถ้ามี availability, false ถ้าไม่มี
      */
+    @Transactional(readOnly = true)
     public boolean hasDoctorAvailabilityOnDate(Long doctorId, String date) {
         try {
             if (date == null || date.isEmpty()) {
@@ -230,6 +355,7 @@ public class AvailabilityService {
      * @param date วันที่ในรูปแบบ "YYYY-MM-DD"
      * @return List ของ Availability
      */
+    @Transactional(readOnly = true)
     public List<Availability> getDoctorAvailabilitiesByDate(Long doctorId, String date) {
         try {
             if (date == null || date.isEmpty()) {
@@ -270,4 +396,118 @@ public class AvailabilityService {
             throw new IllegalArgumentException("Working hours must be between 06:00 - 22:00");
         }
     }
+
+    /**
+     * ปฏิทินเวลาว่างของหมอหลายวันในครั้งเดียว (from..to รวมทั้งสองวัน)
+     * โหลดตารางรายสัปดาห์ครั้งเดียว และโหลดนัดในช่วงวันที่ครั้งเดียว แล้ว merge แบบ linear
+     * (นัดเรียงตามเวลา ตารางเรียงตามวัน/เวลาเริ่ม จึงเดินไปข้างหน้าอย่างเดียว)
+     */
+    @Transactional(readOnly = true)
+    public List<AvailabilityCalendarDay> getDoctorCalendar(Long doctorId, LocalDate from, LocalDate to, int slotMinutes) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("From and to dates are required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("To date must not be before from date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > MAX_CALENDAR_DAYS) {
+            throw new IllegalArgumentException("Calendar range cannot exceed " + MAX_CALENDAR_DAYS + " days");
+        }
+        if (slotMinutes < 5 || slotMinutes > 240) {
+            throw new IllegalArgumentException("Slot length must be between 5 and 240 minutes");
+        }
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new IllegalArgumentException("Doctor not found with ID: " + doctorId);
+        }
+
+        // ตารางรายสัปดาห์ แยกตามวัน (เรียงตามเวลาเริ่มอยู่แล้ว)
+        List<List<int[]>> windowsByDay = new ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            windowsByDay.add(new ArrayList<>());
+        }
+        for (Availability availability : availabilityRepository
+                .findByDoctorIdAndIsActiveTrueOrderByDayOfWeekAscStartTimeAsc(doctorId)) {
+            windowsByDay.get(availability.getDayOfWeek() - 1).add(new int[] {
+                    availability.getStartTime().toSecondOfDay() / 60,
+                    availability.getEndTime().toSecondOfDay() / 60 });
+        }
+
+        List<BookedInterval> booked = appointmentRepository.findBookedIntervals(
+                doctorId, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<AvailabilityCalendarDay> calendar = new ArrayList<>();
+        List<int[]> dayBookings = new ArrayList<>();
+        int next = 0;
+
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            // นัดของวันนี้ (ตัดส่วนที่เลยเที่ยงคืนออก)
+            dayBookings.clear();
+            while (next < booked.size() && booked.get(next).getAppointmentDatetime().toLocalDate().equals(date)) {
+                BookedInterval interval = booked.get(next++);
+                int start = interval.getAppointmentDatetime().toLocalTime().toSecondOfDay() / 60;
+                int duration = interval.getDurationMinutes() != null ? interval.getDurationMinutes() : 30;
+                dayBookings.add(new int[] { start, Math.min(start + duration, MINUTES_PER_DAY) });
+            }
+
+            int dayOfWeek = date.getDayOfWeek().getValue();
+            int notBefore = -1;
+            if (date.equals(now.toLocalDate())) {
+                notBefore = now.toLocalTime().toSecondOfDay() / 60;
+            } else if (date.isBefore(now.toLocalDate())) {
+                notBefore = MINUTES_PER_DAY;
+            }
+            calendar.add(buildCalendarDay(date, dayOfWeek, windowsByDay.get(dayOfWeek - 1),
+                    dayBookings, slotMinutes, notBefore));
+        }
+
+        return calendar;
+    }
+
+    private AvailabilityCalendarDay buildCalendarDay(LocalDate date, int dayOfWeek, List<int[]> windows,
+                                                     List<int[]> bookings, int slotMinutes, int notBefore) {
+        int scheduled = 0;
+        int bookedInWindows = 0;
+        List<String> freeSlots = new ArrayList<>();
+        int b = 0;
+
+        for (int[] window : windows) {
+            scheduled += window[1] - window[0];
+
+            // นาทีที่ถูกจองภายในช่วงนี้ (นัดเรียงตามเวลาเริ่ม ซ้อนกันได้ จึงนับจากจุดที่ยังไม่นับ)
+            int counted = window[0];
+            while (b < bookings.size() && bookings.get(b)[1] <= window[0]) {
+                b++;
+            }
+            for (int i = b; i < bookings.size() && bookings.get(i)[0] < window[1]; i++) {
+                int start = Math.max(bookings.get(i)[0], counted);
+                int end = Math.min(bookings.get(i)[1], window[1]);
+                if (end > start) {
+                    bookedInWindows += end - start;
+                    counted = end;
+                }
+            }
+
+            // slot ที่ว่างทั้งช่วง [t, t + slotMinutes)
+            int j = b;
+            for (int t = window[0]; t + slotMinutes <= window[1]; t += slotMinutes) {
+                while (j < bookings.size() && bookings.get(j)[1] <= t) {
+                    j++;
+                }
+                boolean free = true;
+                for (int k = j; k < bookings.size() && bookings.get(k)[0] < t + slotMinutes; k++) {
+                    if (bookings.get(k)[1] > t) {
+                        free = false;
+                        break;
+                    }
+                }
+                if (free && t > notBefore) {
+                    freeSlots.add(LocalTime.ofSecondOfDay(t * 60L).toString());
+                }
+            }
+        }
+
+        return new AvailabilityCalendarDay(date, dayOfWeek, scheduled, bookedInWindows,
+                scheduled - bookedInWindows, freeSlots);
+    }
 }
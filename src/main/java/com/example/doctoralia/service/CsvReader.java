@@ -0,0 +1,161 @@
+package com.example.doctoralia.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * อ่าน CSV (RFC 4180) ทีละ record จาก Reader - ไม่โหลดทั้งไฟล์เข้าหน่วยความจำ
+ * รองรับค่าที่ครอบด้วย " (มี , "" หรือขึ้นบรรทัดใหม่ข้างใน), CRLF/LF และ BOM ต้นไฟล์
+ */
+public class CsvReader implements Closeable {
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private boolean eof;
+    private boolean started;
+    private long lineNumber = 1;
+    private long recordLineNumber;
+    private Map<String, Integer> header;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * อ่านบรรทัดแรกเป็น header (ชื่อคอลัมน์ไม่สนตัวพิมพ์ใหญ่เล็ก)
+     */
+    public Map<String, Integer> readHeader() throws IOException {
+        List<String> names = readRecord();
+        if (names == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return header;
+    }
+
+    /**
+     * record ถัดไป หรือ null เมื่อจบไฟล์ (ข้ามบรรทัดว่าง)
+     */
+    public List<String> readRecord() throws IOException {
+        if (!started) {
+            // ตัด BOM ก่อน parse ไม่งั้น " ของ header ที่ครอบไว้ (Excel) ไม่อยู่ต้น field
+            started = true;
+            if (fill() && buffer[position] == '\uFEFF') {
+                position++;
+            }
+        }
+        while (true) {
+            if (!fill()) {
+                return null;
+            }
+            recordLineNumber = lineNumber;
+            List<String> fields = parseRecord();
+            if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                continue;
+            }
+            return fields;
+        }
+    }
+
+    /**
+     * ค่าในคอลัมน์ตามชื่อ header (null ถ้าไม่มีคอลัมน์นี้หรือค่าว่าง)
+     */
+    public String get(List<String> record, String column) {
+        Integer index = header.get(column.toLowerCase(Locale.ROOT));
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    public boolean hasColumn(String column) {
+        return header.containsKey(column.toLowerCase(Locale.ROOT));
+    }
+
+    // บรรทัดที่ record ล่าสุดเริ่ม (ใช้รายงาน error)
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> parseRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+
+        while (fill()) {
+            char c = buffer[position++];
+            if (quoted) {
+                if (c == '"') {
+                    if (fill() && buffer[position] == '"') {
+                        field.append('"');
+                        position++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append(c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && fill() && buffer[position] == '\n') {
+                    position++;
+                }
+                lineNumber++;
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append(c);
+                fieldStart = false;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLineNumber);
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        if (eof) {
+            return false;
+        }
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+            limit = 0;
+            eof = true;
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.AssignmentCandidate;
+
+import java.util.List;
+
+/**
+ * นโยบายการเลือกหมอจากตัวเลือกที่มีเวลาว่าง
+ */
+public interface DoctorAssignmentStrategy {
+
+    /**
+     * ชื่อที่ใช้เลือก strategy (request param / property doctor.assignment.strategy)
+     */
+    String getName();
+
+    /**
+     * @param poolKey กลุ่มของตัวเลือก (เช่นชื่อ specialty) สำหรับ strategy ที่มี state
+     * @param candidates ไม่ว่าง และทุกคนมีเวลาว่างมากกว่า 0 นาที
+     */
+    AssignmentCandidate choose(String poolKey, List<AssignmentCandidate> candidates);
+}
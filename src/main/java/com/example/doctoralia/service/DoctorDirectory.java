@@ -0,0 +1,482 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.config.ReplicaRoutingDataSource;
+import com.example.doctoralia.dto.DoctorRating;
+import com.example.doctoralia.dto.DoctorResponse;
+import com.example.doctoralia.dto.DoctorSearchFacets;
+import com.example.doctoralia.dto.DoctorSummary;
+import com.example.doctoralia.dto.SpecialtyResponse;
+import com.example.doctoralia.event.DoctorChangedEvent;
+import com.example.doctoralia.event.DoctorsImportedEvent;
+import com.example.doctoralia.event.ReviewChangedEvent;
+import com.example.doctoralia.event.SpecialtyChangedEvent;
+import com.example.doctoralia.event.UserChangedEvent;
+import com.example.doctoralia.model.Doctor;
+import com.example.doctoralia.model.DoctorRatingSummary;
+import com.example.doctoralia.model.Specialty;
+import com.example.doctoralia.repository.DoctorRatingSummaryRepository;
+import com.example.doctoralia.repository.DoctorRepository;
+import com.example.doctoralia.repository.SpecialtyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snapshot ของรายชื่อหมอที่ active สำหรับ public listing (ไม่แตะ database ตอนอ่าน)
+ * รวมคะแนนรีวิวจาก doctor_rating_summary ไว้ใน response แล้ว
+ *
+ * Snapshot เป็น immutable และถูกสร้างใหม่ทั้งชุดหลัง commit เมื่อหมอ/แผนก/user เปลี่ยน
+ * แล้วสลับ reference ครั้งเดียว (copy-on-write) - reader ไม่ต้อง lock และไม่เห็นข้อมูลครึ่งๆ กลางๆ
+ * รีวิวเปลี่ยนแค่คะแนนของหมอคนเดียว จึงโหลดแถวสรุปของหมอคนนั้นแล้วแทนที่ entry เดียวใน snapshot ใหม่
+ * Response ของหมอแต่ละคน (record, immutable) สร้างไว้ล่วงหน้าและใช้ร่วมกันทุก request
+ */
+@Component
+public class DoctorDirectory {
+    private static final Logger logger = LoggerFactory.getLogger(DoctorDirectory.class);
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private SpecialtyRepository specialtyRepository;
+
+    @Autowired
+    private DoctorRatingSummaryRepository ratingSummaryRepository;
+
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Order(ResourceVersions.REFRESH_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorChanged(DoctorChangedEvent event) {
+        rebuild();
+    }
+
+    @Order(ResourceVersions.REFRESH_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorsImported(DoctorsImportedEvent event) {
+        rebuild();
+    }
+
+    @Order(ResourceVersions.REFRESH_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpecialtyChanged(SpecialtyChangedEvent event) {
+        rebuild();
+    }
+
+    @Order(ResourceVersions.REFRESH_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        updateRating(event.getDoctorId());
+    }
+
+    @Order(ResourceVersions.REFRESH_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        Snapshot current = snapshot;
+        if (current == null || current.userIds.contains(event.getUserId())) {
+            rebuild();
+        }
+    }
+
+    /**
+     * โหลดใหม่ทั้งหมดจาก database แล้วสลับ snapshot
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        // เรียกหลัง commit: ต้องอ่านจาก primary ไม่งั้น replica อาจยังไม่มีข้อมูลที่เพิ่งเขียน
+        Snapshot fresh = ReplicaRoutingDataSource.readOnPrimary(() -> {
+            List<Doctor> doctors = doctorRepository.findAllActiveWithUserAndSpecialty();
+            List<Specialty> specialties = specialtyRepository.findAll();
+            Map<Long, DoctorRatingSummary> ratings = new HashMap<>();
+            for (DoctorRatingSummary summary : ratingSummaryRepository.findAll()) {
+                ratings.put(summary.getDoctorId(), summary);
+            }
+            return new Snapshot(doctors, specialties, ratings);
+        });
+        snapshot = fresh;
+        logger.info("Doctor directory rebuilt: {} doctors, {} specialties in {} ms",
+                fresh.byId.size(), fresh.specialties.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * โหลดคะแนนของหมอคนเดียวแล้วสลับเป็น snapshot ที่แทนที่ entry ของหมอคนนั้น (ลำดับไม่เปลี่ยน)
+     */
+    public synchronized void updateRating(Long doctorId) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            return;
+        }
+        Entry entry = current.entries.get(doctorId);
+        if (entry == null) {
+            // หมอไม่ active ไม่อยู่ใน listing
+            return;
+        }
+        // เรียกหลัง commit: อ่านจาก primary เหมือน rebuild
+        DoctorRatingSummary rating = ReplicaRoutingDataSource.readOnPrimary(
+                () -> ratingSummaryRepository.findById(doctorId).orElse(null));
+        snapshot = current.replace(entry, entry.withRating(rating));
+    }
+
+    /**
+     * false ก่อนโหลดครั้งแรก - ผู้เรียกควรถาม database แทน
+     */
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * หมอที่ active ทั้งหมด เรียงตามชื่อ (รูปแบบย่อ)
+     */
+    public List<DoctorSummary> getActiveDoctors() {
+        return snapshot.activeSimple;
+    }
+
+    /**
+     * หมอที่ active ตามชื่อแผนก (ไม่สนตัวพิมพ์ใหญ่เล็ก) เรียงตามชื่อ (รูปแบบย่อ)
+     */
+    public List<DoctorSummary> getDoctorsBySpecialtyName(String specialtyName) {
+        if (specialtyName == null) {
+            return Collections.emptyList();
+        }
+        return snapshot.simpleBySpecialtyName.getOrDefault(specialtyName.toLowerCase(), Collections.emptyList());
+    }
+
+    /**
+     * ข้อมูลแผนก หรือ null ถ้าไม่มี
+     */
+    public SpecialtyResponse getSpecialty(Long specialtyId) {
+        return snapshot.specialties.get(specialtyId);
+    }
+
+    /**
+     * หมอที่ active ทั้งหมดแบบแบ่งหน้า
+     * @param sortBy id, firstName (หรือ user.firstName) หรือ consultationFee
+     * @return null ถ้าไม่รองรับ sort นี้
+     */
+    public Page<DoctorResponse> getDoctors(String sortBy, int page, int size) {
+        Snapshot current = snapshot;
+        List<Entry> sorted;
+        switch (sortBy == null ? "id" : sortBy) {
+            case "id":
+                sorted = current.byId;
+                break;
+            case "firstName":
+            case "user.firstName":
+                sorted = current.byName;
+                break;
+            case "consultationFee":
+                sorted = current.byFee;
+                break;
+            default:
+                return null;
+        }
+        return page(sorted, PageRequest.of(page, size));
+    }
+
+    /**
+     * หมอที่ active ตามแผนกและช่วงค่าตรวจ เรียงตามชื่อ (ทุกเงื่อนไขเป็น optional)
+     * ช่วงค่าตรวจใช้ binary search บน list ที่เรียงตามค่าตรวจ
+     */
+    public Page<DoctorResponse> findDoctors(Long specialtyId, BigDecimal minFee, BigDecimal maxFee,
+                                            int page, int size) {
+        Snapshot current = snapshot;
+        Pageable pageable = PageRequest.of(page, size);
+
+        if (minFee == null && maxFee == null) {
+            List<Entry> byName = specialtyId == null ? current.byName
+                    : current.byNameInSpecialty.getOrDefault(specialtyId, Collections.emptyList());
+            return page(byName, pageable);
+        }
+
+        List<Entry> byFee = specialtyId == null ? current.byFee
+                : current.byFeeInSpecialty.getOrDefault(specialtyId, Collections.emptyList());
+        int from = minFee == null ? 0 : lowerBound(byFee, minFee);
+        int to = maxFee == null ? byFee.size() : upperBound(byFee, maxFee);
+
+        List<Entry> matched = new ArrayList<>(byFee.subList(from, Math.max(from, to)));
+        matched.sort(Comparator.comparingInt(entry -> entry.nameRank));
+        return page(matched, pageable);
+    }
+
+    /**
+     * หมอที่ active ตามแผนกแบบแบ่งหน้า เรียงตามชื่อ
+     */
+    public Page<DoctorResponse> getDoctorsBySpecialty(Long specialtyId, int page, int size) {
+        return findDoctors(specialtyId, null, null, page, size);
+    }
+
+    /**
+     * Facet จาก snapshot: แต่ละแผนก/ช่วงค่าตรวจใช้ binary search บน list ที่เรียงตามค่าตรวจ
+     * ต้นทุน O((จำนวนแผนก + จำนวนช่วง) * log n) ไม่ต้องไล่หมอทุกคน
+     * @param feeEdges ขอบช่วงค่าตรวจเรียงจากน้อยไปมาก
+     */
+    public DoctorSearchFacets getFacets(Long specialtyId, BigDecimal minFee, BigDecimal maxFee,
+                                        List<BigDecimal> feeEdges) {
+        Snapshot current = snapshot;
+
+        List<DoctorSearchFacets.SpecialtyCount> specialtyCounts = new ArrayList<>();
+        for (SpecialtyResponse specialty : current.specialties.values()) {
+            Long id = specialty.id();
+            long count;
+            if (minFee == null && maxFee == null) {
+                count = current.byNameInSpecialty.getOrDefault(id, Collections.emptyList()).size();
+            } else {
+                count = countFeeRange(current.byFeeInSpecialty.getOrDefault(id, Collections.emptyList()), minFee, maxFee);
+            }
+            specialtyCounts.add(new DoctorSearchFacets.SpecialtyCount(id, specialty.name(), count));
+        }
+        specialtyCounts.sort(Comparator.comparing(DoctorSearchFacets.SpecialtyCount::getSpecialtyName));
+
+        List<Entry> byFee = specialtyId == null ? current.byFee
+                : current.byFeeInSpecialty.getOrDefault(specialtyId, Collections.emptyList());
+        List<DoctorSearchFacets.FeeBucketCount> buckets = new ArrayList<>(feeEdges.size());
+        for (int i = 0; i < feeEdges.size(); i++) {
+            BigDecimal low = feeEdges.get(i);
+            BigDecimal high = i + 1 < feeEdges.size() ? feeEdges.get(i + 1) : null;
+            int to = high == null ? byFee.size() : lowerBound(byFee, high);
+            buckets.add(new DoctorSearchFacets.FeeBucketCount(low, high, Math.max(0, to - lowerBound(byFee, low))));
+        }
+        return new DoctorSearchFacets(specialtyCounts, buckets);
+    }
+
+    private static int countFeeRange(List<Entry> byFee, BigDecimal minFee, BigDecimal maxFee) {
+        int from = minFee == null ? 0 : lowerBound(byFee, minFee);
+        int to = maxFee == null ? byFee.size() : upperBound(byFee, maxFee);
+        return Math.max(0, to - from);
+    }
+
+    private static Page<DoctorResponse> page(List<Entry> entries, Pageable pageable) {
+        int start = (int) Math.min(pageable.getOffset(), entries.size());
+        int end = Math.min(start + pageable.getPageSize(), entries.size());
+        List<DoctorResponse> content = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            content.add(entries.get(i).response);
+        }
+        return new PageImpl<>(content, pageable, entries.size());
+    }
+
+    // index แรกที่ค่าตรวจ >= fee
+    private static int lowerBound(List<Entry> byFee, BigDecimal fee) {
+        int low = 0;
+        int high = byFee.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (byFee.get(mid).fee.compareTo(fee) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // index แรกที่ค่าตรวจ > fee
+    private static int upperBound(List<Entry> byFee, BigDecimal fee) {
+        int low = 0;
+        int high = byFee.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (byFee.get(mid).fee.compareTo(fee) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * หมอหนึ่งคนใน snapshot
+     */
+    private static final class Entry {
+        private final Long id;
+        private final Long specialtyId;
+        private final String specialtyName;
+        private final BigDecimal fee;
+        private final DoctorSummary simple;
+        private final DoctorResponse response;
+        private int nameRank;
+
+        private Entry(Doctor doctor, DoctorRatingSummary rating) {
+            this.id = doctor.getId();
+            this.specialtyId = doctor.getSpecialty().getId();
+            this.specialtyName = doctor.getSpecialty().getName();
+            // ค่าตรวจ null ถือว่าแพงสุด (SQL ตัดทิ้งเมื่อมีเงื่อนไขค่าตรวจ)
+            this.fee = doctor.getConsultationFee();
+            this.simple = DoctorSummary.from(doctor, DoctorRating.of(rating, false));
+            this.response = DoctorResponse.from(doctor, DoctorRating.of(rating, true));
+        }
+
+        private Entry(Entry base, DoctorSummary simple, DoctorResponse response) {
+            this.id = base.id;
+            this.specialtyId = base.specialtyId;
+            this.specialtyName = base.specialtyName;
+            this.fee = base.fee;
+            this.simple = simple;
+            this.response = response;
+            this.nameRank = base.nameRank;
+        }
+
+        private Entry withRating(DoctorRatingSummary rating) {
+            return new Entry(this, simple.withRating(DoctorRating.of(rating, false)),
+                    response.withRating(DoctorRating.of(rating, true)));
+        }
+    }
+
+    private static final class Snapshot {
+        private final Map<Long, Entry> entries;
+        private final List<Entry> byId;
+        private final List<Entry> byName;
+        private final List<Entry> byFee;
+        private final Map<Long, List<Entry>> byNameInSpecialty;
+        private final Map<Long, List<Entry>> byFeeInSpecialty;
+        private final List<DoctorSummary> activeSimple;
+        private final Map<String, List<DoctorSummary>> simpleBySpecialtyName;
+        private final Map<Long, SpecialtyResponse> specialties;
+        private final Set<Long> userIds;
+
+        private Snapshot(List<Doctor> doctors, List<Specialty> specialtyList, Map<Long, DoctorRatingSummary> ratings) {
+            List<Entry> entries = new ArrayList<>(doctors.size());
+            Map<Long, Entry> entryMap = new HashMap<>();
+            Set<Long> users = new HashSet<>();
+            for (Doctor doctor : doctors) {
+                Entry entry = new Entry(doctor, ratings.get(doctor.getId()));
+                entries.add(entry);
+                entryMap.put(entry.id, entry);
+                users.add(doctor.getUser().getId());
+            }
+
+            // repository คืนมาเรียงตาม u.first_name, d.id แล้ว — ไม่เรียงใหม่ใน Java เพราะ String.compareTo
+            // ไม่ตรงกับ collation ของ database (ตัวพิมพ์ใหญ่/เล็ก, ภาษาไทย) หน้าจะไม่ตรงกับ query ค้นหา
+            List<Entry> names = new ArrayList<>(entries);
+            for (int i = 0; i < names.size(); i++) {
+                names.get(i).nameRank = i;
+            }
+
+            List<Entry> ids = new ArrayList<>(entries);
+            ids.sort(Comparator.comparing(entry -> entry.id));
+
+            // ค่าตรวจ null ไม่อยู่ใน list นี้ (ไม่ผ่านเงื่อนไขค่าตรวจใดๆ)
+            List<Entry> fees = new ArrayList<>();
+            for (Entry entry : entries) {
+                if (entry.fee != null) {
+                    fees.add(entry);
+                }
+            }
+            fees.sort(Comparator.comparing((Entry entry) -> entry.fee).thenComparing(entry -> entry.id));
+
+            Map<Long, List<Entry>> namesInSpecialty = new HashMap<>();
+            Map<String, List<DoctorSummary>> simpleByName = new HashMap<>();
+            List<DoctorSummary> simple = new ArrayList<>(names.size());
+            for (Entry entry : names) {
+                namesInSpecialty.computeIfAbsent(entry.specialtyId, id -> new ArrayList<>()).add(entry);
+                simpleByName.computeIfAbsent(entry.specialtyName.toLowerCase(), name -> new ArrayList<>()).add(entry.simple);
+                simple.add(entry.simple);
+            }
+            Map<Long, List<Entry>> feesInSpecialty = new HashMap<>();
+            for (Entry entry : fees) {
+                feesInSpecialty.computeIfAbsent(entry.specialtyId, id -> new ArrayList<>()).add(entry);
+            }
+
+            Map<Long, SpecialtyResponse> specialtyMap = new HashMap<>();
+            for (Specialty specialty : specialtyList) {
+                specialtyMap.put(specialty.getId(), SpecialtyResponse.from(specialty));
+            }
+
+            this.entries = Collections.unmodifiableMap(entryMap);
+            this.byId = Collections.unmodifiableList(ids);
+            this.byName = Collections.unmodifiableList(names);
+            this.byFee = Collections.unmodifiableList(fees);
+            this.byNameInSpecialty = freeze(namesInSpecialty);
+            this.byFeeInSpecialty = freeze(feesInSpecialty);
+            this.activeSimple = Collections.unmodifiableList(simple);
+            this.simpleBySpecialtyName = freeze(simpleByName);
+            this.specialties = Collections.unmodifiableMap(specialtyMap);
+            this.userIds = Collections.unmodifiableSet(users);
+        }
+
+        private Snapshot(Map<Long, Entry> entries, List<Entry> byId, List<Entry> byName, List<Entry> byFee,
+                         Map<Long, List<Entry>> byNameInSpecialty, Map<Long, List<Entry>> byFeeInSpecialty,
+                         List<DoctorSummary> activeSimple, Map<String, List<DoctorSummary>> simpleBySpecialtyName,
+                         Map<Long, SpecialtyResponse> specialties, Set<Long> userIds) {
+            this.entries = entries;
+            this.byId = byId;
+            this.byName = byName;
+            this.byFee = byFee;
+            this.byNameInSpecialty = byNameInSpecialty;
+            this.byFeeInSpecialty = byFeeInSpecialty;
+            this.activeSimple = activeSimple;
+            this.simpleBySpecialtyName = simpleBySpecialtyName;
+            this.specialties = specialties;
+            this.userIds = userIds;
+        }
+
+        /**
+         * snapshot ใหม่ที่ใช้ updated แทน old (ต้องมี id, แผนก, ชื่อ, ค่าตรวจเดียวกัน)
+         * คัดลอกเฉพาะ list ที่มีหมอคนนี้ ที่เหลือใช้ร่วมกับ snapshot เดิม
+         */
+        private Snapshot replace(Entry old, Entry updated) {
+            Map<Long, Entry> entryMap = new HashMap<>(entries);
+            entryMap.put(updated.id, updated);
+            Map<Long, List<Entry>> feesInSpecialty = byFeeInSpecialty;
+            if (old.fee != null) {
+                feesInSpecialty = new HashMap<>(byFeeInSpecialty);
+                feesInSpecialty.compute(old.specialtyId, (id, list) -> replaceIn(list, old, updated));
+            }
+            Map<Long, List<Entry>> namesInSpecialty = new HashMap<>(byNameInSpecialty);
+            namesInSpecialty.compute(old.specialtyId, (id, list) -> replaceIn(list, old, updated));
+            Map<String, List<DoctorSummary>> simpleByName = new HashMap<>(simpleBySpecialtyName);
+            simpleByName.compute(old.specialtyName.toLowerCase(), (name, list) -> replaceIn(list, old.simple, updated.simple));
+
+            return new Snapshot(Collections.unmodifiableMap(entryMap),
+                    replaceIn(byId, old, updated),
+                    replaceIn(byName, old, updated),
+                    old.fee != null ? replaceIn(byFee, old, updated) : byFee,
+                    Collections.unmodifiableMap(namesInSpecialty),
+                    Collections.unmodifiableMap(feesInSpecialty),
+                    replaceIn(activeSimple, old.simple, updated.simple),
+                    Collections.unmodifiableMap(simpleByName),
+                    specialties, userIds);
+        }
+
+        private static <T> List<T> replaceIn(List<T> list, T old, T updated) {
+            List<T> copy = new ArrayList<>(list);
+            for (int i = 0; i < copy.size(); i++) {
+                if (copy.get(i) == old) {
+                    copy.set(i, updated);
+                }
+            }
+            return Collections.unmodifiableList(copy);
+        }
+
+        private static <K, V> Map<K, List<V>> freeze(Map<K, List<V>> map) {
+            map.replaceAll((key, list) -> Collections.unmodifiableList(list));
+            return Collections.unmodifiableMap(map);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.DoctorFacetRow;
+import com.example.doctoralia.dto.DoctorSearchFacets;
+import com.example.doctoralia.model.Specialty;
+import com.example.doctoralia.repository.DoctorRepository;
+import com.example.doctoralia.repository.SpecialtyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Facet ของหน้าค้นหาหมอ (จำนวนต่อแผนก + histogram ค่าตรวจ)
+ *
+ * Public search ที่ไม่มีชื่อคำนวณจาก DoctorDirectory (binary search ไม่แตะ database)
+ * นอกนั้นใช้ grouped query เดียว (DoctorRepository.countSearchFacets)
+ */
+@Service
+@Transactional(readOnly = true)
+public class DoctorFacetService {
+
+    @Autowired
+    private DoctorDirectory doctorDirectory;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private SpecialtyRepository specialtyRepository;
+
+    // ขอบล่างของแต่ละช่วงค่าตรวจ ช่วงสุดท้ายไม่มีขอบบน
+    @Value("${doctor.search.fee-buckets:0,500,1000,1500,2000,3000}")
+    private BigDecimal[] feeBuckets;
+
+    public DoctorSearchFacets getFacets(String name, Long specialtyId, BigDecimal minFee, BigDecimal maxFee,
+                                        boolean includeInactive) {
+        List<BigDecimal> edges = getFeeEdges();
+        if (name == null && !includeInactive && doctorDirectory.isReady()) {
+            return doctorDirectory.getFacets(specialtyId, minFee, maxFee, edges);
+        }
+
+        List<DoctorFacetRow> rows = doctorRepository.countSearchFacets(name, specialtyId, minFee, maxFee,
+                includeInactive, toArrayLiteral(edges));
+
+        Map<Long, Long> specialtyCounts = new HashMap<>();
+        long[] bucketCounts = new long[edges.size()];
+        for (DoctorFacetRow row : rows) {
+            if ("specialty".equals(row.getFacet())) {
+                specialtyCounts.put(row.getBucket(), row.getDoctorCount());
+            } else {
+                // width_bucket: 0 = ต่ำกว่าขอบแรก (ไม่นับ), i = ช่วงที่ i
+                int bucket = row.getBucket().intValue();
+                if (bucket >= 1 && bucket <= edges.size()) {
+                    bucketCounts[bucket - 1] = row.getDoctorCount();
+                }
+            }
+        }
+
+        List<DoctorSearchFacets.SpecialtyCount> specialties = new ArrayList<>();
+        for (Specialty specialty : specialtyRepository.findAll()) {
+            specialties.add(new DoctorSearchFacets.SpecialtyCount(specialty.getId(), specialty.getName(),
+                    specialtyCounts.getOrDefault(specialty.getId(), 0L)));
+        }
+        specialties.sort(Comparator.comparing(DoctorSearchFacets.SpecialtyCount::getSpecialtyName));
+
+        List<DoctorSearchFacets.FeeBucketCount> buckets = new ArrayList<>(edges.size());
+        for (int i = 0; i < edges.size(); i++) {
+            BigDecimal high = i + 1 < edges.size() ? edges.get(i + 1) : null;
+            buckets.add(new DoctorSearchFacets.FeeBucketCount(edges.get(i), high, bucketCounts[i]));
+        }
+        return new DoctorSearchFacets(specialties, buckets);
+    }
+
+    private List<BigDecimal> getFeeEdges() {
+        List<BigDecimal> edges = new ArrayList<>(Arrays.asList(feeBuckets));
+        Collections.sort(edges);
+        return edges;
+    }
+
+    private static String toArrayLiteral(List<BigDecimal> edges) {
+        return edges.stream().map(BigDecimal::toPlainString).collect(Collectors.joining(",", "{", "}"));
+    }
+}
@@ -0,0 +1,647 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.AddAvailabilityRequest;
+import com.example.doctoralia.dto.DoctorImportResult;
+import com.example.doctoralia.dto.DoctorImportResult.RowError;
+import com.example.doctoralia.event.DoctorsImportedEvent;
+import com.example.doctoralia.model.Specialty;
+import com.example.doctoralia.repository.DoctorRepository;
+import com.example.doctoralia.repository.SpecialtyRepository;
+import com.example.doctoralia.repository.UserRepository;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk import หมอ (สร้าง user role DOCTOR + doctor profile) และตารางเวลาจากไฟล์ CSV
+ *
+ * 1. อ่าน CSV ทีละแถวและตรวจในหน่วยความจำ: ค่าที่จำเป็น, email/license ซ้ำในไฟล์และใน database
+ *    (query เป็นก้อน), แผนก, และเวลาซ้อนกันของแต่ละหมอ (AvailabilityService.validateWeeklySchedule)
+ * 2. hash password แบบขนาน (BCrypt ใช้ CPU ล้วน)
+ * 3. ใน transaction เดียว: COPY เข้า temp table แล้ว INSERT ... SELECT เข้าตารางจริง
+ *    ผิดพลาดตรงไหน rollback ทั้งชุด และ index ในหน่วยความจำ rebuild ครั้งเดียวหลัง commit
+ *    email/license ถูกตรวจกับ database ซ้ำอีกรอบใน transaction นี้ (มีคนสมัครเข้ามาระหว่างขั้น 1-3 ได้)
+ *
+ * email เทียบแบบไม่สนตัวพิมพ์ทั้งในไฟล์และกับ database
+ *
+ * doctors.csv:   email,password,firstName,lastName,phone,specialty,licenseNumber,experienceYears,consultationFee,roomNumber,bio
+ *                (specialty เป็น id หรือชื่อแผนก)
+ * schedules.csv: licenseNumber,dayOfWeek,startTime,endTime (เฉพาะหมอที่อยู่ใน doctors.csv ชุดเดียวกัน)
+ */
+@Service
+public class DoctorImportService {
+    private static final Logger logger = LoggerFactory.getLogger(DoctorImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 500;
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private static final String DOCTORS_FILE = "doctors";
+    private static final String SCHEDULES_FILE = "schedules";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private SpecialtyRepository specialtyRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // จำนวน thread ที่ใช้ hash password (0 = จำนวน CPU)
+    @Value("${imports.hash-parallelism:0}")
+    private int hashParallelism;
+
+    // จำกัดจำนวนแถวต่อไฟล์ (แถวที่ผ่านการตรวจถูกเก็บในหน่วยความจำจนถึงตอน COPY)
+    @Value("${imports.max-rows:50000}")
+    private int maxRows;
+
+    /**
+     * @param schedulesCsv null ได้ (import เฉพาะหมอ)
+     * @param dryRun ตรวจอย่างเดียว ไม่ hash และไม่เขียน database
+     * @param skipInvalid true: import แถวที่ผ่าน ข้ามแถวที่มี error / false: มี error แถวเดียวก็ไม่ import
+     */
+    public DoctorImportResult importDoctors(InputStream doctorsCsv, InputStream schedulesCsv,
+                                            boolean dryRun, boolean skipInvalid) throws IOException {
+        long start = System.nanoTime();
+        ImportErrors errors = new ImportErrors();
+
+        List<DoctorRow> doctors = parseDoctors(doctorsCsv, errors);
+        List<ScheduleRow> schedules = schedulesCsv != null ? parseSchedules(schedulesCsv, errors) : new ArrayList<>();
+        checkAgainstDatabase(doctors, errors);
+        validateSchedules(doctors, schedules, errors);
+        long parseMs = elapsedMs(start);
+
+        List<DoctorRow> validDoctors = doctors.stream().filter(row -> row.valid).toList();
+        List<ScheduleRow> validSchedules = schedules.stream().filter(row -> row.valid).toList();
+
+        if (dryRun || (errors.count > 0 && !skipInvalid) || validDoctors.isEmpty()) {
+            logger.info("Doctor import not committed (dryRun={}, errors={}, validDoctors={})",
+                    dryRun, errors.count, validDoctors.size());
+            return new DoctorImportResult(dryRun, false, doctors.size(), schedules.size(), 0, 0,
+                    errors.count, errors.list, parseMs, 0, 0, elapsedMs(start));
+        }
+
+        long hashStart = System.nanoTime();
+        hashPasswords(validDoctors);
+        long hashMs = elapsedMs(hashStart);
+
+        long loadStart = System.nanoTime();
+        int[] imported = load(validDoctors, validSchedules, skipInvalid, errors);
+        long loadMs = elapsedMs(loadStart);
+
+        if (imported == null) {
+            logger.info("Doctor import rolled back: rows conflict with data registered during the import ({} errors)",
+                    errors.count);
+            return new DoctorImportResult(false, false, doctors.size(), schedules.size(), 0, 0,
+                    errors.count, errors.list, parseMs, hashMs, loadMs, elapsedMs(start));
+        }
+
+        DoctorImportResult result = new DoctorImportResult(false, true, doctors.size(), schedules.size(),
+                imported[0], imported[1], errors.count, errors.list, parseMs, hashMs, loadMs, elapsedMs(start));
+        logger.info("Imported {} doctors and {} availabilities in {} ms (parse {} ms, hash {} ms, load {} ms, {} rows/s)",
+                imported[0], imported[1], result.getTotalMs(), parseMs, hashMs, loadMs, result.getRowsPerSecond());
+        return result;
+    }
+
+    private List<DoctorRow> parseDoctors(InputStream input, ImportErrors errors) throws IOException {
+        Map<Long, Long> specialtyIds = new HashMap<>();
+        Map<String, Long> specialtyIdsByName = new HashMap<>();
+        for (Specialty specialty : specialtyRepository.findAll()) {
+            specialtyIds.put(specialty.getId(), specialty.getId());
+            specialtyIdsByName.put(specialty.getName().trim().toLowerCase(Locale.ROOT), specialty.getId());
+        }
+
+        List<DoctorRow> rows = new ArrayList<>();
+        Map<String, Long> emailLines = new HashMap<>();
+        Map<String, Long> licenseLines = new HashMap<>();
+
+        try (CsvReader csv = open(input)) {
+            csv.readHeader();
+            requireColumns(csv, DOCTORS_FILE, "email", "password", "firstName", "lastName", "specialty", "licenseNumber");
+
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                if (rows.size() >= maxRows) {
+                    throw new IllegalArgumentException("doctors file has more than " + maxRows + " rows");
+                }
+                long line = csv.getRecordLineNumber();
+                DoctorRow row = new DoctorRow(line);
+                rows.add(row);
+
+                row.email = csv.get(record, "email");
+                row.password = csv.get(record, "password");
+                row.firstName = csv.get(record, "firstName");
+                row.lastName = csv.get(record, "lastName");
+                row.phone = csv.get(record, "phone");
+                row.licenseNumber = csv.get(record, "licenseNumber");
+                row.roomNumber = csv.get(record, "roomNumber");
+                row.bio = csv.get(record, "bio");
+
+                if (row.email == null || !EMAIL.matcher(row.email).matches() || row.email.length() > 255) {
+                    row.reject(errors, DOCTORS_FILE, "email", "Invalid email: " + row.email);
+                } else {
+                    Long previous = emailLines.putIfAbsent(row.normalizedEmail(), line);
+                    if (previous != null) {
+                        row.reject(errors, DOCTORS_FILE, "email", "Duplicate email (also on line " + previous + ")");
+                    }
+                }
+                if (row.password == null || row.password.length() < 6) {
+                    row.reject(errors, DOCTORS_FILE, "password", "Password must be at least 6 characters");
+                }
+                checkLength(row, errors, "firstName", row.firstName, 100, true);
+                checkLength(row, errors, "lastName", row.lastName, 100, true);
+                checkLength(row, errors, "phone", row.phone, 20, false);
+                checkLength(row, errors, "roomNumber", row.roomNumber, 20, false);
+                if (checkLength(row, errors, "licenseNumber", row.licenseNumber, 100, true)) {
+                    Long previous = licenseLines.putIfAbsent(row.licenseNumber, line);
+                    if (previous != null) {
+                        row.reject(errors, DOCTORS_FILE, "licenseNumber",
+                                "Duplicate license number (also on line " + previous + ")");
+                    }
+                }
+
+                String specialty = csv.get(record, "specialty");
+                row.specialtyId = specialty == null ? null
+                        : specialty.length() < 19 && specialty.chars().allMatch(Character::isDigit)
+                        ? specialtyIds.get(Long.valueOf(specialty))
+                        : specialtyIdsByName.get(specialty.toLowerCase(Locale.ROOT));
+                if (row.specialtyId == null) {
+                    row.reject(errors, DOCTORS_FILE, "specialty", "Specialty not found: " + specialty);
+                }
+
+                String experience = csv.get(record, "experienceYears");
+                if (experience != null) {
+                    try {
+                        row.experienceYears = Integer.valueOf(experience);
+                        if (row.experienceYears < 0) {
+                            row.reject(errors, DOCTORS_FILE, "experienceYears", "Experience years must be 0 or more");
+                        }
+                    } catch (NumberFormatException e) {
+                        row.reject(errors, DOCTORS_FILE, "experienceYears", "Not a number: " + experience);
+                    }
+                }
+                String fee = csv.get(record, "consultationFee");
+                if (fee != null) {
+                    try {
+                        row.consultationFee = new BigDecimal(fee);
+                        if (row.consultationFee.signum() < 0 || row.consultationFee.precision() - row.consultationFee.scale() > 8) {
+                            row.reject(errors, DOCTORS_FILE, "consultationFee", "Consultation fee out of range: " + fee);
+                        }
+                    } catch (NumberFormatException e) {
+                        row.reject(errors, DOCTORS_FILE, "consultationFee", "Not a number: " + fee);
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private List<ScheduleRow> parseSchedules(InputStream input, ImportErrors errors) throws IOException {
+        List<ScheduleRow> rows = new ArrayList<>();
+        try (CsvReader csv = open(input)) {
+            csv.readHeader();
+            requireColumns(csv, SCHEDULES_FILE, "licenseNumber", "dayOfWeek", "startTime", "endTime");
+
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                if (rows.size() >= maxRows) {
+                    throw new IllegalArgumentException("schedules file has more than " + maxRows + " rows");
+                }
+                ScheduleRow row = new ScheduleRow(csv.getRecordLineNumber());
+                rows.add(row);
+
+                row.licenseNumber = csv.get(record, "licenseNumber");
+                if (row.licenseNumber == null) {
+                    row.reject(errors, SCHEDULES_FILE, "licenseNumber", "licenseNumber is required");
+                }
+                try {
+                    int day = Integer.parseInt(String.valueOf(csv.get(record, "dayOfWeek")));
+                    if (day < 1 || day > 7) {
+                        row.reject(errors, SCHEDULES_FILE, "dayOfWeek", "Day of week must be between 1-7");
+                    }
+                    row.slot.setDayOfWeek(day);
+                } catch (NumberFormatException e) {
+                    row.reject(errors, SCHEDULES_FILE, "dayOfWeek", "Day of week must be between 1-7");
+                }
+                row.slot.setStartTime(parseTime(row, errors, "startTime", csv.get(record, "startTime")));
+                row.slot.setEndTime(parseTime(row, errors, "endTime", csv.get(record, "endTime")));
+                if (row.slot.getStartTime() != null && row.slot.getEndTime() != null
+                        && !row.slot.getStartTime().isBefore(row.slot.getEndTime())) {
+                    row.reject(errors, SCHEDULES_FILE, "endTime", "Start time must be before end time");
+                }
+            }
+        }
+        return rows;
+    }
+
+    // email/license ที่มีอยู่แล้วใน database (query ทีละก้อน ไม่ใช่ทีละแถว)
+    private void checkAgainstDatabase(List<DoctorRow> doctors, ImportErrors errors) {
+        Set<String> existingEmails = lookup(doctors, DoctorRow::normalizedEmail, userRepository::findExistingEmails);
+        Set<String> existingLicenses = lookup(doctors, row -> row.licenseNumber, doctorRepository::findExistingLicenseNumbers);
+        for (DoctorRow row : doctors) {
+            if (row.email != null && existingEmails.contains(row.normalizedEmail())) {
+                rejectEmailTaken(row, errors);
+            }
+            if (row.licenseNumber != null && existingLicenses.contains(row.licenseNumber)) {
+                rejectLicenseTaken(row, errors);
+            }
+        }
+    }
+
+    private static void rejectEmailTaken(DoctorRow row, ImportErrors errors) {
+        row.reject(errors, DOCTORS_FILE, "email", "Email already registered: " + row.email);
+    }
+
+    private static void rejectLicenseTaken(DoctorRow row, ImportErrors errors) {
+        row.reject(errors, DOCTORS_FILE, "licenseNumber", "License number already exists: " + row.licenseNumber);
+    }
+
+    private Set<String> lookup(List<DoctorRow> doctors, Function<DoctorRow, String> key,
+                               Function<List<String>, List<String>> query) {
+        Set<String> found = new HashSet<>();
+        List<String> chunk = new ArrayList<>(LOOKUP_CHUNK_SIZE);
+        for (DoctorRow row : doctors) {
+            String value = key.apply(row);
+            if (value != null) {
+                chunk.add(value);
+            }
+            if (chunk.size() == LOOKUP_CHUNK_SIZE) {
+                found.addAll(query.apply(chunk));
+                chunk = new ArrayList<>(LOOKUP_CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            found.addAll(query.apply(chunk));
+        }
+        return found;
+    }
+
+    // ตารางเวลาต้องเป็นของหมอในไฟล์เดียวกัน และไม่ซ้อนกันภายในหมอแต่ละคน
+    private void validateSchedules(List<DoctorRow> doctors, List<ScheduleRow> schedules, ImportErrors errors) {
+        Map<String, DoctorRow> doctorsByLicense = new HashMap<>();
+        for (DoctorRow doctor : doctors) {
+            if (doctor.licenseNumber != null) {
+                doctorsByLicense.putIfAbsent(doctor.licenseNumber, doctor);
+            }
+        }
+
+        Map<String, List<ScheduleRow>> byLicense = new LinkedHashMap<>();
+        for (ScheduleRow row : schedules) {
+            if (!row.valid) {
+                continue;
+            }
+            DoctorRow doctor = doctorsByLicense.get(row.licenseNumber);
+            if (doctor == null) {
+                row.reject(errors, SCHEDULES_FILE, "licenseNumber",
+                        "No doctor with license " + row.licenseNumber + " in the doctors file");
+            } else if (!doctor.valid) {
+                row.reject(errors, SCHEDULES_FILE, "licenseNumber",
+                        "Doctor on line " + doctor.line + " of the doctors file is invalid");
+            } else {
+                byLicense.computeIfAbsent(row.licenseNumber, license -> new ArrayList<>()).add(row);
+            }
+        }
+
+        for (List<ScheduleRow> rows : byLicense.values()) {
+            try {
+                availabilityService.validateWeeklySchedule(rows.stream().map(row -> row.slot).toList());
+            } catch (IllegalArgumentException e) {
+                // ตารางของหมอคนนี้ไม่ถูก import ทั้งชุด
+                rows.get(0).reject(errors, SCHEDULES_FILE, null,
+                        "Schedule for " + rows.get(0).licenseNumber + ": " + e.getMessage());
+                rows.forEach(row -> row.valid = false);
+            }
+        }
+    }
+
+    private void hashPasswords(List<DoctorRow> doctors) {
+        int parallelism = hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> doctors.parallelStream().forEach(row -> {
+                row.passwordHash = passwordEncoder.encode(row.password);
+                row.password = null;
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Password hashing interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * COPY เข้า temp table (ถูกลบเมื่อ commit) แล้ว merge เข้าตารางจริงใน transaction เดียว
+     *
+     * แถวที่ email/license ถูกสมัครเข้ามาหลัง checkAgainstDatabase กลายเป็น error รายแถว:
+     * skipInvalid ตัดแถวนั้น (และตารางเวลาของหมอคนนั้น) ออกแล้ว import ที่เหลือ ไม่งั้น rollback ทั้งชุด
+     * ถ้ายังชน unique ตอน INSERT (อีก transaction commit หลังตรวจซ้ำพอดี) ลองทั้งชุดใหม่ รอบถัดไปจะเห็นแถวนั้น
+     * @return [จำนวนหมอ, จำนวนช่วงเวลา] หรือ null ถ้า rollback เพราะชนข้อมูลที่เพิ่งเข้ามา
+     */
+    private int[] load(List<DoctorRow> doctors, List<ScheduleRow> schedules, boolean skipInvalid, ImportErrors errors) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            List<Map<String, Object>> conflicts = new ArrayList<>();
+            try {
+                int[] imported = template.execute(status -> {
+                    int[] counts = loadInTransaction(doctors, schedules, skipInvalid, conflicts);
+                    if (counts == null) {
+                        status.setRollbackOnly();
+                    }
+                    return counts;
+                });
+                rejectConflicts(doctors, schedules, conflicts, errors);
+                return imported;
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_LOAD_ATTEMPTS) {
+                    throw new IllegalStateException("Import conflicts with concurrent registrations, please retry", e);
+                }
+                logger.warn("Doctor import hit a concurrent registration (attempt {}), retrying: {}",
+                        attempt, e.getMessage());
+            }
+        }
+    }
+
+    // conflicts: แถว (row_no, email_taken, license_taken) ที่ชนข้อมูลใน database ตอนนี้ — ไม่ถูก import
+    // คืน null (ให้ rollback) ถ้ามีแถวชนและไม่ได้ skipInvalid
+    private int[] loadInTransaction(List<DoctorRow> doctors, List<ScheduleRow> schedules, boolean skipInvalid,
+                                    List<Map<String, Object>> conflicts) {
+        jdbcTemplate.execute("CREATE TEMP TABLE import_doctors (" +
+                "row_no BIGINT, email TEXT, password_hash TEXT, first_name TEXT, last_name TEXT, phone TEXT, " +
+                "specialty_id BIGINT, license_number TEXT, bio TEXT, experience_years INTEGER, " +
+                "consultation_fee NUMERIC(10, 2), room_number TEXT) ON COMMIT DROP");
+        jdbcTemplate.execute("CREATE TEMP TABLE import_availabilities (" +
+                "license_number TEXT, day_of_week INTEGER, start_time TIME, end_time TIME) ON COMMIT DROP");
+
+        copy("COPY import_doctors (row_no, email, password_hash, first_name, last_name, phone, specialty_id, " +
+                        "license_number, bio, experience_years, consultation_fee, room_number) FROM STDIN WITH (FORMAT csv)",
+                doctors, row -> new Object[]{row.line, row.email, row.passwordHash, row.firstName, row.lastName,
+                        row.phone, row.specialtyId, row.licenseNumber, row.bio, row.experienceYears,
+                        row.consultationFee, row.roomNumber});
+        copy("COPY import_availabilities (license_number, day_of_week, start_time, end_time) FROM STDIN WITH (FORMAT csv)",
+                schedules, row -> new Object[]{row.licenseNumber, row.slot.getDayOfWeek(),
+                        row.slot.getStartTime(), row.slot.getEndTime()});
+
+        // ตรวจซ้ำกับ database ใน transaction นี้ แล้วตัดแถวที่ชนออกก่อน merge
+        jdbcTemplate.execute("CREATE TEMP TABLE import_conflicts ON COMMIT DROP AS " +
+                "SELECT * FROM (SELECT i.row_no, i.license_number, " +
+                "EXISTS (SELECT 1 FROM users u WHERE LOWER(u.email) = LOWER(i.email)) AS email_taken, " +
+                "EXISTS (SELECT 1 FROM doctors d WHERE d.license_number = i.license_number) AS license_taken " +
+                "FROM import_doctors i) c WHERE c.email_taken OR c.license_taken");
+        conflicts.addAll(jdbcTemplate.queryForList("SELECT row_no, email_taken, license_taken FROM import_conflicts"));
+        if (!conflicts.isEmpty()) {
+            if (!skipInvalid) {
+                return null;
+            }
+            jdbcTemplate.update("DELETE FROM import_doctors i USING import_conflicts c WHERE i.row_no = c.row_no");
+            jdbcTemplate.update("DELETE FROM import_availabilities a USING import_conflicts c " +
+                    "WHERE a.license_number = c.license_number");
+        }
+
+        jdbcTemplate.update("INSERT INTO users (email, password, first_name, last_name, role, phone) " +
+                "SELECT email, password_hash, first_name, last_name, 'DOCTOR', phone FROM import_doctors ORDER BY row_no");
+        List<Long> doctorIds = jdbcTemplate.queryForList("INSERT INTO doctors (user_id, specialty_id, license_number, " +
+                "bio, experience_years, consultation_fee, room_number, is_active) " +
+                "SELECT u.id, i.specialty_id, i.license_number, i.bio, COALESCE(i.experience_years, 0), " +
+                "COALESCE(i.consultation_fee, 500.00), i.room_number, true " +
+                "FROM import_doctors i JOIN users u ON u.email = i.email ORDER BY i.row_no RETURNING id", Long.class);
+        int availabilities = jdbcTemplate.update("INSERT INTO availabilities (doctor_id, day_of_week, start_time, end_time, is_active) " +
+                "SELECT d.id, a.day_of_week, a.start_time, a.end_time, true " +
+                "FROM import_availabilities a JOIN doctors d ON d.license_number = a.license_number");
+
+        eventPublisher.publishEvent(new DoctorsImportedEvent(doctorIds));
+        return new int[]{doctorIds.size(), availabilities};
+    }
+
+    // error รายแถวของแถวที่ชนตอนตรวจซ้ำ (เพิ่มหลัง transaction จบ รอบที่ retry จึงไม่ถูกนับซ้ำ)
+    private static void rejectConflicts(List<DoctorRow> doctors, List<ScheduleRow> schedules,
+                                        List<Map<String, Object>> conflicts, ImportErrors errors) {
+        if (conflicts.isEmpty()) {
+            return;
+        }
+        Map<Long, DoctorRow> doctorsByLine = new HashMap<>();
+        for (DoctorRow doctor : doctors) {
+            doctorsByLine.put(doctor.line, doctor);
+        }
+        Map<String, DoctorRow> rejected = new HashMap<>();
+        for (Map<String, Object> conflict : conflicts) {
+            DoctorRow row = doctorsByLine.get(((Number) conflict.get("row_no")).longValue());
+            if (Boolean.TRUE.equals(conflict.get("email_taken"))) {
+                rejectEmailTaken(row, errors);
+            }
+            if (Boolean.TRUE.equals(conflict.get("license_taken"))) {
+                rejectLicenseTaken(row, errors);
+            }
+            rejected.put(row.licenseNumber, row);
+        }
+        for (ScheduleRow schedule : schedules) {
+            DoctorRow doctor = rejected.get(schedule.licenseNumber);
+            if (doctor != null) {
+                schedule.reject(errors, SCHEDULES_FILE, "licenseNumber",
+                        "Doctor on line " + doctor.line + " of the doctors file is invalid");
+            }
+        }
+    }
+
+    // ส่งแถวผ่าน COPY protocol เป็นก้อนๆ (CSV, ทุกค่าครอบด้วย " เพื่อแยกค่าว่างกับ NULL)
+    private <T> void copy(String sql, List<T> rows, Function<T, Object[]> columns) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copyIn = copyApi(connection).copyIn(sql);
+            try {
+                StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 1024);
+                for (T row : rows) {
+                    Object[] values = columns.apply(row);
+                    for (int i = 0; i < values.length; i++) {
+                        if (i > 0) {
+                            buffer.append(',');
+                        }
+                        if (values[i] != null) {
+                            buffer.append('"').append(values[i].toString().replace("\"", "\"\"")).append('"');
+                        }
+                    }
+                    buffer.append('\n');
+                    if (buffer.length() >= COPY_BUFFER_CHARS) {
+                        writeToCopy(copyIn, buffer);
+                    }
+                }
+                writeToCopy(copyIn, buffer);
+                return copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        });
+    }
+
+    private static CopyManager copyApi(Connection connection) throws SQLException {
+        return connection.unwrap(PGConnection.class).getCopyAPI();
+    }
+
+    private static void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static CsvReader open(InputStream input) {
+        return new CsvReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+    }
+
+    private static void requireColumns(CsvReader csv, String file, String... columns) {
+        List<String> missing = new ArrayList<>();
+        for (String column : columns) {
+            if (!csv.hasColumn(column)) {
+                missing.add(column);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException(file + " file is missing columns: " + String.join(", ", missing));
+        }
+    }
+
+    private static boolean checkLength(DoctorRow row, ImportErrors errors, String column, String value,
+                                       int maxLength, boolean required) {
+        if (value == null) {
+            if (required) {
+                row.reject(errors, DOCTORS_FILE, column, column + " is required");
+            }
+            return false;
+        }
+        if (value.length() > maxLength) {
+            row.reject(errors, DOCTORS_FILE, column, column + " is longer than " + maxLength + " characters");
+            return false;
+        }
+        return true;
+    }
+
+    private static LocalTime parseTime(ScheduleRow row, ImportErrors errors, String column, String value) {
+        try {
+            return LocalTime.parse(String.valueOf(value));
+        } catch (DateTimeParseException e) {
+            row.reject(errors, SCHEDULES_FILE, column, "Invalid time (HH:mm): " + value);
+            return null;
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // เก็บ error ไว้ไม่เกิน MAX_REPORTED_ERRORS แต่นับทั้งหมด
+    private static final class ImportErrors {
+        private final List<RowError> list = new ArrayList<>();
+        private int count;
+
+        private void add(String file, long line, String column, String message) {
+            count++;
+            if (list.size() < MAX_REPORTED_ERRORS) {
+                list.add(new RowError(file, line, column, message));
+            }
+        }
+    }
+
+    private static final class DoctorRow {
+        private final long line;
+        private boolean valid = true;
+        private String email;
+        private String password;
+        private String passwordHash;
+        private String firstName;
+        private String lastName;
+        private String phone;
+        private Long specialtyId;
+        private String licenseNumber;
+        private String bio;
+        private Integer experienceYears;
+        private BigDecimal consultationFee;
+        private String roomNumber;
+
+        private DoctorRow(long line) {
+            this.line = line;
+        }
+
+        private String normalizedEmail() {
+            return email != null ? email.toLowerCase(Locale.ROOT) : null;
+        }
+
+        private void reject(ImportErrors errors, String file, String column, String message) {
+            valid = false;
+            errors.add(file, line, column, message);
+        }
+    }
+
+    private static final class ScheduleRow {
+        private final long line;
+        private final AddAvailabilityRequest slot = new AddAvailabilityRequest();
+        private boolean valid = true;
+        private String licenseNumber;
+
+        private ScheduleRow(long line) {
+            this.line = line;
+        }
+
+        private void reject(ImportErrors errors, String file, String column, String message) {
+            valid = false;
+            errors.add(file, line, column, message);
+        }
+    }
+}
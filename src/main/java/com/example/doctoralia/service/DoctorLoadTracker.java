@@ -0,0 +1,162 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.config.ReplicaRoutingDataSource;
+import com.example.doctoralia.dto.DoctorDateLoad;
+import com.example.doctoralia.event.AppointmentChangedEvent;
+import com.example.doctoralia.repository.AppointmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Counter ในหน่วยความจำ: นาทีที่ถูกจอง (PENDING/CONFIRMED) ของหมอแต่ละคนต่อวัน
+ * ตั้งแต่วันนี้ไปอีก horizon-days วัน
+ *
+ * - อัปเดตทีละ delta จาก AppointmentChangedEvent (หลัง commit)
+ * - reconcile กับ database เป็นระยะ (แทนที่ทั้งชุด) เพื่อแก้ drift
+ *   delta ที่เข้ามาระหว่าง query ของ reconcile ถูกเก็บไว้แล้ว replay ลงชุดใหม่ก่อนสลับ
+ * นับเฉพาะนัดที่สร้างจริงแล้ว — smart-select เป็น GET ที่ใครก็เรียกซ้ำได้ จึงไม่กันเวลาไว้ล่วงหน้า
+ */
+@Component
+public class DoctorLoadTracker {
+    private static final Logger logger = LoggerFactory.getLogger(DoctorLoadTracker.class);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Value("${doctor.load.horizon-days:60}")
+    private int horizonDays;
+
+    private final AtomicReference<Counters> current = new AtomicReference<>(new Counters(null, null));
+
+    // guard การ apply delta กับการสลับชุด counter; pending ไม่เป็น null ระหว่าง reconcile
+    private final Object deltaLock = new Object();
+    private List<BookedDelta> pending;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${doctor.load.reconcile-interval-ms:300000}",
+            initialDelayString = "${doctor.load.reconcile-interval-ms:300000}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    @Order(ResourceVersions.REFRESH_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        int delta = event.getBookedMinutesDelta();
+        if (delta == 0 || event.getDoctorId() == null || event.getAppointmentDatetime() == null) {
+            return;
+        }
+        BookedDelta booked = new BookedDelta(event.getDoctorId(), event.getAppointmentDatetime().toLocalDate(), delta);
+        synchronized (deltaLock) {
+            current.get().apply(booked);
+            if (pending != null) {
+                pending.add(booked);
+            }
+        }
+    }
+
+    /**
+     * โหลด counter ใหม่ทั้งหมดจาก database
+     *
+     * delta ที่มาถึงหลังเริ่ม reconcile จะถูก replay ลงชุดใหม่ นัดที่ commit ก่อน query แต่ listener
+     * ยังไม่ทันทำงาน (ช่วงสั้นมากหลัง commit) อาจถูกนับซ้ำ — reconcile รอบถัดไปจะแก้ให้
+     */
+    public synchronized void reconcile() {
+        long start = System.nanoTime();
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(horizonDays);
+
+        synchronized (deltaLock) {
+            pending = new ArrayList<>();
+        }
+        List<DoctorDateLoad> loads;
+        try {
+            // แทนที่ counter ทั้งชุด: อ่านจาก primary ไม่งั้นนัดที่เพิ่ง commit แต่ replica ยังไม่มีจะหายไปจนรอบถัดไป
+            loads = ReplicaRoutingDataSource.readOnPrimary(
+                    () -> appointmentRepository.sumBookedMinutesByDoctorAndDay(from.atStartOfDay(), to.atStartOfDay()));
+
+            Counters fresh = new Counters(from, to);
+            for (DoctorDateLoad load : loads) {
+                fresh.counter(load.getDoctorId(), load.getDay()).set(load.getBookedMinutes().intValue());
+            }
+            synchronized (deltaLock) {
+                pending.forEach(fresh::apply);
+                current.set(fresh);
+            }
+        } finally {
+            synchronized (deltaLock) {
+                pending = null;
+            }
+        }
+
+        logger.info("Doctor load counters reconciled: {} doctor-days ({} to {}) in {} ms",
+                loads.size(), from, to, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * วันที่นี้มี counter ในหน่วยความจำหรือไม่ (ถ้าไม่ ให้ถาม database แทน)
+     */
+    public boolean isTracked(LocalDate date) {
+        return current.get().covers(date);
+    }
+
+    public int getBookedMinutes(Long doctorId, LocalDate date) {
+        Counters counters = current.get();
+        AtomicInteger booked = counters.find(doctorId, date);
+        return booked != null ? booked.get() : 0;
+    }
+
+    private static final class Counters {
+        private final LocalDate from;
+        private final LocalDate to;
+        private final Map<LocalDate, Map<Long, AtomicInteger>> booked = new ConcurrentHashMap<>();
+
+        private Counters(LocalDate from, LocalDate to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        private boolean covers(LocalDate date) {
+            return from != null && date != null && !date.isBefore(from) && date.isBefore(to);
+        }
+
+        private void apply(BookedDelta delta) {
+            if (covers(delta.date())) {
+                counter(delta.doctorId(), delta.date()).addAndGet(delta.minutes());
+            }
+        }
+
+        private AtomicInteger counter(Long doctorId, LocalDate date) {
+            return booked.computeIfAbsent(date, d -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(doctorId, id -> new AtomicInteger());
+        }
+
+        private AtomicInteger find(Long doctorId, LocalDate date) {
+            Map<Long, AtomicInteger> byDoctor = booked.get(date);
+            return byDoctor != null ? byDoctor.get(doctorId) : null;
+        }
+    }
+
+    private record BookedDelta(Long doctorId, LocalDate date, int minutes) {
+    }
+}
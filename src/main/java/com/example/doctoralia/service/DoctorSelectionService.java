@@ -0,0 +1,169 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.AssignmentCandidate;
+import com.example.doctoralia.dto.DoctorDayLoad;
+import com.example.doctoralia.dto.DoctorFeeView;
+import com.example.doctoralia.dto.DoctorSelectionResult;
+import com.example.doctoralia.dto.DoctorSelectionResult.Outcome;
+import com.example.doctoralia.model.Doctor;
+import com.example.doctoralia.repository.DoctorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * เลือกแพทย์ให้คนไข้อัตโนมัติ (smart-select)
+ *
+ * ตัวเลือกโหลดจาก database ใน query เดียว ส่วนเวลาทำงาน (OnDutyDoctorIndex) และนาทีที่ถูกจอง
+ * (DoctorLoadTracker) อ่านจากหน่วยความจำ แล้วให้ DoctorAssignmentStrategy ตัดสินใจ
+ * วันที่อยู่นอกช่วงที่ tracker ดูแล จะคำนวณ load จาก aggregate query แทน
+ */
+@Service
+@Transactional(readOnly = true)
+public class DoctorSelectionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorSelectionService.class);
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private OnDutyDoctorIndex onDutyDoctorIndex;
+
+    @Autowired
+    private DoctorLoadTracker doctorLoadTracker;
+
+    // ค่าเริ่มต้น weighted-round-robin: smart-select ไม่กันเวลาไว้ล่วงหน้า load จึงเปลี่ยนหลังจองจริงเท่านั้น
+    // least-loaded จะส่งคำขอพร้อมกันทั้งหมดไปหมอคนเดียวกัน; round-robin สลับหมอแม้ load ยังไม่เปลี่ยน
+    // แลกกับการที่บางครั้งไม่ได้หมอที่ว่างที่สุด ณ ขณะนั้น
+    @Value("${doctor.assignment.strategy:" + WeightedRoundRobinAssignmentStrategy.NAME + "}")
+    private String defaultStrategy;
+
+    private final Map<String, DoctorAssignmentStrategy> strategies = new HashMap<>();
+
+    @Autowired
+    public void setStrategies(List<DoctorAssignmentStrategy> strategyBeans) {
+        for (DoctorAssignmentStrategy strategy : strategyBeans) {
+            strategies.put(strategy.getName(), strategy);
+        }
+    }
+
+    public DoctorSelectionResult selectDoctor(String specialtyName, LocalDate date) {
+        return selectDoctor(specialtyName, date, null);
+    }
+
+    /**
+     * เลือกแพทย์ในวันที่กำหนดตาม strategy
+     * @param date ถ้าเป็น null จะสุ่มจากหมอที่ active ทั้งหมดใน specialty
+     * @param strategyName ถ้าเป็น null ใช้ค่า doctor.assignment.strategy
+     */
+    public DoctorSelectionResult selectDoctor(String specialtyName, LocalDate date, String strategyName) {
+        DoctorAssignmentStrategy strategy = resolveStrategy(strategyName);
+
+        if (date == null) {
+            List<Long> doctorIds = doctorRepository.findActiveIdsBySpecialtyName(specialtyName);
+            if (doctorIds.isEmpty()) {
+                return noActiveDoctors(specialtyName);
+            }
+            Long selectedId = doctorIds.get(ThreadLocalRandom.current().nextInt(doctorIds.size()));
+            return new DoctorSelectionResult(Outcome.SELECTED, loadDoctor(selectedId), doctorIds.size(), 0);
+        }
+
+        List<DoctorFeeView> doctors = doctorRepository.findAssignmentCandidatesBySpecialtyName(specialtyName);
+        if (doctors.isEmpty()) {
+            return noActiveDoctors(specialtyName);
+        }
+
+        List<AssignmentCandidate> scheduled = loadCandidates(specialtyName, date, doctors);
+        if (scheduled.isEmpty()) {
+            return new DoctorSelectionResult(Outcome.NO_AVAILABILITY_ON_DATE, null, doctors.size(), 0);
+        }
+
+        List<AssignmentCandidate> available = new ArrayList<>();
+        for (AssignmentCandidate candidate : scheduled) {
+            if (candidate.getAvailableMinutes() > 0) {
+                available.add(candidate);
+            }
+        }
+        if (available.isEmpty()) {
+            return new DoctorSelectionResult(Outcome.FULLY_BOOKED, null, scheduled.size(), 0);
+        }
+
+        // ไม่กันเวลาไว้ตอนเลือก: load เพิ่มเมื่อสร้างนัดจริง (AppointmentChangedEvent)
+        AssignmentCandidate selected = strategy.choose(specialtyName, available);
+
+        logger.info("Selected doctor {} with {} minutes available on {} ({})",
+                selected.getDoctorId(), selected.getAvailableMinutes(), date, strategy.getName());
+        return new DoctorSelectionResult(Outcome.SELECTED, loadDoctor(selected.getDoctorId()),
+                scheduled.size(), selected.getAvailableMinutes());
+    }
+
+    public String getDefaultStrategy() {
+        return defaultStrategy;
+    }
+
+    // ไม่มีหมอ active: นับรวม inactive อีกครั้งเพื่อบอกว่าแผนกนี้ไม่มีหมอเลย หรือมีแต่ปิดอยู่
+    private DoctorSelectionResult noActiveDoctors(String specialtyName) {
+        Outcome outcome = doctorRepository.countBySpecialtyName(specialtyName) > 0
+                ? Outcome.NO_ACTIVE_DOCTORS : Outcome.NO_DOCTORS;
+        return new DoctorSelectionResult(outcome, null, 0, 0);
+    }
+
+    private DoctorAssignmentStrategy resolveStrategy(String strategyName) {
+        String name = (strategyName == null || strategyName.isBlank()) ? defaultStrategy : strategyName;
+        DoctorAssignmentStrategy strategy = strategies.get(name.toLowerCase());
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown assignment strategy: " + name +
+                    ". Available: " + strategies.keySet());
+        }
+        return strategy;
+    }
+
+    /**
+     * หมอที่มีตารางทำงานในวันนั้น พร้อมนาทีทำงาน/นาทีที่ถูกจอง
+     */
+    private List<AssignmentCandidate> loadCandidates(String specialtyName, LocalDate date, List<DoctorFeeView> doctors) {
+        int dayOfWeek = date.getDayOfWeek().getValue();
+        List<AssignmentCandidate> candidates = new ArrayList<>();
+
+        if (doctorLoadTracker.isTracked(date)) {
+            for (DoctorFeeView doctor : doctors) {
+                int scheduledMinutes = onDutyDoctorIndex.getScheduledMinutes(doctor.getId(), dayOfWeek);
+                if (scheduledMinutes > 0) {
+                    candidates.add(new AssignmentCandidate(doctor.getId(), doctor.getConsultationFee(),
+                            scheduledMinutes, doctorLoadTracker.getBookedMinutes(doctor.getId(), date)));
+                }
+            }
+            return candidates;
+        }
+
+        Map<Long, DoctorDayLoad> loads = new HashMap<>();
+        for (DoctorDayLoad load : doctorRepository.findDayLoadsBySpecialtyName(
+                specialtyName, dayOfWeek, date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+            loads.put(load.getDoctorId(), load);
+        }
+        for (DoctorFeeView doctor : doctors) {
+            DoctorDayLoad load = loads.get(doctor.getId());
+            if (load != null && load.getScheduledMinutes() > 0) {
+                candidates.add(new AssignmentCandidate(doctor.getId(), doctor.getConsultationFee(),
+                        load.getScheduledMinutes(), load.getBookedMinutes()));
+            }
+        }
+        return candidates;
+    }
+
+    private Doctor loadDoctor(Long doctorId) {
+        return doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new IllegalArgumentException("Doctor not found with ID: " + doctorId));
+    }
+}
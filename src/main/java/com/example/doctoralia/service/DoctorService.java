@@ -1,6 +1,8 @@
 package com.example.doctoralia.service;
 
+import com.example.doctoralia.config.CacheConfig;
 import com.example.doctoralia.dto.DoctorStats;
+import com.example.doctoralia.event.DoctorChangedEvent;
 import com.example.doctoralia.model.Doctor;
 import com.example.doctoralia.model.Specialty;
 import com.example.doctoralia.model.User;
@@ -8,15 +10,19 @@ import com.example.doctoralia.model.UserRole;
 import com.example.doctoralia.repository.DoctorRepository;
 import com.example.doctoralia.repository.SpecialtyRepository;
 import com.example.doctoralia.repository.UserRepository;
-import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -37,13 +43,18 @@ public class DoctorService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     //ค้นหาหมอทั้งหมด (เฉพาะ active) - สำหรับ public use
+    @Transactional(readOnly = true)
     public Page<Doctor> getAllDoctors(int page, int size, String sortBy) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
         return doctorRepository.findByIsActiveTrue(pageable);
     }
 
     //ค้นหาหมอทั้งหมด (รวม inactive) - สำหรับ admin
+    @Transactional(readOnly = true)
     public Page<Doctor> getAllDoctorsIncludingInactive(int page, int size, String sortBy) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
         return doctorRepository.findAll(pageable);
@@ -52,59 +63,101 @@ public class DoctorService {
     /**
      * ค้นหาหมอขั้นสูง (ชื่อ + แผนก + ค่าตรวจ) - เฉพาะ active
      */
+    @Transactional(readOnly = true)
     public Page<Doctor> searchDoctors(String name, Long specialtyId, BigDecimal minFee, BigDecimal maxFee,
                                       int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("user.firstName").ascending());
+        // native query เรียงตาม similarity เอง - ห้ามส่ง Sort ของ entity ไปต่อท้าย SQL
+        Pageable pageable = PageRequest.of(page, size);
         return doctorRepository.findDoctorsWithFilters(name, specialtyId, minFee, maxFee, pageable);
     }
 
     /**
      * ค้นหาหมอขั้นสูง (รวม inactive) - สำหรับ admin
      */
+    @Transactional(readOnly = true)
     public Page<Doctor> searchDoctorsIncludingInactive(String name, Long specialtyId, BigDecimal minFee, BigDecimal maxFee,
                                                        int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("user.firstName").ascending());
+        Pageable pageable = PageRequest.of(page, size);
         return doctorRepository.findDoctorsWithFiltersIncludingInactive(name, specialtyId, minFee, maxFee, pageable);
     }
 
+    /**
+     * ค้นหาหมอแบบ Slice - รู้แค่ว่ามีหน้าถัดไปไหม ไม่ต้อง count ทั้งหมด (infinite scroll)
+     */
+    @Transactional(readOnly = true)
+    public Slice<Doctor> searchDoctorsSlice(String name, Long specialtyId, BigDecimal minFee, BigDecimal maxFee,
+                                            boolean includeInactive, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        return doctorRepository.findDoctorSliceWithFilters(name, specialtyId, minFee, maxFee, includeInactive, pageable);
+    }
+
+    /**
+     * ค้นหาหมอแบบ keyset เรียงตาม (ชื่อจริง, user id) - หน้าถัดไปเริ่มหลัง (afterName, afterId) ของแถวสุดท้าย
+     */
+    @Transactional(readOnly = true)
+    public Slice<Doctor> searchDoctorsAfter(String name, Long specialtyId, BigDecimal minFee, BigDecimal maxFee,
+                                            boolean includeInactive, String afterName, Long afterId, int size) {
+        // ดึงเกินมา 1 แถวเพื่อรู้ว่ามีหน้าถัดไป
+        List<Doctor> rows = doctorRepository.findDoctorsAfter(name, specialtyId, minFee, maxFee, includeInactive,
+                afterId != null ? (afterName != null ? afterName : "") : null, afterId, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<Doctor> content = hasNext ? rows.subList(0, size) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
     //ค้นหาหมอตาม ID (รวม inactive) - สำหรับ admin
+    @Transactional(readOnly = true)
     public Optional<Doctor> findById(Long id) {
         return doctorRepository.findById(id);
     }
 
     //หาหมอจาก User ID
+    // ไม่ใช้ readOnly: controller มักโหลดหมอด้วย method นี้ก่อนแก้ไขใน request เดียวกัน (open-in-view)
+    // transaction readOnly อ่านจาก replica ที่อาจล้าหลัง การแก้ไขต่อจากนั้นจะเขียนทับด้วยค่าเก่า
     public Optional<Doctor> findByUserId(Long userId) {
         return doctorRepository.findByUserId(userId);
     }
 
+    //หา doctor id จาก User ID (ไม่โหลด entity)
+    @Transactional(readOnly = true)
+    public Optional<Long> findIdByUserId(Long userId) {
+        return doctorRepository.findIdByUserId(userId);
+    }
+
     //หาหมอจาก specialty (เฉพาะ active) - สำหรับ public
+    @Transactional(readOnly = true)
     public Page<Doctor> findBySpecialty(Long specialtyId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("user.firstName").ascending());
         return doctorRepository.findBySpecialtyIdAndIsActiveTrue(specialtyId, pageable);
     }
 
     //หาหมอจาก specialty (รวม inactive) - สำหรับ admin
+    @Transactional(readOnly = true)
     public Page<Doctor> findBySpecialtyIncludingInactive(Long specialtyId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("user.firstName").ascending());
         return doctorRepository.findBySpecialtyId(specialtyId, pageable);
     }
 
     //ค้นหาตามชื่อหมอ (เฉพาะ active) - สำหรับ public
+    @Transactional(readOnly = true)
     public List<Doctor> findByName(String name) {
         return doctorRepository.findByDoctorNameContaining(name);
     }
 
     //ค้นหาตามชื่อหมอ (รวม inactive) - สำหรับ admin
+    @Transactional(readOnly = true)
     public List<Doctor> findByNameIncludingInactive(String name) {
         return doctorRepository.findByDoctorNameContainingIncludingInactive(name);
     }
 
     //หาหมอทั้งหมดที่ active (สำหรับการแสดง list)
+    @Transactional(readOnly = true)
     public List<Doctor> findByIsActiveTrue() {
         return doctorRepository.findByIsActiveTrueOrderByDoctorNameAsc();
     }
 
     //หาหมอจากชื่อ specialty
+    @Transactional(readOnly = true)
     public List<Doctor> findBySpecialtyName(String specialtyName) {
         return doctorRepository.findBySpecialtyNameAndIsActiveTrue(specialtyName);
     }
@@ -162,6 +215,7 @@ public class DoctorService {
         doctor.setIsActive(true);
 
         Doctor savedDoctor = doctorRepository.save(doctor);
+        eventPublisher.publishEvent(new DoctorChangedEvent(savedDoctor.getId(), DoctorChangedEvent.ChangeType.CREATED));
         logger.info("Doctor created successfully: {} for user: {}", licenseNumber, user.getEmail());
 
         return savedDoctor;
@@ -201,6 +255,7 @@ public class DoctorService {
         if (roomNumber != null) doctor.setRoomNumber(roomNumber);
 
         Doctor updatedDoctor = doctorRepository.save(doctor);
+        eventPublisher.publishEvent(new DoctorChangedEvent(doctorId, DoctorChangedEvent.ChangeType.UPDATED));
         logger.info("Doctor updated by admin: {}", doctor.getLicenseNumber());
 
         return updatedDoctor;
@@ -223,6 +278,7 @@ public class DoctorService {
         if (roomNumber != null) doctor.setRoomNumber(roomNumber);
 
         Doctor updatedDoctor = doctorRepository.save(doctor);
+        eventPublisher.publishEvent(new DoctorChangedEvent(doctorId, DoctorChangedEvent.ChangeType.UPDATED));
         logger.info("Doctor profile updated: {}", doctor.getLicenseNumber());
 
         return updatedDoctor;
@@ -249,6 +305,7 @@ public class DoctorService {
         // ลบ User หลังจากลบ Doctor แล้ว
         userRepository.deleteById(userId);
         userRepository.flush(); // บังคับให้ลบทันที
+        eventPublisher.publishEvent(new DoctorChangedEvent(doctorId, DoctorChangedEvent.ChangeType.DELETED));
 
         logger.info("Doctor and User deleted by admin - License: {}, Email: {}", licenseNumber, userEmail);
     }
@@ -264,16 +321,18 @@ public class DoctorService {
         doctor.setIsActive(isActive);
 
         Doctor updatedDoctor = doctorRepository.save(doctor);
+        eventPublisher.publishEvent(new DoctorChangedEvent(doctorId, DoctorChangedEvent.ChangeType.STATUS_CHANGED));
         logger.info("Doctor status updated: {} - Active: {}", doctor.getLicenseNumber(), isActive);
 
         return updatedDoctor;
     }
 
-    //ดึงสถิติหมอ
+    //ดึงสถิติหมอ (อ่านจาก primary - ไม่ cache ค่าจาก replica ที่ยังตามไม่ทัน)
+    @Cacheable(CacheConfig.DOCTOR_STATS)
     public DoctorStats getDoctorStats(){
         long totalDoctors = doctorRepository.countByIsActiveTrue();
-        List<Specialty> specialties = specialtyRepository.findSpecialtiesWithActiveDoctors();
+        long totalSpecialties = specialtyRepository.countSpecialtiesWithActiveDoctors();
 
-        return new DoctorStats(totalDoctors, specialties.size());
+        return new DoctorStats(totalDoctors, totalSpecialties);
     }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.example.doctoralia.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * สถิติและการล้าง Hibernate second-level cache (region ตั้งค่าใน ehcache.xml)
+ */
+@Service
+public class EntityCacheService {
+    private static final Logger logger = LoggerFactory.getLogger(EntityCacheService.class);
+
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public Map<String, Object> getStatistics() {
+        Statistics statistics = sessionFactory().getStatistics();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        result.put("secondLevel", counters(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        result.put("queryCache", counters(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+
+        TreeSet<String> regionNames = new TreeSet<>(List.of(statistics.getSecondLevelCacheRegionNames()));
+        regionNames.add(QUERY_RESULTS_REGION);
+        regionNames.add(UPDATE_TIMESTAMPS_REGION);
+
+        List<Map<String, Object>> regions = new ArrayList<>();
+        for (String regionName : regionNames) {
+            CacheRegionStatistics region;
+            try {
+                region = statistics.getCacheRegionStatistics(regionName);
+            } catch (IllegalArgumentException e) {
+                // region ยังไม่ถูกสร้าง (เช่น ปิด query cache)
+                continue;
+            }
+            if (region == null) {
+                continue;
+            }
+            Map<String, Object> entry = counters(region.getHitCount(), region.getMissCount(), region.getPutCount());
+            entry.put("region", regionName);
+            // JCache ไม่รายงานจำนวน entry (ได้ค่า NO_EXTENDED_STAT_SUPPORT_RETURN)
+            if (region.getElementCountInMemory() != CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN) {
+                entry.put("elementsInMemory", region.getElementCountInMemory());
+            }
+            regions.add(entry);
+        }
+        result.put("regions", regions);
+        return result;
+    }
+
+    /**
+     * ล้างทุก region (ใช้หลังแก้ข้อมูลใน DB โดยตรงโดยไม่ผ่านแอป) และรีเซ็ตตัวนับ
+     */
+    public void evictAll() {
+        SessionFactory sessionFactory = sessionFactory();
+        sessionFactory.getCache().evictAllRegions();
+        sessionFactory.getStatistics().clear();
+        logger.info("Second-level cache evicted by admin");
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    private Map<String, Object> counters(long hits, long misses, long puts) {
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("hits", hits);
+        counters.put("misses", misses);
+        counters.put("puts", puts);
+        long lookups = hits + misses;
+        counters.put("hitRatio", lookups == 0 ? 0.0 : Math.round(hits * 1000.0 / lookups) / 1000.0);
+        return counters;
+    }
+}
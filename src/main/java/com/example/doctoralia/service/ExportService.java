@@ -0,0 +1,278 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.model.AppointmentStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Export นัดหมาย/ข้อมูลผู้ป่วยที่จองสำหรับ admin แบบ streaming (NDJSON หรือ CSV)
+ *
+ * อ่านด้วย cursor ของ JDBC (fetch size + transaction read-only ซึ่งทำให้ autocommit ปิด)
+ * แล้วเขียนทีละแถวลง response - ใช้หน่วยความจำคงที่ไม่ว่าจะ export กี่แถว
+ * อ่านจากตารางจริง (ไม่ใช่ materialized view) เพื่อให้ได้ข้อมูลล่าสุด
+ */
+@Service
+public class ExportService {
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv;charset=UTF-8", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            if (value == null) {
+                return NDJSON;
+            }
+            switch (value.toLowerCase()) {
+                case "ndjson":
+                case "json":
+                    return NDJSON;
+                case "csv":
+                    return CSV;
+                default:
+                    throw new IllegalArgumentException("Unsupported export format: " + value + " (use ndjson or csv)");
+            }
+        }
+    }
+
+    private static final String APPOINTMENT_COLUMNS =
+            "a.id, a.appointment_datetime AS \"appointmentDatetime\", a.duration_minutes AS \"durationMinutes\", " +
+            "a.status, a.doctor_id AS \"doctorId\", " +
+            "TRIM(COALESCE(du.first_name, '') || ' ' || COALESCE(du.last_name, '')) AS \"doctorName\", " +
+            "s.name AS \"specialtyName\", d.room_number AS \"roomNumber\", a.patient_id AS \"patientId\", " +
+            "TRIM(COALESCE(pu.first_name, '') || ' ' || COALESCE(pu.last_name, '')) AS \"patientName\", " +
+            "pu.email AS \"patientEmail\", pu.phone AS \"patientPhone\", a.notes, a.doctor_notes AS \"doctorNotes\", " +
+            "a.created_at AS \"createdAt\", a.updated_at AS \"updatedAt\" ";
+
+    private static final String BOOKING_COLUMNS =
+            "b.id, b.appointment_id AS \"appointmentId\", a.appointment_datetime AS \"appointmentDatetime\", " +
+            "a.status, a.doctor_id AS \"doctorId\", " +
+            "TRIM(COALESCE(du.first_name, '') || ' ' || COALESCE(du.last_name, '')) AS \"doctorName\", " +
+            "s.name AS \"specialtyName\", b.queue_number AS \"queueNumber\", b.booking_type AS \"bookingType\", " +
+            "b.patient_prefix AS \"patientPrefix\", b.patient_first_name AS \"patientFirstName\", " +
+            "b.patient_last_name AS \"patientLastName\", b.patient_gender AS \"patientGender\", " +
+            "b.patient_date_of_birth AS \"patientDateOfBirth\", b.patient_nationality AS \"patientNationality\", " +
+            "b.patient_citizen_id AS \"patientCitizenId\", b.patient_phone AS \"patientPhone\", " +
+            "b.patient_email AS \"patientEmail\", b.symptoms, b.created_at AS \"createdAt\" ";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // จำนวนแถวที่ดึงจาก cursor ต่อรอบ
+    @Value("${exports.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * นัดหมายตามช่วงเวลานัด (optional: หมอ, สถานะ) เรียงตามเวลานัด
+     * ตรวจ parameter ทันที (IllegalArgumentException) ก่อนเริ่ม stream
+     */
+    public StreamingResponseBody exportAppointments(LocalDateTime from, LocalDateTime to, Long doctorId,
+                                                    String status, Format format) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT " + APPOINTMENT_COLUMNS +
+                "FROM appointments a " +
+                "JOIN doctors d ON d.id = a.doctor_id " +
+                "JOIN users du ON du.id = d.user_id " +
+                "JOIN specialties s ON s.id = d.specialty_id " +
+                "JOIN users pu ON pu.id = a.patient_id" +
+                appointmentFilter(from, to, doctorId, status, params) +
+                " ORDER BY a.appointment_datetime, a.id";
+        return out -> stream("appointments", sql, params, format, out);
+    }
+
+    /**
+     * ข้อมูลผู้ป่วยที่กรอกตอนจอง (patient_booking_info) กรองด้วยเงื่อนไขเดียวกับนัดหมาย
+     */
+    public StreamingResponseBody exportBookings(LocalDateTime from, LocalDateTime to, Long doctorId,
+                                                String status, Format format) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT " + BOOKING_COLUMNS +
+                "FROM patient_booking_info b " +
+                "JOIN appointments a ON a.id = b.appointment_id " +
+                "JOIN doctors d ON d.id = a.doctor_id " +
+                "JOIN users du ON du.id = d.user_id " +
+                "JOIN specialties s ON s.id = d.specialty_id" +
+                appointmentFilter(from, to, doctorId, status, params) +
+                " ORDER BY a.appointment_datetime, b.id";
+        return out -> stream("bookings", sql, params, format, out);
+    }
+
+    private String appointmentFilter(LocalDateTime from, LocalDateTime to, Long doctorId, String status,
+                                     List<Object> params) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if (from != null) {
+            where.append(" AND a.appointment_datetime >= ?");
+            params.add(from);
+        }
+        if (to != null) {
+            where.append(" AND a.appointment_datetime < ?");
+            params.add(to);
+        }
+        if (doctorId != null) {
+            where.append(" AND a.doctor_id = ?");
+            params.add(doctorId);
+        }
+        if (status != null && !status.isBlank()) {
+            try {
+                params.add(AppointmentStatus.valueOf(status.trim().toUpperCase()).name());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid status: " + status);
+            }
+            where.append(" AND a.status = ?");
+        }
+        return where.toString();
+    }
+
+    private void stream(String name, String sql, List<Object> params, Format format, OutputStream out) {
+        long start = System.nanoTime();
+
+        // JdbcTemplate แยกของ export - fetch size ไม่กระทบ query อื่น
+        JdbcTemplate cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(fetchSize);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        Long rows = transaction.execute(status -> cursorTemplate.query(sql, rs -> {
+            try {
+                return format == Format.CSV ? writeCsv(rs, out) : writeNdjson(rs, out);
+            } catch (IOException e) {
+                // client ปิด connection กลางทาง - ยกเลิก query และคืน connection
+                throw new UncheckedIOException(e);
+            }
+        }, params.toArray()));
+
+        logger.info("Exported {} {} rows as {} in {} ms", rows, name, format,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private long writeNdjson(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        String[] labels = columnLabels(rs.getMetaData());
+        long rows = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (rs.next()) {
+                generator.writeStartObject();
+                for (int i = 0; i < labels.length; i++) {
+                    generator.writeFieldName(labels[i]);
+                    generator.writeObject(value(rs, i + 1));
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private long writeCsv(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        String[] labels = columnLabels(rs.getMetaData());
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // BOM ให้ Excel อ่านชื่อภาษาไทยเป็น UTF-8
+        writer.write('\uFEFF');
+        writeCsvLine(writer, labels);
+
+        long rows = 0;
+        Object[] values = new Object[labels.length];
+        while (rs.next()) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = value(rs, i + 1);
+            }
+            writeCsvLine(writer, values);
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: ครอบด้วย " เมื่อมี , " หรือขึ้นบรรทัดใหม่ และ " ข้างในเป็น ""
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String[] columnLabels(ResultSetMetaData metaData) throws SQLException {
+        String[] labels = new String[metaData.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+        }
+        return labels;
+    }
+
+    // timestamp/date ของ JDBC เป็น java.time เพื่อให้ได้รูปแบบ ISO เหมือน API อื่น
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.AssignmentCandidate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * เลือกหมอค่าตรวจถูกที่สุด จากหมอที่ยังว่างอย่างน้อยครึ่งหนึ่งของคนที่ว่างที่สุด
+ * (ไม่โยนคนไข้ทั้งหมดไปที่หมอค่าตรวจถูกจนเต็ม) ค่าตรวจเท่ากันเลือกคนที่ว่างกว่า
+ */
+@Component
+public class FeeAwareAssignmentStrategy implements DoctorAssignmentStrategy {
+
+    public static final String NAME = "fee-aware";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public AssignmentCandidate choose(String poolKey, List<AssignmentCandidate> candidates) {
+        int maxAvailable = 0;
+        for (AssignmentCandidate candidate : candidates) {
+            maxAvailable = Math.max(maxAvailable, candidate.getAvailableMinutes());
+        }
+        int threshold = (maxAvailable + 1) / 2;
+
+        AssignmentCandidate selected = null;
+        for (AssignmentCandidate candidate : candidates) {
+            if (candidate.getAvailableMinutes() < threshold) {
+                continue;
+            }
+            if (selected == null) {
+                selected = candidate;
+                continue;
+            }
+            int compare = fee(candidate).compareTo(fee(selected));
+            if (compare < 0 || (compare == 0 && candidate.getAvailableMinutes() > selected.getAvailableMinutes())) {
+                selected = candidate;
+            }
+        }
+        return selected;
+    }
+
+    private static BigDecimal fee(AssignmentCandidate candidate) {
+        return candidate.getConsultationFee() != null
+                ? candidate.getConsultationFee()
+                : BigDecimal.valueOf(Long.MAX_VALUE);
+    }
+}
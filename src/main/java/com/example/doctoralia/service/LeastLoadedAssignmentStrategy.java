@@ -0,0 +1,38 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.AssignmentCandidate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * เลือกหมอที่มีเวลาว่างมากที่สุด ถ้าเท่ากันสุ่ม (พฤติกรรมเดิมของ smart-select)
+ */
+@Component
+public class LeastLoadedAssignmentStrategy implements DoctorAssignmentStrategy {
+
+    public static final String NAME = "least-loaded";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public AssignmentCandidate choose(String poolKey, List<AssignmentCandidate> candidates) {
+        AssignmentCandidate selected = null;
+        int ties = 0;
+        for (AssignmentCandidate candidate : candidates) {
+            if (selected == null || candidate.getAvailableMinutes() > selected.getAvailableMinutes()) {
+                selected = candidate;
+                ties = 1;
+            } else if (candidate.getAvailableMinutes() == selected.getAvailableMinutes()
+                    && ThreadLocalRandom.current().nextInt(++ties) == 0) {
+                // reservoir sampling: ทุกคนที่เท่ากันมีโอกาสเท่ากัน
+                selected = candidate;
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.config.ReplicaRoutingDataSource;
+import com.example.doctoralia.dto.AvailabilityWindow;
+import com.example.doctoralia.event.AvailabilityChangedEvent;
+import com.example.doctoralia.event.DoctorChangedEvent;
+import com.example.doctoralia.event.DoctorsImportedEvent;
+import com.example.doctoralia.repository.AvailabilityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory index ของหมอที่เข้าเวรในแต่ละช่วงเวลา
+ * (dayOfWeek, ช่วงละ 15 นาที) -> specialtyId -> doctor ids เรียงจากน้อยไปมาก
+ *
+ * แต่ละช่องเก็บหมอที่ช่วงเวลาทำงานคาบเกี่ยวกับช่องนั้น ตอน query จะเช็คเวลาจริงอีกครั้ง
+ * กับช่วงเวลาของหมอ (หมอแต่ละคนมีแค่ไม่กี่ช่วง) จึงไม่ต้องแตะ database เลย
+ * Refresh ทีละหมอเมื่อ availability หรือสถานะหมอเปลี่ยน (หลัง commit)
+ * Rebuild ทั้งหมดสร้าง Index ชุดใหม่แยกไว้แล้วสลับ reference ครั้งเดียว - reader ไม่เห็น index ว่างหรือครึ่งๆ กลางๆ
+ */
+@Component
+public class OnDutyDoctorIndex {
+    private static final Logger logger = LoggerFactory.getLogger(OnDutyDoctorIndex.class);
+
+    static final int BUCKET_MINUTES = 15;
+    static final int BUCKETS_PER_DAY = 24 * 60 / BUCKET_MINUTES;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    private volatile Index index = new Index();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Order(ResourceVersions.REFRESH_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        refreshDoctor(event.getDoctorId());
+    }
+
+    @Order(ResourceVersions.REFRESH_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorChanged(DoctorChangedEvent event) {
+        refreshDoctor(event.getDoctorId());
+    }
+
+    // bulk import: โหลดใหม่ทั้งหมดครั้งเดียวแทนทีละหมอ
+    @Order(ResourceVersions.REFRESH_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorsImported(DoctorsImportedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * โหลดใหม่ทั้งหมดจาก database
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        // เรียกหลัง commit ด้วย: อ่านจาก primary (replica อาจยังตามไม่ทัน)
+        List<AvailabilityWindow> windows = ReplicaRoutingDataSource.readOnPrimary(availabilityRepository::findActiveWindows);
+
+        Map<Long, List<AvailabilityWindow>> byDoctor = new HashMap<>();
+        for (AvailabilityWindow window : windows) {
+            byDoctor.computeIfAbsent(window.getDoctorId(), id -> new ArrayList<>()).add(window);
+        }
+        Index fresh = new Index();
+        byDoctor.forEach((doctorId, doctorWindows) -> fresh.put(doctorId, new DoctorSchedule(doctorWindows)));
+        index = fresh;
+
+        logger.info("On-duty index rebuilt: {} doctors, {} windows in {} ms",
+                fresh.schedules.size(), windows.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * โหลดตารางของหมอคนเดียวใหม่ (หมอที่ถูกปิดหรือลบจะหายไปจาก index)
+     */
+    public synchronized void refreshDoctor(Long doctorId) {
+        if (doctorId == null) {
+            return;
+        }
+        List<AvailabilityWindow> windows = ReplicaRoutingDataSource.readOnPrimary(
+                () -> availabilityRepository.findActiveWindowsByDoctorId(doctorId));
+        // ใส่ตารางใหม่ก่อนแล้วค่อยถอดช่องเก่า หมอจึงไม่หายจาก board ระหว่าง refresh
+        Index current = index;
+        if (windows.isEmpty()) {
+            current.remove(doctorId);
+        } else {
+            current.put(doctorId, new DoctorSchedule(windows));
+        }
+        logger.debug("On-duty index refreshed for doctor {} ({} windows)", doctorId, windows.size());
+    }
+
+    /**
+     * หมอที่เข้าเวร ณ วันและเวลาที่กำหนด จัดกลุ่มตาม specialty
+     * @param specialtyId ถ้าเป็น null จะคืนทุก specialty
+     */
+    public SortedMap<Long, List<Long>> findOnDuty(int dayOfWeek, LocalTime time, Long specialtyId) {
+        if (dayOfWeek < 1 || dayOfWeek > 7 || time == null) {
+            throw new IllegalArgumentException("Day of week must be between 1-7 and time is required");
+        }
+        int minute = time.toSecondOfDay() / 60;
+        Index current = index;
+        Map<Long, NavigableSet<Long>> bucket = current.buckets.get(bucketIndex(dayOfWeek, minute));
+
+        SortedMap<Long, List<Long>> result = new TreeMap<>();
+        if (specialtyId != null) {
+            NavigableSet<Long> doctorIds = bucket.get(specialtyId);
+            if (doctorIds != null) {
+                collect(current, result, specialtyId, doctorIds, dayOfWeek, minute);
+            }
+        } else {
+            bucket.forEach((id, doctorIds) -> collect(current, result, id, doctorIds, dayOfWeek, minute));
+        }
+        return result;
+    }
+
+    /**
+     * Doctor ids ของหมอที่เข้าเวร (ไม่แยก specialty)
+     */
+    public List<Long> findOnDutyDoctorIds(int dayOfWeek, LocalTime time, Long specialtyId) {
+        List<Long> doctorIds = new ArrayList<>();
+        findOnDuty(dayOfWeek, time, specialtyId).values().forEach(doctorIds::addAll);
+        Collections.sort(doctorIds);
+        return doctorIds;
+    }
+
+    /**
+     * นาทีทำงานทั้งหมดของหมอในวันที่กำหนด (0 ถ้าไม่มีตารางหรือหมอไม่ active)
+     */
+    public int getScheduledMinutes(Long doctorId, int dayOfWeek) {
+        DoctorSchedule schedule = index.schedules.get(doctorId);
+        return schedule != null ? schedule.minutesOn(dayOfWeek) : 0;
+    }
+
+    public int size() {
+        return index.schedules.size();
+    }
+
+    private void collect(Index current, SortedMap<Long, List<Long>> result, Long specialtyId,
+                         NavigableSet<Long> doctorIds, int dayOfWeek, int minute) {
+        List<Long> onDuty = new ArrayList<>();
+        for (Long doctorId : doctorIds) {
+            DoctorSchedule schedule = current.schedules.get(doctorId);
+            if (schedule != null && schedule.covers(dayOfWeek, minute)) {
+                onDuty.add(doctorId);
+            }
+        }
+        if (!onDuty.isEmpty()) {
+            result.put(specialtyId, onDuty);
+        }
+    }
+
+    private static int bucketIndex(int dayOfWeek, int minuteOfDay) {
+        return (dayOfWeek - 1) * BUCKETS_PER_DAY + minuteOfDay / BUCKET_MINUTES;
+    }
+
+    /**
+     * ช่องเวลา (List ตาม bucketIndex) -> specialtyId -> doctor ids และตารางของหมอแต่ละคน
+     * rebuild สร้างชุดใหม่เสมอ ส่วน refreshDoctor แก้ชุดปัจจุบันทีละหมอ (โครงสร้างเป็น concurrent ทั้งหมด)
+     */
+    private static final class Index {
+        private final List<Map<Long, NavigableSet<Long>>> buckets = new ArrayList<>(7 * BUCKETS_PER_DAY);
+        private final Map<Long, DoctorSchedule> schedules = new ConcurrentHashMap<>();
+
+        private Index() {
+            for (int i = 0; i < 7 * BUCKETS_PER_DAY; i++) {
+                buckets.add(new ConcurrentHashMap<>());
+            }
+        }
+
+        private void put(Long doctorId, DoctorSchedule schedule) {
+            for (int bucket : schedule.bucketIndexes()) {
+                buckets.get(bucket).computeIfAbsent(schedule.specialtyId, id -> new ConcurrentSkipListSet<>()).add(doctorId);
+            }
+            DoctorSchedule previous = schedules.put(doctorId, schedule);
+            if (previous != null) {
+                unindex(doctorId, previous, schedule);
+            }
+        }
+
+        private void remove(Long doctorId) {
+            DoctorSchedule previous = schedules.remove(doctorId);
+            if (previous != null) {
+                unindex(doctorId, previous, null);
+            }
+        }
+
+        // ถอดหมอออกจากช่องของตารางเก่าที่ตารางใหม่ (ถ้ามี) ไม่ได้ใช้แล้ว
+        private void unindex(Long doctorId, DoctorSchedule previous, DoctorSchedule replacement) {
+            Set<Integer> kept = replacement != null && replacement.specialtyId.equals(previous.specialtyId)
+                    ? replacement.bucketIndexes() : Set.of();
+            for (int bucket : previous.bucketIndexes()) {
+                if (kept.contains(bucket)) {
+                    continue;
+                }
+                NavigableSet<Long> doctorIds = buckets.get(bucket).get(previous.specialtyId);
+                if (doctorIds != null) {
+                    doctorIds.remove(doctorId);
+                }
+            }
+        }
+    }
+
+    /**
+     * ช่วงเวลาทำงานของหมอหนึ่งคน เก็บเป็น array นาทีของวัน (start รวม, end ไม่รวม)
+     */
+    private static final class DoctorSchedule {
+        private final Long specialtyId;
+        private final int[] days;
+        private final int[] startMinutes;
+        private final int[] endMinutes;
+
+        private DoctorSchedule(List<AvailabilityWindow> windows) {
+            this.specialtyId = windows.get(0).getSpecialtyId();
+            this.days = new int[windows.size()];
+            this.startMinutes = new int[windows.size()];
+            this.endMinutes = new int[windows.size()];
+            for (int i = 0; i < windows.size(); i++) {
+                AvailabilityWindow window = windows.get(i);
+                days[i] = window.getDayOfWeek();
+                startMinutes[i] = window.getStartTime().toSecondOfDay() / 60;
+                endMinutes[i] = window.getEndTime().toSecondOfDay() / 60;
+            }
+        }
+
+        private Set<Integer> bucketIndexes() {
+            Set<Integer> indexes = new HashSet<>();
+            for (int i = 0; i < days.length; i++) {
+                int firstBucket = startMinutes[i] / BUCKET_MINUTES;
+                int lastBucket = (endMinutes[i] - 1) / BUCKET_MINUTES;
+                for (int b = firstBucket; b <= lastBucket; b++) {
+                    indexes.add((days[i] - 1) * BUCKETS_PER_DAY + b);
+                }
+            }
+            return indexes;
+        }
+
+        private int minutesOn(int dayOfWeek) {
+            int minutes = 0;
+            for (int i = 0; i < days.length; i++) {
+                if (days[i] == dayOfWeek) {
+                    minutes += endMinutes[i] - startMinutes[i];
+                }
+            }
+            return minutes;
+        }
+
+        private boolean covers(int dayOfWeek, int minute) {
+            for (int i = 0; i < days.length; i++) {
+                if (days[i] == dayOfWeek && startMinutes[i] <= minute && minute < endMinutes[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.service.ReportViewRefresher.ReportView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * รายงานของ admin - อ่านจาก materialized view (V16) เท่านั้น ไม่ join ตารางจองตอนอ่าน
+ */
+@Service
+public class ReportService {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReportViewRefresher reportViewRefresher;
+
+    /**
+     * นัดหมายในช่วงเวลา (optional: หมอ, สถานะ) เรียงตามเวลานัด
+     */
+    public Map<String, Object> getAppointmentReport(LocalDateTime from, LocalDateTime to, Long doctorId,
+                                                    String status, int page, int size) {
+        reportViewRefresher.ensureFresh(ReportView.APPOINTMENT_DETAILS);
+
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (from != null) {
+            where.append(" AND appointment_datetime >= ?");
+            params.add(from);
+        }
+        if (to != null) {
+            where.append(" AND appointment_datetime < ?");
+            params.add(to);
+        }
+        if (doctorId != null) {
+            where.append(" AND doctor_id = ?");
+            params.add(doctorId);
+        }
+        if (status != null) {
+            where.append(" AND status = ?");
+            params.add(status.toUpperCase());
+        }
+
+        String select = "SELECT id, doctor_id AS \"doctorId\", patient_id AS \"patientId\", " +
+                "appointment_datetime AS \"appointmentDatetime\", duration_minutes AS \"durationMinutes\", " +
+                "status, notes, doctor_notes AS \"doctorNotes\", room_number AS \"roomNumber\", " +
+                "doctor_name AS \"doctorName\", specialty_name AS \"specialtyName\", " +
+                "patient_name AS \"patientName\", patient_email AS \"patientEmail\", " +
+                "patient_phone AS \"patientPhone\", created_at AS \"createdAt\" " +
+                "FROM mv_appointment_details" + where + " ORDER BY appointment_datetime, id";
+        String count = "SELECT COUNT(*) FROM mv_appointment_details" + where;
+        return page(ReportView.APPOINTMENT_DETAILS, "appointments", select, count, params, page, size);
+    }
+
+    /**
+     * รีวิวล่าสุด (optional: หมอ)
+     */
+    public Map<String, Object> getReviewReport(Long doctorId, int page, int size) {
+        reportViewRefresher.ensureFresh(ReportView.REVIEW_DETAILS);
+
+        String where = doctorId != null ? " WHERE doctor_id = ?" : "";
+        List<Object> params = new ArrayList<>();
+        if (doctorId != null) {
+            params.add(doctorId);
+        }
+
+        String select = "SELECT id, doctor_id AS \"doctorId\", rating, comment, is_anonymous AS \"isAnonymous\", " +
+                "created_at AS \"createdAt\", doctor_name AS \"doctorName\", specialty_name AS \"specialtyName\", " +
+                "room_number AS \"roomNumber\", patient_name AS \"patientName\", " +
+                "appointment_datetime AS \"appointmentDatetime\" " +
+                "FROM mv_review_details" + where + " ORDER BY created_at DESC, id DESC";
+        String count = "SELECT COUNT(*) FROM mv_review_details" + where;
+        return page(ReportView.REVIEW_DETAILS, "reviews", select, count, params, page, size);
+    }
+
+    /**
+     * อันดับหมอตามคะแนนรีวิว
+     */
+    public Map<String, Object> getDoctorReviewStatsReport(int page, int size) {
+        reportViewRefresher.ensureFresh(ReportView.DOCTOR_REVIEW_STATS);
+
+        String select = "SELECT doctor_id AS \"doctorId\", doctor_name AS \"doctorName\", " +
+                "specialty_name AS \"specialtyName\", room_number AS \"roomNumber\", " +
+                "consultation_fee AS \"consultationFee\", total_reviews AS \"totalReviews\", " +
+                "average_rating AS \"averageRating\", five_star_count AS \"fiveStarCount\", " +
+                "four_star_count AS \"fourStarCount\", three_star_count AS \"threeStarCount\", " +
+                "two_star_count AS \"twoStarCount\", one_star_count AS \"oneStarCount\", " +
+                "positive_percentage AS \"positivePercentage\" " +
+                "FROM mv_doctor_review_stats ORDER BY average_rating DESC, total_reviews DESC, doctor_id";
+        String count = "SELECT COUNT(*) FROM mv_doctor_review_stats";
+        return page(ReportView.DOCTOR_REVIEW_STATS, "doctors", select, count, new ArrayList<>(), page, size);
+    }
+
+    private Map<String, Object> page(ReportView view, String key, String select, String count,
+                                     List<Object> params, int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int pageNumber = Math.max(page, 0);
+
+        Long total = jdbcTemplate.queryForObject(count, Long.class, params.toArray());
+        List<Object> pageParams = new ArrayList<>(params);
+        pageParams.add(pageSize);
+        pageParams.add((long) pageNumber * pageSize);
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(select + " LIMIT ? OFFSET ?", pageParams.toArray());
+
+        long totalItems = total != null ? total : 0;
+        Map<String, Object> response = new HashMap<>();
+        response.put(key, rows);
+        response.put("currentPage", pageNumber);
+        response.put("totalItems", totalItems);
+        response.put("totalPages", (totalItems + pageSize - 1) / pageSize);
+        response.put("refresh", reportViewRefresher.getStatus(view));
+        return response;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.ReportViewStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Refresh materialized view ของรายงาน (V16) ด้วย REFRESH MATERIALIZED VIEW CONCURRENTLY
+ *
+ * CONCURRENTLY ไม่ล็อกการอ่าน view ระหว่าง refresh และอ่านตารางต้นทางด้วย lock ระดับ SELECT
+ * การจอง/แก้ไขนัดจึงไม่ถูกบล็อก ข้อมูลรายงานเก่าได้ไม่เกิน reports.max-staleness-seconds
+ * (อ่านตอนเก่ากว่านั้นจะ refresh ก่อน) และเก็บสถิติเวลาที่ใช้ refresh แต่ละ view
+ */
+@Component
+public class ReportViewRefresher {
+    private static final Logger logger = LoggerFactory.getLogger(ReportViewRefresher.class);
+
+    public enum ReportView {
+        APPOINTMENT_DETAILS("mv_appointment_details"),
+        REVIEW_DETAILS("mv_review_details"),
+        DOCTOR_REVIEW_STATS("mv_doctor_review_stats");
+
+        private final String viewName;
+
+        ReportView(String viewName) {
+            this.viewName = viewName;
+        }
+
+        public String getViewName() {
+            return viewName;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${reports.max-staleness-seconds:600}")
+    private long maxStalenessSeconds;
+
+    // รอ lock ของ view ไม่เกินนี้ (เช่นตอนมี migration) แทนที่จะค้างคิว
+    @Value("${reports.refresh-lock-timeout:5s}")
+    private String lockTimeout;
+
+    private final Map<ReportView, RefreshState> states = new EnumMap<>(ReportView.class);
+
+    public ReportViewRefresher() {
+        for (ReportView view : ReportView.values()) {
+            states.put(view, new RefreshState());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reports.refresh-interval-ms:300000}",
+            initialDelayString = "${reports.refresh-initial-delay-ms:30000}")
+    public void scheduledRefresh() {
+        for (ReportView view : ReportView.values()) {
+            refresh(view);
+        }
+    }
+
+    /**
+     * Refresh ถ้าข้อมูลเก่ากว่า staleness bound (หรือยังไม่เคย refresh ตั้งแต่ start)
+     */
+    public void ensureFresh(ReportView view) {
+        if (isStale(states.get(view), Instant.now())) {
+            refresh(view);
+        }
+    }
+
+    /**
+     * Refresh view หนึ่งตัว - refresh ของ view เดียวกันทำทีละครั้ง
+     * ถ้ามีอีก thread กำลัง refresh อยู่ จะรอให้เสร็จแล้วใช้ผลนั้นเลย
+     * @return false ถ้า refresh ไม่สำเร็จ (ข้อมูลเดิมยังอ่านได้)
+     */
+    public boolean refresh(ReportView view) {
+        RefreshState state = states.get(view);
+        Instant requestedAt = Instant.now();
+        state.lock.lock();
+        try {
+            if (state.lastRefreshedAt != null && !state.lastRefreshedAt.isBefore(requestedAt)) {
+                return true;
+            }
+
+            long start = System.nanoTime();
+            Instant startedAt = Instant.now();
+            try {
+                TransactionTemplate template = new TransactionTemplate(transactionManager);
+                template.executeWithoutResult(status -> {
+                    jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeout.replace("'", "") + "'");
+                    jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY " + view.getViewName());
+                });
+                long durationMs = (System.nanoTime() - start) / 1_000_000;
+                state.recordSuccess(startedAt, durationMs);
+                logger.debug("Refreshed {} in {} ms", view.getViewName(), durationMs);
+                return true;
+            } catch (Exception e) {
+                state.recordFailure(e);
+                logger.warn("Failed to refresh {}: {}", view.getViewName(), e.getMessage());
+                return false;
+            }
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    public ReportViewStatus getStatus(ReportView view) {
+        RefreshState state = states.get(view);
+        Instant now = Instant.now();
+        synchronized (state) {
+            Long age = state.lastRefreshedAt != null
+                    ? Duration.between(state.lastRefreshedAt, now).getSeconds() : null;
+            long average = state.refreshCount > 0 ? state.totalDurationMs / state.refreshCount : 0;
+            return new ReportViewStatus(view.getViewName(), state.lastRefreshedAt, age, isStale(state, now),
+                    state.refreshCount, state.failureCount, state.lastDurationMs, state.maxDurationMs,
+                    average, state.lastError);
+        }
+    }
+
+    public List<ReportViewStatus> getStatuses() {
+        List<ReportViewStatus> statuses = new ArrayList<>();
+        for (ReportView view : ReportView.values()) {
+            statuses.add(getStatus(view));
+        }
+        return statuses;
+    }
+
+    private boolean isStale(RefreshState state, Instant now) {
+        Instant refreshedAt = state.lastRefreshedAt;
+        return refreshedAt == null || Duration.between(refreshedAt, now).getSeconds() > maxStalenessSeconds;
+    }
+
+    private static final class RefreshState {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Instant lastRefreshedAt;
+        private long refreshCount;
+        private long failureCount;
+        private long lastDurationMs;
+        private long maxDurationMs;
+        private long totalDurationMs;
+        private String lastError;
+
+        // เวลาของข้อมูลคือตอนเริ่ม refresh (snapshot ถูกอ่าน ณ ตอนนั้น)
+        private synchronized void recordSuccess(Instant startedAt, long durationMs) {
+            lastRefreshedAt = startedAt;
+            refreshCount++;
+            lastDurationMs = durationMs;
+            maxDurationMs = Math.max(maxDurationMs, durationMs);
+            totalDurationMs += durationMs;
+            lastError = null;
+        }
+
+        private synchronized void recordFailure(Exception e) {
+            failureCount++;
+            lastError = e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.event.AppointmentChangedEvent;
+import com.example.doctoralia.event.AvailabilityChangedEvent;
+import com.example.doctoralia.event.DoctorChangedEvent;
+import com.example.doctoralia.event.DoctorsImportedEvent;
+import com.example.doctoralia.event.ReviewChangedEvent;
+import com.example.doctoralia.event.SpecialtyChangedEvent;
+import com.example.doctoralia.event.UserChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * เลขเวอร์ชันของข้อมูลแต่ละกลุ่ม ใช้สร้าง ETag ของ read endpoint (ConditionalGetInterceptor)
+ *
+ * เพิ่มขึ้นหลัง commit จาก event ที่ service ประกาศอยู่แล้ว - ถ้าเวอร์ชันไม่เปลี่ยน ข้อมูลในกลุ่มนั้นไม่เปลี่ยน
+ * epoch (เวลา start) อยู่ใน ETag ด้วย เลขที่เริ่มใหม่หลัง restart จึงไม่ชนกับของเดิม
+ *
+ * ลำดับหลัง commit: listener ที่ rebuild snapshot/index หรือล้าง cache ใช้ REFRESH_ORDER และทำงานจนเสร็จ
+ * (บน thread เดียวกัน) ก่อนเวอร์ชันจะเพิ่ม - request ที่เห็นเวอร์ชันใหม่จึงอ่านได้ข้อมูลใหม่เสมอ
+ * ถ้าเวอร์ชันเพิ่มก่อน request อาจเอา body เก่าไปผูกกับ ETag ใหม่ แล้วได้ 304 กับข้อมูลเก่าไปจนกว่าจะมีการเขียนครั้งถัดไป
+ *
+ * เวอร์ชันเป็น counter ใน JVM นี้เท่านั้น: ใช้ได้กับการรัน instance เดียว (แบบที่ deploy บน Railway)
+ * ถ้า scale เป็นหลาย instance ETag ของแต่ละเครื่องจะไม่ตรงกัน และเครื่องอื่นไม่เห็น event ของเครื่องนี้
+ * ต้องย้ายเวอร์ชันไปเก็บใน database ก่อน
+ */
+@Component
+public class ResourceVersions {
+
+    // ลำดับของ listener หลัง commit (ค่าน้อยทำก่อน)
+    public static final int REFRESH_ORDER = 0;
+    public static final int VERSION_ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    public enum Family {
+        DOCTORS,
+        SPECIALTIES,
+        AVAILABILITY,
+        APPOINTMENTS,
+        REVIEWS
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Family, AtomicLong> versions = new EnumMap<>(Family.class);
+
+    public ResourceVersions() {
+        for (Family family : Family.values()) {
+            versions.put(family, new AtomicLong());
+        }
+    }
+
+    @Order(VERSION_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorChanged(DoctorChangedEvent event) {
+        bump(Family.DOCTORS);
+    }
+
+    @Order(VERSION_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorsImported(DoctorsImportedEvent event) {
+        bump(Family.DOCTORS);
+        bump(Family.AVAILABILITY);
+    }
+
+    // ชื่อหมอมาจาก users
+    @Order(VERSION_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        bump(Family.DOCTORS);
+    }
+
+    @Order(VERSION_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpecialtyChanged(SpecialtyChangedEvent event) {
+        bump(Family.SPECIALTIES);
+    }
+
+    @Order(VERSION_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        bump(Family.AVAILABILITY);
+    }
+
+    @Order(VERSION_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        bump(Family.APPOINTMENTS);
+    }
+
+    @Order(VERSION_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        bump(Family.REVIEWS);
+    }
+
+    public void bump(Family family) {
+        versions.get(family).incrementAndGet();
+    }
+
+    public long getVersion(Family family) {
+        return versions.get(family).get();
+    }
+
+    /**
+     * Strong ETag จากเวอร์ชันของทุกกลุ่มที่ระบุ (เรียงตามลำดับที่ให้มา)
+     */
+    public String etag(Family[] families) {
+        StringBuilder tag = new StringBuilder("\"").append(epoch);
+        for (Family family : families) {
+            tag.append('-').append(family.name().charAt(0)).append(getVersion(family));
+        }
+        return tag.append('"').toString();
+    }
+}
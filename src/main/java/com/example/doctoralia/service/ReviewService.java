@@ -0,0 +1,206 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.CreateReviewRequest;
+import com.example.doctoralia.dto.UpdateReviewRequest;
+import com.example.doctoralia.event.ReviewChangedEvent;
+import com.example.doctoralia.model.Appointment;
+import com.example.doctoralia.model.AppointmentStatus;
+import com.example.doctoralia.model.Doctor;
+import com.example.doctoralia.model.DoctorRatingSummary;
+import com.example.doctoralia.model.Review;
+import com.example.doctoralia.model.User;
+import com.example.doctoralia.model.UserRole;
+import com.example.doctoralia.repository.AppointmentRepository;
+import com.example.doctoralia.repository.DoctorRatingSummaryRepository;
+import com.example.doctoralia.repository.DoctorRepository;
+import com.example.doctoralia.repository.ReviewRepository;
+import com.example.doctoralia.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * รีวิวหมอ - ทุกการเพิ่ม/แก้/ลบปรับ doctor_rating_summary ใน transaction เดียวกัน
+ * ตอนอ่านจึงไม่ต้อง aggregate รีวิวทั้งหมด
+ */
+@Service
+@Transactional
+public class ReviewService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewService.class);
+
+    // partial unique index ของ V19: รีวิวที่ไม่ผูกกับนัด 1 อันต่อ (หมอ, คนไข้)
+    private static final String GENERAL_REVIEW_UNIQUE_INDEX = "idx_reviews_general_unique";
+    // UNIQUE(doctor_id, patient_id, appointment_id) ของ V6 (ชื่อที่ Postgres ตั้งให้)
+    private static final String APPOINTMENT_REVIEW_UNIQUE_KEY = "reviews_doctor_id_patient_id_appointment_id_key";
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private DoctorRatingSummaryRepository ratingSummaryRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public Review createReview(Long patientId, CreateReviewRequest request) {
+        validateRating(request.getRating());
+
+        Doctor doctor = doctorRepository.findById(request.getDoctorId())
+                .orElseThrow(() -> new IllegalArgumentException("Doctor not found with ID: " + request.getDoctorId()));
+        if (!doctor.getIsActive()) {
+            throw new IllegalArgumentException("Doctor is not active");
+        }
+
+        User patient = userRepository.findById(patientId)
+                .orElseThrow(() -> new IllegalArgumentException("Patient not found with ID: " + patientId));
+        if (patient.getRole() != UserRole.PATIENT) {
+            throw new IllegalArgumentException("Only patients can write reviews");
+        }
+
+        Appointment appointment = null;
+        if (request.getAppointmentId() != null) {
+            appointment = appointmentRepository.findById(request.getAppointmentId())
+                    .orElseThrow(() -> new IllegalArgumentException("Appointment not found with ID: " + request.getAppointmentId()));
+            if (!appointment.getPatient().getId().equals(patientId)
+                    || !appointment.getDoctor().getId().equals(doctor.getId())) {
+                throw new IllegalArgumentException("Appointment does not belong to this patient and doctor");
+            }
+            if (appointment.getStatus() != AppointmentStatus.COMPLETED) {
+                throw new IllegalArgumentException("Only completed appointments can be reviewed");
+            }
+            if (reviewRepository.existsByAppointmentId(appointment.getId())) {
+                throw new IllegalArgumentException("This appointment has already been reviewed");
+            }
+        } else if (reviewRepository.existsByDoctorIdAndPatientIdAndAppointmentIsNull(doctor.getId(), patientId)) {
+            throw new IllegalArgumentException("You have already reviewed this doctor");
+        }
+
+        Review review = new Review(doctor, patient, request.getRating());
+        review.setAppointment(appointment);
+        review.setComment(request.getComment());
+        review.setIsAnonymous(Boolean.TRUE.equals(request.getIsAnonymous()));
+
+        // การเช็คด้านบนกัน request ที่ส่งพร้อมกันไม่ได้ - index ใน database เป็นตัวตัดสิน
+        Review saved;
+        try {
+            saved = reviewRepository.saveAndFlush(review);
+        } catch (DataIntegrityViolationException e) {
+            String cause = e.getMostSpecificCause().getMessage();
+            if (cause != null && cause.contains(GENERAL_REVIEW_UNIQUE_INDEX)) {
+                throw new IllegalArgumentException("You have already reviewed this doctor");
+            }
+            if (cause != null && cause.contains(APPOINTMENT_REVIEW_UNIQUE_KEY)) {
+                throw new IllegalArgumentException("This appointment has already been reviewed");
+            }
+            throw e;
+        }
+        applyRatingChange(doctor.getId(), saved.getRating(), 0);
+        logger.info("Review {} created for doctor {} by patient {}", saved.getId(), doctor.getId(), patientId);
+        return saved;
+    }
+
+    public Review updateReview(Long reviewId, Long patientId, UpdateReviewRequest request) {
+        Review review = reviewRepository.findByIdForUpdate(reviewId)
+                .orElseThrow(() -> new IllegalArgumentException("Review not found with ID: " + reviewId));
+        if (!review.getPatient().getId().equals(patientId)) {
+            throw new IllegalArgumentException("You can only edit your own reviews");
+        }
+
+        int previousRating = review.getRating();
+        if (request.getRating() != null) {
+            validateRating(request.getRating());
+            review.setRating(request.getRating());
+        }
+        if (request.getComment() != null) {
+            review.setComment(request.getComment());
+        }
+        if (request.getIsAnonymous() != null) {
+            review.setIsAnonymous(request.getIsAnonymous());
+        }
+
+        Review saved = reviewRepository.save(review);
+        if (saved.getRating() != previousRating) {
+            applyRatingChange(saved.getDoctor().getId(), saved.getRating(), previousRating);
+        }
+        return saved;
+    }
+
+    public void deleteReview(Long reviewId, Long userId, boolean isAdmin) {
+        Review review = reviewRepository.findByIdForUpdate(reviewId)
+                .orElseThrow(() -> new IllegalArgumentException("Review not found with ID: " + reviewId));
+        if (!isAdmin && !review.getPatient().getId().equals(userId)) {
+            throw new IllegalArgumentException("You can only delete your own reviews");
+        }
+
+        Long doctorId = review.getDoctor().getId();
+        int rating = review.getRating();
+        reviewRepository.delete(review);
+        applyRatingChange(doctorId, 0, rating);
+        logger.info("Review {} deleted by user {}", reviewId, userId);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Review> getDoctorReviews(Long doctorId, int page, int size) {
+        return reviewRepository.findByDoctorIdOrderByCreatedAtDesc(doctorId, PageRequest.of(page, size));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Review> getPatientReviews(Long patientId) {
+        return reviewRepository.findByPatientIdOrderByCreatedAtDesc(patientId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<DoctorRatingSummary> getRatingSummary(Long doctorId) {
+        return ratingSummaryRepository.findById(doctorId);
+    }
+
+    /**
+     * สรุปคะแนนของหลายหมอใน query เดียว (หมอที่ยังไม่มีรีวิวจะไม่อยู่ใน map)
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, DoctorRatingSummary> getRatingSummaries(Collection<Long> doctorIds) {
+        Map<Long, DoctorRatingSummary> summaries = new HashMap<>();
+        if (doctorIds.isEmpty()) {
+            return summaries;
+        }
+        for (DoctorRatingSummary summary : ratingSummaryRepository.findByDoctorIdIn(doctorIds)) {
+            summaries.put(summary.getDoctorId(), summary);
+        }
+        return summaries;
+    }
+
+    private void applyRatingChange(Long doctorId, int addRating, int removeRating) {
+        // flush ก่อน native upsert ให้ลำดับ statement ตรงกับการเปลี่ยนแปลง
+        reviewRepository.flush();
+        ratingSummaryRepository.applyDelta(doctorId, addRating, removeRating);
+        eventPublisher.publishEvent(new ReviewChangedEvent(doctorId));
+    }
+
+    private void validateRating(Integer rating) {
+        if (rating == null || rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.config.CacheConfig;
+import com.example.doctoralia.event.DoctorChangedEvent;
+import com.example.doctoralia.event.DoctorsImportedEvent;
+import com.example.doctoralia.event.SpecialtyChangedEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * ล้าง cache จำนวนหมอต่อแผนกหลัง commit
+ * หมอถูกสร้าง/ลบ/เปิดปิด หรือแก้ไข (อาจย้ายแผนก) และแผนกถูกสร้าง/แก้/ลบ
+ */
+@Component
+public class SpecialtyCountCacheEvictor {
+
+    @Order(ResourceVersions.REFRESH_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    @CacheEvict(cacheNames = {CacheConfig.SPECIALTY_DOCTOR_COUNTS, CacheConfig.DOCTOR_STATS}, allEntries = true)
+    public void onDoctorChanged(DoctorChangedEvent event) {
+    }
+
+    @Order(ResourceVersions.REFRESH_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    @CacheEvict(cacheNames = {CacheConfig.SPECIALTY_DOCTOR_COUNTS, CacheConfig.DOCTOR_STATS}, allEntries = true)
+    public void onDoctorsImported(DoctorsImportedEvent event) {
+    }
+
+    @Order(ResourceVersions.REFRESH_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    @CacheEvict(cacheNames = {CacheConfig.SPECIALTY_DOCTOR_COUNTS, CacheConfig.DOCTOR_STATS}, allEntries = true)
+    public void onSpecialtyChanged(SpecialtyChangedEvent event) {
+    }
+}
@@ -1,14 +1,18 @@
 package com.example.doctoralia.service;
 
+import com.example.doctoralia.config.CacheConfig;
 import com.example.doctoralia.dto.SpecialtyWithDoctorCount;
+import com.example.doctoralia.event.SpecialtyChangedEvent;
 import com.example.doctoralia.model.Specialty;
 import com.example.doctoralia.repository.DoctorRepository;
 import com.example.doctoralia.repository.SpecialtyRepository;
-import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,27 +28,34 @@ public class SpecialtyService {
     @Autowired
     private DoctorRepository doctorRepository;
 
-    //ดึงแผนกทั้งหมด
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    //ดึงแผนกทั้งหมด (query cache - อ่านจาก primary เพื่อไม่ให้ผลจาก replica ที่ยังตามไม่ทันถูก cache ไว้)
     public List<Specialty> getAllSpecialties() {
         return specialtyRepository.findAllByOrderByNameAsc();
     }
 
     //ดึงแผนกที่มีหมออยู่
+    @Transactional(readOnly = true)
     public  List<Specialty> getSpecialtiesWithDoctors(){
         return specialtyRepository.findSpecialtiesWithActiveDoctors();
     }
 
     //หาแผนกตาม ID
+    @Transactional(readOnly = true)
     public Optional<Specialty> findById(Long id){
         return specialtyRepository.findById(id);
     }
 
     //หาแผนกตามชื่อ
+    @Transactional(readOnly = true)
     public Optional<Specialty> findByName(String name){
         return specialtyRepository.findByName(name);
     }
 
     //ค้นหาแผนกตามชื่อ (partial match)
+    @Transactional(readOnly = true)
     public List<Specialty> searchByName(String name) {
         return specialtyRepository.findByNameContaining(name);
     }
@@ -60,6 +71,7 @@ public class SpecialtyService {
         specialty.setDescription(description);
 
         Specialty savedSpecialty = specialtyRepository.save(specialty);
+        eventPublisher.publishEvent(new SpecialtyChangedEvent(savedSpecialty.getId(), SpecialtyChangedEvent.ChangeType.CREATED));
         logger.info("Specialty created successfully: {}", name);
 
         return savedSpecialty;
@@ -85,6 +97,7 @@ public class SpecialtyService {
         specialty.setDescription(description);
 
         Specialty updatedSpecialty = specialtyRepository.save(specialty);
+        eventPublisher.publishEvent(new SpecialtyChangedEvent(id, SpecialtyChangedEvent.ChangeType.UPDATED));
         logger.info("Specialty updated successfully: {}", name);
 
         return updatedSpecialty;
@@ -106,27 +119,24 @@ public class SpecialtyService {
         }
 
         specialtyRepository.deleteById(id);
+        eventPublisher.publishEvent(new SpecialtyChangedEvent(id, SpecialtyChangedEvent.ChangeType.DELETED));
         logger.info("Specialty deleted successfully: {}", specialtyOpt.get().getName());
     }
 
     /**
      * นับจำนวนหมอในแผนก
      */
+    @Transactional(readOnly = true)
     public long countDoctorsInSpecialty(Long specialtyId) {
         return doctorRepository.countBySpecialtyIdAndIsActiveTrue(specialtyId);
     }
 
     /**
-     * ดึงแผนกพร้อมจำนวนหมอ
+     * ดึงแผนกพร้อมจำนวนหมอ (GROUP BY query เดียว, cache จนกว่าหมอ/แผนกจะเปลี่ยน)
+     * อ่านจาก primary - ไม่ cache ค่าจาก replica ที่ยังตามไม่ทัน
      */
+    @Cacheable(CacheConfig.SPECIALTY_DOCTOR_COUNTS)
     public List<SpecialtyWithDoctorCount> getSpecialtiesWithDoctorCount() {
-        List<Specialty> specialties = specialtyRepository.findAllByOrderByNameAsc();
-
-        return specialties.stream()
-                .map(specialty -> {
-                    long doctorCount = doctorRepository.countBySpecialtyIdAndIsActiveTrue(specialty.getId());
-                    return new SpecialtyWithDoctorCount(specialty, doctorCount);
-                })
-                .toList();
+        return List.copyOf(specialtyRepository.findAllWithActiveDoctorCount());
     }
 }
@@ -1,12 +1,19 @@
 package com.example.doctoralia.service;
 
 import com.example.doctoralia.config.JwtUtils;
+import com.example.doctoralia.dto.UserSummary;
+import com.example.doctoralia.event.UserChangedEvent;
 import com.example.doctoralia.model.User;
 import com.example.doctoralia.model.UserRole;
 import com.example.doctoralia.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -23,6 +30,9 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     //สมัครสมาชิก
     public User registerUser(String email, String password, String firstName, String lastName, UserRole role) {
         //ดูอีเมลซ้ำ
@@ -98,6 +108,7 @@ public class UserService {
             user.setPhone(phone);
 
             User updatedUser = userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(userId));
             logger.info("User profile updated: {}", user.getEmail());
 
             return updatedUser;
@@ -127,7 +138,38 @@ public class UserService {
         }
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    /**
+     * รายชื่อ user สำหรับ admin แบบแบ่งหน้า (projection ไม่มี password)
+     * q ค้นหาใน email และชื่อ, role เป็น optional
+     */
+    public Page<UserSummary> searchUsers(String q, String role, int page, int size) {
+        return userRepository.searchUsers(normalizeQuery(q), normalizeRole(role),
+                PageRequest.of(Math.max(page, 0), size));
+    }
+
+    /**
+     * รายชื่อ user แบบ keyset เรียงตาม id - หน้าถัดไปเริ่มหลัง afterId ของแถวสุดท้าย
+     */
+    public Slice<UserSummary> searchUsersAfter(String q, String role, Long afterId, int size) {
+        // ดึงเกินมา 1 แถวเพื่อรู้ว่ามีหน้าถัดไป
+        List<UserSummary> rows = userRepository.findUsersAfter(normalizeQuery(q), normalizeRole(role), afterId, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<UserSummary> content = hasNext ? rows.subList(0, size) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    private String normalizeQuery(String q) {
+        return q == null || q.isBlank() ? null : q.trim();
+    }
+
+    private String normalizeRole(String role) {
+        if (role == null || role.isBlank()) {
+            return null;
+        }
+        try {
+            return UserRole.valueOf(role.trim().toUpperCase()).name();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid role: " + role);
+        }
     }
 }
@@ -0,0 +1,56 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.AssignmentCandidate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Smooth weighted round-robin ต่อ pool โดยน้ำหนัก = นาทีว่างของหมอ
+ * หมอที่ว่างมากได้รับบ่อยกว่า แต่ทุกคนได้รับสลับกันไป ไม่กระจุกที่คนเดียว
+ */
+@Component
+public class WeightedRoundRobinAssignmentStrategy implements DoctorAssignmentStrategy {
+
+    public static final String NAME = "weighted-round-robin";
+
+    // poolKey -> doctorId -> current weight
+    private final Map<String, Map<Long, Long>> currentWeights = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public AssignmentCandidate choose(String poolKey, List<AssignmentCandidate> candidates) {
+        Map<Long, Long> weights = currentWeights.computeIfAbsent(poolKey.toLowerCase(), key -> new HashMap<>());
+
+        synchronized (weights) {
+            // ตัดหมอที่ไม่อยู่ในตัวเลือกแล้วออก
+            Map<Long, Long> retained = new HashMap<>();
+            long total = 0;
+            AssignmentCandidate selected = null;
+            long selectedWeight = Long.MIN_VALUE;
+
+            for (AssignmentCandidate candidate : candidates) {
+                long weight = candidate.getAvailableMinutes();
+                long currentWeight = weights.getOrDefault(candidate.getDoctorId(), 0L) + weight;
+                retained.put(candidate.getDoctorId(), currentWeight);
+                total += weight;
+                if (currentWeight > selectedWeight) {
+                    selectedWeight = currentWeight;
+                    selected = candidate;
+                }
+            }
+
+            retained.put(selected.getDoctorId(), selectedWeight - total);
+            weights.clear();
+            weights.putAll(retained);
+            return selected;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+-- V13__add_doctor_name_trigram_search.sql
+-- ค้นหาชื่อหมอด้วย pg_trgm แทน LIKE '%x%' ที่ต้อง scan ทั้งตาราง
+
+-- เปิดใช้งาน pg_trgm extension สำหรับ trigram index และ similarity()
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- ชื่อเต็มแบบ normalize (ตัวเล็ก, null เป็นค่าว่าง) เก็บเป็น generated column
+-- query ต้องใช้ expression เดียวกันนี้เพื่อให้ index ถูกใช้
+ALTER TABLE users
+    ADD COLUMN full_name_search TEXT
+        GENERATED ALWAYS AS (LOWER(COALESCE(first_name, '') || ' ' || COALESCE(last_name, ''))) STORED;
+
+-- GIN trigram index: รองรับ LIKE '%x%' และ similarity ranking
+-- Note: ชื่อภาษาไทยจะถูกแตก trigram ได้เมื่อ database ใช้ encoding UTF8 และ LC_CTYPE ที่รองรับ Unicode
+-- (เช่น en_US.utf8 ของ image postgres) ถ้าเป็น LC_CTYPE=C ตัวอักษรไทยจะไม่ถูกนับเป็นตัวอักษร
+CREATE INDEX idx_users_full_name_search_trgm ON users USING GIN (full_name_search gin_trgm_ops);
@@ -0,0 +1,4 @@
+-- V14__add_doctor_keyset_index.sql
+-- Keyset pagination ของการค้นหาหมอเรียงตาม (ชื่อจริง, id)
+-- first_name เป็น NULL ได้ (V7) จึง index เป็น COALESCE ให้ตรงกับ ORDER BY ใน query
+CREATE INDEX idx_users_first_name_key ON users ((COALESCE(first_name, '')), id);
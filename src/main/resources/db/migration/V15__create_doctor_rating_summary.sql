@@ -0,0 +1,64 @@
+-- V15__create_doctor_rating_summary.sql
+-- สรุปคะแนนรีวิวต่อหมอ 1 แถว อัปเดตแบบ delta ทุกครั้งที่เพิ่ม/แก้/ลบรีวิว
+-- (แทนการ AVG + COUNT ทุกรีวิวของทุกหมอทุกครั้งที่อ่าน)
+
+CREATE TABLE doctor_rating_summary (
+    doctor_id BIGINT PRIMARY KEY REFERENCES doctors(id) ON DELETE CASCADE,
+    review_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    one_star_count BIGINT NOT NULL DEFAULT 0,
+    two_star_count BIGINT NOT NULL DEFAULT 0,
+    three_star_count BIGINT NOT NULL DEFAULT 0,
+    four_star_count BIGINT NOT NULL DEFAULT 0,
+    five_star_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Backfill จากรีวิวที่มีอยู่
+INSERT INTO doctor_rating_summary (doctor_id, review_count, rating_sum,
+                                   one_star_count, two_star_count, three_star_count,
+                                   four_star_count, five_star_count)
+SELECT r.doctor_id,
+       COUNT(*),
+       SUM(r.rating),
+       COUNT(*) FILTER (WHERE r.rating = 1),
+       COUNT(*) FILTER (WHERE r.rating = 2),
+       COUNT(*) FILTER (WHERE r.rating = 3),
+       COUNT(*) FILTER (WHERE r.rating = 4),
+       COUNT(*) FILTER (WHERE r.rating = 5)
+FROM reviews r
+GROUP BY r.doctor_id;
+
+-- รีวิวของหมอเรียงใหม่สุดก่อน (หน้า /api/reviews/doctor/{id})
+CREATE INDEX idx_reviews_doctor_created_at ON reviews(doctor_id, created_at DESC);
+
+-- View เดิมอ่านจากตารางสรุปแทนการ aggregate รีวิวทั้งหมด
+CREATE OR REPLACE VIEW doctor_review_stats AS
+SELECT
+    d.id as doctor_id,
+    doc_user.first_name || ' ' || doc_user.last_name AS doctor_name,
+    s.name AS specialty_name,
+    d.room_number,
+    d.consultation_fee,
+    COALESCE(rs.review_count, 0) AS total_reviews,
+    CASE
+        WHEN COALESCE(rs.review_count, 0) > 0
+            THEN ROUND(rs.rating_sum::numeric / rs.review_count, 2)
+        ELSE 0
+        END AS average_rating,
+    COALESCE(rs.five_star_count, 0) AS five_star_count,
+    COALESCE(rs.four_star_count, 0) AS four_star_count,
+    COALESCE(rs.three_star_count, 0) AS three_star_count,
+    COALESCE(rs.two_star_count, 0) AS two_star_count,
+    COALESCE(rs.one_star_count, 0) AS one_star_count,
+    CASE
+        WHEN COALESCE(rs.review_count, 0) > 0
+            THEN ROUND(((rs.four_star_count + rs.five_star_count)::numeric / rs.review_count) * 100, 1)
+        ELSE 0
+        END AS positive_percentage
+FROM doctors d
+         JOIN users doc_user ON d.user_id = doc_user.id
+         JOIN specialties s ON d.specialty_id = s.id
+         LEFT JOIN doctor_rating_summary rs ON rs.doctor_id = d.id
+WHERE d.is_active = true
+ORDER BY average_rating DESC NULLS LAST, total_reviews DESC;
@@ -0,0 +1,94 @@
+-- V16__create_reporting_materialized_views.sql
+-- Materialized view สำหรับรายงานของ admin (อ่านจาก snapshot ไม่แตะตารางจอง)
+-- refresh ด้วย REFRESH MATERIALIZED VIEW CONCURRENTLY จาก ReportViewRefresher
+-- CONCURRENTLY ต้องมี unique index ที่ครอบคลุมทุกแถว
+-- view เดิม (appointment_details, review_details, doctor_review_stats) ยังอยู่เหมือนเดิม
+
+CREATE MATERIALIZED VIEW mv_appointment_details AS
+SELECT
+    a.id,
+    a.doctor_id,
+    a.patient_id,
+    d.specialty_id,
+    a.appointment_datetime,
+    a.duration_minutes,
+    a.status,
+    a.notes,
+    a.doctor_notes,
+    d.room_number,
+    doc_user.first_name || ' ' || doc_user.last_name AS doctor_name,
+    s.name AS specialty_name,
+    pat_user.first_name || ' ' || pat_user.last_name AS patient_name,
+    pat_user.email AS patient_email,
+    pat_user.phone AS patient_phone,
+    a.created_at
+FROM appointments a
+         JOIN doctors d ON a.doctor_id = d.id
+         JOIN users doc_user ON d.user_id = doc_user.id
+         JOIN specialties s ON d.specialty_id = s.id
+         JOIN users pat_user ON a.patient_id = pat_user.id;
+
+CREATE UNIQUE INDEX idx_mv_appointment_details_id ON mv_appointment_details (id);
+CREATE INDEX idx_mv_appointment_details_datetime ON mv_appointment_details (appointment_datetime);
+CREATE INDEX idx_mv_appointment_details_doctor ON mv_appointment_details (doctor_id, appointment_datetime);
+CREATE INDEX idx_mv_appointment_details_status ON mv_appointment_details (status);
+
+CREATE MATERIALIZED VIEW mv_review_details AS
+SELECT
+    r.id,
+    r.doctor_id,
+    r.rating,
+    r.comment,
+    r.is_anonymous,
+    r.created_at,
+    doc_user.first_name || ' ' || doc_user.last_name AS doctor_name,
+    s.name AS specialty_name,
+    d.room_number,
+    CASE
+        WHEN r.is_anonymous = false
+            THEN pat_user.first_name || ' ' || SUBSTRING(pat_user.last_name, 1, 1) || '.'
+        ELSE 'Anonymous'
+        END AS patient_name,
+    a.appointment_datetime
+FROM reviews r
+         JOIN doctors d ON r.doctor_id = d.id
+         JOIN users doc_user ON d.user_id = doc_user.id
+         JOIN specialties s ON d.specialty_id = s.id
+         JOIN users pat_user ON r.patient_id = pat_user.id
+         LEFT JOIN appointments a ON r.appointment_id = a.id;
+
+CREATE UNIQUE INDEX idx_mv_review_details_id ON mv_review_details (id);
+CREATE INDEX idx_mv_review_details_doctor ON mv_review_details (doctor_id, created_at DESC);
+CREATE INDEX idx_mv_review_details_created_at ON mv_review_details (created_at DESC);
+
+CREATE MATERIALIZED VIEW mv_doctor_review_stats AS
+SELECT
+    d.id as doctor_id,
+    doc_user.first_name || ' ' || doc_user.last_name AS doctor_name,
+    s.name AS specialty_name,
+    d.room_number,
+    d.consultation_fee,
+    COALESCE(rs.review_count, 0) AS total_reviews,
+    CASE
+        WHEN COALESCE(rs.review_count, 0) > 0
+            THEN ROUND(rs.rating_sum::numeric / rs.review_count, 2)
+        ELSE 0
+        END AS average_rating,
+    COALESCE(rs.five_star_count, 0) AS five_star_count,
+    COALESCE(rs.four_star_count, 0) AS four_star_count,
+    COALESCE(rs.three_star_count, 0) AS three_star_count,
+    COALESCE(rs.two_star_count, 0) AS two_star_count,
+    COALESCE(rs.one_star_count, 0) AS one_star_count,
+    CASE
+        WHEN COALESCE(rs.review_count, 0) > 0
+            THEN ROUND(((rs.four_star_count + rs.five_star_count)::numeric / rs.review_count) * 100, 1)
+        ELSE 0
+        END AS positive_percentage
+FROM doctors d
+         JOIN users doc_user ON d.user_id = doc_user.id
+         JOIN specialties s ON d.specialty_id = s.id
+         LEFT JOIN doctor_rating_summary rs ON rs.doctor_id = d.id
+WHERE d.is_active = true;
+
+CREATE UNIQUE INDEX idx_mv_doctor_review_stats_doctor ON mv_doctor_review_stats (doctor_id);
+CREATE INDEX idx_mv_doctor_review_stats_rating ON mv_doctor_review_stats (average_rating DESC, total_reviews DESC);
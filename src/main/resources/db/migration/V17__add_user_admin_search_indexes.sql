@@ -0,0 +1,9 @@
+-- V17__add_user_admin_search_indexes.sql
+-- รายชื่อ user ของ admin: ค้นหา email/ชื่อแบบ substring และกรองตาม role แบบแบ่งหน้า/keyset
+
+-- email แบบ LIKE '%x%' (ชื่อใช้ idx_users_full_name_search_trgm จาก V13 อยู่แล้ว)
+-- query ต้องใช้ LOWER(email) เหมือนกันเพื่อให้ index ถูกใช้
+CREATE INDEX idx_users_email_lower_trgm ON users USING GIN (LOWER(email) gin_trgm_ops);
+
+-- กรอง role แล้วเรียง/keyset ตาม id ไม่ต้อง sort
+CREATE INDEX idx_users_role_id ON users (role, id);
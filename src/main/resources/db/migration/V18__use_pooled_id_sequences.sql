@@ -0,0 +1,22 @@
+-- V18__use_pooled_id_sequences.sql
+-- เปลี่ยน id จาก IDENTITY เป็น sequence แบบ pooled (allocationSize = 50 ใน entity)
+-- Hibernate ขอ nextval ครั้งเดียวได้ id 50 ตัว จึง batch INSERT ได้ (IDENTITY ต้องรอ id ทีละแถว)
+--
+-- pooled: ค่าที่ได้จาก nextval = ปลายบนของช่วง (v-49 .. v) จึงใช้ร่วมกับ DEFAULT nextval ของ BIGSERIAL ได้
+-- INSERT ที่ไม่ผ่าน Hibernate (import, script seed) ยังได้ id ไม่ซ้ำ แค่ข้ามทีละ 50
+-- INCREMENT ต้องตรงกับ allocationSize ไม่งั้น Hibernate ไม่ยอม start
+
+DO $$
+DECLARE
+    table_name TEXT;
+    seq_name TEXT;
+BEGIN
+    FOREACH table_name IN ARRAY ARRAY['users', 'specialties', 'doctors', 'availabilities',
+                                      'appointments', 'reviews', 'patient_booking_info'] LOOP
+        seq_name := pg_get_serial_sequence(table_name, 'id');
+        EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50', seq_name);
+        -- ให้ช่วงแรกเริ่มหลัง id ที่มีอยู่แล้วเสมอ (เผื่อมีแถวที่ใส่ id เอง)
+        EXECUTE format('SELECT setval(%L, GREATEST((SELECT COALESCE(MAX(id), 0) FROM %I), (SELECT last_value FROM %s), 1))',
+                       seq_name, table_name, seq_name);
+    END LOOP;
+END $$;
@@ -0,0 +1,32 @@
+-- V19__add_unique_general_review_index.sql
+-- รีวิวที่ไม่ผูกกับนัด: คนไข้ 1 คนรีวิวหมอ 1 คนได้ครั้งเดียว
+-- UNIQUE(doctor_id, patient_id, appointment_id) ของ V6 ไม่กันกรณี appointment_id IS NULL (NULL ไม่เท่ากัน)
+-- การเช็คใน ReviewService อย่างเดียวกันไม่ได้เมื่อส่งพร้อมกัน 2 request
+
+-- ลบรีวิวซ้ำที่หลุดเข้ามาแล้ว (เก็บอันแรกสุด)
+DELETE FROM reviews r
+    USING reviews keep
+WHERE r.appointment_id IS NULL
+  AND keep.appointment_id IS NULL
+  AND r.doctor_id = keep.doctor_id
+  AND r.patient_id = keep.patient_id
+  AND r.id > keep.id;
+
+-- รีวิวซ้ำถูกนับเข้า summary ไปแล้ว: คำนวณใหม่จากรีวิวที่เหลือ
+DELETE FROM doctor_rating_summary;
+
+INSERT INTO doctor_rating_summary (doctor_id, review_count, rating_sum,
+                                   one_star_count, two_star_count, three_star_count,
+                                   four_star_count, five_star_count)
+SELECT r.doctor_id,
+       COUNT(*),
+       SUM(r.rating),
+       COUNT(*) FILTER (WHERE r.rating = 1),
+       COUNT(*) FILTER (WHERE r.rating = 2),
+       COUNT(*) FILTER (WHERE r.rating = 3),
+       COUNT(*) FILTER (WHERE r.rating = 4),
+       COUNT(*) FILTER (WHERE r.rating = 5)
+FROM reviews r
+GROUP BY r.doctor_id;
+
+CREATE UNIQUE INDEX idx_reviews_general_unique ON reviews (doctor_id, patient_id) WHERE appointment_id IS NULL;
@@ -0,0 +1,4 @@
+-- V20__add_users_email_lower_index.sql
+-- bulk import ตรวจ email ซ้ำแบบไม่สนตัวพิมพ์ (LOWER(email) IN ... / = LOWER(...))
+-- trigram index ของ V17 ใช้กับ LIKE '%x%' ได้แต่ไม่เหมาะกับเทียบเท่ากันทีละก้อน
+CREATE INDEX idx_users_email_lower ON users (LOWER(email));
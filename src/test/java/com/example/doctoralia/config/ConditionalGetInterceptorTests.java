@@ -0,0 +1,107 @@
+package com.example.doctoralia.config;
+
+import com.example.doctoralia.service.ResourceVersions;
+import com.example.doctoralia.service.ResourceVersions.Family;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConditionalGetInterceptorTests {
+
+    private static final String ETAG = "\"1-D7\"";
+
+    @Mock
+    private ResourceVersions resourceVersions;
+
+    @InjectMocks
+    private ConditionalGetInterceptor interceptor;
+
+    private HandlerMethod listing;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        listing = new HandlerMethod(new Handlers(), Handlers.class.getMethod("listing"));
+        when(resourceVersions.etag(any())).thenReturn(ETAG);
+    }
+
+    @Test
+    void anonymousResponseIsPublicAndVariesOnAuthorization() throws Exception {
+        MockHttpServletResponse response = handle(request(), true);
+
+        assertEquals(ETAG, response.getHeader(HttpHeaders.ETAG));
+        assertEquals("no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals(List.of(HttpHeaders.AUTHORIZATION), response.getHeaders(HttpHeaders.VARY));
+    }
+
+    @Test
+    void authenticatedResponseIsPrivate() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+
+        MockHttpServletResponse response = handle(request, true);
+
+        assertEquals("no-cache, private", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals(List.of(HttpHeaders.AUTHORIZATION), response.getHeaders(HttpHeaders.VARY));
+    }
+
+    @Test
+    void privateParamMakesResponsePrivate() throws Exception {
+        MockHttpServletRequest request = request();
+        request.setParameter("includeInactive", "true");
+
+        assertEquals("no-cache, private", handle(request, true).getHeader(HttpHeaders.CACHE_CONTROL));
+
+        request.setParameter("includeInactive", "false");
+        assertEquals("no-cache", handle(request, true).getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void notModifiedKeepsCachingHeaders() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/" + ETAG);
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+
+        MockHttpServletResponse response = handle(request, false);
+
+        assertEquals(304, response.getStatus());
+        assertEquals("no-cache, private", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals(List.of(HttpHeaders.AUTHORIZATION), response.getHeaders(HttpHeaders.VARY));
+    }
+
+    private MockHttpServletResponse handle(MockHttpServletRequest request, boolean proceeds) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean result = interceptor.preHandle(request, response, listing);
+        if (proceeds) {
+            assertTrue(result);
+        } else {
+            assertFalse(result);
+        }
+        return response;
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/doctors");
+    }
+
+    static class Handlers {
+        @ConditionalGet(value = Family.DOCTORS, privateParams = "includeInactive")
+        public void listing() {
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.doctoralia.config;
+
+import com.example.doctoralia.model.Doctor;
+import com.example.doctoralia.model.Specialty;
+import com.example.doctoralia.model.User;
+import com.example.doctoralia.model.UserRole;
+import com.example.doctoralia.repository.DoctorRepository;
+import com.example.doctoralia.repository.SpecialtyRepository;
+import com.example.doctoralia.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * จำนวน SQL ต่อ request ของ endpoint ค้นหาหมอ (นับผ่าน QueryCountFilter -> TransactionStats)
+ * ต้องไม่โตตามขนาดหน้า (ไม่มี N+1) และไม่เกิน app.query-count.warn-threshold
+ * ต้องมี database เหมือน DoctoraliaApplicationTests
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class QueryCountIntegrationTests {
+
+    private static final int DOCTORS = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionStats transactionStats;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SpecialtyRepository specialtyRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${app.query-count.warn-threshold:10}")
+    private int warnThreshold;
+
+    private final List<Doctor> doctors = new ArrayList<>();
+    private Specialty specialty;
+    private String namePrefix;
+
+    @BeforeEach
+    void seedDoctors() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        namePrefix = "Qc" + suffix;
+        specialty = specialtyRepository.save(new Specialty("Query count " + suffix, null));
+        for (int i = 0; i < DOCTORS; i++) {
+            User user = userRepository.save(new User("qc-" + suffix + "-" + i + "@example.com", "password",
+                    namePrefix + i, "Doctor", UserRole.DOCTOR));
+            Doctor doctor = new Doctor(user, specialty, "QC-" + suffix + "-" + i);
+            doctor.setConsultationFee(BigDecimal.valueOf(500 + i * 100L));
+            doctors.add(doctorRepository.save(doctor));
+        }
+    }
+
+    @AfterEach
+    void removeDoctors() {
+        doctorRepository.deleteAll(doctors);
+        userRepository.deleteAll(doctors.stream().map(Doctor::getUser).toList());
+        specialtyRepository.delete(specialty);
+        doctors.clear();
+        transactionStats.reset();
+    }
+
+    @Test
+    void pagedSearchDoesNotQueryPerDoctor() throws Exception {
+        assertConstantStatements("/api/doctors?name=" + namePrefix + "&size=");
+    }
+
+    @Test
+    void sliceSearchDoesNotQueryPerDoctor() throws Exception {
+        assertConstantStatements("/api/doctors?slice=true&name=" + namePrefix + "&size=");
+    }
+
+    @Test
+    void keysetSearchDoesNotQueryPerDoctor() throws Exception {
+        assertConstantStatements("/api/doctors?keyset=true&name=" + namePrefix + "&size=");
+    }
+
+    @Test
+    void includeInactiveListingDoesNotQueryPerDoctor() throws Exception {
+        assertConstantStatements("/api/doctors?includeInactive=true&specialty=" + specialty.getId() + "&size=");
+    }
+
+    @Test
+    void specialtiesWithCountStayWithinThreshold() throws Exception {
+        long statements = statementsFor("/api/specialties/with-count", "GET /api/specialties/with-count");
+        assertTrue(statements <= warnThreshold,
+                "GET /api/specialties/with-count executed " + statements + " SQL statements");
+    }
+
+    // หน้าละ 1 คนกับหน้าละทุกคนต้องใช้ SQL เท่ากัน — ถ้าไม่เท่าแปลว่ามี lazy load ทีละแถว
+    private void assertConstantStatements(String urlWithoutSize) throws Exception {
+        long single = statementsFor(urlWithoutSize + 1, "GET /api/doctors");
+        long fullPage = statementsFor(urlWithoutSize + DOCTORS, "GET /api/doctors");
+
+        assertTrue(single <= warnThreshold, urlWithoutSize + "1 executed " + single + " SQL statements");
+        assertTrue(fullPage <= single, urlWithoutSize + DOCTORS + " executed " + fullPage
+                + " SQL statements, page of 1 executed " + single);
+    }
+
+    private long statementsFor(String url, String endpoint) throws Exception {
+        // หมอ/user ที่เพิ่ง save อยู่ใน second-level cache — ถ้าไม่ล้าง lazy load ทีละแถวจะไม่ยิง SQL ให้นับ
+        entityManagerFactory.getCache().evictAll();
+        transactionStats.reset();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+
+        List<Map<String, Object>> rows = transactionStats.snapshot();
+        assertEquals(1, rows.size(), "Expected one endpoint row for " + url + ": " + rows);
+        assertEquals(endpoint, rows.get(0).get("endpoint"));
+        return (Long) rows.get(0).get("sqlStatementsAvg");
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.doctoralia.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * transaction readOnly ต้องถึง database เป็น READ ONLY จริง (ReplicaRoutingDataSource เรียก setReadOnly)
+ * ทั้งทาง JPA และ JdbcTemplate ไม่ว่าจะมี replica หรือไม่
+ * ต้องมี database เหมือน DoctoraliaApplicationTests
+ */
+@SpringBootTest
+class ReadOnlyTransactionIntegrationTests {
+
+    private static final String READ_ONLY_SETTING = "SELECT current_setting('transaction_read_only')";
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void readOnlyJpaTransactionIsReadOnlyInDatabase() {
+        assertEquals("on", readOnly().execute(status ->
+                entityManager.createNativeQuery(READ_ONLY_SETTING).getSingleResult()));
+    }
+
+    @Test
+    void readOnlyJdbcTransactionRejectsWrites() {
+        assertEquals("on", readOnly().execute(status -> jdbcTemplate.queryForObject(READ_ONLY_SETTING, String.class)));
+
+        DataAccessException error = assertThrows(DataAccessException.class, () -> readOnly().execute(status ->
+                jdbcTemplate.update("UPDATE specialties SET name = name WHERE id = -1")));
+        assertTrue(error.getMostSpecificCause().getMessage().contains("read-only transaction"),
+                error.getMostSpecificCause().getMessage());
+    }
+
+    @Test
+    void readWriteTransactionIsNotReadOnly() {
+        assertEquals("off", new TransactionTemplate(transactionManager).execute(status ->
+                jdbcTemplate.queryForObject(READ_ONLY_SETTING, String.class)));
+        // connection ที่คืน pool แล้วต้องไม่ค้างเป็น read-only
+        readOnly().execute(status -> jdbcTemplate.queryForObject(READ_ONLY_SETTING, String.class));
+        assertEquals("off", new TransactionTemplate(transactionManager).execute(status ->
+                jdbcTemplate.queryForObject(READ_ONLY_SETTING, String.class)));
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+}
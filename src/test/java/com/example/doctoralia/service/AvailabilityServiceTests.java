@@ -0,0 +1,271 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.AddAvailabilityRequest;
+import com.example.doctoralia.dto.AvailabilityCalendarDay;
+import com.example.doctoralia.dto.BookedInterval;
+import com.example.doctoralia.dto.WeeklyScheduleUpdateResult;
+import com.example.doctoralia.event.AvailabilityChangedEvent;
+import com.example.doctoralia.model.Availability;
+import com.example.doctoralia.model.Doctor;
+import com.example.doctoralia.repository.AppointmentRepository;
+import com.example.doctoralia.repository.AvailabilityRepository;
+import com.example.doctoralia.repository.DoctorRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityServiceTests {
+
+    private static final Long DOCTOR_ID = 7L;
+    // วันจันทร์ที่ยังไม่มาถึง (ไม่โดนตัด slot ที่ผ่านไปแล้ว)
+    private static final LocalDate MONDAY = LocalDate.of(2099, 3, 2);
+
+    @Mock
+    private AvailabilityRepository availabilityRepository;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private AvailabilityService availabilityService;
+
+    // --- validateWeeklySchedule (sort-and-sweep) ---
+
+    @Test
+    void weeklyScheduleAcceptsBackToBackSlotsAndSameTimesOnOtherDays() {
+        assertDoesNotThrow(() -> availabilityService.validateWeeklySchedule(List.of(
+                slot(1, "13:00", "17:00"),
+                slot(1, "09:00", "12:00"),
+                slot(1, "12:00", "13:00"),
+                slot(2, "09:00", "12:00"))));
+    }
+
+    @Test
+    void weeklyScheduleRejectsOverlapGivenOutOfOrder() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.validateWeeklySchedule(List.of(
+                        slot(3, "14:00", "16:00"),
+                        slot(1, "09:00", "10:00"),
+                        slot(3, "13:00", "14:30"))));
+        assertTrue(error.getMessage().contains("on day 3"), error.getMessage());
+    }
+
+    @Test
+    void weeklyScheduleRejectsSlotInsideAnother() {
+        assertThrows(IllegalArgumentException.class, () -> availabilityService.validateWeeklySchedule(List.of(
+                slot(5, "08:00", "18:00"),
+                slot(5, "10:00", "11:00"))));
+    }
+
+    @Test
+    void weeklyScheduleRejectsSlotsStartingTogether() {
+        assertThrows(IllegalArgumentException.class, () -> availabilityService.validateWeeklySchedule(List.of(
+                slot(4, "09:00", "10:00"),
+                slot(4, "09:00", "09:30"))));
+    }
+
+    // --- replaceWeeklySchedule (diff against current rows) ---
+
+    @Test
+    void replaceKeepsMatchingSlotsAndDeletesBeforeInserting() {
+        Availability mondayMorning = availability(1L, 1, "09:00", "12:00");
+        Availability tuesdayMorning = availability(2L, 2, "09:00", "12:00");
+        when(availabilityRepository.findByDoctorIdAndIsActiveTrueOrderByDayOfWeekAscStartTimeAsc(DOCTOR_ID))
+                .thenReturn(List.of(mondayMorning, tuesdayMorning));
+        when(doctorRepository.getReferenceById(DOCTOR_ID)).thenReturn(new Doctor());
+
+        WeeklyScheduleUpdateResult result = availabilityService.replaceWeeklySchedule(DOCTOR_ID, List.of(
+                slot(1, "09:00", "12:00"),
+                slot(3, "13:00", "17:00")));
+
+        assertEquals(1, result.getAdded());
+        assertEquals(1, result.getRemoved());
+        assertEquals(1, result.getUnchanged());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Availability>> saved = ArgumentCaptor.forClass(List.class);
+        InOrder order = inOrder(availabilityRepository);
+        order.verify(availabilityRepository).deleteAllByIdInBatch(List.of(2L));
+        order.verify(availabilityRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals(3, saved.getValue().get(0).getDayOfWeek());
+        assertEquals(LocalTime.of(13, 0), saved.getValue().get(0).getStartTime());
+        verify(eventPublisher).publishEvent(any(AvailabilityChangedEvent.class));
+    }
+
+    @Test
+    void replaceWithSameScheduleWritesNothing() {
+        when(availabilityRepository.findByDoctorIdAndIsActiveTrueOrderByDayOfWeekAscStartTimeAsc(DOCTOR_ID))
+                .thenReturn(List.of(availability(1L, 1, "09:00", "12:00")));
+
+        WeeklyScheduleUpdateResult result = availabilityService.replaceWeeklySchedule(DOCTOR_ID,
+                List.of(slot(1, "09:00", "12:00")));
+
+        assertEquals(0, result.getAdded());
+        assertEquals(0, result.getRemoved());
+        assertEquals(1, result.getUnchanged());
+        verify(availabilityRepository, never()).deleteAllByIdInBatch(any());
+        verify(availabilityRepository, never()).saveAll(anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void replaceRejectsOverlapBeforeTouchingDatabase() {
+        List<AddAvailabilityRequest> slots = List.of(
+                slot(2, "09:00", "12:00"),
+                slot(2, "11:00", "13:00"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.replaceWeeklySchedule(DOCTOR_ID, slots));
+        verify(availabilityRepository, never()).findByDoctorIdAndIsActiveTrueOrderByDayOfWeekAscStartTimeAsc(any());
+    }
+
+    // --- getDoctorCalendar (linear merge of weekly windows and bookings) ---
+
+    @Test
+    void calendarSubtractsBookingFromWindow() {
+        givenWindows(availability(1L, 1, "09:00", "12:00"));
+        givenBookings(booking(MONDAY, "10:00", 30));
+
+        AvailabilityCalendarDay day = availabilityService.getDoctorCalendar(DOCTOR_ID, MONDAY, MONDAY, 30).get(0);
+
+        assertEquals(180, day.getScheduledMinutes());
+        assertEquals(30, day.getBookedMinutes());
+        assertEquals(150, day.getFreeMinutes());
+        assertEquals(List.of("09:00", "09:30", "10:30", "11:00", "11:30"), day.getFreeSlots());
+    }
+
+    @Test
+    void calendarCountsOverlappingBookingsOnce() {
+        givenWindows(availability(1L, 1, "09:00", "12:00"));
+        givenBookings(booking(MONDAY, "09:00", 60), booking(MONDAY, "09:30", 60), booking(MONDAY, "09:40", 10));
+
+        AvailabilityCalendarDay day = availabilityService.getDoctorCalendar(DOCTOR_ID, MONDAY, MONDAY, 30).get(0);
+
+        assertEquals(90, day.getBookedMinutes());
+        assertEquals(List.of("10:30", "11:00", "11:30"), day.getFreeSlots());
+    }
+
+    @Test
+    void calendarSplitsBookingAcrossWindows() {
+        givenWindows(availability(1L, 1, "09:00", "10:00"), availability(2L, 1, "10:30", "12:00"));
+        givenBookings(booking(MONDAY, "09:45", 60));
+
+        AvailabilityCalendarDay day = availabilityService.getDoctorCalendar(DOCTOR_ID, MONDAY, MONDAY, 15).get(0);
+
+        assertEquals(150, day.getScheduledMinutes());
+        assertEquals(30, day.getBookedMinutes());
+        assertEquals(List.of("09:00", "09:15", "09:30", "10:45", "11:00", "11:15", "11:30", "11:45"),
+                day.getFreeSlots());
+    }
+
+    @Test
+    void calendarAssignsBookingsToTheirOwnDay() {
+        LocalDate wednesday = MONDAY.plusDays(2);
+        givenWindows(availability(1L, 1, "09:00", "10:00"), availability(2L, 3, "09:00", "10:00"));
+        givenBookings(booking(wednesday, "09:00", 30));
+
+        List<AvailabilityCalendarDay> calendar = availabilityService.getDoctorCalendar(DOCTOR_ID, MONDAY, wednesday, 30);
+
+        assertEquals(3, calendar.size());
+        assertEquals(0, calendar.get(0).getBookedMinutes());
+        assertEquals(List.of("09:00", "09:30"), calendar.get(0).getFreeSlots());
+        assertFalse(calendar.get(1).isHasAvailability());
+        assertEquals(List.of(), calendar.get(1).getFreeSlots());
+        assertEquals(30, calendar.get(2).getBookedMinutes());
+        assertEquals(List.of("09:30"), calendar.get(2).getFreeSlots());
+    }
+
+    @Test
+    void calendarOffersNoSlotsOnPastDays() {
+        LocalDate pastMonday = LocalDate.of(2000, 1, 3);
+        givenWindows(availability(1L, 1, "09:00", "10:00"));
+        givenBookings();
+
+        AvailabilityCalendarDay day = availabilityService.getDoctorCalendar(DOCTOR_ID, pastMonday, pastMonday, 30).get(0);
+
+        assertEquals(60, day.getFreeMinutes());
+        assertEquals(List.of(), day.getFreeSlots());
+    }
+
+    @Test
+    void calendarRejectsInvalidRanges() {
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.getDoctorCalendar(DOCTOR_ID, MONDAY, MONDAY.minusDays(1), 30));
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.getDoctorCalendar(DOCTOR_ID, MONDAY, MONDAY.plusDays(62), 30));
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.getDoctorCalendar(DOCTOR_ID, MONDAY, MONDAY, 4));
+        verify(appointmentRepository, never()).findBookedIntervals(any(), any(), any());
+    }
+
+    private void givenWindows(Availability... windows) {
+        when(doctorRepository.existsById(DOCTOR_ID)).thenReturn(true);
+        when(availabilityRepository.findByDoctorIdAndIsActiveTrueOrderByDayOfWeekAscStartTimeAsc(DOCTOR_ID))
+                .thenReturn(List.of(windows));
+    }
+
+    private void givenBookings(BookedInterval... bookings) {
+        when(appointmentRepository.findBookedIntervals(eq(DOCTOR_ID), any(), any())).thenReturn(List.of(bookings));
+    }
+
+    private static BookedInterval booking(LocalDate date, String time, int durationMinutes) {
+        return new Booking(date.atTime(LocalTime.parse(time)), durationMinutes);
+    }
+
+    private static AddAvailabilityRequest slot(int dayOfWeek, String start, String end) {
+        AddAvailabilityRequest slot = new AddAvailabilityRequest();
+        slot.setDayOfWeek(dayOfWeek);
+        slot.setStartTime(LocalTime.parse(start));
+        slot.setEndTime(LocalTime.parse(end));
+        return slot;
+    }
+
+    private static Availability availability(Long id, int dayOfWeek, String start, String end) {
+        Availability availability = new Availability(null, dayOfWeek, LocalTime.parse(start), LocalTime.parse(end));
+        availability.setId(id);
+        return availability;
+    }
+
+    private record Booking(LocalDateTime appointmentDatetime, Integer durationMinutes) implements BookedInterval {
+        @Override
+        public LocalDateTime getAppointmentDatetime() {
+            return appointmentDatetime;
+        }
+
+        @Override
+        public Integer getDurationMinutes() {
+            return durationMinutes;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.doctoralia.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvReaderTests {
+
+    @Test
+    void readsHeaderAndValuesByColumnName() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("Email, firstName ,bio\na@example.com,  Somchai ,\n"));
+
+        Map<String, Integer> header = csv.readHeader();
+        List<String> record = csv.readRecord();
+
+        assertEquals(Map.of("email", 0, "firstname", 1, "bio", 2), header);
+        assertTrue(csv.hasColumn("FIRSTNAME"));
+        assertEquals("a@example.com", csv.get(record, "email"));
+        assertEquals("Somchai", csv.get(record, "firstName"));
+        // ค่าว่างและคอลัมน์ที่ไม่มีได้ null
+        assertNull(csv.get(record, "bio"));
+        assertNull(csv.get(record, "phone"));
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(
+                "name,bio\n" +
+                "\"Jaidee, Somchai\",\"Says \"\"hello\"\"\nand\r\ngoodbye\"\n" +
+                "Dao,\"\"\n"));
+        csv.readHeader();
+
+        assertEquals(List.of("Jaidee, Somchai", "Says \"hello\"\nand\r\ngoodbye"), csv.readRecord());
+        assertEquals(2, csv.getRecordLineNumber());
+        // record ถัดไปเริ่มหลังบรรทัดที่อยู่ในค่าที่ครอบด้วย "
+        assertEquals(List.of("Dao", ""), csv.readRecord());
+        assertEquals(5, csv.getRecordLineNumber());
+    }
+
+    @Test
+    void quoteInsideUnquotedFieldIsLiteral() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("5\"10,x\n"));
+
+        assertEquals(List.of("5\"10", "x"), csv.readRecord());
+    }
+
+    @Test
+    void handlesCrlfBlankLinesAndMissingFinalNewline() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b\r\n\r\n1,2\r\n\n3,\r\n4,5"));
+
+        assertEquals(List.of("a", "b"), csv.readRecord());
+        assertEquals(List.of("1", "2"), csv.readRecord());
+        assertEquals(3, csv.getRecordLineNumber());
+        assertEquals(List.of("3", ""), csv.readRecord());
+        assertEquals(5, csv.getRecordLineNumber());
+        assertEquals(List.of("4", "5"), csv.readRecord());
+        assertEquals(6, csv.getRecordLineNumber());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    void stripsByteOrderMark() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("\uFEFFemail,name\nx@example.com,X\n"));
+
+        assertEquals(Map.of("email", 0, "name", 1), csv.readHeader());
+        assertEquals("x@example.com", csv.get(csv.readRecord(), "email"));
+    }
+
+    @Test
+    void stripsByteOrderMarkBeforeQuotedHeader() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("\uFEFF\"email\",\"name\"\nx@example.com,X\n"));
+
+        assertEquals(Map.of("email", 0, "name", 1), csv.readHeader());
+        assertEquals("X", csv.get(csv.readRecord(), "name"));
+    }
+
+    @Test
+    void parsesAcrossReadBoundaries() throws IOException {
+        String content = "\uFEFF\"email\",bio\r\n" +
+                "a@example.com,\"line one\r\nline \"\"two\"\"\"\r\n" +
+                "b@example.com,plain\r\n";
+        CsvReader csv = new CsvReader(new OneCharReader(content));
+
+        assertEquals(Map.of("email", 0, "bio", 1), csv.readHeader());
+        assertEquals(List.of("a@example.com", "line one\r\nline \"two\""), csv.readRecord());
+        assertEquals(List.of("b@example.com", "plain"), csv.readRecord());
+        assertEquals(4, csv.getRecordLineNumber());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    void unterminatedQuoteIsRejectedWithItsLine() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b\n1,\"open\n2,3\n"));
+        csv.readHeader();
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, csv::readRecord);
+        assertEquals("Unterminated quoted field starting on line 2", error.getMessage());
+    }
+
+    @Test
+    void emptyFileHasNoHeader() {
+        CsvReader csv = new CsvReader(new StringReader("\n\r\n"));
+
+        assertThrows(IllegalArgumentException.class, csv::readHeader);
+    }
+
+    // คืนทีละตัวอักษร ให้ทุกตำแหน่งเป็นรอยต่อของ buffer
+    private static final class OneCharReader extends Reader {
+        private final String content;
+        private int position;
+
+        OneCharReader(String content) {
+            this.content = content;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position >= content.length()) {
+                return -1;
+            }
+            buffer[offset] = content.charAt(position++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
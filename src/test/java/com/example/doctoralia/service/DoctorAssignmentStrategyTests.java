@@ -0,0 +1,138 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.AssignmentCandidate;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DoctorAssignmentStrategyTests {
+
+    // --- least-loaded ---
+
+    @Test
+    void leastLoadedPicksMostAvailableMinutes() {
+        LeastLoadedAssignmentStrategy strategy = new LeastLoadedAssignmentStrategy();
+
+        AssignmentCandidate selected = strategy.choose("cardiology", List.of(
+                candidate(1L, 500, 480, 300),
+                candidate(2L, 500, 480, 60),
+                candidate(3L, 500, 240, 0)));
+
+        assertEquals(2L, selected.getDoctorId());
+    }
+
+    @Test
+    void leastLoadedSpreadsTiesAcrossAllTiedDoctors() {
+        LeastLoadedAssignmentStrategy strategy = new LeastLoadedAssignmentStrategy();
+        List<AssignmentCandidate> candidates = List.of(
+                candidate(1L, 500, 240, 0),
+                candidate(2L, 500, 120, 0),
+                candidate(3L, 500, 300, 60),
+                candidate(4L, 500, 240, 0));
+
+        Set<Long> chosen = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            chosen.add(strategy.choose("cardiology", candidates).getDoctorId());
+        }
+
+        assertEquals(Set.of(1L, 3L, 4L), chosen);
+    }
+
+    // --- weighted round robin ---
+
+    @Test
+    void weightedRoundRobinFollowsAvailableMinutesSmoothly() {
+        WeightedRoundRobinAssignmentStrategy strategy = new WeightedRoundRobinAssignmentStrategy();
+        List<AssignmentCandidate> candidates = List.of(
+                candidate(1L, 500, 300, 0),
+                candidate(2L, 500, 100, 0),
+                candidate(3L, 500, 100, 0));
+
+        List<Long> order = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            order.add(strategy.choose("cardiology", candidates).getDoctorId());
+        }
+
+        // น้ำหนัก 3:1:1 ต่อรอบ 5 ครั้ง และไม่เลือกคนเดิมติดกันตั้งแต่ต้น
+        assertEquals(List.of(1L, 2L, 1L, 3L, 1L), order);
+    }
+
+    @Test
+    void weightedRoundRobinKeepsStatePerPool() {
+        WeightedRoundRobinAssignmentStrategy strategy = new WeightedRoundRobinAssignmentStrategy();
+        List<AssignmentCandidate> candidates = List.of(
+                candidate(1L, 500, 100, 0),
+                candidate(2L, 500, 100, 0));
+
+        assertEquals(1L, strategy.choose("Cardiology", candidates).getDoctorId());
+        assertEquals(1L, strategy.choose("Dermatology", candidates).getDoctorId());
+        // ชื่อ pool ไม่สนตัวพิมพ์
+        assertEquals(2L, strategy.choose("cardiology", candidates).getDoctorId());
+    }
+
+    @Test
+    void weightedRoundRobinSharesEvenlyOverManyRounds() {
+        WeightedRoundRobinAssignmentStrategy strategy = new WeightedRoundRobinAssignmentStrategy();
+        List<AssignmentCandidate> candidates = List.of(
+                candidate(1L, 500, 240, 0),
+                candidate(2L, 500, 120, 0));
+
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 300; i++) {
+            counts.merge(strategy.choose("cardiology", candidates).getDoctorId(), 1, Integer::sum);
+        }
+
+        assertEquals(200, counts.get(1L));
+        assertEquals(100, counts.get(2L));
+    }
+
+    // --- fee-aware ---
+
+    @Test
+    void feeAwarePicksCheapestAmongReasonablyFreeDoctors() {
+        FeeAwareAssignmentStrategy strategy = new FeeAwareAssignmentStrategy();
+
+        AssignmentCandidate selected = strategy.choose("cardiology", List.of(
+                candidate(1L, 800, 480, 0),
+                candidate(2L, 600, 480, 200),
+                // ถูกที่สุดแต่ว่างไม่ถึงครึ่งของคนที่ว่างที่สุด
+                candidate(3L, 300, 480, 300)));
+
+        assertEquals(2L, selected.getDoctorId());
+    }
+
+    @Test
+    void feeAwareBreaksFeeTiesByAvailableMinutes() {
+        FeeAwareAssignmentStrategy strategy = new FeeAwareAssignmentStrategy();
+
+        AssignmentCandidate selected = strategy.choose("cardiology", List.of(
+                candidate(1L, 500, 480, 120),
+                candidate(2L, 500, 480, 0),
+                candidate(3L, 700, 480, 0)));
+
+        assertEquals(2L, selected.getDoctorId());
+    }
+
+    @Test
+    void feeAwareTreatsMissingFeeAsMostExpensive() {
+        FeeAwareAssignmentStrategy strategy = new FeeAwareAssignmentStrategy();
+
+        AssignmentCandidate selected = strategy.choose("cardiology", List.of(
+                new AssignmentCandidate(1L, null, 480, 0),
+                candidate(2L, 2000, 480, 0)));
+
+        assertEquals(2L, selected.getDoctorId());
+    }
+
+    private static AssignmentCandidate candidate(Long doctorId, int fee, int scheduledMinutes, int bookedMinutes) {
+        return new AssignmentCandidate(doctorId, BigDecimal.valueOf(fee), scheduledMinutes, bookedMinutes);
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.DoctorResponse;
+import com.example.doctoralia.dto.DoctorSearchFacets;
+import com.example.doctoralia.event.ReviewChangedEvent;
+import com.example.doctoralia.model.Doctor;
+import com.example.doctoralia.model.DoctorRatingSummary;
+import com.example.doctoralia.model.Specialty;
+import com.example.doctoralia.model.User;
+import com.example.doctoralia.model.UserRole;
+import com.example.doctoralia.repository.DoctorRatingSummaryRepository;
+import com.example.doctoralia.repository.DoctorRepository;
+import com.example.doctoralia.repository.SpecialtyRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorDirectoryTests {
+
+    private static final List<BigDecimal> EDGES = fees("0", "500", "1000", "1500", "2000", "3000");
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private SpecialtyRepository specialtyRepository;
+
+    @Mock
+    private DoctorRatingSummaryRepository ratingSummaryRepository;
+
+    @InjectMocks
+    private DoctorDirectory doctorDirectory;
+
+    private final Specialty cardiology = specialty(1L, "Cardiology");
+    private final Specialty dermatology = specialty(2L, "Dermatology");
+    private final Specialty neurology = specialty(3L, "Neurology");
+
+    @Test
+    void facetsWithoutFiltersCountEverySpecialtyAndBucket() {
+        givenSampleDoctors();
+
+        DoctorSearchFacets facets = doctorDirectory.getFacets(null, null, null, EDGES);
+
+        assertEquals(List.of("Cardiology:4", "Dermatology:3", "Neurology:0"), specialtyCounts(facets));
+        // หมอที่ไม่มีค่าตรวจไม่อยู่ในช่วงไหนเลย; ขอบล่างรวม ขอบบนไม่รวม
+        assertEquals(List.of(1L, 1L, 3L, 0L, 0L, 1L), bucketCounts(facets));
+        assertEquals(null, facets.getFeeBuckets().get(5).getMaxFee());
+    }
+
+    @Test
+    void specialtyCountsApplyFeeRangeInclusively() {
+        givenSampleDoctors();
+
+        DoctorSearchFacets facets = doctorDirectory.getFacets(null, new BigDecimal("1000"), new BigDecimal("3000.00"), EDGES);
+
+        assertEquals(List.of("Cardiology:2", "Dermatology:2", "Neurology:0"), specialtyCounts(facets));
+        // fee bucket ไม่ใช้เงื่อนไขค่าตรวจของตัวเอง
+        assertEquals(List.of(1L, 1L, 3L, 0L, 0L, 1L), bucketCounts(facets));
+    }
+
+    @Test
+    void feeBucketsApplySpecialtyFilterOnly() {
+        givenSampleDoctors();
+
+        DoctorSearchFacets facets = doctorDirectory.getFacets(2L, null, null, EDGES);
+
+        assertEquals(List.of("Cardiology:4", "Dermatology:3", "Neurology:0"), specialtyCounts(facets));
+        assertEquals(List.of(0L, 0L, 1L, 0L, 0L, 1L), bucketCounts(facets));
+        assertEquals(List.of(0L, 0L, 0L, 0L, 0L, 0L), bucketCounts(doctorDirectory.getFacets(3L, null, null, EDGES)));
+    }
+
+    @Test
+    void findDoctorsByFeeRangeReturnsNameOrder() {
+        givenSampleDoctors();
+
+        assertEquals(List.of(2L, 3L), ids(doctorDirectory.findDoctors(null, new BigDecimal("1000"), new BigDecimal("1000"), 0, 20).getContent()));
+        assertEquals(List.of(1L, 2L, 3L), ids(doctorDirectory.findDoctors(1L, new BigDecimal("500"), null, 0, 20).getContent()));
+        assertEquals(List.of(1L, 7L), ids(doctorDirectory.findDoctors(1L, null, new BigDecimal("999.99"), 0, 20).getContent()));
+        assertEquals(0, doctorDirectory.findDoctors(null, new BigDecimal("2000"), new BigDecimal("1000"), 0, 20).getTotalElements());
+    }
+
+    @Test
+    void binarySearchCountsMatchLinearScan() {
+        Random random = new Random(42);
+        List<Doctor> doctors = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            Specialty specialty = random.nextBoolean() ? cardiology : dermatology;
+            // ค่าตรวจซ้ำกันเยอะ + scale ต่างกัน + null บางคน
+            BigDecimal fee = random.nextInt(10) == 0 ? null
+                    : BigDecimal.valueOf(random.nextInt(16) * 250L).setScale(random.nextInt(3));
+            doctors.add(doctor(id, "Doctor" + random.nextInt(50), specialty, fee));
+        }
+        givenDoctors(doctors);
+
+        for (int round = 0; round < 100; round++) {
+            BigDecimal minFee = random.nextBoolean() ? null : BigDecimal.valueOf(random.nextInt(17) * 250L - 125 * random.nextInt(2));
+            BigDecimal maxFee = random.nextBoolean() ? null : BigDecimal.valueOf(random.nextInt(17) * 250L);
+            Long specialtyId = random.nextBoolean() ? null : (long) (1 + random.nextInt(3));
+
+            DoctorSearchFacets facets = doctorDirectory.getFacets(specialtyId, minFee, maxFee, EDGES);
+            for (DoctorSearchFacets.SpecialtyCount count : facets.getSpecialties()) {
+                assertEquals(countLinear(doctors, count.getSpecialtyId(), minFee, maxFee, minFee != null || maxFee != null),
+                        count.getCount(), "specialty " + count.getSpecialtyId() + " fee " + minFee + ".." + maxFee);
+            }
+            for (DoctorSearchFacets.FeeBucketCount bucket : facets.getFeeBuckets()) {
+                BigDecimal below = bucket.getMaxFee() == null ? null : bucket.getMaxFee().subtract(new BigDecimal("0.001"));
+                assertEquals(countLinear(doctors, specialtyId, bucket.getMinFee(), below, true),
+                        bucket.getCount(), "bucket " + bucket.getMinFee() + " specialty " + specialtyId);
+            }
+            assertEquals(countLinear(doctors, specialtyId, minFee, maxFee, minFee != null || maxFee != null),
+                    doctorDirectory.findDoctors(specialtyId, minFee, maxFee, 0, 20).getTotalElements());
+        }
+    }
+
+    @Test
+    void nameOrderFollowsRepositoryOrder() {
+        // collation ของ database: "anan" มาก่อน "Boon" (String.compareTo จะเอา "Boon" ขึ้นก่อน)
+        givenDoctors(List.of(
+                doctor(3L, "anan", cardiology, new BigDecimal("800")),
+                doctor(1L, "Boon", cardiology, new BigDecimal("500")),
+                doctor(2L, "ชัย", dermatology, new BigDecimal("500"))));
+
+        assertEquals(List.of(3L, 1L, 2L), ids(doctorDirectory.getDoctors("firstName", 0, 20).getContent()));
+        assertEquals(List.of(3L, 1L), ids(doctorDirectory.findDoctors(1L, null, null, 0, 20).getContent()));
+        // ช่วงค่าตรวจเรียงตามค่าตรวจก่อน แล้วกลับมาเรียงตามชื่อ
+        assertEquals(List.of(3L, 1L, 2L), ids(doctorDirectory.findDoctors(null, new BigDecimal("500"), null, 0, 20).getContent()));
+        assertEquals(List.of(1L, 2L, 3L), ids(doctorDirectory.getDoctors("id", 0, 20).getContent()));
+    }
+
+    @Test
+    void reviewChangeUpdatesOnlyThatDoctorsRating() {
+        givenSampleDoctors();
+        DoctorRatingSummary summary = new DoctorRatingSummary();
+        ReflectionTestUtils.setField(summary, "doctorId", 2L);
+        ReflectionTestUtils.setField(summary, "reviewCount", 2L);
+        ReflectionTestUtils.setField(summary, "ratingSum", 9L);
+        ReflectionTestUtils.setField(summary, "fourStarCount", 1L);
+        ReflectionTestUtils.setField(summary, "fiveStarCount", 1L);
+        when(ratingSummaryRepository.findById(2L)).thenReturn(Optional.of(summary));
+
+        doctorDirectory.onReviewChanged(new ReviewChangedEvent(2L));
+
+        // ไม่ rebuild ทั้งชุด
+        verify(doctorRepository, times(1)).findAllActiveWithUserAndSpecialty();
+        verify(ratingSummaryRepository, times(1)).findAll();
+
+        List<DoctorResponse> byName = doctorDirectory.getDoctors("firstName", 0, 20).getContent();
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), ids(byName));
+        assertEquals(2L, byName.get(1).rating().reviewCount());
+        assertEquals(1L, byName.get(1).rating().ratingDistribution().fiveStar());
+        assertEquals(0L, byName.get(0).rating().reviewCount());
+
+        assertEquals(2L, doctorDirectory.findDoctors(1L, new BigDecimal("1000"), null, 0, 20)
+                .getContent().get(0).rating().reviewCount());
+        assertEquals(2L, doctorDirectory.getDoctorsBySpecialtyName("cardiology").get(1).rating().reviewCount());
+        assertEquals(2L, doctorDirectory.getActiveDoctors().get(1).rating().reviewCount());
+        assertEquals(List.of("Cardiology:4", "Dermatology:3", "Neurology:0"),
+                specialtyCounts(doctorDirectory.getFacets(null, null, null, EDGES)));
+    }
+
+    @Test
+    void reviewChangeForDoctorNotListedIsIgnored() {
+        givenSampleDoctors();
+
+        doctorDirectory.onReviewChanged(new ReviewChangedEvent(99L));
+
+        verify(ratingSummaryRepository, never()).findById(99L);
+        assertEquals(7, doctorDirectory.getActiveDoctors().size());
+    }
+
+    private void givenSampleDoctors() {
+        givenDoctors(List.of(
+                doctor(1L, "Anan", cardiology, new BigDecimal("500")),
+                doctor(2L, "Boon", cardiology, new BigDecimal("1000")),
+                doctor(3L, "Chai", cardiology, new BigDecimal("1000.00")),
+                doctor(4L, "Dao", dermatology, new BigDecimal("1499.99")),
+                doctor(5L, "Ekk", dermatology, new BigDecimal("3000")),
+                doctor(6L, "Fah", dermatology, null),
+                doctor(7L, "Gun", cardiology, new BigDecimal("200"))));
+    }
+
+    private void givenDoctors(List<Doctor> doctors) {
+        when(doctorRepository.findAllActiveWithUserAndSpecialty()).thenReturn(doctors);
+        when(specialtyRepository.findAll()).thenReturn(List.of(neurology, dermatology, cardiology));
+        when(ratingSummaryRepository.findAll()).thenReturn(List.of());
+        doctorDirectory.rebuild();
+    }
+
+    private static long countLinear(List<Doctor> doctors, Long specialtyId, BigDecimal minFee, BigDecimal maxFee,
+                                    boolean feeRequired) {
+        return doctors.stream()
+                .filter(doctor -> specialtyId == null || specialtyId.equals(doctor.getSpecialty().getId()))
+                .filter(doctor -> !feeRequired || doctor.getConsultationFee() != null)
+                .filter(doctor -> minFee == null || doctor.getConsultationFee().compareTo(minFee) >= 0)
+                .filter(doctor -> maxFee == null || doctor.getConsultationFee().compareTo(maxFee) <= 0)
+                .count();
+    }
+
+    private static List<String> specialtyCounts(DoctorSearchFacets facets) {
+        return facets.getSpecialties().stream()
+                .map(count -> count.getSpecialtyName() + ":" + count.getCount())
+                .toList();
+    }
+
+    private static List<Long> bucketCounts(DoctorSearchFacets facets) {
+        return facets.getFeeBuckets().stream().map(DoctorSearchFacets.FeeBucketCount::getCount).toList();
+    }
+
+    private static List<Long> ids(List<DoctorResponse> doctors) {
+        return doctors.stream().map(DoctorResponse::id).toList();
+    }
+
+    private static List<BigDecimal> fees(String... values) {
+        return Arrays.stream(values).map(BigDecimal::new).toList();
+    }
+
+    private static Specialty specialty(Long id, String name) {
+        Specialty specialty = new Specialty(name, name + " clinic");
+        specialty.setId(id);
+        return specialty;
+    }
+
+    private static Doctor doctor(Long id, String firstName, Specialty specialty, BigDecimal fee) {
+        User user = new User("doctor" + id + "@example.com", "x", firstName, "Jaidee", UserRole.DOCTOR);
+        user.setId(id + 100);
+        Doctor doctor = new Doctor(user, specialty, "MD" + id);
+        doctor.setId(id);
+        doctor.setConsultationFee(fee);
+        doctor.setIsActive(true);
+        return doctor;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.DoctorFacetRow;
+import com.example.doctoralia.dto.DoctorSearchFacets;
+import com.example.doctoralia.model.Specialty;
+import com.example.doctoralia.repository.DoctorRepository;
+import com.example.doctoralia.repository.SpecialtyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorFacetServiceTests {
+
+    @Mock
+    private DoctorDirectory doctorDirectory;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private SpecialtyRepository specialtyRepository;
+
+    @InjectMocks
+    private DoctorFacetService doctorFacetService;
+
+    @BeforeEach
+    void setUp() {
+        // ตั้งไม่เรียงไว้ service ต้องเรียงเอง
+        ReflectionTestUtils.setField(doctorFacetService, "feeBuckets",
+                new BigDecimal[]{new BigDecimal("1000"), BigDecimal.ZERO, new BigDecimal("500")});
+    }
+
+    @Test
+    void publicSearchWithoutNameUsesSnapshot() {
+        DoctorSearchFacets facets = new DoctorSearchFacets(List.of(), List.of());
+        when(doctorDirectory.isReady()).thenReturn(true);
+        when(doctorDirectory.getFacets(2L, null, null, edges("0", "500", "1000"))).thenReturn(facets);
+
+        assertSame(facets, doctorFacetService.getFacets(null, 2L, null, null, false));
+        verify(doctorRepository, never()).countSearchFacets(any(), any(), any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void nameSearchMapsGroupedRows() {
+        Specialty cardiology = new Specialty("Cardiology", null);
+        cardiology.setId(1L);
+        Specialty dermatology = new Specialty("Dermatology", null);
+        dermatology.setId(2L);
+        when(specialtyRepository.findAll()).thenReturn(List.of(dermatology, cardiology));
+        when(doctorRepository.countSearchFacets(eq("som"), eq(null), eq(null), eq(null), eq(false), eq("{0,500,1000}")))
+                .thenReturn(List.of(row("specialty", 1L, 4L),
+                        // width_bucket 0 = ต่ำกว่าขอบแรก ไม่นับ
+                        row("fee", 0L, 9L),
+                        row("fee", 1L, 1L),
+                        row("fee", 3L, 3L)));
+
+        DoctorSearchFacets facets = doctorFacetService.getFacets("som", null, null, null, false);
+
+        assertEquals(List.of("Cardiology:4", "Dermatology:0"), facets.getSpecialties().stream()
+                .map(count -> count.getSpecialtyName() + ":" + count.getCount()).toList());
+        assertEquals(List.of(1L, 0L, 3L), facets.getFeeBuckets().stream()
+                .map(DoctorSearchFacets.FeeBucketCount::getCount).toList());
+        assertEquals(new BigDecimal("500"), facets.getFeeBuckets().get(0).getMaxFee());
+        assertEquals(null, facets.getFeeBuckets().get(2).getMaxFee());
+    }
+
+    private static List<BigDecimal> edges(String... values) {
+        return Arrays.stream(values).map(BigDecimal::new).toList();
+    }
+
+    private static DoctorFacetRow row(String facet, Long bucket, Long count) {
+        return new DoctorFacetRow() {
+            @Override
+            public String getFacet() {
+                return facet;
+            }
+
+            @Override
+            public Long getBucket() {
+                return bucket;
+            }
+
+            @Override
+            public Long getDoctorCount() {
+                return count;
+            }
+        };
+    }
+}
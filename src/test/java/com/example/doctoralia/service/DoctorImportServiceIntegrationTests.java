@@ -0,0 +1,182 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.DoctorImportResult;
+import com.example.doctoralia.dto.DoctorImportResult.RowError;
+import com.example.doctoralia.model.Specialty;
+import com.example.doctoralia.model.User;
+import com.example.doctoralia.model.UserRole;
+import com.example.doctoralia.repository.SpecialtyRepository;
+import com.example.doctoralia.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Import ผ่าน COPY จริง: CSV จาก Excel (BOM, ค่าหลายบรรทัดใน "), skipInvalid และ email ที่มีอยู่แล้ว
+ * ต้องมี database เหมือน DoctoraliaApplicationTests
+ */
+@SpringBootTest
+class DoctorImportServiceIntegrationTests {
+
+    private static final String DOCTORS_HEADER =
+            "\uFEFF\"email\",\"password\",\"firstName\",\"lastName\",\"phone\",\"specialty\",\"licenseNumber\"," +
+            "\"experienceYears\",\"consultationFee\",\"roomNumber\",\"bio\"\r\n";
+    private static final String SCHEDULES_HEADER = "licenseNumber,dayOfWeek,startTime,endTime\r\n";
+
+    @Autowired
+    private DoctorImportService doctorImportService;
+
+    @Autowired
+    private SpecialtyRepository specialtyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Specialty specialty;
+    private String suffix;
+
+    @BeforeEach
+    void seedSpecialty() {
+        suffix = Long.toString(System.nanoTime(), 36);
+        specialty = specialtyRepository.save(new Specialty("Import " + suffix, null));
+    }
+
+    @AfterEach
+    void removeImported() {
+        // doctors และ availabilities ลบตาม users (ON DELETE CASCADE)
+        jdbcTemplate.update("DELETE FROM users WHERE email ILIKE ?", "imp-" + suffix + "-%");
+        specialtyRepository.delete(specialty);
+    }
+
+    @Test
+    void importsExcelCsvWithMultilineBio() throws IOException {
+        String doctors = DOCTORS_HEADER +
+                doctorRow(1, "\"Jaidee, Somchai\"", "\"Line one\r\nLine \"\"two\"\"\"") +
+                doctorRow(2, "Dao", "");
+        String schedules = SCHEDULES_HEADER +
+                license(1) + ",1,09:00,12:00\r\n" +
+                license(1) + ",1,13:00,17:00\r\n" +
+                license(2) + ",3,08:00,10:00\r\n";
+
+        DoctorImportResult result = doctorImportService.importDoctors(csv(doctors), csv(schedules), false, false);
+
+        assertTrue(result.isCommitted(), () -> String.valueOf(messages(result)));
+        assertEquals(2, result.getImportedDoctors());
+        assertEquals(3, result.getImportedAvailabilities());
+        assertEquals("Jaidee, Somchai", jdbcTemplate.queryForObject(
+                "SELECT first_name FROM users WHERE email = ?", String.class, email(1)));
+        assertEquals("Line one\r\nLine \"two\"", jdbcTemplate.queryForObject(
+                "SELECT bio FROM doctors WHERE license_number = ?", String.class, license(1)));
+        // bio ว่างเก็บเป็น NULL ไม่ใช่สตริงว่าง
+        assertEquals(null, jdbcTemplate.queryForObject(
+                "SELECT bio FROM doctors WHERE license_number = ?", String.class, license(2)));
+        assertEquals(2, importedAvailabilities(1));
+    }
+
+    @Test
+    void invalidRowRejectsWholeFileUnlessSkipped() throws IOException {
+        String doctors = DOCTORS_HEADER +
+                doctorRow(1, "Anan", "\"Two\nlines\"") +
+                doctorRow(2, "Boon", "").replace("\"" + specialty.getName() + "\"", "\"No such specialty\"") +
+                doctorRow(3, "Chai", "");
+        String schedules = SCHEDULES_HEADER +
+                license(2) + ",1,09:00,12:00\r\n" +
+                license(3) + ",2,09:00,12:00\r\n";
+
+        DoctorImportResult rejected = doctorImportService.importDoctors(csv(doctors), csv(schedules), false, false);
+
+        assertFalse(rejected.isCommitted());
+        assertEquals(0, importedDoctors());
+        // บรรทัดที่ 4 เพราะ bio ของแถวแรกกินไปสองบรรทัด
+        assertEquals(List.of("doctors:4:specialty", "schedules:2:licenseNumber"), locations(rejected));
+
+        DoctorImportResult skipped = doctorImportService.importDoctors(csv(doctors), csv(schedules), false, true);
+
+        assertTrue(skipped.isCommitted());
+        assertEquals(2, skipped.getImportedDoctors());
+        assertEquals(1, skipped.getImportedAvailabilities());
+        assertEquals(2, importedDoctors());
+        assertEquals(0, importedAvailabilities(2));
+        assertEquals(1, importedAvailabilities(3));
+    }
+
+    @Test
+    void existingEmailIsMatchedCaseInsensitively() throws IOException {
+        userRepository.save(new User(email(1).toUpperCase(), "password", "Taken", "Already", UserRole.PATIENT));
+        String doctors = DOCTORS_HEADER + doctorRow(1, "Anan", "") + doctorRow(2, "Boon", "");
+
+        DoctorImportResult rejected = doctorImportService.importDoctors(csv(doctors), null, false, false);
+        assertFalse(rejected.isCommitted());
+        assertEquals(List.of("doctors:2:email"), locations(rejected));
+
+        DoctorImportResult skipped = doctorImportService.importDoctors(csv(doctors), null, false, true);
+        assertTrue(skipped.isCommitted());
+        assertEquals(1, skipped.getImportedDoctors());
+        assertEquals(1, importedDoctors());
+    }
+
+    @Test
+    void dryRunWritesNothing() throws IOException {
+        String doctors = DOCTORS_HEADER + doctorRow(1, "Anan", "");
+
+        DoctorImportResult result = doctorImportService.importDoctors(csv(doctors), null, true, false);
+
+        assertTrue(result.isDryRun());
+        assertFalse(result.isCommitted());
+        assertEquals(0, result.getErrorCount());
+        assertEquals(0, importedDoctors());
+    }
+
+    private String doctorRow(int i, String firstName, String bio) {
+        return String.join(",", email(i), "secret" + i, firstName, "Import", "08100000" + i,
+                "\"" + specialty.getName() + "\"", license(i), "5", "750.50", "A" + i, bio) + "\r\n";
+    }
+
+    private String email(int i) {
+        return "imp-" + suffix + "-" + i + "@example.com";
+    }
+
+    private String license(int i) {
+        return "IMP-" + suffix + "-" + i;
+    }
+
+    private int importedDoctors() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM doctors WHERE license_number LIKE ?",
+                Integer.class, "IMP-" + suffix + "-%");
+    }
+
+    private int importedAvailabilities(int i) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM availabilities a JOIN doctors d ON d.id = a.doctor_id " +
+                "WHERE d.license_number = ?", Integer.class, license(i));
+    }
+
+    private static List<String> locations(DoctorImportResult result) {
+        return result.getErrors().stream()
+                .map(error -> error.getFile() + ":" + error.getLine() + ":" + error.getColumn())
+                .toList();
+    }
+
+    private static List<String> messages(DoctorImportResult result) {
+        return result.getErrors().stream().map(RowError::getMessage).toList();
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.DoctorDateLoad;
+import com.example.doctoralia.event.AppointmentChangedEvent;
+import com.example.doctoralia.model.AppointmentStatus;
+import com.example.doctoralia.repository.AppointmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorLoadTrackerTests {
+
+    private static final Long DOCTOR_ID = 7L;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @InjectMocks
+    private DoctorLoadTracker tracker;
+
+    private final LocalDate date = LocalDate.now().plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tracker, "horizonDays", 60);
+    }
+
+    @Test
+    void deltasAfterReconcileAreApplied() {
+        when(appointmentRepository.sumBookedMinutesByDoctorAndDay(any(), any()))
+                .thenReturn(List.of(load(60)));
+
+        tracker.reconcile();
+        tracker.onAppointmentChanged(booked(30));
+
+        assertEquals(90, tracker.getBookedMinutes(DOCTOR_ID, date));
+    }
+
+    @Test
+    void deltaArrivingDuringReconcileQueryIsNotLost() {
+        // นัดที่ commit หลัง query อ่านไปแล้ว แต่ event มาถึงก่อนสลับชุด counter
+        when(appointmentRepository.sumBookedMinutesByDoctorAndDay(any(), any())).thenAnswer(invocation -> {
+            tracker.onAppointmentChanged(booked(30));
+            return List.of(load(60));
+        });
+
+        tracker.reconcile();
+
+        assertEquals(90, tracker.getBookedMinutes(DOCTOR_ID, date));
+    }
+
+    @Test
+    void deltasOutsideHorizonAreIgnored() {
+        when(appointmentRepository.sumBookedMinutesByDoctorAndDay(any(), any())).thenReturn(List.of());
+
+        tracker.reconcile();
+        tracker.onAppointmentChanged(new AppointmentChangedEvent(1L, DOCTOR_ID,
+                LocalDate.now().plusDays(90).atTime(9, 0), 30, null, AppointmentStatus.PENDING));
+
+        assertEquals(0, tracker.getBookedMinutes(DOCTOR_ID, LocalDate.now().plusDays(90)));
+    }
+
+    private AppointmentChangedEvent booked(int minutes) {
+        return new AppointmentChangedEvent(1L, DOCTOR_ID, date.atTime(9, 0), minutes, null, AppointmentStatus.PENDING);
+    }
+
+    private DoctorDateLoad load(long minutes) {
+        return new DoctorDateLoad() {
+            @Override
+            public Long getDoctorId() { return DOCTOR_ID; }
+
+            @Override
+            public LocalDate getDay() { return date; }
+
+            @Override
+            public Long getBookedMinutes() { return minutes; }
+        };
+    }
+}
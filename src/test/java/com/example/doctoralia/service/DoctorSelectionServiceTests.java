@@ -0,0 +1,182 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.DoctorDayLoad;
+import com.example.doctoralia.dto.DoctorFeeView;
+import com.example.doctoralia.dto.DoctorSelectionResult;
+import com.example.doctoralia.dto.DoctorSelectionResult.Outcome;
+import com.example.doctoralia.model.Doctor;
+import com.example.doctoralia.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorSelectionServiceTests {
+
+    private static final String SPECIALTY = "Cardiology";
+    // วันจันทร์
+    private static final LocalDate DATE = LocalDate.of(2099, 3, 2);
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private OnDutyDoctorIndex onDutyDoctorIndex;
+
+    @Mock
+    private DoctorLoadTracker doctorLoadTracker;
+
+    @InjectMocks
+    private DoctorSelectionService doctorSelectionService;
+
+    @BeforeEach
+    void setUp() {
+        doctorSelectionService.setStrategies(List.of(
+                new LeastLoadedAssignmentStrategy(),
+                new FeeAwareAssignmentStrategy()));
+        ReflectionTestUtils.setField(doctorSelectionService, "defaultStrategy", LeastLoadedAssignmentStrategy.NAME);
+    }
+
+    @Test
+    void noDoctorsInSpecialty() {
+        when(doctorRepository.findAssignmentCandidatesBySpecialtyName(SPECIALTY)).thenReturn(List.of());
+        when(doctorRepository.countBySpecialtyName(SPECIALTY)).thenReturn(0L);
+
+        assertEquals(Outcome.NO_DOCTORS, doctorSelectionService.selectDoctor(SPECIALTY, DATE).getOutcome());
+    }
+
+    @Test
+    void onlyInactiveDoctorsInSpecialty() {
+        when(doctorRepository.findActiveIdsBySpecialtyName(SPECIALTY)).thenReturn(List.of());
+        when(doctorRepository.countBySpecialtyName(SPECIALTY)).thenReturn(3L);
+
+        DoctorSelectionResult result = doctorSelectionService.selectDoctor(SPECIALTY, null);
+
+        assertEquals(Outcome.NO_ACTIVE_DOCTORS, result.getOutcome());
+        assertNull(result.getDoctor());
+    }
+
+    @Test
+    void nobodyWorksOnThatDay() {
+        givenCandidates(fee(1L, 500), fee(2L, 500));
+        when(doctorLoadTracker.isTracked(DATE)).thenReturn(true);
+        when(onDutyDoctorIndex.getScheduledMinutes(anyLong(), anyInt())).thenReturn(0);
+
+        DoctorSelectionResult result = doctorSelectionService.selectDoctor(SPECIALTY, DATE);
+
+        assertEquals(Outcome.NO_AVAILABILITY_ON_DATE, result.getOutcome());
+        assertEquals(2, result.getTotalDoctorsInSpecialty());
+    }
+
+    @Test
+    void everyoneFullyBooked() {
+        givenCandidates(fee(1L, 500));
+        when(doctorLoadTracker.isTracked(DATE)).thenReturn(true);
+        when(onDutyDoctorIndex.getScheduledMinutes(1L, 1)).thenReturn(240);
+        when(doctorLoadTracker.getBookedMinutes(1L, DATE)).thenReturn(240);
+
+        assertEquals(Outcome.FULLY_BOOKED, doctorSelectionService.selectDoctor(SPECIALTY, DATE).getOutcome());
+        verify(doctorRepository, never()).findById(any());
+    }
+
+    @Test
+    void trackedDateUsesInMemoryScheduleAndLoad() {
+        givenCandidates(fee(1L, 500), fee(2L, 500), fee(3L, 500));
+        when(doctorLoadTracker.isTracked(DATE)).thenReturn(true);
+        when(onDutyDoctorIndex.getScheduledMinutes(1L, 1)).thenReturn(480);
+        when(onDutyDoctorIndex.getScheduledMinutes(2L, 1)).thenReturn(480);
+        when(onDutyDoctorIndex.getScheduledMinutes(3L, 1)).thenReturn(0);
+        when(doctorLoadTracker.getBookedMinutes(1L, DATE)).thenReturn(300);
+        when(doctorLoadTracker.getBookedMinutes(2L, DATE)).thenReturn(60);
+        Doctor doctor = new Doctor();
+        when(doctorRepository.findById(2L)).thenReturn(Optional.of(doctor));
+
+        DoctorSelectionResult result = doctorSelectionService.selectDoctor(SPECIALTY, DATE);
+
+        assertEquals(Outcome.SELECTED, result.getOutcome());
+        assertSame(doctor, result.getDoctor());
+        assertEquals(2, result.getTotalDoctorsInSpecialty());
+        assertEquals(420, result.getAvailableMinutes());
+        verify(doctorRepository, never()).findDayLoadsBySpecialtyName(any(), any(), any(), any());
+    }
+
+    @Test
+    void untrackedDateFallsBackToAggregateQuery() {
+        givenCandidates(fee(1L, 900), fee(2L, 400));
+        when(doctorLoadTracker.isTracked(DATE)).thenReturn(false);
+        when(doctorRepository.findDayLoadsBySpecialtyName(any(), any(), any(), any()))
+                .thenReturn(List.of(load(1L, 480, 0), load(2L, 480, 120)));
+        Doctor doctor = new Doctor();
+        when(doctorRepository.findById(2L)).thenReturn(Optional.of(doctor));
+
+        DoctorSelectionResult result = doctorSelectionService.selectDoctor(SPECIALTY, DATE, FeeAwareAssignmentStrategy.NAME);
+
+        assertSame(doctor, result.getDoctor());
+        assertEquals(360, result.getAvailableMinutes());
+        verify(doctorLoadTracker, never()).getBookedMinutes(any(), any());
+    }
+
+    @Test
+    void unknownStrategyIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> doctorSelectionService.selectDoctor(SPECIALTY, DATE, "round-robin"));
+        verify(doctorRepository, never()).findAssignmentCandidatesBySpecialtyName(any());
+    }
+
+    private void givenCandidates(DoctorFeeView... doctors) {
+        when(doctorRepository.findAssignmentCandidatesBySpecialtyName(SPECIALTY)).thenReturn(List.of(doctors));
+    }
+
+    private static DoctorFeeView fee(Long id, int consultationFee) {
+        return new DoctorFeeView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public BigDecimal getConsultationFee() {
+                return BigDecimal.valueOf(consultationFee);
+            }
+        };
+    }
+
+    private static DoctorDayLoad load(Long doctorId, int scheduledMinutes, int bookedMinutes) {
+        return new DoctorDayLoad() {
+            @Override
+            public Long getDoctorId() {
+                return doctorId;
+            }
+
+            @Override
+            public Integer getScheduledMinutes() {
+                return scheduledMinutes;
+            }
+
+            @Override
+            public Integer getBookedMinutes() {
+                return bookedMinutes;
+            }
+        };
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.doctoralia.service;
+
+import com.example.doctoralia.dto.CreateReviewRequest;
+import com.example.doctoralia.dto.UpdateReviewRequest;
+import com.example.doctoralia.model.Doctor;
+import com.example.doctoralia.model.Review;
+import com.example.doctoralia.model.Specialty;
+import com.example.doctoralia.model.User;
+import com.example.doctoralia.model.UserRole;
+import com.example.doctoralia.repository.DoctorRepository;
+import com.example.doctoralia.repository.SpecialtyRepository;
+import com.example.doctoralia.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * doctor_rating_summary ที่ปรับแบบ incremental (applyDelta) ต้องตรงกับการ aggregate จากตาราง reviews เสมอ
+ * ทั้งตอนเพิ่ม/แก้/ลบ และตอนมีหลาย request พร้อมกัน
+ * ต้องมี database เหมือน DoctoraliaApplicationTests
+ */
+@SpringBootTest
+class ReviewServiceIntegrationTests {
+
+    private static final String SUMMARY_QUERY =
+            "SELECT review_count, rating_sum, one_star_count, two_star_count, three_star_count, " +
+            "four_star_count, five_star_count FROM doctor_rating_summary WHERE doctor_id = ?";
+
+    private static final String AGGREGATE_QUERY =
+            "SELECT COUNT(*), COALESCE(SUM(rating), 0), " +
+            "COUNT(*) FILTER (WHERE rating = 1), COUNT(*) FILTER (WHERE rating = 2), " +
+            "COUNT(*) FILTER (WHERE rating = 3), COUNT(*) FILTER (WHERE rating = 4), " +
+            "COUNT(*) FILTER (WHERE rating = 5) FROM reviews WHERE doctor_id = ?";
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SpecialtyRepository specialtyRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<User> patients = new ArrayList<>();
+    private Specialty specialty;
+    private Doctor doctor;
+    private String suffix;
+
+    @BeforeEach
+    void seedDoctor() {
+        suffix = Long.toString(System.nanoTime(), 36);
+        specialty = specialtyRepository.save(new Specialty("Review summary " + suffix, null));
+        User user = userRepository.save(new User("rs-" + suffix + "@example.com", "password",
+                "Rs" + suffix, "Doctor", UserRole.DOCTOR));
+        doctor = doctorRepository.save(new Doctor(user, specialty, "RS-" + suffix));
+    }
+
+    @AfterEach
+    void removeDoctor() {
+        // reviews และ doctor_rating_summary ลบตามด้วย ON DELETE CASCADE
+        doctorRepository.delete(doctor);
+        userRepository.delete(doctor.getUser());
+        userRepository.deleteAll(patients);
+        specialtyRepository.delete(specialty);
+        patients.clear();
+    }
+
+    @Test
+    void summaryFollowsCreateUpdateAndDelete() {
+        Review five = reviewService.createReview(patient().getId(), request(5));
+        Review three = reviewService.createReview(patient().getId(), request(3));
+        reviewService.createReview(patient().getId(), request(4));
+        assertEquals(List.of(3L, 12L, 0L, 0L, 1L, 1L, 1L), summary());
+        assertSummaryMatchesReviews();
+
+        UpdateReviewRequest update = new UpdateReviewRequest();
+        update.setRating(1);
+        reviewService.updateReview(three.getId(), three.getPatient().getId(), update);
+        assertEquals(List.of(3L, 10L, 1L, 0L, 0L, 1L, 1L), summary());
+
+        // แก้แค่ comment ไม่เปลี่ยนตัวเลข
+        UpdateReviewRequest comment = new UpdateReviewRequest();
+        comment.setComment("Still good");
+        reviewService.updateReview(five.getId(), five.getPatient().getId(), comment);
+        assertEquals(List.of(3L, 10L, 1L, 0L, 0L, 1L, 1L), summary());
+
+        reviewService.deleteReview(five.getId(), five.getPatient().getId(), false);
+        assertEquals(List.of(2L, 5L, 1L, 0L, 0L, 1L, 0L), summary());
+        assertSummaryMatchesReviews();
+    }
+
+    @Test
+    void rejectedReviewLeavesSummaryUntouched() {
+        User patient = patient();
+        reviewService.createReview(patient.getId(), request(4));
+
+        assertThrows(IllegalArgumentException.class, () -> reviewService.createReview(patient.getId(), request(1)));
+        assertThrows(IllegalArgumentException.class, () -> reviewService.createReview(patient().getId(), request(6)));
+
+        assertEquals(List.of(1L, 4L, 0L, 0L, 0L, 1L, 0L), summary());
+        assertSummaryMatchesReviews();
+    }
+
+    @Test
+    void concurrentReviewsAreAllCounted() throws Exception {
+        int writers = 8;
+        List<Long> patientIds = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            patientIds.add(patient().getId());
+        }
+
+        List<Callable<Review>> tasks = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            Long patientId = patientIds.get(i);
+            int rating = i % 5 + 1;
+            tasks.add(() -> reviewService.createReview(patientId, request(rating)));
+        }
+        for (Future<Review> result : runTogether(tasks)) {
+            result.get();
+        }
+
+        assertEquals(List.of(8L, 1L + 2 + 3 + 4 + 5 + 1 + 2 + 3, 2L, 2L, 2L, 1L, 1L), summary());
+        assertSummaryMatchesReviews();
+    }
+
+    @Test
+    void concurrentDuplicateReviewIsCountedOnce() throws Exception {
+        Long patientId = patient().getId();
+        List<Callable<Review>> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(() -> reviewService.createReview(patientId, request(5)));
+        }
+
+        int created = 0;
+        for (Future<Review> result : runTogether(tasks)) {
+            try {
+                result.get();
+                created++;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalArgumentException, e.getCause().toString());
+            }
+        }
+
+        assertEquals(1, created);
+        assertEquals(List.of(1L, 5L, 0L, 0L, 0L, 0L, 1L), summary());
+        assertSummaryMatchesReviews();
+    }
+
+    private <T> List<Future<T>> runTogether(List<Callable<T>> tasks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> results = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            return results;
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+    }
+
+    private void assertSummaryMatchesReviews() {
+        List<Long> aggregate = jdbcTemplate.queryForObject(AGGREGATE_QUERY, (rs, row) -> {
+            List<Long> values = new ArrayList<>();
+            for (int i = 1; i <= 7; i++) {
+                values.add(rs.getLong(i));
+            }
+            return values;
+        }, doctor.getId());
+        assertEquals(aggregate, summary());
+    }
+
+    private List<Long> summary() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(SUMMARY_QUERY, doctor.getId());
+        if (rows.isEmpty()) {
+            return List.of(0L, 0L, 0L, 0L, 0L, 0L, 0L);
+        }
+        return rows.get(0).values().stream().map(value -> ((Number) value).longValue()).toList();
+    }
+
+    private User patient() {
+        User patient = userRepository.save(new User("rs-" + suffix + "-p" + patients.size() + "@example.com",
+                "password", "Patient" + patients.size(), "Review", UserRole.PATIENT));
+        patients.add(patient);
+        return patient;
+    }
+
+    private CreateReviewRequest request(int rating) {
+        CreateReviewRequest request = new CreateReviewRequest();
+        request.setDoctorId(doctor.getId());
+        request.setRating(rating);
+        return request;
+    }
+}